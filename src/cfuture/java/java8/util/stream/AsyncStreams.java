@@ -0,0 +1,350 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java8.util.Objects;
+import java8.util.Optional;
+import java8.util.concurrent.CompletableFuture;
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Consumer;
+import java8.util.function.DoubleBinaryOperator;
+import java8.util.function.DoubleConsumer;
+import java8.util.function.IntBinaryOperator;
+import java8.util.function.IntConsumer;
+import java8.util.function.LongBinaryOperator;
+import java8.util.function.LongConsumer;
+import java8.util.function.Supplier;
+
+/**
+ * Terminal operations that evaluate a stream asynchronously and return a
+ * {@link CompletableFuture} of the result instead of blocking the calling
+ * thread until the evaluation is done.
+ *
+ * <p>The evaluation is submitted as a single task to the pool the stream
+ * has been bound to with {@link StreamSupport#parallelStream(java.util.Collection,
+ * ForkJoinPool) StreamSupport.parallelStream(..., pool)} or a similar
+ * method, otherwise to the {@link ForkJoinPool#commonPool() common pool}.
+ * A parallel evaluation then forks its subtasks from a worker thread of
+ * that pool, and the worker keeps executing subtasks until the evaluation
+ * is complete, rather than an outside thread blocking while it waits for
+ * the workers.  A sequential stream is evaluated in a single worker thread.
+ *
+ * <p>The returned future completes with the result of the terminal
+ * operation, or exceptionally with the exception it threw.  Cancelling the
+ * future completes it but doesn't stop the evaluation.  An evaluation that
+ * is to be stoppable needs a {@link CancellationToken}, bound to the stream
+ * with {@link StreamSupport#withCancellation(BaseStream, CancellationToken)}
+ * before the stream is passed in, which is cancelled together with the
+ * future:
+ *
+ * <pre>{@code
+ *     CancellationToken token = CancellationToken.create();
+ *     CompletableFuture<List<T>> future = AsyncStreams.collectAsync(
+ *             StreamSupport.withCancellation(stream, token), Collectors.toList());
+ *     ...
+ *     future.cancel(false);
+ *     token.cancel();
+ * }</pre>
+ *
+ * <p>As with any terminal operation the stream is consumed by the call and
+ * must not be used afterwards.  In contrast to the blocking terminal
+ * operations, a stream that has already been consumed isn't detected until
+ * the evaluation starts, and the returned future completes exceptionally
+ * with an {@code IllegalStateException}.
+ *
+ * <p>This class is not part of the Java SE API.
+ */
+public final class AsyncStreams {
+
+    private AsyncStreams() {
+    }
+
+    /**
+     * Asynchronously performs a mutable reduction operation on the elements
+     * of the given stream using a {@code Collector}.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the result
+     * @param <A> the intermediate accumulation type of the {@code Collector}
+     * @param stream the stream to evaluate
+     * @param collector the {@code Collector} describing the reduction
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if {@code stream} or {@code collector} is
+     *         null
+     * @see Stream#collect(Collector)
+     */
+    public static <T, R, A> CompletableFuture<R> collectAsync(final Stream<T> stream,
+                                                              final Collector<? super T, A, R> collector) {
+        Objects.requireNonNull(collector);
+        return evaluateAsync(stream, new Supplier<R>() {
+            @Override
+            public R get() {
+                return stream.collect(collector);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a mutable reduction operation on the elements
+     * of the given stream.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the mutable result container
+     * @param stream the stream to evaluate
+     * @param supplier a function that creates a new mutable result container
+     * @param accumulator an associative, non-interfering, stateless function
+     *        that folds an element into a result container
+     * @param combiner an associative, non-interfering, stateless function
+     *        that accepts two partial result containers and merges them
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if any argument is null
+     * @see Stream#collect(Supplier, BiConsumer, BiConsumer)
+     */
+    public static <T, R> CompletableFuture<R> collectAsync(final Stream<T> stream,
+                                                           final Supplier<R> supplier,
+                                                           final BiConsumer<R, ? super T> accumulator,
+                                                           final BiConsumer<R, R> combiner) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        return evaluateAsync(stream, new Supplier<R>() {
+            @Override
+            public R get() {
+                return stream.collect(supplier, accumulator, combiner);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a reduction on the elements of the given
+     * stream, using the provided identity value and an associative
+     * accumulation function.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to evaluate
+     * @param identity the identity value for the accumulating function
+     * @param accumulator an associative, non-interfering, stateless function
+     *        for combining two values
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if {@code stream} or {@code accumulator}
+     *         is null
+     * @see Stream#reduce(Object, BinaryOperator)
+     */
+    public static <T> CompletableFuture<T> reduceAsync(final Stream<T> stream, final T identity,
+                                                       final BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        return evaluateAsync(stream, new Supplier<T>() {
+            @Override
+            public T get() {
+                return stream.reduce(identity, accumulator);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a reduction on the elements of the given
+     * stream, using an associative accumulation function.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to evaluate
+     * @param accumulator an associative, non-interfering, stateless function
+     *        for combining two values
+     * @return a future of an {@link Optional} describing the result of the
+     *         reduction
+     * @throws NullPointerException if {@code stream} or {@code accumulator}
+     *         is null; the future completes exceptionally with a
+     *         {@code NullPointerException} if the result of the reduction
+     *         is null
+     * @see Stream#reduce(BinaryOperator)
+     */
+    public static <T> CompletableFuture<Optional<T>> reduceAsync(final Stream<T> stream,
+                                                                 final BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        return evaluateAsync(stream, new Supplier<Optional<T>>() {
+            @Override
+            public Optional<T> get() {
+                return stream.reduce(accumulator);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs an action for each element of the given
+     * stream.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to evaluate
+     * @param action a non-interfering action to perform on the elements
+     * @return a future that completes when the action has been performed
+     *         for all elements
+     * @throws NullPointerException if {@code stream} or {@code action} is
+     *         null
+     * @see Stream#forEach(Consumer)
+     */
+    public static <T> CompletableFuture<Void> forEachAsync(final Stream<T> stream,
+                                                           final Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        return evaluateAsync(stream, new Supplier<Void>() {
+            @Override
+            public Void get() {
+                stream.forEach(action);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a reduction on the elements of the given
+     * stream, using the provided identity value and an associative
+     * accumulation function.
+     *
+     * @param stream the stream to evaluate
+     * @param identity the identity value for the accumulating function
+     * @param op an associative, non-interfering, stateless function for
+     *        combining two values
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if {@code stream} or {@code op} is null
+     * @see IntStream#reduce(int, IntBinaryOperator)
+     */
+    public static CompletableFuture<Integer> reduceAsync(final IntStream stream, final int identity,
+                                                         final IntBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return evaluateAsync(stream, new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return stream.reduce(identity, op);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs an action for each element of the given
+     * stream.
+     *
+     * @param stream the stream to evaluate
+     * @param action a non-interfering action to perform on the elements
+     * @return a future that completes when the action has been performed
+     *         for all elements
+     * @throws NullPointerException if {@code stream} or {@code action} is
+     *         null
+     * @see IntStream#forEach(IntConsumer)
+     */
+    public static CompletableFuture<Void> forEachAsync(final IntStream stream, final IntConsumer action) {
+        Objects.requireNonNull(action);
+        return evaluateAsync(stream, new Supplier<Void>() {
+            @Override
+            public Void get() {
+                stream.forEach(action);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a reduction on the elements of the given
+     * stream, using the provided identity value and an associative
+     * accumulation function.
+     *
+     * @param stream the stream to evaluate
+     * @param identity the identity value for the accumulating function
+     * @param op an associative, non-interfering, stateless function for
+     *        combining two values
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if {@code stream} or {@code op} is null
+     * @see LongStream#reduce(long, LongBinaryOperator)
+     */
+    public static CompletableFuture<Long> reduceAsync(final LongStream stream, final long identity,
+                                                      final LongBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return evaluateAsync(stream, new Supplier<Long>() {
+            @Override
+            public Long get() {
+                return stream.reduce(identity, op);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs an action for each element of the given
+     * stream.
+     *
+     * @param stream the stream to evaluate
+     * @param action a non-interfering action to perform on the elements
+     * @return a future that completes when the action has been performed
+     *         for all elements
+     * @throws NullPointerException if {@code stream} or {@code action} is
+     *         null
+     * @see LongStream#forEach(LongConsumer)
+     */
+    public static CompletableFuture<Void> forEachAsync(final LongStream stream, final LongConsumer action) {
+        Objects.requireNonNull(action);
+        return evaluateAsync(stream, new Supplier<Void>() {
+            @Override
+            public Void get() {
+                stream.forEach(action);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs a reduction on the elements of the given
+     * stream, using the provided identity value and an associative
+     * accumulation function.
+     *
+     * @param stream the stream to evaluate
+     * @param identity the identity value for the accumulating function
+     * @param op an associative, non-interfering, stateless function for
+     *        combining two values
+     * @return a future of the result of the reduction
+     * @throws NullPointerException if {@code stream} or {@code op} is null
+     * @see DoubleStream#reduce(double, DoubleBinaryOperator)
+     */
+    public static CompletableFuture<Double> reduceAsync(final DoubleStream stream, final double identity,
+                                                        final DoubleBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return evaluateAsync(stream, new Supplier<Double>() {
+            @Override
+            public Double get() {
+                return stream.reduce(identity, op);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously performs an action for each element of the given
+     * stream.
+     *
+     * @param stream the stream to evaluate
+     * @param action a non-interfering action to perform on the elements
+     * @return a future that completes when the action has been performed
+     *         for all elements
+     * @throws NullPointerException if {@code stream} or {@code action} is
+     *         null
+     * @see DoubleStream#forEach(DoubleConsumer)
+     */
+    public static CompletableFuture<Void> forEachAsync(final DoubleStream stream, final DoubleConsumer action) {
+        Objects.requireNonNull(action);
+        return evaluateAsync(stream, new Supplier<Void>() {
+            @Override
+            public Void get() {
+                stream.forEach(action);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Submits the evaluation of a terminal operation to the pool the stream
+     * is bound to, or to the common pool.
+     */
+    private static <R> CompletableFuture<R> evaluateAsync(BaseStream<?, ?> stream, Supplier<R> evaluation) {
+        ForkJoinPool pool = StreamSupport.boundPool(stream);
+        return CompletableFuture.supplyAsync(evaluation, (pool != null) ? pool : ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+/**
+ * Provides the I/O related classes that were added in Java 8.
+ *
+ * @since 1.8
+ */
+package java8.io;
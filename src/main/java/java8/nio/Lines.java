@@ -0,0 +1,206 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.nio;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import java8.io.UncheckedIOException;
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+import java8.util.stream.Stream;
+import java8.util.stream.StreamSupport;
+
+/**
+ * Static methods that return the lines of a file as a {@link Stream},
+ * a replacement for {@code java.nio.file.Files.lines} on platforms that
+ * don't have it.
+ *
+ * <p>For the UTF-8, ISO-8859-1 and US-ASCII charsets, the streams are backed
+ * by a {@code Spliterator} that splits the file by byte ranges, moving each
+ * split point to the start of the next line, and maps the file into memory
+ * for the traversal.  Their parallel evaluation reads and decodes the parts
+ * of the file on as many threads as there are worker threads, where a stream
+ * of the lines of a {@code BufferedReader} is read by a single thread.  The
+ * lines are decoded like by {@link String#String(byte[], int, int, Charset)},
+ * so malformed input is replaced rather than reported.  For other charsets,
+ * the lines are read with a {@code BufferedReader}, and the stream has no
+ * parallelism to offer.
+ *
+ * <p>A line is considered to be terminated by any one of a line feed
+ * ({@code '\n'}), a carriage return ({@code '\r'}), or a carriage return
+ * followed immediately by a line feed, as with
+ * {@link BufferedReader#readLine()}.
+ *
+ * <p>If an {@code IOException} is thrown when the file is read during the
+ * terminal operation, it is wrapped in an {@link UncheckedIOException} which
+ * is thrown from the method that caused the read to take place.
+ *
+ * <p>This class is not part of the Java SE API.
+ */
+public final class Lines {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    /**
+     * Returns the lines of the given file, decoded with the UTF-8 charset,
+     * as a sequential {@code Stream}.  The file is opened by this method and
+     * closed when the stream is {@link Stream#close() closed}.
+     *
+     * @param file the file
+     * @return the lines of the file as a {@code Stream}
+     * @throws IOException if an I/O error occurs opening the file
+     * @throws NullPointerException if the file is null
+     */
+    public static Stream<String> of(File file) throws IOException {
+        return of(file, UTF_8);
+    }
+
+    /**
+     * Returns the lines of the given file, decoded with the given charset,
+     * as a sequential {@code Stream}.  The file is opened by this method and
+     * closed when the stream is {@link Stream#close() closed}.
+     *
+     * <p><b>API Note:</b><br>
+     * The stream must be closed in a {@code finally} block or similar
+     * control structure to ensure that the file is closed promptly after
+     * the stream's operations have completed.
+     *
+     * @param file the file
+     * @param cs the charset to use for decoding
+     * @return the lines of the file as a {@code Stream}
+     * @throws IOException if an I/O error occurs opening the file
+     * @throws NullPointerException if any argument is null
+     */
+    public static Stream<String> of(File file, Charset cs) throws IOException {
+        Objects.requireNonNull(cs);
+        final FileChannel fc = new RandomAccessFile(file, "r").getChannel();
+        boolean done = false;
+        try {
+            Stream<String> lines = of(fc, cs).onClose(() -> {
+                try {
+                    fc.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            done = true;
+            return lines;
+        } finally {
+            if (!done) {
+                try {
+                    fc.close();
+                } catch (IOException ignore) {
+                    // the original exception is more interesting
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the lines of the given channel, from its current position to
+     * its current size, decoded with the UTF-8 charset, as a sequential
+     * {@code Stream}.  The position of the channel is not changed, and
+     * closing the stream doesn't close the channel.
+     *
+     * @param channel the channel of the file
+     * @return the lines of the file as a {@code Stream}
+     * @throws IOException if an I/O error occurs querying the channel
+     * @throws NullPointerException if the channel is null
+     */
+    public static Stream<String> of(FileChannel channel) throws IOException {
+        return of(channel, UTF_8);
+    }
+
+    /**
+     * Returns the lines of the given channel, from its current position to
+     * its current size, decoded with the given charset, as a sequential
+     * {@code Stream}.  Closing the stream doesn't close the channel.  For
+     * the UTF-8, ISO-8859-1 and US-ASCII charsets, the position of the
+     * channel is not changed; for other charsets, the lines are read from
+     * the channel's position, which is advanced as they are read.
+     *
+     * @param channel the channel of the file
+     * @param cs the charset to use for decoding
+     * @return the lines of the file as a {@code Stream}
+     * @throws IOException if an I/O error occurs querying the channel
+     * @throws NullPointerException if any argument is null
+     */
+    public static Stream<String> of(FileChannel channel, Charset cs) throws IOException {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(cs);
+        if (isSplittable(cs)) {
+            long start = channel.position();
+            long end = Math.max(start, channel.size());
+            return StreamSupport.stream(new LinesSpliterator(channel, cs, start, end,
+                    LinesSpliterator.WINDOW), false);
+        }
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel, cs.newDecoder(), -1));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new LineIterator(reader),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns whether the line terminators of the charset can be found by
+     * looking at single bytes.
+     */
+    static boolean isSplittable(Charset cs) {
+        return UTF_8.equals(cs) || ISO_8859_1.equals(cs) || US_ASCII.equals(cs);
+    }
+
+    /**
+     * The iterator over the lines of a {@code BufferedReader}, as in
+     * {@code BufferedReader.lines()}.
+     */
+    static final class LineIterator implements Iterator<String> {
+        private final BufferedReader reader;
+        private String nextLine;
+
+        LineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextLine != null) {
+                return true;
+            }
+            try {
+                nextLine = reader.readLine();
+                return nextLine != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String next() {
+            if (nextLine != null || hasNext()) {
+                String line = nextLine;
+                nextLine = null;
+                return line;
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    private Lines() {
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Comparator;
+
+import java8.io.UncheckedIOException;
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+import java8.util.function.Consumer;
+
+/**
+ * A spliterator over the lines of a byte range of a file, for charsets in
+ * which the line terminators {@code '\n'} and {@code '\r'} are single bytes
+ * that never occur within the encoding of another character.
+ *
+ * <p>Splitting halves the byte range and moves the split point forward to
+ * the start of the next line, reading only the bytes between the midpoint
+ * and the next line terminator, so that no line straddles two spliterators.
+ * Traversal maps the range into memory window by window and decodes each
+ * line directly from the mapped bytes.  A spliterator can only be split
+ * before its traversal has started.
+ */
+final class LinesSpliterator implements Spliterator<String> {
+    // Lines are searched for in windows of this many bytes, unless a single
+    // line is longer
+    static final int WINDOW = 1 << 25;
+    // The bytes read at a time when looking for a split point
+    private static final int SCAN_BUFFER = 8192;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private final int window;
+    // The file position of the next line
+    private long index;
+    private final long fence;
+
+    // The mapped window, null until the traversal starts
+    private ByteBuffer buffer;
+    // The file position of the first byte of the window
+    private long bufferStart;
+    private byte[] bytes;
+
+    LinesSpliterator(FileChannel fc, Charset cs, long index, long fence, int window) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+        this.window = window;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        Objects.requireNonNull(action);
+        String line = readLine();
+        if (line == null) {
+            return false;
+        }
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        Objects.requireNonNull(action);
+        for (String line; (line = readLine()) != null; ) {
+            action.accept(line);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (buffer != null) {
+            return null;
+        }
+        long lo = index, mid = (lo + fence) >>> 1;
+        if (mid <= lo) {
+            return null;
+        }
+        long split = nextLineStart(mid);
+        if (split < 0 || split >= fence) {
+            return null;
+        }
+        index = split;
+        return new LinesSpliterator(fc, cs, lo, split, window);
+    }
+
+    @Override
+    public long estimateSize() {
+        // The number of remaining bytes, an upper bound on the lines
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return Spliterators.getExactSizeIfKnown(this);
+    }
+
+    @Override
+    public boolean hasCharacteristics(int characteristics) {
+        return Spliterators.hasCharacteristics(this, characteristics);
+    }
+
+    @Override
+    public Comparator<? super String> getComparator() {
+        return Spliterators.getComparator(this);
+    }
+
+    /**
+     * Returns the position just past the first line terminator at or after
+     * the given position, or -1 if there is none before the fence.
+     */
+    private long nextLineStart(long from) {
+        ByteBuffer bb = ByteBuffer.allocate(SCAN_BUFFER);
+        boolean cr = false;
+        for (long pos = from; pos < fence; ) {
+            bb.clear();
+            bb.limit((int) Math.min(SCAN_BUFFER, fence - pos));
+            int n = read(bb, pos);
+            if (n <= 0) {
+                // the file got shorter
+                return -1;
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = bb.get(i);
+                if (cr) {
+                    return (b == '\n') ? pos + i + 1 : pos + i;
+                }
+                if (b == '\n') {
+                    return pos + i + 1;
+                }
+                cr = (b == '\r');
+            }
+            pos += n;
+        }
+        return cr ? fence : -1;
+    }
+
+    private int read(ByteBuffer bb, long position) {
+        try {
+            return fc.read(bb, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(long start, int size) {
+        try {
+            buffer = fc.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(size, fence - start));
+            bufferStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the next line, without its terminator, or null if there are
+     * no more lines.
+     */
+    private String readLine() {
+        if (index >= fence) {
+            return null;
+        }
+        int size = window;
+        if (buffer == null) {
+            map(index, size);
+        }
+        for (;;) {
+            ByteBuffer buf = buffer;
+            int from = (int) (index - bufferStart);
+            int limit = buf.limit();
+            boolean atEnd = bufferStart + limit >= fence;
+            for (int i = from; i < limit; i++) {
+                byte b = buf.get(i);
+                if (b == '\n' || b == '\r') {
+                    int next = i + 1;
+                    if (b == '\r') {
+                        if (next == limit && !atEnd) {
+                            // need to look past the window for a '\n'
+                            break;
+                        }
+                        if (next < limit && buf.get(next) == '\n') {
+                            next++;
+                        }
+                    }
+                    String line = decode(buf, from, i);
+                    index = bufferStart + next;
+                    return line;
+                }
+            }
+            if (atEnd) {
+                // the last line has no terminator
+                String line = decode(buf, from, limit);
+                index = fence;
+                return line;
+            }
+            // the line continues past the window
+            if (from == 0) {
+                if (size == Integer.MAX_VALUE) {
+                    throw new OutOfMemoryError("Required line length exceeds limit");
+                }
+                size = (int) Math.min(2L * size, Integer.MAX_VALUE);
+            }
+            map(index, size);
+        }
+    }
+
+    private String decode(ByteBuffer buf, int from, int to) {
+        int n = to - from;
+        byte[] b = bytes;
+        if (b == null || b.length < n) {
+            bytes = b = new byte[Math.max(n, 128)];
+        }
+        buf.position(from);
+        buf.get(b, 0, n);
+        return new String(b, 0, n, cs);
+    }
+}
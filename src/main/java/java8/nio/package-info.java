@@ -0,0 +1,12 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+/**
+ * Provides stream sources over files and buffers.
+ *
+ * <p>The classes of this package are not part of the Java SE API.
+ */
+package java8.nio;
@@ -36,7 +36,7 @@ import java8.util.function.Consumer;
 /**
  * Index-based split-by-two, lazily initialized Spliterator for ArrayLists.
  */
-final class ArrayListSpliterator<E> implements Spliterator<E> {
+final class ArrayListSpliterator<E> implements Spliterator<E>, ChunkSpliterator<Object[]> {
 // CVS rev. 1.54
     /*
      * If ArrayLists were immutable, or structurally immutable (no
@@ -149,6 +149,32 @@ final class ArrayListSpliterator<E> implements Spliterator<E> {
         throw new ConcurrentModificationException();
     }
 
+    @Override
+    public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super Object[]> action) {
+        Objects.requireNonNull(action);
+        int i, hi, mc; // same checks as in forEachRemaining
+        Object[] a;
+        ArrayList<E> lst = list;
+        if ((a = getData(lst)) != null) {
+            if ((hi = fence) < 0) {
+                mc = getModCount(lst);
+                hi = getSize(lst);
+            }
+            else {
+                mc = expectedModCount;
+            }
+            if ((i = index) >= 0 && (index = hi) <= a.length) {
+                if (i < hi) {
+                    action.accept(a, i, hi);
+                }
+                if (mc == getModCount(lst)) {
+                    return;
+                }
+            }
+        }
+        throw new ConcurrentModificationException();
+    }
+
     @Override
     public long estimateSize() {
         return getFence() - index;
@@ -0,0 +1,56 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util;
+
+/**
+ * An optional capability of a {@link Spliterator} whose elements are held in
+ * arrays: the remaining elements can be traversed in bulk, as slices of the
+ * backing arrays, rather than one element per callback.
+ *
+ * <p>A consumer of the slices, such as a stream {@code Sink} that buffers its
+ * input, can then copy each slice with {@link System#arraycopy} instead of
+ * storing the elements one by one.  For a {@code Spliterator<T>} the array
+ * type {@code A} is {@code Object[]}, for a {@code Spliterator.OfInt},
+ * {@code Spliterator.OfLong} and {@code Spliterator.OfDouble} it is
+ * {@code int[]}, {@code long[]} and {@code double[]} respectively.
+ *
+ * <p>This interface is not part of the Java SE API.
+ *
+ * @param <A> the type of the backing arrays
+ */
+public interface ChunkSpliterator<A> {
+
+    /**
+     * Performs the given action for each remaining slice of the backing
+     * arrays, in encounter order, until all remaining elements have been
+     * passed to the action or the action throws an exception.  Has the same
+     * effect as passing each remaining element to {@code forEachRemaining}.
+     *
+     * <p>The action must neither modify the array it is passed nor retain a
+     * reference to it once it has returned.
+     *
+     * @param action the action
+     * @throws NullPointerException if the specified action is null
+     */
+    void forEachChunk(ChunkConsumer<? super A> action);
+
+    /**
+     * An operation that accepts a slice of an array.
+     *
+     * @param <A> the type of the array
+     */
+    public interface ChunkConsumer<A> {
+        /**
+         * Performs this operation on the elements of the given array from
+         * index {@code from}, inclusive, to index {@code to}, exclusive.
+         *
+         * @param array the array, which must not be modified
+         * @param from the index of the first element of the slice
+         * @param to the index following the last element of the slice
+         */
+        void accept(A array, int from, int to);
+    }
+}
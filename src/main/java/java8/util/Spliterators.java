@@ -25,6 +25,10 @@
 package java8.util;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.AbstractList;
@@ -849,6 +853,120 @@ public final class Spliterators {
         }
     }
 
+    // Buffer-based spliterators
+
+    /**
+     * Creates a {@code Spliterator.OfInt} covering the remaining elements of
+     * the given buffer, those between its position and its limit at the time
+     * of this call.
+     *
+     * <p>The spliterator reads the elements with absolute {@code get}
+     * operations, so the position and limit of the buffer are not changed
+     * and the buffer need not be duplicated.  This makes it suitable for
+     * direct and memory-mapped buffers, which can be streamed in place,
+     * without copying them into an array first.  If the buffer is backed by
+     * an accessible array, the spliterator traverses the array directly.
+     *
+     * <p>The returned spliterator reports the characteristics
+     * {@code SIZED}, {@code SUBSIZED} and {@code ORDERED}.  It splits in
+     * halves, like an array spliterator.  The buffer contents are assumed to
+     * be unmodified during use.
+     *
+     * @param buffer The buffer
+     * @return A spliterator for the remaining elements of the buffer
+     * @throws NullPointerException if the given buffer is {@code null}
+     */
+    public static Spliterator.OfInt spliterator(IntBuffer buffer) {
+        int lo = buffer.position(), hi = buffer.limit();
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return new IntArraySpliterator(buffer.array(), offset + lo, offset + hi, Spliterator.ORDERED);
+        }
+        return new IntBufferSpliterator(buffer, lo, hi);
+    }
+
+    /**
+     * Creates a {@code Spliterator.OfLong} covering the remaining elements of
+     * the given buffer, those between its position and its limit at the time
+     * of this call.
+     *
+     * <p>The spliterator reads the elements with absolute {@code get}
+     * operations, so the position and limit of the buffer are not changed
+     * and the buffer need not be duplicated.  If the buffer is backed by an
+     * accessible array, the spliterator traverses the array directly.
+     *
+     * <p>The returned spliterator reports the characteristics
+     * {@code SIZED}, {@code SUBSIZED} and {@code ORDERED}.  The buffer
+     * contents are assumed to be unmodified during use.
+     *
+     * @param buffer The buffer
+     * @return A spliterator for the remaining elements of the buffer
+     * @throws NullPointerException if the given buffer is {@code null}
+     * @see #spliterator(IntBuffer)
+     */
+    public static Spliterator.OfLong spliterator(LongBuffer buffer) {
+        int lo = buffer.position(), hi = buffer.limit();
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return new LongArraySpliterator(buffer.array(), offset + lo, offset + hi, Spliterator.ORDERED);
+        }
+        return new LongBufferSpliterator(buffer, lo, hi);
+    }
+
+    /**
+     * Creates a {@code Spliterator.OfDouble} covering the remaining elements
+     * of the given buffer, those between its position and its limit at the
+     * time of this call.
+     *
+     * <p>The spliterator reads the elements with absolute {@code get}
+     * operations, so the position and limit of the buffer are not changed
+     * and the buffer need not be duplicated.  If the buffer is backed by an
+     * accessible array, the spliterator traverses the array directly.
+     *
+     * <p>The returned spliterator reports the characteristics
+     * {@code SIZED}, {@code SUBSIZED} and {@code ORDERED}.  The buffer
+     * contents are assumed to be unmodified during use.
+     *
+     * @param buffer The buffer
+     * @return A spliterator for the remaining elements of the buffer
+     * @throws NullPointerException if the given buffer is {@code null}
+     * @see #spliterator(IntBuffer)
+     */
+    public static Spliterator.OfDouble spliterator(DoubleBuffer buffer) {
+        int lo = buffer.position(), hi = buffer.limit();
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return new DoubleArraySpliterator(buffer.array(), offset + lo, offset + hi, Spliterator.ORDERED);
+        }
+        return new DoubleBufferSpliterator(buffer, lo, hi);
+    }
+
+    /**
+     * Creates a {@code Spliterator.OfInt} covering the remaining bytes of
+     * the given buffer, those between its position and its limit at the time
+     * of this call, each byte widened to an {@code int} as by a cast, that
+     * is, with sign extension.
+     *
+     * <p>The spliterator reads the bytes with absolute {@code get}
+     * operations, so the position and limit of the buffer are not changed.
+     * To stream multi-byte values stored in a {@code ByteBuffer}, for
+     * example a direct or memory-mapped one, create a spliterator over a
+     * view of it such as {@link ByteBuffer#asIntBuffer()}, which reads the
+     * values in the byte order of the buffer.
+     *
+     * <p>The returned spliterator reports the characteristics
+     * {@code SIZED}, {@code SUBSIZED} and {@code ORDERED}.  The buffer
+     * contents are assumed to be unmodified during use.
+     *
+     * @param buffer The buffer
+     * @return A spliterator for the remaining bytes of the buffer
+     * @throws NullPointerException if the given buffer is {@code null}
+     * @see #spliterator(IntBuffer)
+     */
+    public static Spliterator.OfInt spliterator(ByteBuffer buffer) {
+        return new ByteBufferSpliterator(buffer, buffer.position(), buffer.limit());
+    }
+
     /**
      * Creates either a specialized {@code Spliterator} (effectively the same
      * one that Java 8 uses) for the given collection provided it is one of the
@@ -1724,7 +1842,7 @@ public final class Spliterators {
      * A Spliterator designed for use by sources that traverse and split
      * elements maintained in an unmodifiable {@code Object[]} array.
      */
-    static final class ArraySpliterator<T> implements Spliterator<T> {
+    static final class ArraySpliterator<T> implements Spliterator<T>, ChunkSpliterator<Object[]> {
         /**
          * The array, explicitly typed as Object[]. Unlike in some other
          * classes (see for example CR 6260652), we do not need to
@@ -1793,6 +1911,16 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super Object[]> action) {
+            Object[] a; int i, hi;
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+        }
+
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
             Objects.requireNonNull(action);
@@ -1825,7 +1953,7 @@ public final class Spliterators {
      * A Spliterator.OfInt designed for use by sources that traverse and split
      * elements maintained in an unmodifiable {@code int[]} array.
      */
-    static final class IntArraySpliterator implements Spliterator.OfInt {
+    static final class IntArraySpliterator implements Spliterator.OfInt, ChunkSpliterator<int[]> {
         private final int[] array;
         private int index;        // current index, modified on advance/split
         private final int fence;  // one past last index
@@ -1876,6 +2004,16 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super int[]> action) {
+            int[] a; int i, hi;
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+        }
+
         @Override
         public boolean tryAdvance(IntConsumer action) {
             Objects.requireNonNull(action);
@@ -1926,7 +2064,7 @@ public final class Spliterators {
      * A Spliterator.OfLong designed for use by sources that traverse and split
      * elements maintained in an unmodifiable {@code int[]} array.
      */
-    static final class LongArraySpliterator implements Spliterator.OfLong {
+    static final class LongArraySpliterator implements Spliterator.OfLong, ChunkSpliterator<long[]> {
         private final long[] array;
         private int index;        // current index, modified on advance/split
         private final int fence;  // one past last index
@@ -1977,6 +2115,16 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super long[]> action) {
+            long[] a; int i, hi;
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+        }
+
         @Override
         public void forEachRemaining(Consumer<? super Long> action) {
             Spliterators.OfLong.forEachRemaining(this, action);
@@ -2027,7 +2175,7 @@ public final class Spliterators {
      * A Spliterator.OfDouble designed for use by sources that traverse and split
      * elements maintained in an unmodifiable {@code int[]} array.
      */
-    static final class DoubleArraySpliterator implements Spliterator.OfDouble {
+    static final class DoubleArraySpliterator implements Spliterator.OfDouble, ChunkSpliterator<double[]> {
         private final double[] array;
         private int index;        // current index, modified on advance/split
         private final int fence;  // one past last index
@@ -2078,6 +2226,16 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super double[]> action) {
+            double[] a; int i, hi;
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+        }
+
         @Override
         public void forEachRemaining(Consumer<? super Double> action) {
             Spliterators.OfDouble.forEachRemaining(this, action);
@@ -2755,6 +2913,314 @@ public final class Spliterators {
         }
     }
 
+    /**
+     * A Spliterator.OfInt over the elements of an {@code IntBuffer} between two
+     * indexes, read with absolute gets.
+     */
+    static final class IntBufferSpliterator implements Spliterator.OfInt {
+        private final IntBuffer buffer;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        IntBufferSpliterator(IntBuffer buffer, int origin, int fence) {
+            this.buffer = buffer;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new IntBufferSpliterator(buffer, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            IntBuffer b; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((b = buffer).limit() >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                do { action.accept(b.get(i)); } while (++i < hi);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(buffer.get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Integer> action) {
+            return Spliterators.OfInt.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Spliterators.OfInt.forEachRemaining(this, action);
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A Spliterator.OfLong over the elements of a {@code LongBuffer} between two
+     * indexes, read with absolute gets.
+     */
+    static final class LongBufferSpliterator implements Spliterator.OfLong {
+        private final LongBuffer buffer;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        LongBufferSpliterator(LongBuffer buffer, int origin, int fence) {
+            this.buffer = buffer;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfLong trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new LongBufferSpliterator(buffer, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            LongBuffer b; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((b = buffer).limit() >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                do { action.accept(b.get(i)); } while (++i < hi);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(buffer.get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Long> action) {
+            return Spliterators.OfLong.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Long> action) {
+            Spliterators.OfLong.forEachRemaining(this, action);
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A Spliterator.OfDouble over the elements of a {@code DoubleBuffer} between two
+     * indexes, read with absolute gets.
+     */
+    static final class DoubleBufferSpliterator implements Spliterator.OfDouble {
+        private final DoubleBuffer buffer;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        DoubleBufferSpliterator(DoubleBuffer buffer, int origin, int fence) {
+            this.buffer = buffer;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfDouble trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new DoubleBufferSpliterator(buffer, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            DoubleBuffer b; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((b = buffer).limit() >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                do { action.accept(b.get(i)); } while (++i < hi);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(buffer.get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Double> action) {
+            return Spliterators.OfDouble.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Double> action) {
+            Spliterators.OfDouble.forEachRemaining(this, action);
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Double> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A Spliterator.OfInt over the bytes of a {@code ByteBuffer} between two
+     * indexes, read with absolute gets.
+     */
+    static final class ByteBufferSpliterator implements Spliterator.OfInt {
+        private final ByteBuffer buffer;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        ByteBufferSpliterator(ByteBuffer buffer, int origin, int fence) {
+            this.buffer = buffer;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new ByteBufferSpliterator(buffer, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            ByteBuffer b; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((b = buffer).limit() >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                do { action.accept(b.get(i)); } while (++i < hi);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(buffer.get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Integer> action) {
+            return Spliterators.OfInt.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Spliterators.OfInt.forEachRemaining(this, action);
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
     // Iterator-based Spliterators
 
     /**
@@ -24,7 +24,11 @@
  */
 package java8.util.stream;
 
+import java8.util.ChunkSpliterator;
 import java8.util.Objects;
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.ForkJoinTask;
+import java8.util.concurrent.ForkJoinWorkerThread;
 import java8.util.function.Consumer;
 import java8.util.function.IntFunction;
 import java8.util.function.Supplier;
@@ -149,6 +153,32 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The probe measuring the current evaluation if the pipeline is
+     * instrumented, otherwise null; only valid for the source stage.
+     */
+    private PipelineProbe probe;
+
+    /**
+     * The pool the terminal operation of a parallel pipeline is evaluated in,
+     * null for the pool of the current worker thread or the common pool;
+     * only valid for the source stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The policy that decides how finely the source of a parallel evaluation
+     * is split, null for the default; only valid for the source stage.
+     */
+    private SplitPolicy splitPolicy;
+
+    /**
+     * The token that requests the cancellation of the evaluation of the
+     * terminal operation, null if it can't be cancelled; only valid for the
+     * source stage.
+     */
+    private CancellationToken cancellationToken;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -229,6 +259,24 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
+        PipelineProbe probe = PipelineInstrumentation.ENABLED ? startProbe() : null;
+        Throwable failure = null;
+        try {
+            ForkJoinPool pool = evaluationPool();
+            return (pool != null)
+                   ? pool.invoke(ForkJoinTask.adapt(() -> evaluateInCurrentThread(terminalOp)))
+                   : evaluateInCurrentThread(terminalOp);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (probe != null) {
+                finishProbe(probe, failure);
+            }
+        }
+    }
+
+    private <R> R evaluateInCurrentThread(TerminalOp<E_OUT, R> terminalOp) {
         return isParallel()
                ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
@@ -240,13 +288,31 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      * @param generator the array generator to be used to create array instances
      * @return a flat array-backed Node that holds the collected output elements
      */
-    @SuppressWarnings("unchecked")
     final Node<E_OUT> evaluateToArrayNode(IntFunction<E_OUT[]> generator) {
         if (linkedOrConsumed) {
             throw new IllegalStateException(MSG_STREAM_LINKED);
         }
         linkedOrConsumed = true;
 
+        PipelineProbe probe = PipelineInstrumentation.ENABLED ? startProbe() : null;
+        Throwable failure = null;
+        try {
+            ForkJoinPool pool = evaluationPool();
+            return (pool != null)
+                   ? pool.invoke(ForkJoinTask.adapt(() -> evaluateToArrayNodeInCurrentThread(generator)))
+                   : evaluateToArrayNodeInCurrentThread(generator);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (probe != null) {
+                finishProbe(probe, failure);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E_OUT> evaluateToArrayNodeInCurrentThread(IntFunction<E_OUT[]> generator) {
         // If the last intermediate operation is stateful then
         // evaluate directly to avoid an extra collection step
         if (isParallel() && previousStage != null && opIsStateful()) {
@@ -262,6 +328,118 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         }
     }
 
+    /**
+     * Returns the pool a parallel pipeline that has been bound to a pool
+     * must be evaluated in, unless the current thread already is a worker
+     * thread of that pool.
+     *
+     * @return the pool to evaluate in, or null to evaluate in the current
+     *         thread
+     */
+    private ForkJoinPool evaluationPool() {
+        ForkJoinPool pool = sourceStage.pool;
+        if (pool == null || !isParallel()) {
+            return null;
+        }
+        Thread t = Thread.currentThread();
+        return (t instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) t).getPool() == pool)
+               ? null : pool;
+    }
+
+    @Override
+    final ForkJoinPool boundPool() {
+        return sourceStage.pool;
+    }
+
+    /**
+     * Makes this pipeline parallel and binds its evaluation to the given
+     * pool; only valid for the source stage.
+     *
+     * @param pool the pool to evaluate the terminal operation in
+     * @return this stream
+     */
+    @SuppressWarnings("unchecked")
+    final S evaluateIn(ForkJoinPool pool) {
+        sourceStage.pool = Objects.requireNonNull(pool);
+        sourceStage.parallel = true;
+        return (S) this;
+    }
+
+    /**
+     * Sets the policy that decides how finely the source of a parallel
+     * evaluation of this pipeline is split.
+     *
+     * @param policy the split policy
+     * @return this stream
+     * @throws IllegalStateException if this stage has already been linked
+     *         or consumed
+     */
+    @SuppressWarnings("unchecked")
+    final S withSplitPolicy(SplitPolicy policy) {
+        if (linkedOrConsumed)
+            throw new IllegalStateException(MSG_STREAM_LINKED);
+        sourceStage.splitPolicy = Objects.requireNonNull(policy);
+        return (S) this;
+    }
+
+    /**
+     * Sets the token that requests the cancellation of the evaluation of the
+     * terminal operation of this pipeline.
+     *
+     * @param token the cancellation token
+     * @return this stream
+     * @throws IllegalStateException if this stage has already been linked
+     *         or consumed
+     */
+    @SuppressWarnings("unchecked")
+    final S withCancellation(CancellationToken token) {
+        if (linkedOrConsumed)
+            throw new IllegalStateException(MSG_STREAM_LINKED);
+        sourceStage.cancellationToken = Objects.requireNonNull(token);
+        return (S) this;
+    }
+
+    /**
+     * Starts measuring the evaluation of the pipeline ending with this stage,
+     * if a listener is registered.
+     *
+     * @return the probe, or null if no listener is registered
+     */
+    @SuppressWarnings("rawtypes")
+    private PipelineProbe startProbe() {
+        int n = 1;
+        for (AbstractPipeline p = this; p.previousStage != null; p = p.previousStage) {
+            n++;
+        }
+        AbstractPipeline[] stages = new AbstractPipeline[n];
+        for (AbstractPipeline p = this; p != null; p = p.previousStage) {
+            stages[--n] = p;
+        }
+        return sourceStage.probe = PipelineProbe.begin(stages, isParallel());
+    }
+
+    /**
+     * Completes the measurement of the evaluation, whether it completed
+     * normally or not.  If the evaluation failed, an exception thrown by a
+     * listener is dropped so that the failure of the evaluation propagates.
+     *
+     * @param probe the probe returned by {@link #startProbe()}
+     * @param failure the exception thrown by the evaluation, or null if it
+     *        completed normally
+     */
+    private void finishProbe(PipelineProbe probe, Throwable failure) {
+        sourceStage.probe = null;
+        if (failure == null) {
+            probe.finish(null);
+            return;
+        }
+        try {
+            probe.finish(failure);
+        } catch (RuntimeException | Error ignore) {
+            // Keep the exception of the evaluation
+        }
+    }
+
     /**
      * Gets the source stage spliterator if this pipeline stage is the source
      * stage.  The pipeline is consumed after this method is called and
@@ -295,6 +473,21 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         }
     }
 
+    /**
+     * Returns whether this pipeline stage is the given source stage or was
+     * appended to it by intermediate operations.
+     */
+    final boolean hasSourceStage(AbstractPipeline<?, ?, ?> source) {
+        return sourceStage == source;
+    }
+
+    /**
+     * Returns whether any stage of the pipeline is a stateful operation.
+     */
+    final boolean hasStatefulStage() {
+        return sourceStage.sourceAnyStateful;
+    }
+
     // BaseStream
 
     @Override
@@ -483,9 +676,17 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     final <P_IN> void copyInto(Sink<P_IN> wrappedSink, Spliterator<P_IN> spliterator) {
         Objects.requireNonNull(wrappedSink);
 
-        if (!StreamOpFlag.SHORT_CIRCUIT.isKnown(getStreamAndOpFlags())) {
+        if (!StreamOpFlag.SHORT_CIRCUIT.isKnown(getStreamAndOpFlags())
+                && sourceStage.cancellationToken == null) {
             wrappedSink.begin(spliterator.getExactSizeIfKnown());
-            spliterator.forEachRemaining(wrappedSink);
+            if (wrappedSink instanceof ChunkSpliterator.ChunkConsumer
+                    && spliterator instanceof ChunkSpliterator) {
+                // Both sides are array based, the sink copies whole slices
+                copyChunks(wrappedSink, spliterator);
+            }
+            else {
+                spliterator.forEachRemaining(wrappedSink);
+            }
             wrappedSink.end();
         }
         else {
@@ -493,6 +694,16 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         }
     }
 
+    /**
+     * Passes the remaining elements of an array based spliterator to a sink
+     * that accepts array slices.  The shape of the sink is the shape of the
+     * spliterator, hence both agree on the array type.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void copyChunks(Sink<?> wrappedSink, Spliterator<?> spliterator) {
+        ((ChunkSpliterator) spliterator).forEachChunk((ChunkSpliterator.ChunkConsumer) wrappedSink);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     final <P_IN> boolean copyIntoWithCancel(Sink<P_IN> wrappedSink, Spliterator<P_IN> spliterator) {
@@ -501,8 +712,17 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         while (p.depth > 0) {
             p = p.previousStage;
         }
+        CancellationToken token = sourceStage.cancellationToken;
+        if (token != null) {
+            token.throwIfCancellationRequested();
+            wrappedSink = token.checking(p.getOutputShape(), wrappedSink);
+        }
         wrappedSink.begin(spliterator.getExactSizeIfKnown());
         boolean cancelled = p.forEachWithCancel(spliterator, wrappedSink);
+        if (cancelled && token != null) {
+            // Abandon the evaluation rather than end it with a partial result
+            token.throwIfCancellationRequested();
+        }
         wrappedSink.end();
         return cancelled;
     }
@@ -521,12 +741,46 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     final <P_IN> Sink<P_IN> wrapSink(Sink<E_OUT> sink) {
         Objects.requireNonNull(sink);
 
+        if (PipelineInstrumentation.ENABLED && sourceStage.probe != null) {
+            return wrapSinkInstrumented(sourceStage.probe, sink);
+        }
+
         for (@SuppressWarnings("rawtypes") AbstractPipeline p = AbstractPipeline.this; p.depth > 0; p = p.previousStage) {
             sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
         }
         return (Sink<P_IN>) sink;
     }
 
+    /**
+     * Like {@link #wrapSink(Sink)}, but places a counting sink of the probe in
+     * front of the sink of each stage and of the given sink.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private <P_IN> Sink<P_IN> wrapSinkInstrumented(PipelineProbe probe, Sink<E_OUT> sink) {
+        int index = probe.indexOf(this);
+        PipelineProbe.CountingSink<?> counter = probe.count(index + 1, getOutputShape(), sink, null);
+        for (AbstractPipeline p = AbstractPipeline.this; p.depth > 0; p = p.previousStage, index--) {
+            Sink<?> stageSink = p.opWrapSink(p.previousStage.combinedFlags, counter);
+            counter = probe.count(index, p.previousStage.getOutputShape(), stageSink, counter);
+        }
+        return (Sink<P_IN>) counter;
+    }
+
+    @Override
+    final PipelineProbe probe() {
+        return PipelineInstrumentation.ENABLED ? sourceStage.probe : null;
+    }
+
+    @Override
+    final SplitPolicy splitPolicy() {
+        return sourceStage.splitPolicy;
+    }
+
+    @Override
+    final CancellationToken cancellationToken() {
+        return sourceStage.cancellationToken;
+    }
+
     @Override
     final <P_IN> Sink<P_IN> wrapSink(final Consumer<E_OUT> sink) {
         Objects.requireNonNull(sink);
@@ -107,13 +107,20 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
         @SuppressWarnings("unchecked") K task = (K) this;
         AtomicReference<R> sr = sharedResult;
         R result;
+        CancellationToken token = helper.cancellationToken();
+        if (PipelineInstrumentation.ENABLED && taskStats != null) {
+            taskStats.enter();
+        }
         while ((result = sr.get()) == null) {
+            if (token != null) {
+                token.throwIfCancellationRequested();
+            }
             if (task.taskCanceled()) {
                 result = task.getEmptyResult();
                 break;
             }
             if (sizeEstimate <= sizeThreshold || (ls = rs.trySplit()) == null) {
-                result = task.doLeaf();
+                result = task.doLeafMeasured(sizeEstimate);
                 break;
             }
             K leftChild, rightChild, taskToFork;
@@ -131,6 +138,9 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (PipelineInstrumentation.ENABLED && task.taskStats != null) {
+                task.taskStats.enter();
+            }
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
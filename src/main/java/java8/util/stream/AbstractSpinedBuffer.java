@@ -120,6 +120,20 @@ abstract class AbstractSpinedBuffer {
         return 1 << power;
     }
 
+    /**
+     * How many chunks hold the elements of the buffer?
+     */
+    int chunkCount() {
+        return spineIndex + 1;
+    }
+
+    /**
+     * How many elements does the nth chunk hold?
+     */
+    int chunkLength(int n) {
+        return (n == spineIndex) ? elementIndex : chunkSize(n);
+    }
+
     /**
      * Remove all data from the buffer
      */
@@ -121,6 +121,9 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     /** The result of this node, if completed */
     private R localResult;
 
+    /** The node of this task in the split tree of an instrumented pipeline */
+    final PipelineInstrumentation.Task taskStats;
+
     /**
      * Constructor for root nodes.
      *
@@ -135,6 +138,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.helper = helper;
         this.spliterator = spliterator;
         this.targetSize = 0L;
+        this.taskStats = PipelineInstrumentation.ENABLED ? PipelineProbe.taskTree(helper, spliterator) : null;
     }
 
     /**
@@ -150,6 +154,9 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.spliterator = spliterator;
         this.helper = parent.helper;
         this.targetSize = parent.targetSize;
+        PipelineInstrumentation.Task parentStats = ((AbstractTask<?, ?, ?, ?>) parent).taskStats;
+        this.taskStats = (PipelineInstrumentation.ENABLED && parentStats != null)
+                ? parentStats.child(spliterator.estimateSize()) : null;
     }
 
     /**
@@ -168,6 +175,21 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         }
     }
 
+    /**
+     * Returns the parallelism of the pool of the current worker thread, which
+     * is the pool parallel tasks are forked into, or the parallelism of the
+     * common pool if the current thread is not a worker thread.
+     */
+    static int getPoolParallelism() {
+        Thread t = Thread.currentThread();
+        if (t instanceof ForkJoinWorkerThread) {
+            return ((ForkJoinWorkerThread) t).getPool().getParallelism();
+        }
+        else {
+            return ForkJoinPool.getCommonPoolParallelism();
+        }
+    }
+
     /**
      * Constructs a new node of type T whose parent is the receiver; must call
      * the AbstractTask(T, Spliterator) constructor with the receiver and the
@@ -197,14 +219,39 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         return est > 0L ? est : 1L;
     }
 
+    /**
+     * Returns a suggested target leaf size based on the initial size estimate,
+     * using the {@link SplitPolicy} of the pipeline, if any.
+     *
+     * @param helper the pipeline helper of the computation
+     * @param sizeEstimate the initial size estimate
+     * @return suggested target leaf size
+     */
+    static long suggestTargetSize(PipelineHelper<?> helper, long sizeEstimate) {
+        SplitPolicy policy = helper.splitPolicy();
+        if (policy == null) {
+            return suggestTargetSize(sizeEstimate);
+        }
+        long est = policy.targetSize(sizeEstimate, getPoolParallelism());
+        return est > 0L ? est : 1L;
+    }
+
     /**
      * Returns the targetSize, initializing it via the supplied
-     * size estimate if not already initialized.
+     * size estimate if not already initialized.  If the pipeline has an
+     * adaptive {@link SplitPolicy} the inherited targetSize is refined.
      */
     protected final long getTargetSize(long sizeEstimate) {
         long s;
-        return ((s = targetSize) != 0 ? s :
-                (targetSize = suggestTargetSize(sizeEstimate)));
+        if ((s = targetSize) == 0L) {
+            return targetSize = suggestTargetSize(helper, sizeEstimate);
+        }
+        SplitPolicy policy = helper.splitPolicy();
+        if (policy != null && policy.isAdaptive()) {
+            long refined = policy.refineTargetSize(s);
+            s = targetSize = refined > 0L ? refined : 1L;
+        }
+        return s;
     }
 
     /**
@@ -306,7 +353,14 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         long sizeThreshold = getTargetSize(sizeEstimate);
         boolean forkRight = false;
         @SuppressWarnings("unchecked") K task = (K) this;
+        CancellationToken token = helper.cancellationToken();
+        if (PipelineInstrumentation.ENABLED && taskStats != null) {
+            taskStats.enter();
+        }
         while (sizeEstimate > sizeThreshold && (ls = rs.trySplit()) != null) {
+            if (token != null) {
+                token.throwIfCancellationRequested();
+            }
             K leftChild, rightChild, taskToFork;
             task.leftChild  = leftChild = task.makeChild(ls);
             task.rightChild = rightChild = task.makeChild(rs);
@@ -322,13 +376,44 @@ abstract class AbstractTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (PipelineInstrumentation.ENABLED && task.taskStats != null) {
+                task.taskStats.enter();
+            }
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
-        task.setLocalResult(task.doLeaf());
+        task.setLocalResult(task.doLeafMeasured(sizeEstimate));
         task.tryComplete();
     }
 
+    /**
+     * Calls {@code doLeaf}, taking its time if the pipeline is instrumented
+     * or has an adaptive {@link SplitPolicy}.
+     *
+     * @param sizeEstimate the estimated size of the spliterator of the leaf
+     * @return the computed result of the leaf
+     */
+    final R doLeafMeasured(long sizeEstimate) {
+        boolean instrumented = PipelineInstrumentation.ENABLED && taskStats != null;
+        SplitPolicy policy = helper.splitPolicy();
+        if (policy != null && !policy.isAdaptive()) {
+            policy = null;
+        }
+        if (!instrumented && policy == null) {
+            return doLeaf();
+        }
+        long start = System.nanoTime();
+        R result = doLeaf();
+        long nanos = System.nanoTime() - start;
+        if (instrumented) {
+            taskStats.leafDone(nanos);
+        }
+        if (policy != null) {
+            policy.leafCompleted(sizeEstimate, nanos);
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -0,0 +1,258 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import java8.util.Objects;
+
+/**
+ * A request, made from outside a stream pipeline, to abandon its evaluation,
+ * either explicitly through {@link #cancel()} or when a deadline passes.
+ *
+ * <p>A token is bound to a pipeline with
+ * {@link StreamSupport#withCancellation(BaseStream, CancellationToken)}.
+ * Once cancellation is requested, the terminal operation of the pipeline
+ * stops traversing the source and throws a {@link CancellationException}
+ * instead of returning a result.  In a parallel evaluation every fork/join
+ * task checks the token before it splits or traverses its part of the
+ * source, and the leaf tasks check it between the elements they traverse,
+ * so that all tasks of the evaluation wind down promptly, not only the one
+ * that first notices the request.  A sequential evaluation checks the token
+ * between elements as well.
+ *
+ * <p>The deadline of a token is checked against {@link System#nanoTime()},
+ * between elements only every few hundred elements.  A request that comes
+ * in while the last elements are traversed, or while an operation such as
+ * {@code sorted()} is emitting buffered elements, may be missed; the
+ * evaluation then completes normally.
+ *
+ * <p>A token may be bound to any number of pipelines, and a single call to
+ * {@link #cancel()} abandons all of them.  Cancellation can't be undone.
+ *
+ * <p>This class is not part of the Java SE API.
+ */
+public final class CancellationToken {
+
+    // Traversed elements between two reads of the clock
+    private static final int CLOCK_MASK = (1 << 8) - 1;
+
+    // Timeouts at least this long don't set a deadline
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE >>> 1;
+
+    private final boolean timed;
+    private final long deadline;
+    private volatile boolean cancelled;
+    private volatile boolean deadlinePassed;
+
+    private CancellationToken(boolean timed, long deadline) {
+        this.timed = timed;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a new token that requests cancellation only when
+     * {@link #cancel()} is called.
+     *
+     * @return the new token
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(false, 0L);
+    }
+
+    /**
+     * Returns a new token that requests cancellation when the given time has
+     * elapsed, or when {@link #cancel()} is called before.
+     *
+     * @param timeout the time after which cancellation is requested; zero
+     *        or a negative value requests it right away
+     * @param unit the time unit of the timeout argument
+     * @return the new token
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public static CancellationToken withDeadline(long timeout, TimeUnit unit) {
+        long nanos = Objects.requireNonNull(unit).toNanos(timeout);
+        if (nanos >= MAX_TIMEOUT_NANOS) {
+            return create();
+        }
+        CancellationToken token = new CancellationToken(true, System.nanoTime() + nanos);
+        if (nanos <= 0L) {
+            token.deadlinePassed = true;
+        }
+        return token;
+    }
+
+    /**
+     * Requests the cancellation of the evaluations of the pipelines this
+     * token is bound to.  Has no effect if cancellation has already been
+     * requested.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether cancellation has been requested, either by a call to
+     * {@link #cancel()} or because the deadline of this token has passed.
+     *
+     * @return {@code true} if cancellation has been requested
+     */
+    public boolean isCancellationRequested() {
+        return cancelled || deadlinePassed || (timed && checkDeadline());
+    }
+
+    /**
+     * Returns whether this token has a deadline and the deadline has passed.
+     *
+     * @return {@code true} if the deadline has passed
+     */
+    public boolean isDeadlinePassed() {
+        return deadlinePassed || (timed && checkDeadline());
+    }
+
+    /**
+     * Throws a {@code CancellationException} if cancellation has been
+     * requested.
+     *
+     * @throws CancellationException if cancellation has been requested
+     */
+    public void throwIfCancellationRequested() {
+        if (isCancellationRequested()) {
+            throw new CancellationException(cancelled ? "Stream evaluation cancelled"
+                                                      : "Stream evaluation deadline passed");
+        }
+    }
+
+    private boolean checkDeadline() {
+        if (System.nanoTime() - deadline >= 0L) {
+            deadlinePassed = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether cancellation has been requested, reading the clock
+     * only every so many polls.
+     */
+    private boolean poll(int polls) {
+        return cancelled || deadlinePassed || (timed && (polls & CLOCK_MASK) == 0 && checkDeadline());
+    }
+
+    /**
+     * Returns a sink that passes everything on to the given sink and in
+     * addition requests cancellation when this token does.
+     *
+     * @param inputShape the shape of the elements the sink accepts
+     * @param sink the sink
+     * @return the checking sink
+     */
+    @SuppressWarnings("unchecked")
+    <T> Sink<T> checking(StreamShape inputShape, Sink<T> sink) {
+        switch (inputShape) {
+            case REFERENCE:
+                return new CheckingSink.OfRef<>(this, sink);
+            case INT_VALUE:
+                return (Sink<T>) new CheckingSink.OfInt(this, (Sink<Integer>) sink);
+            case LONG_VALUE:
+                return (Sink<T>) new CheckingSink.OfLong(this, (Sink<Long>) sink);
+            case DOUBLE_VALUE:
+                return (Sink<T>) new CheckingSink.OfDouble(this, (Sink<Double>) sink);
+            default:
+                throw new IllegalStateException("Unknown shape " + inputShape);
+        }
+    }
+
+    /**
+     * A sink in front of the sinks of a pipeline that adds the cancellation
+     * requests of a token to those of the pipeline.  Used by a single thread.
+     */
+    abstract static class CheckingSink<T> implements Sink<T> {
+        private final CancellationToken token;
+        final Sink<T> downstream;
+        private int polls;
+
+        CheckingSink(CancellationToken token, Sink<T> downstream) {
+            this.token = token;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(size);
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return token.poll(++polls) || downstream.cancellationRequested();
+        }
+
+        @Override
+        public void accept(T t) {
+            downstream.accept(t);
+        }
+
+        @Override
+        public void accept(int value) {
+            downstream.accept(value);
+        }
+
+        @Override
+        public void accept(long value) {
+            downstream.accept(value);
+        }
+
+        @Override
+        public void accept(double value) {
+            downstream.accept(value);
+        }
+
+        static final class OfRef<T> extends CheckingSink<T> {
+            OfRef(CancellationToken token, Sink<T> downstream) {
+                super(token, downstream);
+            }
+        }
+
+        static final class OfInt extends CheckingSink<Integer> implements Sink.OfInt {
+            OfInt(CancellationToken token, Sink<Integer> downstream) {
+                super(token, downstream);
+            }
+
+            @Override
+            public void accept(Integer i) {
+                SinkDefaults.OfInt.accept(this, i);
+            }
+        }
+
+        static final class OfLong extends CheckingSink<Long> implements Sink.OfLong {
+            OfLong(CancellationToken token, Sink<Long> downstream) {
+                super(token, downstream);
+            }
+
+            @Override
+            public void accept(Long i) {
+                SinkDefaults.OfLong.accept(this, i);
+            }
+        }
+
+        static final class OfDouble extends CheckingSink<Double> implements Sink.OfDouble {
+            OfDouble(CancellationToken token, Sink<Double> downstream) {
+                super(token, downstream);
+            }
+
+            @Override
+            public void accept(Double i) {
+                SinkDefaults.OfDouble.accept(this, i);
+            }
+        }
+    }
+}
@@ -53,8 +53,11 @@ import java8.util.function.BiFunction;
 import java8.util.function.BinaryOperator;
 import java8.util.function.BinaryOperators;
 import java8.util.function.Consumer;
+import java8.util.function.DoubleBinaryOperator;
 import java8.util.function.Function;
 import java8.util.function.Functions;
+import java8.util.function.LongBinaryOperator;
+import java8.util.function.LongFunction;
 import java8.util.function.Predicate;
 import java8.util.function.Supplier;
 import java8.util.function.ToDoubleFunction;
@@ -62,7 +65,6 @@ import java8.util.function.ToIntFunction;
 import java8.util.function.ToLongFunction;
 import java8.util.stream.Collector.Characteristics;
 import java8.util.Optional;
-import java8.util.StringJoiner;
 import java8.util.concurrent.ConcurrentMaps;
 
 /**
@@ -154,6 +156,42 @@ public final class Collectors {
         return HashSet::new;
     }
 
+    /**
+     * The most elements the sized suppliers of the {@code HashSet}s and
+     * {@code HashMap}s that may see duplicates presize for, so that a large
+     * stream of few distinct elements doesn't allocate a huge table.
+     */
+    private static final int MAX_PRESIZE_WITH_DUPLICATES = 1 << 20;
+
+    /**
+     * Returns the initial capacity of a {@code HashMap} or {@code HashSet}
+     * for the given number of elements at the default load factor, or 16
+     * if the number is larger than {@code max}.
+     */
+    static int hashCapacity(long size, int max) {
+        return (size <= max) ? Math.max((int) (size / .75f) + 1, 16) : 16;
+    }
+
+    /**
+     * Returns the initial capacity of an {@code ArrayList} for the given
+     * number of elements.
+     */
+    static int arrayCapacity(long size) {
+        return (int) Math.min(size, Integer.MAX_VALUE - 8);
+    }
+
+    private static <T> LongFunction<List<T>> arrayListSized() {
+        return n -> new ArrayList<>(arrayCapacity(n));
+    }
+
+    private static <T> LongFunction<Set<T>> hashSetSized() {
+        return n -> new HashSet<>(hashCapacity(n, MAX_PRESIZE_WITH_DUPLICATES));
+    }
+
+    private static <K, V> LongFunction<Map<K, V>> hashMapSized(int max) {
+        return n -> new HashMap<>(hashCapacity(n, max));
+    }
+
     @SuppressWarnings("unchecked")
     private static final Function<Map<?, ?>, Map<?, ?>> UNMOD_MAP_FINISHER = map -> Maps
             .ofEntries(map.entrySet().toArray(new Map.Entry[0]));
@@ -267,7 +305,7 @@ public final class Collectors {
      * @param <M> type of the map
      * @return a merge function for two maps
      */
-    private static <K, V, M extends Map<K,V>>
+    static <K, V, M extends Map<K,V>>
     BinaryOperator<M> uniqKeysMapMerger() {
         return (m1, m2) -> {
             for (Map.Entry<K,V> e : m2.entrySet()) {
@@ -376,6 +414,76 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Simple implementation class for {@code SizedCollector}.
+     *
+     * @param <T> the type of elements to be collected
+     * @param <R> the type of the result
+     */
+    static class SizedCollectorImpl<T, A, R> extends CollectorImpl<T, A, R>
+            implements SizedCollector<T, A, R> {
+        private final LongFunction<A> sizedSupplier;
+
+        SizedCollectorImpl(Supplier<A> supplier,
+                           LongFunction<A> sizedSupplier,
+                           BiConsumer<A, T> accumulator,
+                           BinaryOperator<A> combiner,
+                           Function<A,R> finisher,
+                           Set<Characteristics> characteristics) {
+            super(supplier, accumulator, combiner, finisher, characteristics);
+            this.sizedSupplier = sizedSupplier;
+        }
+
+        @SuppressWarnings("unchecked")
+        SizedCollectorImpl(Supplier<A> supplier,
+                           LongFunction<A> sizedSupplier,
+                           BiConsumer<A, T> accumulator,
+                           BinaryOperator<A> combiner,
+                           Set<Characteristics> characteristics) {
+            this(supplier, sizedSupplier, accumulator, combiner, a -> (R)a/*castingIdentity()*/, characteristics);
+        }
+
+        @Override
+        public LongFunction<A> sizedSupplier() {
+            return sizedSupplier;
+        }
+    }
+
+    /**
+     * Returns a {@code SizedCollector} that performs the same reduction as
+     * the given {@code Collector}, but creates its result containers with the
+     * given sized supplier when the number of elements is known in advance.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, a collector into an {@code ArrayDeque} that is allocated
+     * with the right capacity for a sized stream:
+     * <pre>{@code
+     *     Collector<T, ?, ArrayDeque<T>> toDeque = sized(
+     *         Collectors.<T, ArrayDeque<T>>of(ArrayDeque::new, ArrayDeque::add,
+     *                                        (l, r) -> { l.addAll(r); return l; }),
+     *         n -> new ArrayDeque<>((int) Math.min(n, 1 << 24)));
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <A> intermediate accumulation type of the collector
+     * @param <R> result type of the collector
+     * @param collector the collector
+     * @param sizedSupplier a function that creates a new result container
+     *        for a given number of elements, at least 0, that behaves like a
+     *        container created by the supplier of the collector
+     * @return a {@code SizedCollector} that performs the reduction of the
+     * given collector
+     * @throws NullPointerException if any argument is null
+     * @see SizedCollector
+     */
+    public static <T, A, R>
+    SizedCollector<T, A, R> sized(Collector<T, A, R> collector, LongFunction<A> sizedSupplier) {
+        Objects.requireNonNull(sizedSupplier);
+        return new SizedCollectorImpl<>(collector.supplier(), sizedSupplier,
+                                        collector.accumulator(), collector.combiner(),
+                                        collector.finisher(), collector.characteristics());
+    }
+
     /**
      * Returns a {@code Collector} that accumulates the input elements into a
      * new {@code Collection}, in encounter order.  The {@code Collection} is
@@ -407,7 +515,7 @@ public final class Collectors {
      */
     public static <T>
     Collector<T, ?, List<T>> toList() {
-        return new CollectorImpl<>(arrayListNew(), listAdd(),
+        return new SizedCollectorImpl<>(arrayListNew(), arrayListSized(), listAdd(),
                                    (left, right) -> { left.addAll(right); return left; },
                                    CH_ID);
     }
@@ -426,7 +534,7 @@ public final class Collectors {
     @SuppressWarnings("unchecked")
     public static <T>
     Collector<T, ?, List<T>> toUnmodifiableList() {
-        return new CollectorImpl<>(arrayListNew(), listAdd(),
+        return new SizedCollectorImpl<>(arrayListNew(), arrayListSized(), listAdd(),
                                    (left, right) -> { left.addAll(right); return left; },
                                    list -> (List<T>) Lists.of(list.toArray()),
                                    CH_NOID);
@@ -448,7 +556,7 @@ public final class Collectors {
      */
     public static <T>
     Collector<T, ?, Set<T>> toSet() {
-        return new CollectorImpl<>(hashSetNew(), setAdd(),
+        return new SizedCollectorImpl<>(hashSetNew(), hashSetSized(), setAdd(),
                                    (left, right) -> {
                                         if (left.size() < right.size()) {
                                            right.addAll(left); return right;
@@ -477,7 +585,7 @@ public final class Collectors {
     @SuppressWarnings("unchecked")
     public static <T>
     Collector<T, ?, Set<T>> toUnmodifiableSet() {
-        return new CollectorImpl<>(hashSetNew(), setAdd(),
+        return new SizedCollectorImpl<>(hashSetNew(), hashSetSized(), setAdd(),
                                    (left, right) -> {
                                        if (left.size() < right.size()) {
                                            right.addAll(left); return right;
@@ -497,10 +605,7 @@ public final class Collectors {
      * {@code String}, in encounter order
      */
     public static Collector<CharSequence, ?, String> joining() {
-        return new CollectorImpl<CharSequence, StringBuilder, String>(
-                StringBuilder::new, StringBuilder::append,
-                (r1, r2) -> { r1.append(r2); return r1; },
-                StringBuilder::toString, CH_NOID);
+        return joining("", "", "");
     }
 
     /**
@@ -531,10 +636,91 @@ public final class Collectors {
     public static Collector<CharSequence, ?, String> joining(CharSequence delimiter,
                                                              CharSequence prefix,
                                                              CharSequence suffix) {
-        return new CollectorImpl<>(
-                () -> new StringJoiner(delimiter, prefix, suffix),
-                StringJoiner::add, StringJoiner::merge,
-                StringJoiner::toString, CH_NOID);
+        String delim = delimiter.toString();
+        String pre = prefix.toString();
+        String suf = suffix.toString();
+        return new SizedCollectorImpl<CharSequence, Joiner, String>(
+                Joiner::new, n -> new Joiner((int) Math.min(n, 1 << 16)),
+                Joiner::add, Joiner::merge,
+                joiner -> joiner.join(delim, pre, suf), CH_NOID);
+    }
+
+    /**
+     * The accumulation type of the joining collectors.  Collects the string
+     * values of the elements and builds the joined {@code String} with a
+     * single, exactly sized {@code StringBuilder} once all elements are known,
+     * rather than appending each element to a growing buffer.
+     */
+    static final class Joiner {
+        // The maximum size of array to allocate, as in ArrayList
+        private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+        private String[] elts;
+        private int size;
+        // The total length of the elements
+        private long len;
+
+        Joiner() {
+            this(8);
+        }
+
+        Joiner(int capacity) {
+            elts = new String[Math.max(capacity, 1)];
+        }
+
+        void add(CharSequence cs) {
+            String s = String.valueOf(cs);
+            if (size == elts.length) {
+                grow(size + 1);
+            }
+            len += s.length();
+            elts[size++] = s;
+        }
+
+        Joiner merge(Joiner other) {
+            if (other.size > 0) {
+                if (other.size > elts.length - size) {
+                    grow(size + other.size);
+                }
+                System.arraycopy(other.elts, 0, elts, size, other.size);
+                size += other.size;
+                len += other.len;
+            }
+            return this;
+        }
+
+        // Grows the array to hold at least minCapacity elements, in
+        // overflow-conscious code like ArrayList.grow()
+        private void grow(int minCapacity) {
+            if (minCapacity < 0) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            int newCapacity = elts.length << 1;
+            if (newCapacity - minCapacity < 0) {
+                newCapacity = minCapacity;
+            }
+            if (newCapacity - MAX_ARRAY_SIZE > 0) {
+                newCapacity = (minCapacity > MAX_ARRAY_SIZE) ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+            }
+            elts = Arrays.copyOf(elts, newCapacity);
+        }
+
+        String join(String delimiter, String prefix, String suffix) {
+            long length = prefix.length() + len + suffix.length()
+                    + (long) delimiter.length() * Math.max(size - 1, 0);
+            if (length > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError("Requested string length exceeds VM limit");
+            }
+            StringBuilder sb = new StringBuilder((int) length).append(prefix);
+            String[] elts = this.elts;
+            if (size > 0) {
+                sb.append(elts[0]);
+                for (int i = 1; i < size; i++) {
+                    sb.append(delimiter).append(elts[i]);
+                }
+            }
+            return sb.append(suffix).toString();
+        }
     }
 
     /**
@@ -549,7 +735,7 @@ public final class Collectors {
      * {@link Maps#merge(Map, Object, Object, BiFunction)}
      * @return a merge function for two maps
      */
-    private static <K, V, M extends Map<K,V>>
+    static <K, V, M extends Map<K,V>>
     BinaryOperator<M> mapMerger(BinaryOperator<V> mergeFunction) {
         return (m1, m2) -> {
             for (Map.Entry<K,V> e : m2.entrySet()) {
@@ -598,8 +784,15 @@ public final class Collectors {
     Collector<T, ?, R> mapping(Function<? super T, ? extends U> mapper,
                                Collector<? super U, A, R> downstream) {
         BiConsumer<A, ? super U> downstreamAccumulator = downstream.accumulator();
-        return new CollectorImpl<>(downstream.supplier(),
-                                   (r, t) -> downstreamAccumulator.accept(r, mapper.apply(t)),
+        BiConsumer<A, T> accumulator = (r, t) -> downstreamAccumulator.accept(r, mapper.apply(t));
+        if (downstream instanceof SizedCollector) {
+            // mapping doesn't change the number of elements
+            return new SizedCollectorImpl<>(downstream.supplier(),
+                                            ((SizedCollector<? super U, A, R>) downstream).sizedSupplier(),
+                                            accumulator, downstream.combiner(), downstream.finisher(),
+                                            downstream.characteristics());
+        }
+        return new CollectorImpl<>(downstream.supplier(), accumulator,
                                    downstream.combiner(), downstream.finisher(),
                                    downstream.characteristics());
     }
@@ -739,6 +932,14 @@ public final class Collectors {
                 characteristics = Collections.unmodifiableSet(characteristics);
             }
         }
+        if (downstream instanceof SizedCollector) {
+            return new SizedCollectorImpl<>(downstream.supplier(),
+                                            ((SizedCollector<T, A, R>) downstream).sizedSupplier(),
+                                            downstream.accumulator(),
+                                            downstream.combiner(),
+                                            Functions.andThen(downstream.finisher(), (finisher)),
+                                            characteristics);
+        }
         return new CollectorImpl<>(downstream.supplier(),
                                    downstream.accumulator(),
                                    downstream.combiner(),
@@ -762,7 +963,11 @@ public final class Collectors {
      */
     public static <T> Collector<T, ?, Long>
     counting() {
-        return summingLong(e -> 1L);
+        return new CollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], CH_NOID);
     }
 
     /**
@@ -1285,6 +1490,236 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function and counting the elements of each group.
+     *
+     * <p>The result is like the one of
+     * {@code groupingBy(classifier, counting())}, except that the counts are
+     * held in an {@link ObjLongMap}.  Each count is incremented in place as
+     * the elements are accumulated, so no count is ever boxed and no
+     * finishing pass over the groups is needed.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * For parallel stream pipelines each leaf task counts into a map of its
+     * own, the {@code combiner} function adds the counts of the smaller map
+     * to those of the larger one.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the counting group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #counting()
+     */
+    public static <T, K>
+    Collector<T, ?, ObjLongMap<K>> groupingByCounting(Function<? super T, ? extends K> classifier) {
+        Objects.requireNonNull(classifier);
+        BiConsumer<ObjLongMap<K>, T> accumulator = (m, t) ->
+                m.add(Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key"), 1L);
+        return new CollectorImpl<>(ObjLongMap::new, accumulator, Collectors.<K>longMapAdder(), CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function and summing a long-valued function of the
+     * elements of each group.
+     *
+     * <p>The result is like the one of
+     * {@code groupingBy(classifier, summingLong(mapper))}, except that the
+     * sums are held in an {@link ObjLongMap}.  Each sum is updated in place
+     * as the elements are accumulated, so no sum is ever boxed and no
+     * finishing pass over the groups is needed.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * For parallel stream pipelines each leaf task sums into a map of its
+     * own, the {@code combiner} function adds the sums of the smaller map
+     * to those of the larger one.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} implementing the summing group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #summingLong(ToLongFunction)
+     */
+    public static <T, K>
+    Collector<T, ?, ObjLongMap<K>> groupingBySummingLong(Function<? super T, ? extends K> classifier,
+                                                         ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        BiConsumer<ObjLongMap<K>, T> accumulator = (m, t) ->
+                m.add(Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key"),
+                      mapper.applyAsLong(t));
+        return new CollectorImpl<>(ObjLongMap::new, accumulator, Collectors.<K>longMapAdder(), CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function and reducing a long-valued function of the
+     * elements of each group under the given operator.
+     *
+     * <p>The value of a group is the mapped value of its first element,
+     * combined with the mapped value of each subsequent element of the group
+     * as in {@code op.applyAsLong(value, mappedValue)}.  The values are held
+     * in an {@link ObjLongMap} and updated in place as the elements are
+     * accumulated, so no value is ever boxed and no finishing pass over the
+     * groups is needed.  As a group is never empty, there is no need for an
+     * identity value or an {@code OptionalLong}.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the minimum and the maximum of each group:
+     * <pre>{@code
+     *     ObjLongMap<String> minByTenant = requests.collect(
+     *         groupingByReducingLong(Request::getTenant, Request::getLatency, Math::min));
+     *     ObjLongMap<String> maxByTenant = requests.collect(
+     *         groupingByReducingLong(Request::getTenant, Request::getLatency, Math::max));
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function mapping each input element to a {@code long}
+     * @param op an <a href="package-summary.html#Associativity">associative</a>,
+     *           <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *           <a href="package-summary.html#Statelessness">stateless</a>
+     *           operator used to reduce the mapped values of a group
+     * @return a {@code Collector} implementing the reducing group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #reducing(Object, Function, BinaryOperator)
+     */
+    public static <T, K>
+    Collector<T, ?, ObjLongMap<K>> groupingByReducingLong(Function<? super T, ? extends K> classifier,
+                                                          ToLongFunction<? super T> mapper,
+                                                          LongBinaryOperator op) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(op);
+        BiConsumer<ObjLongMap<K>, T> accumulator = (m, t) ->
+                m.merge(Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key"),
+                        mapper.applyAsLong(t), op);
+        BinaryOperator<ObjLongMap<K>> merger = (left, right) -> left.mergeAll(right, op);
+        return new CollectorImpl<>(ObjLongMap::new, accumulator, merger, CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function and summing a double-valued function of the
+     * elements of each group.
+     *
+     * <p>The sums are held in an {@link ObjDoubleMap}.  Each sum is updated
+     * in place as the elements are accumulated, so no sum is ever boxed and no
+     * finishing pass over the groups is needed.  Unlike
+     * {@link #summingDouble(ToDoubleFunction)}, which keeps a compensation
+     * term per sum, the values are summed with plain addition: the sums can
+     * vary depending upon the order in which the values are recorded, due to
+     * accumulated rounding error in addition of values of differing
+     * magnitudes.  If any recorded value is a {@code NaN} or a sum is at any
+     * point a {@code NaN} then that sum will be {@code NaN}.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * For parallel stream pipelines each leaf task sums into a map of its
+     * own, the {@code combiner} function adds the sums of the smaller map
+     * to those of the larger one.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} implementing the summing group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #summingDouble(ToDoubleFunction)
+     */
+    public static <T, K>
+    Collector<T, ?, ObjDoubleMap<K>> groupingBySummingDouble(Function<? super T, ? extends K> classifier,
+                                                             ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        BiConsumer<ObjDoubleMap<K>, T> accumulator = (m, t) ->
+                m.add(Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key"),
+                      mapper.applyAsDouble(t));
+        BinaryOperator<ObjDoubleMap<K>> merger = (left, right) -> {
+            if (left.size() < right.size()) {
+                right.addAll(left);
+                return right;
+            }
+            left.addAll(right);
+            return left;
+        };
+        return new CollectorImpl<>(ObjDoubleMap::new, accumulator, merger, CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function and reducing a double-valued function of the
+     * elements of each group under the given operator.
+     *
+     * <p>The value of a group is the mapped value of its first element,
+     * combined with the mapped value of each subsequent element of the group
+     * as in {@code op.applyAsDouble(value, mappedValue)}.  The values are held
+     * in an {@link ObjDoubleMap} and updated in place as the elements are
+     * accumulated, so no value is ever boxed and no finishing pass over the
+     * groups is needed.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the maximum of each group:
+     * <pre>{@code
+     *     ObjDoubleMap<String> maxByTenant = requests.collect(
+     *         groupingByReducingDouble(Request::getTenant, Request::getCost, Math::max));
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function mapping each input element to a {@code double}
+     * @param op an <a href="package-summary.html#Associativity">associative</a>,
+     *           <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *           <a href="package-summary.html#Statelessness">stateless</a>
+     *           operator used to reduce the mapped values of a group
+     * @return a {@code Collector} implementing the reducing group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #reducing(Object, Function, BinaryOperator)
+     */
+    public static <T, K>
+    Collector<T, ?, ObjDoubleMap<K>> groupingByReducingDouble(Function<? super T, ? extends K> classifier,
+                                                              ToDoubleFunction<? super T> mapper,
+                                                              DoubleBinaryOperator op) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(op);
+        BiConsumer<ObjDoubleMap<K>, T> accumulator = (m, t) ->
+                m.merge(Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key"),
+                        mapper.applyAsDouble(t), op);
+        BinaryOperator<ObjDoubleMap<K>> merger = (left, right) -> left.mergeAll(right, op);
+        return new CollectorImpl<>(ObjDoubleMap::new, accumulator, merger, CH_ID);
+    }
+
+    /**
+     * {@code BinaryOperator<ObjLongMap>} that adds the values of the smaller
+     * map to those of the larger map and returns the latter.
+     */
+    private static <K> BinaryOperator<ObjLongMap<K>> longMapAdder() {
+        return (left, right) -> {
+            if (left.size() < right.size()) {
+                right.addAll(left);
+                return right;
+            }
+            left.addAll(right);
+            return left;
+        };
+    }
+
     /**
      * Returns a concurrent {@code Collector} implementing a "group by"
      * operation on input elements of type {@code T}, grouping elements
@@ -1451,6 +1886,116 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation like {@link #groupingByConcurrent(Function, Collector)}, that
+     * scales with the number of threads also for downstream collectors that
+     * are not {@link Collector.Characteristics#CONCURRENT concurrent}, even
+     * when a few keys get most of the elements.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>There are no guarantees on the type, mutability, or serializability
+     * of the {@code ConcurrentMap} returned.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * {@code groupingByConcurrent} lets a single result container per key
+     * accumulate the elements of all threads, one thread at a time.  Instead,
+     * this collector gives each key a small table of result containers in the
+     * style of {@code Striped64}: a thread that finds the container it hashes
+     * to in use tries another one, and the table grows up to the number of
+     * CPUs for keys that see contention.  Accumulating an element never
+     * blocks.  The containers of each key are combined with the combiner of
+     * the downstream collector when the reduction is finished.  A concurrent
+     * downstream collector is used as with {@code groupingByConcurrent}.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByConcurrent(Function, Collector)
+     * @see #groupingByConcurrentStriped(Function, Supplier, Collector)
+     */
+    public static <T, K, A, D>
+    Collector<T, ?, ConcurrentMap<K, D>> groupingByConcurrentStriped(Function<? super T, ? extends K> classifier,
+                                                                     Collector<? super T, A, D> downstream) {
+        return groupingByConcurrentStriped(classifier, concHashMapNew(), downstream);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation like {@link #groupingByConcurrent(Function, Supplier, Collector)},
+     * that scales with the number of threads also for downstream collectors
+     * that are not {@link Collector.Characteristics#CONCURRENT concurrent}.
+     * The {@code ConcurrentMap} produced by the Collector is created with the
+     * supplied factory function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * See {@link #groupingByConcurrentStriped(Function, Collector)}.  The map
+     * is only accessed with the methods of the {@code ConcurrentMap}
+     * interface, so any implementation, not just {@code ConcurrentHashMap},
+     * can be used.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param <M> the type of the resulting {@code ConcurrentMap}
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapFactory a supplier providing a new empty {@code ConcurrentMap}
+     *                   into which the results will be inserted
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByConcurrent(Function, Supplier, Collector)
+     * @see #groupingByConcurrentStriped(Function, Collector)
+     */
+    public static <T, K, A, D, M extends ConcurrentMap<K, D>>
+    Collector<T, ?, M> groupingByConcurrentStriped(Function<? super T, ? extends K> classifier,
+                                                   Supplier<M> mapFactory,
+                                                   Collector<? super T, A, D> downstream) {
+        if (downstream.characteristics().contains(Collector.Characteristics.CONCURRENT)) {
+            return groupingByConcurrent(classifier, mapFactory, downstream);
+        }
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        @SuppressWarnings("unchecked")
+        Supplier<ConcurrentMap<K, StripedContainer<A>>> mangledFactory
+                = (Supplier<ConcurrentMap<K, StripedContainer<A>>>) (Supplier<?>) mapFactory;
+        BiConsumer<ConcurrentMap<K, StripedContainer<A>>, T> accumulator = (m, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            StripedContainer<A> resultContainers = ConcurrentMaps.computeIfAbsent(m, key,
+                    k -> new StripedContainer<>(downstreamSupplier));
+            resultContainers.accumulate(downstreamAccumulator, t);
+        };
+        BinaryOperator<ConcurrentMap<K, StripedContainer<A>>> merger
+                = Collectors.<K, StripedContainer<A>, ConcurrentMap<K, StripedContainer<A>>>mapMergerConcurrent(
+                        (left, right) -> left.merge(right, downstreamCombiner));
+        Function<ConcurrentMap<K, StripedContainer<A>>, M> finisher = intermediate -> {
+            @SuppressWarnings("unchecked")
+            ConcurrentMap<K, Object> result = (ConcurrentMap<K, Object>) (ConcurrentMap<K, ?>) intermediate;
+            ConcurrentMaps.replaceAll(result, (k, v) -> {
+                @SuppressWarnings("unchecked")
+                StripedContainer<A> resultContainers = (StripedContainer<A>) v;
+                return downstreamFinisher.apply(resultContainers.combine(downstreamCombiner));
+            });
+            @SuppressWarnings("unchecked")
+            M castResult = (M) result;
+            return castResult;
+        };
+        return new CollectorImpl<>(mangledFactory, accumulator, merger, finisher, CH_CONCURRENT_NOID);
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
@@ -1587,7 +2132,8 @@ public final class Collectors {
     public static <T, K, U>
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper) {
-        return new CollectorImpl<>(hashMapNew(),
+        // The keys are unique, so the map will have as many entries as there are elements
+        return new SizedCollectorImpl<>(hashMapNew(), hashMapSized(1 << 29),
                 uniqKeysMapAccumulator((Function<T, K>) keyMapper, (Function<T, U>) valueMapper),
                 uniqKeysMapMerger(),
                 CH_ID);
@@ -1689,7 +2235,10 @@ public final class Collectors {
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper,
                                     BinaryOperator<U> mergeFunction) {
-        return toMap(keyMapper, valueMapper, mergeFunction, hashMapNew());
+        BiConsumer<Map<K, U>, T> accumulator
+                = (map, element) -> Maps.merge(map, keyMapper.apply(element), valueMapper.apply(element), mergeFunction);
+        return new SizedCollectorImpl<>(hashMapNew(), hashMapSized(MAX_PRESIZE_WITH_DUPLICATES),
+                                        accumulator, mapMerger(mergeFunction), CH_ID);
     }
 
     /**
@@ -1733,7 +2282,7 @@ public final class Collectors {
         Objects.requireNonNull(valueMapper, "valueMapper");
         Objects.requireNonNull(mergeFunction, "mergeFunction");
         return collectingAndThen(
-                toMap(keyMapper, valueMapper, mergeFunction, hashMapNew()),
+                toMap(keyMapper, valueMapper, mergeFunction),
                 Collectors.<K, U>unmodMapFinisher());
     }
 
@@ -2009,7 +2558,7 @@ public final class Collectors {
     /**
      * Implementation class used by partitioningBy.
      */
-    private static final class Partition<T>
+    static final class Partition<T>
             extends AbstractMap<Boolean, T>
             implements Map<Boolean, T> {
         final T forTrue;
@@ -24,16 +24,14 @@
  */
 package java8.util.stream;
 
-import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import java8.util.Objects;
+import java8.util.concurrent.CountedCompleter;
 import java8.util.concurrent.ForkJoinPool;
 import java8.util.function.IntFunction;
 import java8.util.Spliterator;
@@ -48,6 +46,10 @@ final class DistinctOps {
 
     private DistinctOps() { }
 
+    // The minimum number of elements a shard of an unordered parallel
+    // "distinct" operation should expect to receive
+    static final int MIN_SHARD_SIZE = 64;
+
     /**
      * Appends a "distinct" operation to the provided stream, and returns the
      * new stream.
@@ -57,6 +59,20 @@ final class DistinctOps {
      * @return the new stream
      */
     static <T> ReferencePipeline<T, T> makeRef(AbstractPipeline<?, T, ?> upstream) {
+        return makeRef(upstream, -1);
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param expectedSize the expected number of distinct elements, used to
+     *        presize the sets of seen elements, or -1 if unknown
+     * @return the new stream
+     */
+    static <T> ReferencePipeline<T, T> makeRef(AbstractPipeline<?, T, ?> upstream, long expectedSize) {
         return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
                                                       StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
 
@@ -81,36 +97,7 @@ final class DistinctOps {
                     return reduce(helper, spliterator);
                 }
                 else {
-                    // Holder of null state since ConcurrentHashMap does not support null values
-                    AtomicBoolean seenNull = new AtomicBoolean(false);
-                    // Pre-size map to reduce concurrent re-sizes
-                    ConcurrentMap<T, Boolean> map = new ConcurrentHashMap<T, Boolean>(512, 0.75f,
-                            ForkJoinPool.getCommonPoolParallelism() + 1);
-                    TerminalOp<T, Void> forEachOp = ForEachOps.makeRef(t -> {
-                        if (t == null) {
-                            seenNull.set(true);
-                        } else {
-                            map.putIfAbsent(t, Boolean.TRUE);
-                        }
-                    }, false);
-                    forEachOp.evaluateParallel(helper, spliterator);
-
-                    // If null has been seen then copy the key set into a HashSet that supports null values
-                    // and add null
-                    Set<T> keys = map.keySet();
-                    if (seenNull.get()) {
-                        int size = keys.size();
-                        if (size >= 127) {
-                            // a more efficient set-union view, rather than copying
-                            keys = new KeysAndNullSet<>(keys, size);
-                        } else {
-                            HashSet<T> tmp = new HashSet<>(Math.max((int) ((size + 1) / 0.75f) + 1, 16));
-                            tmp.addAll(keys);
-                            tmp.add(null);
-                            keys = tmp;
-                        }
-                    }
-                    return Nodes.node(keys);
+                    return shardedDistinct(helper, spliterator, expectedSize);
                 }
             }
 
@@ -173,7 +160,8 @@ final class DistinctOps {
 
                         @Override
                         public void begin(long size) {
-                            seen = new HashSet<>();
+                            seen = expectedSize < 0 ? new HashSet<>()
+                                                    : new HashSet<>(hashCapacity(expectedSize));
                             downstream.begin(-1);
                         }
 
@@ -196,46 +184,831 @@ final class DistinctOps {
         };
     }
 
-    static final class KeysAndNullSet<E> extends AbstractSet<E> {
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream an int stream
+     * @return the new stream
+     */
+    static IntPipeline<Integer> makeInt(AbstractPipeline<?, Integer, ?> upstream) {
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                   StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                // Keep the order of first occurrence if the stream is ORDERED,
+                // which also preserves the sort order of a SORTED stream
+                boolean ordered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+                TerminalOp<Integer, IntHashSet> reduceOp
+                        = ReduceOps.<IntHashSet>makeInt(() -> new IntHashSet(ordered), IntHashSet::add,
+                                                        (l, r) -> l.addAll(r));
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return opEvaluateParallel(helper, spliterator, WhileOps.INT_ARR_GEN).spliterator();
+                }
+                else {
+                    // Lazy
+                    return new StreamSpliterators.DistinctSpliterator.OfInt(
+                            (Spliterator.OfInt) helper.wrapSpliterator(spliterator),
+                            poolParallelism(helper));
+                }
+            }
+
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        boolean seenAny;
+                        int lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        IntHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new IntHashSet(false);
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (seen.add(t)) {
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a long stream
+     * @return the new stream
+     */
+    static LongPipeline<Long> makeLong(AbstractPipeline<?, Long, ?> upstream) {
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                boolean ordered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+                TerminalOp<Long, LongHashSet> reduceOp
+                        = ReduceOps.<LongHashSet>makeLong(() -> new LongHashSet(ordered), LongHashSet::add,
+                                                          (l, r) -> l.addAll(r));
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                            Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return opEvaluateParallel(helper, spliterator, WhileOps.LONG_ARR_GEN).spliterator();
+                }
+                else {
+                    // Lazy
+                    return new StreamSpliterators.DistinctSpliterator.OfLong(
+                            (Spliterator.OfLong) helper.wrapSpliterator(spliterator),
+                            poolParallelism(helper));
+                }
+            }
+
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet(false);
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (seen.add(t)) {
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.  Like {@link Double#equals(Object)}, two values are
+     * considered equal if their {@link Double#doubleToLongBits(double)}
+     * representations are equal.
+     *
+     * @param upstream a double stream
+     * @return the new stream
+     */
+    static DoublePipeline<Double> makeDouble(AbstractPipeline<?, Double, ?> upstream) {
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                     StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                boolean ordered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+                TerminalOp<Double, LongHashSet> reduceOp
+                        = ReduceOps.<LongHashSet>makeDouble(() -> new LongHashSet(ordered),
+                                                            (set, d) -> set.add(Double.doubleToLongBits(d)),
+                                                            (l, r) -> l.addAll(r));
+                long[] bits = reduceOp.evaluateParallel(helper, spliterator).toArray();
+                double[] values = new double[bits.length];
+                for (int i = 0; i < bits.length; i++) {
+                    values[i] = Double.longBitsToDouble(bits[i]);
+                }
+                return Nodes.node(values);
+            }
+
+            @Override
+            <P_IN> Spliterator<Double> opEvaluateParallelLazy(PipelineHelper<Double> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return opEvaluateParallel(helper, spliterator, WhileOps.DOUBLE_ARR_GEN).spliterator();
+                }
+                else {
+                    // Lazy
+                    return new StreamSpliterators.DistinctSpliterator.OfDouble(
+                            (Spliterator.OfDouble) helper.wrapSpliterator(spliterator),
+                            poolParallelism(helper));
+                }
+            }
+
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            long bits = Double.doubleToLongBits(t);
+                            if (!seenAny || bits != lastSeen) {
+                                seenAny = true;
+                                lastSeen = bits;
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet(false);
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            if (seen.add(Double.doubleToLongBits(t))) {
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the initial capacity of a {@code HashSet} that can hold the
+     * given number of elements without being resized.
+     */
+    static int hashCapacity(long expectedSize) {
+        return (int) Math.min(expectedSize / 0.75f + 1.0f, 1 << 30);
+    }
 
-        final Set<E> keys;
-        final int size;
+    /**
+     * Evaluates an unordered parallel "distinct" operation.
+     *
+     * <p>Rather than funneling all worker threads into one shared concurrent
+     * set, which contends on its resizes, each leaf task adds its elements to
+     * thread-private {@link Shards}, partitioned by the hash code of the
+     * elements.  The shards of all leaves are merged at the end, with the
+     * i-th shards of all leaves merged into one set independently of, and in
+     * parallel with, the other shards, since equal elements always land in
+     * shards with the same index.
+     *
+     * @param expectedSize the expected number of distinct elements, or -1
+     * @return a node of the distinct elements
+     */
+    static <P_IN, T> Node<T> shardedDistinct(PipelineHelper<T> helper,
+                                             Spliterator<P_IN> spliterator,
+                                             long expectedSize) {
+        int shardBits = shardBits(AbstractTask.getPoolParallelism(),
+                                  AbstractTask.suggestTargetSize(helper, spliterator.estimateSize()),
+                                  expectedSize);
+        TerminalOp<T, Shards<T>> reduceOp
+                = ReduceOps.<T, Shards<T>>makeRef(() -> new Shards<>(shardBits), Shards::add,
+                                                  Shards::link);
+        Shards<T> leaves = reduceOp.evaluateParallel(helper, spliterator);
 
-        KeysAndNullSet(Set<E> keys, int size) {
-            this.keys = keys;
-            this.size = size + 1;
+        int n = 1 << shardBits;
+        @SuppressWarnings("unchecked")
+        Set<T>[] merged = (Set<T>[]) new Set<?>[n];
+        new MergeShardsTask<>(null, leaves, merged, expectedSize, 0, n).invoke();
+        return concShards(merged, 0, n);
+    }
+
+    /**
+     * Returns the log2 of the number of shards per leaf task, which is a
+     * small multiple of the parallelism so that the per-shard merges are
+     * well balanced.  A leaf can't fill more shards than it has elements,
+     * and there are no more distinct elements than expected, so the number
+     * of shards is reduced to give each shard at least
+     * {@code MIN_SHARD_SIZE} elements of a leaf or of the expected size.
+     *
+     * @param parallelism the parallelism of the pool
+     * @param leafSize the target size of the leaf tasks
+     * @param expectedSize the expected number of distinct elements, or -1
+     */
+    static int shardBits(int parallelism, long leafSize, long expectedSize) {
+        long n = Math.max(1, Math.min(parallelism, 256)) << 2;
+        n = Math.min(n, leafSize / MIN_SHARD_SIZE);
+        if (expectedSize >= 0) {
+            n = Math.min(n, expectedSize / MIN_SHARD_SIZE);
+        }
+        return (n <= 1) ? 0 : 64 - Long.numberOfLeadingZeros(n - 1);
+    }
+
+    private static <T> Node<T> concShards(Set<T>[] sets, int lo, int hi) {
+        if (hi - lo == 1) {
+            return Nodes.node(sets[lo]);
+        }
+        int mid = (lo + hi) >>> 1;
+        return Nodes.conc(StreamShape.REFERENCE, concShards(sets, lo, mid), concShards(sets, mid, hi));
+    }
+
+    /**
+     * The hash-partitioned sets of the elements seen by one leaf task of an
+     * unordered parallel "distinct" operation.  The shards of the leaves are
+     * linked into a list when the leaf results are combined, so nothing is
+     * merged until all leaves have completed.
+     */
+    static final class Shards<T> {
+        final HashSet<T>[] sets;
+        // The right shift applied to the scrambled hash to get a shard index,
+        // 32 if there is a single shard
+        private final int shift;
+        // The shards of the next leaf
+        Shards<T> next;
+        private Shards<T> last;
+
+        @SuppressWarnings("unchecked")
+        Shards(int shardBits) {
+            sets = (HashSet<T>[]) new HashSet<?>[1 << shardBits];
+            shift = 32 - shardBits;
+            last = this;
+        }
+
+        void add(T t) {
+            // HashSet uses the low bits of the hash code, so the shard index
+            // must be taken from the high bits of a scrambled hash code, or
+            // else every shard would only use a fraction of its table
+            int i = (t == null) ? 0 : (int) (((t.hashCode() * 0x9E3779B9) & 0xFFFFFFFFL) >>> shift);
+            HashSet<T> set = sets[i];
+            if (set == null) {
+                sets[i] = set = new HashSet<>();
+            }
+            set.add(t);
+        }
+
+        Shards<T> link(Shards<T> other) {
+            last.next = other;
+            last = other.last;
+            return this;
+        }
+    }
+
+    /**
+     * A task merging the shards with the same index of all leaves, splitting
+     * the range of shard indices in halves.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeShardsTask<T> extends CountedCompleter<Void> {
+        private final Shards<T> leaves;
+        private final Set<T>[] merged;
+        private final long expectedSize;
+        private final int lo, hi;
+
+        MergeShardsTask(MergeShardsTask<T> parent, Shards<T> leaves, Set<T>[] merged,
+                        long expectedSize, int lo, int hi) {
+            super(parent);
+            this.leaves = leaves;
+            this.merged = merged;
+            this.expectedSize = expectedSize;
+            this.lo = lo;
+            this.hi = hi;
         }
 
         @Override
-        public Iterator<E> iterator() {
-            return new Iterator<E>() {
-                boolean nullDelivered = false;
-                Iterator<E> it = keys.iterator();
-                @Override
-                public boolean hasNext() {
-                    if (!nullDelivered) {
-                        return true;
+        public void compute() {
+            int l = lo, h = hi;
+            while (h - l > 1) {
+                int mid = (l + h) >>> 1;
+                addToPendingCount(1);
+                new MergeShardsTask<>(this, leaves, merged, expectedSize, mid, h).fork();
+                h = mid;
+            }
+            merged[l] = union(l);
+            tryComplete();
+        }
+
+        private Set<T> union(int i) {
+            // Merge into the largest set unless the expected size per shard
+            // is known, in which case a presized set avoids all resizes
+            HashSet<T> union = null;
+            for (Shards<T> s = leaves; s != null; s = s.next) {
+                HashSet<T> set = s.sets[i];
+                if (set != null && (union == null || set.size() > union.size())) {
+                    union = set;
+                }
+            }
+            if (union == null) {
+                return Collections.emptySet();
+            }
+            HashSet<T> largest = union;
+            if (expectedSize >= 0) {
+                union = new HashSet<>(hashCapacity(expectedSize / merged.length));
+                union.addAll(largest);
+            }
+            for (Shards<T> s = leaves; s != null; s = s.next) {
+                HashSet<T> set = s.sets[i];
+                if (set != null && set != largest) {
+                    union.addAll(set);
+                }
+            }
+            return union;
+        }
+    }
+
+    /**
+     * An open-addressing hash set of {@code int} values using linear probing,
+     * which stores the values unboxed in a single array.  Zero marks an empty
+     * slot, so whether zero is a member is tracked separately.  If the
+     * insertion order is kept, the values are also appended to a second
+     * array, in the order in which they were first added.
+     *
+     * <p>Two sets are merged with {@link #addAll(IntHashSet)} which, like
+     * {@code LinkedHashSet.addAll()}, appends the values of the right set
+     * that are not yet in the left set, so that the parallel reduction of an
+     * ordered stream preserves the order of first occurrence.
+     *
+     * <p>The table is kept at most half full, so a set holds at most half
+     * as many values as its maximum table capacity.  Adding a new value to a
+     * set of that size throws an {@code IllegalStateException}.
+     */
+    static final class IntHashSet {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+        private int[] table = new int[INITIAL_CAPACITY];
+        // The right shift applied to the scrambled hash to get an index
+        private int shift = 32 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+        private boolean containsZero;
+        private int size;
+        // The values in insertion order, null if the order is not kept
+        private int[] elements;
+
+        // The maximum number of values, half the maximum table capacity
+        private final int maxSize;
+
+        IntHashSet(boolean keepOrder) {
+            this(keepOrder, MAXIMUM_CAPACITY);
+        }
+
+        /**
+         * Creates a set whose table does not grow beyond the given capacity.
+         *
+         * @param keepOrder whether the insertion order is kept
+         * @param maxCapacity the maximum table capacity, a power of two
+         *        not less than {@code INITIAL_CAPACITY}
+         */
+        IntHashSet(boolean keepOrder, int maxCapacity) {
+            elements = keepOrder ? new int[INITIAL_CAPACITY] : null;
+            maxSize = maxCapacity >>> 1;
+        }
+
+        /**
+         * Adds the value to this set if not already present.
+         *
+         * @param value the value
+         * @return {@code true} if this set did not contain the value
+         */
+        boolean add(int value) {
+            if (value == 0) {
+                if (containsZero) {
+                    return false;
+                }
+                checkSize();
+                containsZero = true;
+            } else {
+                int[] tab = table;
+                int mask = tab.length - 1;
+                int i = (value * 0x9E3779B9) >>> shift;
+                for (int v; (v = tab[i]) != 0; i = (i + 1) & mask) {
+                    if (v == value) {
+                        return false;
                     }
-                    return it.hasNext();
                 }
-                @Override
-                public E next() {
-                    if (!nullDelivered) {
-                        nullDelivered = true;
-                        return null;
+                checkSize();
+                tab[i] = value;
+            }
+            if (elements != null) {
+                if (size == elements.length) {
+                    elements = Arrays.copyOf(elements, (size < maxSize >>> 1) ? size << 1 : maxSize);
+                }
+                elements[size] = value;
+            }
+            // Keep the table at most half full, which checkSize() ensures
+            // is possible without growing beyond the maximum capacity
+            if (++size > table.length >>> 1) {
+                resize();
+            }
+            return true;
+        }
+
+        private void checkSize() {
+            if (size == maxSize) {
+                throw new IllegalStateException("Distinct set size exceeds " + maxSize + " values");
+            }
+        }
+
+        private void resize() {
+            int[] oldTab = table;
+            int[] tab = new int[oldTab.length << 1];
+            int mask = tab.length - 1;
+            shift--;
+            for (int v : oldTab) {
+                if (v != 0) {
+                    int i = (v * 0x9E3779B9) >>> shift;
+                    while (tab[i] != 0) {
+                        i = (i + 1) & mask;
                     }
-                    return it.next();
+                    tab[i] = v;
+                }
+            }
+            table = tab;
+        }
+
+        /**
+         * Adds all values of the other set to this set, in the insertion
+         * order of the other set if kept.
+         *
+         * @param other the other set
+         * @return this set
+         */
+        IntHashSet addAll(IntHashSet other) {
+            if (other.elements != null) {
+                for (int i = 0; i < other.size; i++) {
+                    add(other.elements[i]);
                 }
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException();
+            } else {
+                if (other.containsZero) {
+                    add(0);
                 }
-            };
+                for (int v : other.table) {
+                    if (v != 0) {
+                        add(v);
+                    }
+                }
+            }
+            return this;
         }
 
-        @Override
-        public int size() {
-            return size;
+        /**
+         * Returns the values of this set, in insertion order if kept.
+         *
+         * @return an array containing the values of this set
+         */
+        int[] toArray() {
+            if (elements != null) {
+                return Arrays.copyOf(elements, size);
+            }
+            int[] values = new int[size];
+            int j = 0;
+            if (containsZero) {
+                values[j++] = 0;
+            }
+            for (int v : table) {
+                if (v != 0) {
+                    values[j++] = v;
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * An open-addressing hash set of {@code long} values, see
+     * {@link IntHashSet}.  Also used for {@code double} values, through
+     * their {@link Double#doubleToLongBits(double)} representation.
+     */
+    static final class LongHashSet {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+        private long[] table = new long[INITIAL_CAPACITY];
+        private int shift = 64 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+        private boolean containsZero;
+        private int size;
+        private long[] elements;
+
+        private final int maxSize;
+
+        LongHashSet(boolean keepOrder) {
+            this(keepOrder, MAXIMUM_CAPACITY);
+        }
+
+        LongHashSet(boolean keepOrder, int maxCapacity) {
+            elements = keepOrder ? new long[INITIAL_CAPACITY] : null;
+            maxSize = maxCapacity >>> 1;
+        }
+
+        boolean add(long value) {
+            if (value == 0L) {
+                if (containsZero) {
+                    return false;
+                }
+                checkSize();
+                containsZero = true;
+            } else {
+                long[] tab = table;
+                int mask = tab.length - 1;
+                int i = (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+                for (long v; (v = tab[i]) != 0L; i = (i + 1) & mask) {
+                    if (v == value) {
+                        return false;
+                    }
+                }
+                checkSize();
+                tab[i] = value;
+            }
+            if (elements != null) {
+                if (size == elements.length) {
+                    elements = Arrays.copyOf(elements, (size < maxSize >>> 1) ? size << 1 : maxSize);
+                }
+                elements[size] = value;
+            }
+            if (++size > table.length >>> 1) {
+                resize();
+            }
+            return true;
+        }
+
+        private void checkSize() {
+            if (size == maxSize) {
+                throw new IllegalStateException("Distinct set size exceeds " + maxSize + " values");
+            }
+        }
+
+        private void resize() {
+            long[] oldTab = table;
+            long[] tab = new long[oldTab.length << 1];
+            int mask = tab.length - 1;
+            shift--;
+            for (long v : oldTab) {
+                if (v != 0L) {
+                    int i = (int) ((v * 0x9E3779B97F4A7C15L) >>> shift);
+                    while (tab[i] != 0L) {
+                        i = (i + 1) & mask;
+                    }
+                    tab[i] = v;
+                }
+            }
+            table = tab;
+        }
+
+        LongHashSet addAll(LongHashSet other) {
+            if (other.elements != null) {
+                for (int i = 0; i < other.size; i++) {
+                    add(other.elements[i]);
+                }
+            } else {
+                if (other.containsZero) {
+                    add(0L);
+                }
+                for (long v : other.table) {
+                    if (v != 0L) {
+                        add(v);
+                    }
+                }
+            }
+            return this;
+        }
+
+        long[] toArray() {
+            if (elements != null) {
+                return Arrays.copyOf(elements, size);
+            }
+            long[] values = new long[size];
+            int j = 0;
+            if (containsZero) {
+                values[j++] = 0L;
+            }
+            for (long v : table) {
+                if (v != 0L) {
+                    values[j++] = v;
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Returns the number of stripes of a {@link StripedIntHashSet} or
+     * {@link StripedLongHashSet}, a power of two that is a small multiple
+     * of the parallelism.
+     *
+     * @param parallelism the parallelism of the pool
+     */
+    static int stripeCount(int parallelism) {
+        int n = Math.max(1, Math.min(parallelism, 256)) << 2;
+        return 1 << (32 - Integer.numberOfLeadingZeros(n - 1));
+    }
+
+    /**
+     * Returns the parallelism of the pool the pipeline is bound to, or of
+     * the pool of the current worker thread or the common pool if it isn't
+     * bound to a pool.
+     */
+    static int poolParallelism(PipelineHelper<?> helper) {
+        ForkJoinPool pool = helper.boundPool();
+        return (pool != null) ? pool.getParallelism() : AbstractTask.getPoolParallelism();
+    }
+
+    // Spreads the bits of the hash so that the low bits used as stripe index
+    // depend on all bits of the value
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * A concurrent set of {@code int} values shared by the splits of the
+     * lazy unordered parallel "distinct" operation.  The values are striped
+     * by hash over {@link IntHashSet}s which are each guarded by their own
+     * lock, so that threads rarely contend and no value is boxed.
+     */
+    static final class StripedIntHashSet {
+        private final IntHashSet[] stripes;
+
+        StripedIntHashSet(int parallelism) {
+            stripes = new IntHashSet[stripeCount(parallelism)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new IntHashSet(false);
+            }
+        }
+
+        boolean add(int value) {
+            IntHashSet set = stripes[spread(value) & (stripes.length - 1)];
+            synchronized (set) {
+                return set.add(value);
+            }
+        }
+    }
+
+    /**
+     * A concurrent set of {@code long} values, see {@link StripedIntHashSet}.
+     * Also used for {@code double} values, through their
+     * {@link Double#doubleToLongBits(double)} representation.
+     */
+    static final class StripedLongHashSet {
+        private final LongHashSet[] stripes;
+
+        StripedLongHashSet(int parallelism) {
+            stripes = new LongHashSet[stripeCount(parallelism)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new LongHashSet(false);
+            }
+        }
+
+        boolean add(long value) {
+            LongHashSet set = stripes[spread((int) (value ^ (value >>> 32))) & (stripes.length - 1)];
+            synchronized (set) {
+                return set.add(value);
+            }
         }
     }
 }
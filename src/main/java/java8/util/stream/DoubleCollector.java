@@ -0,0 +1,81 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Set;
+
+import java8.util.function.BinaryOperator;
+import java8.util.function.Function;
+import java8.util.function.ObjDoubleConsumer;
+import java8.util.function.Supplier;
+
+/**
+ * A <a href="package-summary.html#Reduction">mutable reduction operation</a>
+ * on {@code double} elements, the primitive specialization of {@link Collector}
+ * for {@link DoubleStream#collect(DoubleCollector)}.  The elements are folded into
+ * the mutable result container by an {@link ObjDoubleConsumer}, so that no
+ * element is boxed.
+ *
+ * <p>An {@code DoubleCollector} is specified by the same four functions, and
+ * obeys the same identity and associativity constraints, as a
+ * {@link Collector}; it uses the same {@link Collector.Characteristics}.
+ * The class {@link DoubleCollectors} provides implementations of common
+ * reductions, such as grouping and summing.
+ *
+ * <p>This interface is not part of the Java SE API.
+ *
+ * @param <A> the mutable accumulation type of the reduction operation (often
+ *            hidden as an implementation detail)
+ * @param <R> the result type of the reduction operation
+ * @see Collector
+ */
+public interface DoubleCollector<A, R> {
+    /**
+     * A function that creates and returns a new mutable result container.
+     *
+     * @return a function which returns a new, mutable result container
+     */
+    Supplier<A> supplier();
+
+    /**
+     * A function that folds a {@code double} value into a mutable result
+     * container.
+     *
+     * @return a function which folds a value into a mutable result container
+     */
+    ObjDoubleConsumer<A> accumulator();
+
+    /**
+     * A function that accepts two partial results and merges them.  The
+     * combiner function may fold state from one argument into the other and
+     * return that, or may return a new result container.
+     *
+     * @return a function which combines two partial results into a combined
+     * result
+     */
+    BinaryOperator<A> combiner();
+
+    /**
+     * Perform the final transformation from the intermediate accumulation type
+     * {@code A} to the final result type {@code R}.
+     *
+     * <p>If the characteristic {@code IDENTITY_FINISH} is
+     * set, this function may be presumed to be an identity transform with an
+     * unchecked cast from {@code A} to {@code R}.
+     *
+     * @return a function which transforms the intermediate result to the final
+     * result
+     */
+    Function<A, R> finisher();
+
+    /**
+     * Returns a {@code Set} of {@code Collector.Characteristics} indicating
+     * the characteristics of this DoubleCollector.  This set should be immutable.
+     *
+     * @return an immutable set of collector characteristics
+     */
+    Set<Collector.Characteristics> characteristics();
+}
@@ -0,0 +1,428 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import java8.util.DoubleSummaryStatistics;
+import java8.util.Maps;
+import java8.util.Objects;
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Function;
+import java8.util.function.DoubleFunction;
+import java8.util.function.DoublePredicate;
+import java8.util.function.ObjDoubleConsumer;
+import java8.util.function.Supplier;
+
+/**
+ * Implementations of {@link DoubleCollector} that implement various useful
+ * reduction operations on {@code double} elements, such as summarizing them or
+ * grouping them by a classification function, without boxing the elements.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Average the measurements per integral part
+ *     Map<Long, Double> averages = measurements.collect(
+ *         DoubleCollectors.groupingBy(d -> (long) d, DoubleCollectors.averaging()));
+ *
+ *     // Count the negative and the other values
+ *     Map<Boolean, Long> negatives = values.collect(
+ *         DoubleCollectors.partitioningBy(d -> d < 0.0, DoubleCollectors.counting()));
+ *
+ *     // Group the values by their sign into lists of Strings
+ *     Map<Double, List<String>> bySign = values.collect(
+ *         DoubleCollectors.groupingBy(Math::signum,
+ *                                     DoubleCollectors.mapping(String::valueOf, Collectors.toList())));
+ * }</pre>
+ *
+ * <p>This class is not part of the Java SE API.
+ *
+ * @see Collectors
+ */
+public final class DoubleCollectors {
+
+    private DoubleCollectors() { }
+
+    /**
+     * Returns a new {@code DoubleCollector} described by the given
+     * {@code supplier}, {@code accumulator}, and {@code combiner} functions.
+     * The resulting {@code DoubleCollector} has the
+     * {@code Collector.Characteristics.IDENTITY_FINISH} characteristic.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <R> The type of intermediate accumulation result, and final result,
+     *           for the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code DoubleCollector}
+     */
+    public static <R> DoubleCollector<R, R> of(Supplier<R> supplier,
+                                            ObjDoubleConsumer<R> accumulator,
+                                            BinaryOperator<R> combiner,
+                                            Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = (characteristics.length == 0)
+                ? Collectors.CH_ID
+                : Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.IDENTITY_FINISH,
+                                                         characteristics));
+        return new DoubleCollectorImpl<>(supplier, accumulator, combiner, cs);
+    }
+
+    /**
+     * Returns a new {@code DoubleCollector} described by the given
+     * {@code supplier}, {@code accumulator}, {@code combiner}, and
+     * {@code finisher} functions.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param finisher The finisher function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <A> The intermediate accumulation type of the new collector
+     * @param <R> The final result type of the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code DoubleCollector}
+     */
+    public static <A, R> DoubleCollector<A, R> of(Supplier<A> supplier,
+                                               ObjDoubleConsumer<A> accumulator,
+                                               BinaryOperator<A> combiner,
+                                               Function<A, R> finisher,
+                                               Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(finisher);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = Collectors.CH_NOID;
+        if (characteristics.length > 0) {
+            cs = EnumSet.noneOf(Collector.Characteristics.class);
+            Collections.addAll(cs, characteristics);
+            cs = Collections.unmodifiableSet(cs);
+        }
+        return new DoubleCollectorImpl<>(supplier, accumulator, combiner, finisher, cs);
+    }
+
+    /**
+     * Simple implementation class for {@code DoubleCollector}.
+     *
+     * @param <A> the type of the intermediate accumulation result
+     * @param <R> the type of the result
+     */
+    static class DoubleCollectorImpl<A, R> implements DoubleCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjDoubleConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        DoubleCollectorImpl(Supplier<A> supplier,
+                         ObjDoubleConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Function<A, R> finisher,
+                         Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        @SuppressWarnings("unchecked")
+        DoubleCollectorImpl(Supplier<A> supplier,
+                         ObjDoubleConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, a -> (R) a, characteristics);
+        }
+
+        @Override
+        public ObjDoubleConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Adapts a {@code Collector} accepting elements of type {@code U} to an
+     * {@code DoubleCollector} by applying a mapping function to each input
+     * element before accumulation.
+     *
+     * <p><b>API Note:</b><br>
+     * This is the bridge from the primitive collectors to the reference
+     * collectors of {@link Collectors}, for example to collect the elements
+     * of each group of a {@link #groupingBy(DoubleFunction, DoubleCollector)}
+     * into a {@code List}.
+     *
+     * @param <U> type of elements accepted by downstream collector
+     * @param <A> intermediate accumulation type of the downstream collector
+     * @param <R> result type of collector
+     * @param mapper a function to be applied to the input elements
+     * @param downstream a collector which will accept mapped values
+     * @return a {@code DoubleCollector} which applies the mapping function to
+     * the input elements and provides the mapped results to the downstream
+     * collector
+     */
+    public static <U, A, R>
+    DoubleCollector<?, R> mapping(DoubleFunction<? extends U> mapper,
+                               Collector<? super U, A, R> downstream) {
+        Objects.requireNonNull(mapper);
+        BiConsumer<A, ? super U> downstreamAccumulator = downstream.accumulator();
+        return new DoubleCollectorImpl<>(downstream.supplier(),
+                                      (r, t) -> downstreamAccumulator.accept(r, mapper.apply(t)),
+                                      downstream.combiner(), downstream.finisher(),
+                                      downstream.characteristics());
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that counts the number of input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code DoubleCollector} that counts the input elements
+     */
+    public static DoubleCollector<?, Long> counting() {
+        return new DoubleCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that produces the sum of the input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * <p>The sum returned can vary depending upon the order in which
+     * values are recorded, due to accumulated rounding error in
+     * addition of values of differing magnitudes. Values sorted by increasing
+     * absolute magnitude tend to yield more accurate results.  If any recorded
+     * value is a {@code NaN} or the sum is at any point a {@code NaN} then the
+     * sum will be {@code NaN}.
+     *
+     * @return a {@code DoubleCollector} that produces the sum of the input
+     * elements
+     * @see Collectors#summingDouble(java8.util.function.ToDoubleFunction)
+     */
+    public static DoubleCollector<?, Double> summing() {
+        // See Collectors.summingDouble for the layout of the array
+        return new DoubleCollectorImpl<>(
+                () -> new double[3],
+                (a, t) -> { Collectors.sumWithCompensation(a, t);
+                            a[2] += t; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]);
+                            a[2] += b[2];
+                            return Collectors.sumWithCompensation(a, b[1]); },
+                a -> Collectors.computeFinalSum(a),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that produces the arithmetic mean of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * <p>The average returned can vary depending upon the order in which
+     * values are recorded, due to accumulated rounding error in
+     * addition of values of differing magnitudes. Values sorted by increasing
+     * absolute magnitude tend to yield more accurate results.  If any recorded
+     * value is a {@code NaN} or the sum is at any point a {@code NaN} then the
+     * average will be {@code NaN}.
+     *
+     * @return a {@code DoubleCollector} that produces the arithmetic mean of
+     * the input elements
+     * @see Collectors#averagingDouble(java8.util.function.ToDoubleFunction)
+     */
+    public static DoubleCollector<?, Double> averaging() {
+        // See Collectors.averagingDouble for the layout of the array
+        return new DoubleCollectorImpl<>(
+                () -> new double[4],
+                (a, t) -> { Collectors.sumWithCompensation(a, t); a[2]++; a[3] += t; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]); Collectors.sumWithCompensation(a, b[1]);
+                            a[2] += b[2]; a[3] += b[3]; return a; },
+                a -> (a[2] == 0) ? 0.0d : (Collectors.computeFinalSum(a) / a[2]),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that produces the summary statistics
+     * of the input elements.
+     *
+     * @return a {@code DoubleCollector} implementing the summary-statistics
+     * reduction
+     * @see DoubleStream#summaryStatistics()
+     */
+    public static DoubleCollector<?, DoubleSummaryStatistics> summarizing() {
+        return new DoubleCollectorImpl<DoubleSummaryStatistics, DoubleSummaryStatistics>(
+                Collectors.DBL_SUM_STATS,
+                DoubleSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} implementing a "group by" operation on
+     * the input elements, grouping elements according to a classification
+     * function, and then performing a reduction operation on the values
+     * associated with a given key using the specified downstream
+     * {@code DoubleCollector}.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * The returned {@code DoubleCollector} is not concurrent.  For parallel
+     * stream pipelines, the {@code combiner} function operates by merging the
+     * keys from one map into another, which can be an expensive operation.
+     *
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the cascaded group-by
+     * operation
+     * @see Collectors#groupingBy(Function, Collector)
+     */
+    public static <K, A, D>
+    DoubleCollector<?, Map<K, D>> groupingBy(DoubleFunction<? extends K> classifier,
+                                          DoubleCollector<A, D> downstream) {
+        return groupingBy(classifier, HashMap::new, downstream);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} implementing a cascaded "group by"
+     * operation on the input elements, grouping elements according to a
+     * classification function, and then performing a reduction operation on
+     * the values associated with a given key using the specified downstream
+     * {@code DoubleCollector}.  The {@code Map} produced by the collector is
+     * created with the supplied factory function.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * The returned {@code DoubleCollector} is not concurrent.  For parallel
+     * stream pipelines, the {@code combiner} function operates by merging the
+     * keys from one map into another, which can be an expensive operation.
+     *
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param <M> the type of the resulting {@code Map}
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapFactory a supplier providing a new empty {@code Map}
+     *                   into which the results will be inserted
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the cascaded group-by
+     * operation
+     * @see Collectors#groupingBy(Function, Supplier, Collector)
+     */
+    public static <K, D, A, M extends Map<K, D>>
+    DoubleCollector<?, M> groupingBy(DoubleFunction<? extends K> classifier,
+                                  Supplier<M> mapFactory,
+                                  DoubleCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapFactory);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjDoubleConsumer<Map<K, A>> accumulator = (m, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            A container = Maps.computeIfAbsent(m, key, k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<Map<K, A>> merger = Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner());
+        @SuppressWarnings("unchecked")
+        Supplier<Map<K, A>> mangledFactory = (Supplier<Map<K, A>>) mapFactory;
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new DoubleCollectorImpl<>(mangledFactory, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<Map<K, A>, M> finisher = intermediate -> {
+                Maps.replaceAll(intermediate, (k, v) -> downstreamFinisher.apply(v));
+                @SuppressWarnings("unchecked")
+                M castResult = (M) intermediate;
+                return castResult;
+            };
+            return new DoubleCollectorImpl<>(mangledFactory, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} which partitions the input elements
+     * according to a {@code DoublePredicate}, reduces the values in each
+     * partition according to another {@code DoubleCollector}, and organizes
+     * them into a {@code Map<Boolean, D>} whose values are the result of the
+     * downstream reduction.
+     *
+     * <p>The returned {@code Map} always contains mappings for both
+     * {@code false} and {@code true} keys.  There are no guarantees on the
+     * type, mutability, serializability, or thread-safety of the {@code Map}
+     * returned.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the cascaded partitioning
+     * operation
+     * @see Collectors#partitioningBy(java8.util.function.Predicate, Collector)
+     */
+    public static <A, D>
+    DoubleCollector<?, Map<Boolean, D>> partitioningBy(DoublePredicate predicate,
+                                                    DoubleCollector<A, D> downstream) {
+        Objects.requireNonNull(predicate);
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjDoubleConsumer<Collectors.Partition<A>> accumulator = (result, t) ->
+                downstreamAccumulator.accept(predicate.test(t) ? result.forTrue : result.forFalse, t);
+        BinaryOperator<A> op = downstream.combiner();
+        BinaryOperator<Collectors.Partition<A>> merger = (left, right) ->
+                new Collectors.Partition<>(op.apply(left.forTrue, right.forTrue),
+                                           op.apply(left.forFalse, right.forFalse));
+        Supplier<Collectors.Partition<A>> supplier = () ->
+                new Collectors.Partition<>(downstream.supplier().get(),
+                                           downstream.supplier().get());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new DoubleCollectorImpl<>(supplier, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            Function<Collectors.Partition<A>, Map<Boolean, D>> finisher = par ->
+                    new Collectors.Partition<>(downstream.finisher().apply(par.forTrue),
+                                               downstream.finisher().apply(par.forFalse));
+            return new DoubleCollectorImpl<>(supplier, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+}
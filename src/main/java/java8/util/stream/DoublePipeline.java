@@ -283,6 +283,29 @@ abstract class DoublePipeline<E_IN>
         };
     }
 
+    @Override
+    public final DoubleStream mapMulti(DoubleStream.DoubleMapMultiConsumer mapper) {
+        Objects.requireNonNull(mapper);
+        return new StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
+                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                return new Sink.ChainedDouble<Double>(sink) {
+                    DoubleConsumer downstreamAsDouble = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        mapper.accept(t, downstreamAsDouble);
+                    }
+                };
+            }
+        };
+    }
+
     @Override
     public DoubleStream unordered() {
         if (!isOrdered())
@@ -367,6 +390,21 @@ abstract class DoublePipeline<E_IN>
         return WhileOps.makeDropWhileDouble(this, predicate);
     }
 
+    @Override
+    public final Stream<double[]> windowFixed(int windowSize) {
+        return WindowOps.makeDouble(this, windowSize, false);
+    }
+
+    @Override
+    public final Stream<double[]> windowSliding(int windowSize) {
+        return WindowOps.makeDouble(this, windowSize, true);
+    }
+
+    @Override
+    public final DoubleStream scan(double identity, DoubleBinaryOperator accumulator) {
+        return ScanOps.makeDouble(this, identity, accumulator);
+    }
+
     @Override
     public final DoubleStream sorted() {
         return SortedOps.makeDouble(this);
@@ -374,9 +412,7 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final DoubleStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a double-specific map/set implementation.
-        return boxed().distinct().mapToDouble(i -> (double) i);
+        return DistinctOps.makeDouble(this);
     }
 
     // Terminal ops from DoubleStream
@@ -493,6 +529,25 @@ abstract class DoublePipeline<E_IN>
         return evaluate(ReduceOps.makeDouble(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <A, R> R collect(DoubleCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjDoubleConsumer<A> accumulator = collector.accumulator();
+            forEach(e -> accumulator.accept(container, e));
+        }
+        else {
+            container = evaluate(ReduceOps.makeDouble(collector));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(DoublePredicate predicate) {
         return evaluate(MatchOps.makeDouble(predicate, MatchOps.MatchKind.ANY));
@@ -160,6 +160,36 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
      */
     DoubleStream flatMap(DoubleFunction<? extends DoubleStream> mapper);
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * this stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain DoubleConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain DoubleConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMap flatMap} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with a {@code DoubleConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates a {@code DoubleStream} from the
+     * internal buffer. Finally, it returns this stream to {@code flatMap}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see Stream#mapMulti Stream.mapMulti
+     * @since 16
+     */
+    DoubleStream mapMulti(DoubleMapMultiConsumer mapper);
+
     /**
      * Returns a stream consisting of the distinct elements of this stream. The
      * elements are compared for equality according to
@@ -395,6 +425,136 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
      */
     DoubleStream dropWhile(DoublePredicate predicate);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a fixed size.
+     * If the stream is empty then no window will be produced.  The last window
+     * may contain fewer elements than the supplied window size.
+     *
+     * <p>Each window is a newly allocated {@code double} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2, 3], [4, 5, 6], [7, 8]]
+     *     List<double[]> windows =
+     *         DoubleStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowFixed(3).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<double[]> windowFixed(int windowSize);
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a given size,
+     * where each subsequent window includes all elements of the previous
+     * window except for the least recent, and adds the next element in the
+     * stream.  If the stream is empty then no window will be produced.  If the
+     * size of the stream is smaller than the window size then only one window
+     * will be produced, containing all elements in the stream.
+     *
+     * <p>Each window is a newly allocated {@code double} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2], [2, 3], [3, 4], [4, 5], [5, 6], [6, 7], [7, 8]]
+     *     List<double[]> windows =
+     *         DoubleStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(2).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<double[]> windowSliding(int windowSize);
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of this stream: the element at each position is the result of
+     * accumulating the identity and, in encounter order, all elements of this
+     * stream up to and including the one at that position.  This is
+     * equivalent to:
+     * <pre>{@code
+     *     double result = identity;
+     *     for (double element : this stream) {
+     *         result = accumulator.applyAsDouble(result, element);
+     *         // the next element of the returned stream is result
+     *     }
+     * }</pre>
+     *
+     * <p>The returned stream has as many elements as this stream.  The
+     * accumulator function must be an associative function.
+     *
+     * <p>Floating-point addition and multiplication are not associative, so
+     * that the values of a parallel scan with these functions may differ from
+     * those of a sequential one in their last bits.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the running totals of a stream:
+     * <pre>{@code
+     *     // will contain: [0.5, 1.5, 3.0, 5.0]
+     *     double[] totals = DoubleStreams.of(0.5, 1.0, 1.5, 2.0).scan(0.0, (a, b) -> a + b).toArray();
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * A sequential pipeline carries the accumulation from one element to the
+     * next, without buffering.  In a parallel pipeline whose upstream size is
+     * known the upstream elements are collected into an array first, which is
+     * filled in parallel and without intermediate copies.  The array is then
+     * cumulated in place in two parallel passes, like
+     * {@link java8.util.J8Arrays#parallelPrefix(double[], DoubleBinaryOperator)
+     * J8Arrays.parallelPrefix} does.  If the size of
+     * the upstream isn't known, as for an infinite stream, the accumulation
+     * is carried through the upstream elements in encounter order as they
+     * are requested, so that a downstream short-circuiting operation such as
+     * {@code limit} terminates.  Only the operations following the scan are
+     * then evaluated in parallel.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    DoubleStream scan(double identity, DoubleBinaryOperator accumulator);
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -574,6 +734,42 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
                   ObjDoubleConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using a
+     * {@code DoubleCollector}, the primitive specialization of a
+     * {@link Collector}.  A {@code DoubleCollector} encapsulates the functions
+     * used as arguments to {@link #collect(Supplier, ObjDoubleConsumer, BiConsumer)},
+     * allowing for reuse of collection strategies and composition of collect
+     * operations such as multiple-level grouping or partitioning, without
+     * boxing the elements.
+     *
+     * <p>If the stream is parallel, and the {@code DoubleCollector}
+     * is {@link Collector.Characteristics#CONCURRENT concurrent}, and
+     * either the stream is unordered or the collector is
+     * {@link Collector.Characteristics#UNORDERED unordered},
+     * then a concurrent reduction will be performed (see {@link Collector} for
+     * details on concurrent reduction.)
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * The following will classify the elements:
+     * <pre>{@code
+     *     Map<Boolean, Double> sumsBySign
+     *         = doubleStream.collect(DoubleCollectors.partitioningBy(d -> d < 0.0, DoubleCollectors.summing()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the {@code DoubleCollector}
+     * @param <R> the type of the result
+     * @param collector the {@code DoubleCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjDoubleConsumer, BiConsumer)
+     * @see DoubleCollectors
+     */
+    <A, R> R collect(DoubleCollector<A, R> collector);
+
     /**
      * Returns the sum of elements in this stream.
      *
@@ -884,6 +1080,31 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
     Spliterator.OfDouble spliterator();
 
 
+    /**
+     * Represents an operation that accepts a {@code double}-valued argument
+     * and an {@code DoubleConsumer}, and returns no result. This functional interface is
+     * used by {@link DoubleStream#mapMulti(DoubleMapMultiConsumer) DoubleStream.mapMulti}
+     * to replace a {@code double} value with zero or more {@code double} values.
+     *
+     * <p>This is a <a href="../function/package-summary.html">functional interface</a>
+     * whose functional method is {@link #accept(double, DoubleConsumer)}.
+     *
+     * @see DoubleStream#mapMulti(DoubleMapMultiConsumer)
+     *
+     * @since 16
+     */
+    public interface DoubleMapMultiConsumer {
+
+        /**
+         * Replaces the given {@code value} with zero or more values by feeding the mapped
+         * values to the {@code ic} consumer.
+         *
+         * @param value the {@code double} value coming from upstream
+         * @param ic an {@code DoubleConsumer} accepting the mapped values
+         */
+        void accept(double value, DoubleConsumer ic);
+    }
+
     /**
      * A mutable builder for a {@code DoubleStream}.
      *
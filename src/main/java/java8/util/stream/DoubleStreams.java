@@ -27,16 +27,25 @@ package java8.util.stream;
 import java8.util.Objects;
 import java8.util.Spliterator;
 import java8.util.Spliterators;
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.DoubleBinaryOperator;
 import java8.util.function.DoubleConsumer;
 import java8.util.function.DoublePredicate;
 import java8.util.function.DoubleSupplier;
 import java8.util.function.DoubleUnaryOperator;
+import java8.util.function.LongFunction;
+import java8.util.function.LongToDoubleFunction;
+import java8.util.function.ObjDoubleConsumer;
+import java8.util.function.Supplier;
 import java8.util.stream.DoubleStream.Builder;
 
 /**
  * A place for static default implementations of the new Java 8/9 static
  * interface methods and default interface methods ({@code takeWhile()},
- * {@code dropWhile()}) in the {@link DoubleStream} interface.
+ * {@code dropWhile()}, {@code mapMulti()}, {@code windowFixed()},
+ * {@code windowSliding()}, {@code scan()}, {@code collect(DoubleCollector)}) in the
+ * {@link DoubleStream} interface.
  */
 public final class DoubleStreams {
 
@@ -94,6 +103,175 @@ public final class DoubleStreams {
                 stream.isParallel()).onClose(StreamSupport.closeHandler(stream));
     }
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * the passed stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain DoubleConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link DoubleStream#flatMap flatMap} on
+     * the passed stream, passing a function that behaves as follows. First, it
+     * calls the mapper function with a {@code DoubleConsumer} that accumulates
+     * replacement elements into a newly created internal buffer. When the mapper
+     * function returns, it creates a {@code DoubleStream} from the internal
+     * buffer. Finally, it returns this stream to {@code flatMap}.
+     *
+     * @param stream the stream to wrap for the {@code mapMulti()} operation
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @since 16
+     */
+    public static DoubleStream mapMulti(DoubleStream stream, DoubleStream.DoubleMapMultiConsumer mapper) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(mapper);
+        return stream.flatMap(e -> {
+            SpinedBuffer.OfDouble buffer = new SpinedBuffer.OfDouble();
+            mapper.accept(e, buffer);
+            return StreamSupport.doubleStream(buffer.spliterator(), false);
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the elements of the passed stream grouped
+     * into windows of a fixed size.  The last window may contain fewer elements
+     * than the supplied window size.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link DoubleStream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and groups its elements.  The returned stream preserves the
+     * execution characteristics of the passed stream (namely parallel or
+     * sequential execution as per {@link DoubleStream#isParallel()}) and the close
+     * handlers of the passed stream are run when the returned stream is
+     * closed.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param stream the stream to group into windows
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    public static Stream<double[]> windowFixed(DoubleStream stream, int windowSize) {
+        Objects.requireNonNull(stream);
+        return StreamSupport.doubleStream(stream.spliterator(), stream.isParallel())
+                .windowFixed(windowSize).onClose(StreamSupport.closeHandler(stream));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of the passed stream grouped
+     * into sliding windows of a given size.  If the size of the passed stream
+     * is smaller than the window size then only one window will be produced,
+     * containing all elements in the passed stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link DoubleStream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and groups its elements.  The returned stream preserves the
+     * execution characteristics of the passed stream (namely parallel or
+     * sequential execution as per {@link DoubleStream#isParallel()}) and the close
+     * handlers of the passed stream are run when the returned stream is
+     * closed.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param stream the stream to group into windows
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    public static Stream<double[]> windowSliding(DoubleStream stream, int windowSize) {
+        Objects.requireNonNull(stream);
+        return StreamSupport.doubleStream(stream.spliterator(), stream.isParallel())
+                .windowSliding(windowSize).onClose(StreamSupport.closeHandler(stream));
+    }
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of the passed stream: the element at each position is the
+     * result of accumulating the identity and, in encounter order, all
+     * elements of the passed stream up to and including the one at that
+     * position.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link DoubleStream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and accumulates its elements.  The returned stream
+     * preserves the execution characteristics of the passed stream (namely
+     * parallel or sequential execution as per {@link DoubleStream#isParallel()})
+     * and the close handlers of the passed stream are run when the returned
+     * stream is closed.
+     *
+     * @param stream the stream to accumulate
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    public static DoubleStream scan(DoubleStream stream, double identity, DoubleBinaryOperator accumulator) {
+        Objects.requireNonNull(stream);
+        return StreamSupport.doubleStream(stream.spliterator(), stream.isParallel())
+                .scan(identity, accumulator).onClose(StreamSupport.closeHandler(stream));
+    }
+
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of the passed stream using a
+     * {@code DoubleCollector}, the primitive specialization of a
+     * {@link Collector}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation performs the reduction with
+     * {@link DoubleStream#collect(Supplier, ObjDoubleConsumer, BiConsumer)},
+     * holding each intermediate result of the collector in a one-element
+     * array so that the combiner of the collector may return a new result
+     * container, and then applies the finisher of the collector unless it
+     * has the {@link Collector.Characteristics#IDENTITY_FINISH IDENTITY_FINISH}
+     * characteristic.  It never performs a concurrent reduction.
+     *
+     * @param <A> the intermediate accumulation type of the {@code DoubleCollector}
+     * @param <R> the type of the result
+     * @param stream the stream to reduce
+     * @param collector the {@code DoubleCollector} describing the reduction
+     * @return the result of the reduction
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, R> R collect(DoubleStream stream, DoubleCollector<A, R> collector) {
+        Objects.requireNonNull(stream);
+        Supplier<A> supplier = collector.supplier();
+        ObjDoubleConsumer<A> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        Object[] box = stream.collect(() -> new Object[] { supplier.get() },
+                (b, e) -> accumulator.accept((A) b[0], e),
+                (l, r) -> { l[0] = combiner.apply((A) l[0], (A) r[0]); });
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) box[0]
+               : collector.finisher().apply((A) box[0]);
+    }
+
     // Static factories
 
     /**
@@ -277,6 +455,68 @@ public final class DoubleStreams {
                 new StreamSpliterators.InfiniteSupplyingSpliterator.OfDouble(Long.MAX_VALUE, s), false);
     }
 
+    /**
+     * Returns a sequential ordered {@code DoubleStream} of {@code n} elements, where
+     * the element at index {@code i} is {@code f.applyAsDouble(i)}.
+     *
+     * <p>Unlike a stream of {@code iterate()} or {@code generate()} limited to
+     * {@code n} elements, the stream is {@code SIZED} and splits by index
+     * range like {@link LongStreams#range(long, long)}, so a parallel
+     * evaluation computes the elements of each split independently.  The
+     * function may be called for the indices in any order and from any
+     * thread, and must be stateless.
+     *
+     * @param n the number of elements
+     * @param f a function that computes the element at an index
+     * @return a new sequential {@code DoubleStream}
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static DoubleStream tabulate(long n, LongToDoubleFunction f) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        Objects.requireNonNull(f);
+        return LongStreams.range(0, n).mapToDouble(f);
+    }
+
+    /**
+     * Returns a sequential ordered {@code DoubleStream} of the first {@code n}
+     * elements produced by iterative application of the {@code next}
+     * function to the initial element {@code seed}, like
+     * {@code iterate(seed, next).limit(n)}, given a {@code jump} function
+     * that advances the sequence by any number of steps at once.
+     *
+     * <p>{@code jump.apply(k)} must return a function that maps an element to
+     * the element {@code k} positions after it, the same as {@code k}
+     * applications of {@code next} would.  With it the stream is
+     * {@code SIZED} and splits by index range: a split computes the first
+     * element of its suffix with a single jump from the first element of its
+     * prefix, and each part then steps through its elements with {@code next}
+     * on its own.  For a recurrence whose jump takes {@code O(log k)} time,
+     * such as a linear congruential generator or the powers of a matrix, a
+     * parallel evaluation can use all cores, where {@code iterate().limit(n)}
+     * only ever uses one.  The functions may be called from any thread, and
+     * must be stateless.
+     *
+     * @param seed the initial element
+     * @param n the number of elements
+     * @param next a function to be applied to the previous element to produce
+     *             a new element
+     * @param jump a function that returns, for a number of steps {@code k > 0},
+     *             a function that advances an element by {@code k} steps
+     * @return a new sequential {@code DoubleStream}
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static DoubleStream iterate(double seed, long n, DoubleUnaryOperator next,
+                                       LongFunction<? extends DoubleUnaryOperator> jump) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        Objects.requireNonNull(next);
+        Objects.requireNonNull(jump);
+        return StreamSupport.doubleStream(new Streams.DoubleIterateSpliterator(seed, 0, n, next, jump), false);
+    }
+
     /**
      * Creates a lazily concatenated stream whose elements are all the
      * elements of the first stream followed by all the elements of the
@@ -322,6 +562,59 @@ public final class DoubleStreams {
         return stream.onClose(Streams.composedClose(a, b));
     }
 
+    /**
+     * Creates a lazily zipped stream whose elements are the results of
+     * applying the given function to the elements of the first and of the
+     * second stream at the same position.  The zipped stream is as long as
+     * the shorter of the input streams; the remaining elements of the longer
+     * one are ignored.  The resulting stream is ordered if both of the input
+     * streams are ordered, and parallel if either of the input streams is
+     * parallel.  When the resulting stream is closed, the close handlers for
+     * both input streams are invoked.
+     *
+     * <p>This method operates on the two input streams and binds each stream
+     * to its source.  As a result subsequent modifications to an input stream
+     * source may not be reflected in the zipped stream result.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * If the sources of both input streams are {@code SIZED} and
+     * {@code SUBSIZED}, as those of arrays, lists and ranges are, the zipped
+     * stream splits them at the same index.  It can then be split for parallel
+     * evaluation as finely as the input streams, and its exact size is known.
+     * Otherwise splitting it copies batches of zipped elements into arrays.
+     * <p>Subsequent changes to the sequential/parallel execution mode of the
+     * returned stream are not guaranteed to be propagated to the input streams.
+     *
+     * <p><b>API Note:</b><br>
+     * Unlike zipping through a stream of indices, such as
+     * {@code IntStreams.range(0, n).mapToDouble(i -> x[i] * y[i])}, this needs
+     * no random access to the sources and keeps the pipelines of the input
+     * streams fused.  For example, the dot product of two {@code double}
+     * columns of equal length is:
+     * <pre>{@code
+     *     double dot = DoubleStreams.zip(J8Arrays.stream(x), J8Arrays.stream(y),
+     *                                    (u, v) -> u * v).parallel().sum();
+     * }</pre>
+     *
+     * @param a the first stream
+     * @param b the second stream
+     * @param zipper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that combines an element of the first stream
+     *               with the element of the second stream at the same position
+     * @return the zipped stream
+     */
+    public static DoubleStream zip(DoubleStream a, DoubleStream b, DoubleBinaryOperator zipper) {
+        Objects.requireNonNull(a);
+        Objects.requireNonNull(b);
+        Objects.requireNonNull(zipper);
+
+        Spliterator.OfDouble split = new Streams.ZipSpliterator.OfDouble(
+                a.spliterator(), b.spliterator(), zipper);
+        DoubleStream stream = StreamSupport.doubleStream(split, a.isParallel() || b.isParallel());
+        return stream.onClose(Streams.composedClose(a, b));
+    }
+
     private DoubleStreams() {
     }
 }
@@ -30,7 +30,6 @@ import java.util.concurrent.ConcurrentMap;
 import java8.util.Objects;
 import java8.util.Spliterator;
 import java8.util.concurrent.CountedCompleter;
-import java8.util.concurrent.ForkJoinPool;
 import java8.util.function.Consumer;
 import java8.util.function.DoubleConsumer;
 import java8.util.function.IntConsumer;
@@ -330,17 +329,35 @@ final class ForEachOps {
         public void compute() {
             Spliterator<S> rightSplit = spliterator, leftSplit;
             long sizeEstimate = rightSplit.estimateSize(), sizeThreshold;
+            SplitPolicy policy = helper.splitPolicy();
             if ((sizeThreshold = targetSize) == 0L) {
-                targetSize = sizeThreshold = AbstractTask.suggestTargetSize(sizeEstimate);
+                targetSize = sizeThreshold = AbstractTask.suggestTargetSize(helper, sizeEstimate);
+            }
+            else if (policy != null && policy.isAdaptive()) {
+                targetSize = sizeThreshold = Math.max(policy.refineTargetSize(sizeThreshold), 1L);
+            }
+            if (policy != null && !policy.isAdaptive()) {
+                policy = null;
             }
             boolean isShortCircuit = StreamOpFlag.SHORT_CIRCUIT.isKnown(helper.getStreamAndOpFlags());
             boolean forkRight = false;
+            CancellationToken token = helper.cancellationToken();
             Sink<S> taskSink = sink;
             ForEachTask<S, T> task = this;
             while (!isShortCircuit || !taskSink.cancellationRequested()) {
+                if (token != null) {
+                    token.throwIfCancellationRequested();
+                }
                 if (sizeEstimate <= sizeThreshold ||
                     (leftSplit = rightSplit.trySplit()) == null) {
-                    task.helper.copyInto(taskSink, rightSplit);
+                    if (policy != null) {
+                        long start = System.nanoTime();
+                        task.helper.copyInto(taskSink, rightSplit);
+                        policy.leafCompleted(sizeEstimate, System.nanoTime() - start);
+                    }
+                    else {
+                        task.helper.copyInto(taskSink, rightSplit);
+                    }
                     break;
                 }
                 ForEachTask<S, T> leftTask = new ForEachTask<>(task, leftSplit);
@@ -428,10 +445,10 @@ final class ForEachOps {
             super(null);
             this.helper = helper;
             this.spliterator = spliterator;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = AbstractTask.suggestTargetSize(helper, spliterator.estimateSize());
             // Size map to avoid concurrent re-sizes
             this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.getLeafTarget() << 1),
-                    0.75f, ForkJoinPool.getCommonPoolParallelism() + 1);
+                    0.75f, AbstractTask.getPoolParallelism() + 1);
             this.action = action;
             this.leftPredecessor = null;
         }
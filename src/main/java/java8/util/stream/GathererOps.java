@@ -0,0 +1,320 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.concurrent.CountedCompleter;
+import java8.util.function.BiConsumer;
+import java8.util.function.IntFunction;
+
+/**
+ * Factory for instances of a stateful intermediate operation that evaluates
+ * a {@link Gatherer} as a stage of a reference stream pipeline.
+ *
+ * <p>Sequential evaluation pushes each upstream element straight through the
+ * gatherer's integrator into the downstream sink, so a gather stage is fused
+ * with its neighbouring stages into a single pass.  Parallel evaluation of a
+ * gatherer with a combiner integrates each leaf of the computation tree into
+ * its own state, combines the states of sibling tasks with the combiner and
+ * concatenates their outputs in encounter order; the finisher is invoked
+ * once, on the root state.
+ *
+ * @since 24
+ */
+final class GathererOps {
+
+    private GathererOps() {
+    }
+
+    /**
+     * Appends a "gather" operation to the provided stream.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of the gatherer's state
+     * @param <R> the type of output elements
+     * @param upstream a reference stream with element type T
+     * @param gatherer the gatherer to apply
+     * @return the new stream
+     */
+    static <T, A, R> Stream<R> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       final Gatherer<? super T, A, R> gatherer) {
+        Objects.requireNonNull(gatherer);
+        final boolean greedy = gatherer.integrator() instanceof Gatherer.Integrator.Greedy;
+        int opFlags = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED
+                | (greedy ? 0 : StreamOpFlag.IS_SHORT_CIRCUIT);
+        return new ReferencePipeline.StatefulOp<T, R>(upstream, StreamShape.REFERENCE, opFlags) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<R> sink) {
+                return new GatherSink<T, A, R>(gatherer, sink, true);
+            }
+
+            @Override
+            <P_IN> Node<R> opEvaluateParallel(PipelineHelper<R> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<R[]> generator) {
+                @SuppressWarnings("unchecked")
+                PipelineHelper<T> upstreamHelper = (PipelineHelper<T>) (PipelineHelper<?>) helper;
+                if (!Gatherers.isParallelizable(gatherer)) {
+                    // Without a combiner the integrator must see all elements
+                    // in encounter order, evaluate in the calling thread
+                    Node.Builder<R> builder = Nodes.builder(-1, generator);
+                    gatherInto(upstreamHelper, new GatherSink<T, A, R>(gatherer, builder, true),
+                               spliterator, greedy);
+                    return builder.build();
+                }
+                GatherTask<P_IN, T, A, R> task = new GatherTask<>(upstreamHelper, spliterator,
+                                                                  gatherer, generator, greedy);
+                return task.finish(task.invoke());
+            }
+        };
+    }
+
+    private static <P_IN, T> boolean gatherInto(PipelineHelper<T> helper, Sink<T> sink,
+                                                Spliterator<P_IN> spliterator,
+                                                boolean greedy) {
+        Sink<P_IN> wrappedSink = helper.wrapSink(sink);
+        if (greedy) {
+            helper.copyInto(wrappedSink, spliterator);
+            return false;
+        }
+        return helper.copyIntoWithCancel(wrappedSink, spliterator);
+    }
+
+    /**
+     * A {@code Sink} that feeds the elements it receives to the integrator of
+     * a gatherer, acting as the gatherer's {@code Downstream} by relaying the
+     * pushed elements to the downstream sink.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of the gatherer's state
+     * @param <R> the type of output elements
+     */
+    static final class GatherSink<T, A, R> extends Sink.ChainedReference<T, R>
+            implements Gatherer.Downstream<R> {
+        private final Gatherer<? super T, A, R> gatherer;
+        private final Gatherer.Integrator<A, ? super T, R> integrator;
+        // Invoke the finisher on end(), false for leaves of a parallel computation
+        private final boolean finish;
+        A state;
+        // False once the integrator returned false
+        boolean proceed;
+
+        GatherSink(Gatherer<? super T, A, R> gatherer, Sink<? super R> downstream, boolean finish) {
+            super(downstream);
+            this.gatherer = gatherer;
+            this.integrator = gatherer.integrator();
+            this.finish = finish;
+        }
+
+        @Override
+        public void begin(long size) {
+            state = gatherer.initializer().get();
+            proceed = true;
+            downstream.begin(-1);
+        }
+
+        @Override
+        public void accept(T t) {
+            if (proceed) {
+                proceed = integrator.integrate(state, t, this);
+            }
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return !proceed || downstream.cancellationRequested();
+        }
+
+        @Override
+        public void end() {
+            if (finish) {
+                BiConsumer<A, Gatherer.Downstream<? super R>> finisher = gatherer.finisher();
+                if (finisher != Gatherers.<A, R>defaultFinisher()) {
+                    finisher.accept(state, this);
+                }
+                state = null;
+            }
+            downstream.end();
+        }
+
+        @Override
+        public boolean push(R element) {
+            if (downstream.cancellationRequested()) {
+                return false;
+            }
+            downstream.accept(element);
+            return !downstream.cancellationRequested();
+        }
+
+        @Override
+        public boolean isRejecting() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    /**
+     * {@code ForkJoinTask} implementing the parallel evaluation of a gatherer
+     * that has a combiner.
+     * <p>
+     * Each leaf task integrates its elements into a fresh state, buffering the
+     * pushed elements into a {@code Node}.  Sibling results are merged by
+     * combining their states and concatenating their nodes.  If a leaf
+     * short-circuits then all tasks later in the encounter order are
+     * canceled and their results discarded.  The finisher is invoked on the
+     * combined state of the root task once the computation completes.
+     *
+     * @param <P_IN> Input element type to the stream pipeline
+     * @param <T> Input element type to the gatherer
+     * @param <A> the type of the gatherer's state
+     * @param <R> Output element type of the gatherer
+     */
+    @SuppressWarnings("serial")
+    private static final class GatherTask<P_IN, T, A, R>
+            extends AbstractShortCircuitTask<P_IN, T, Node<R>, GatherTask<P_IN, T, A, R>> {
+        private final Gatherer<? super T, A, R> gatherer;
+        private final IntFunction<R[]> generator;
+        private final boolean greedy;
+        // The state of this task, valid only if hasState is true
+        private A state;
+        private boolean hasState;
+        // True if a short-circuited
+        private boolean shortCircuited;
+        // True if completed, must be set after the local result
+        private volatile boolean completed;
+
+        GatherTask(PipelineHelper<T> helper,
+                   Spliterator<P_IN> spliterator,
+                   Gatherer<? super T, A, R> gatherer,
+                   IntFunction<R[]> generator,
+                   boolean greedy) {
+            super(helper, spliterator);
+            this.gatherer = gatherer;
+            this.generator = generator;
+            this.greedy = greedy;
+        }
+
+        GatherTask(GatherTask<P_IN, T, A, R> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            this.gatherer = parent.gatherer;
+            this.generator = parent.generator;
+            this.greedy = parent.greedy;
+        }
+
+        @Override
+        protected GatherTask<P_IN, T, A, R> makeChild(Spliterator<P_IN> spliterator) {
+            return new GatherTask<>(this, spliterator);
+        }
+
+        @Override
+        protected final Node<R> getEmptyResult() {
+            return Nodes.emptyNode(StreamShape.REFERENCE);
+        }
+
+        @Override
+        protected final Node<R> doLeaf() {
+            Node.Builder<R> builder = Nodes.builder(-1, generator);
+            GatherSink<T, A, R> s = new GatherSink<>(gatherer, builder, false);
+
+            if (shortCircuited = gatherInto(helper, s, spliterator, greedy)) {
+                // Cancel later nodes if the integrator returned false
+                // during traversal
+                cancelLaterNodes();
+            }
+
+            state = s.state;
+            hasState = true;
+            return builder.build();
+        }
+
+        @Override
+        public final void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf()) {
+                GatherTask<P_IN, T, A, R> left = leftChild, right = rightChild;
+                Node<R> result;
+                if (canceled) {
+                    result = getEmptyResult();
+                }
+                else if (left.shortCircuited || !right.hasState) {
+                    // Integration finished on the left node, or the right
+                    // node was canceled, so only the left node contributes
+                    shortCircuited = left.shortCircuited;
+                    state = left.state;
+                    hasState = left.hasState;
+                    result = left.getLocalResult();
+                }
+                else if (!left.hasState) {
+                    shortCircuited = right.shortCircuited;
+                    state = right.state;
+                    hasState = true;
+                    result = right.getLocalResult();
+                }
+                else {
+                    shortCircuited = right.shortCircuited;
+                    state = gatherer.combiner().apply(left.state, right.state);
+                    hasState = true;
+                    result = merge(left.getLocalResult(), right.getLocalResult());
+                }
+                left.state = right.state = null;
+                setLocalResult(result);
+            }
+
+            completed = true;
+            super.onCompletion(caller);
+        }
+
+        private Node<R> merge(Node<R> left, Node<R> right) {
+            if (left.count() == 0) {
+                return right;
+            }
+            else if (right.count() == 0) {
+                return left;
+            }
+            return Nodes.conc(StreamShape.REFERENCE, left, right);
+        }
+
+        /**
+         * Invokes the finisher, if any, on the combined state of this root
+         * task, appending its output to the given result.
+         */
+        Node<R> finish(Node<R> result) {
+            BiConsumer<A, Gatherer.Downstream<? super R>> finisher = gatherer.finisher();
+            if (finisher == Gatherers.<A, R>defaultFinisher()) {
+                return result;
+            }
+            final Node.Builder<R> builder = Nodes.builder(-1, generator);
+            builder.begin(-1);
+            finisher.accept(hasState ? state : gatherer.initializer().get(),
+                            new Gatherer.Downstream<R>() {
+                @Override
+                public boolean push(R element) {
+                    builder.accept(element);
+                    return true;
+                }
+
+                @Override
+                public boolean isRejecting() {
+                    return false;
+                }
+            });
+            builder.end();
+            state = null;
+            return merge(result, builder.build());
+        }
+
+        @Override
+        protected void cancel() {
+            super.cancel();
+            if (completed) {
+                // If the task is completed then clear the result, if any
+                // to aid GC
+                setLocalResult(getEmptyResult());
+                state = null;
+                hasState = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package java8.util.stream;
+
+import java8.util.Objects;
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Supplier;
+import java8.util.stream.Gatherer.Downstream;
+import java8.util.stream.Gatherer.Integrator;
+
+/**
+ * Implementations of {@link Gatherer} that provide useful intermediate
+ * operations, and the static factory and composition methods that the
+ * {@code Gatherer} interface cannot declare in this backport.
+ *
+ * @since 24
+ */
+public final class Gatherers {
+
+    private Gatherers() {
+    }
+
+    /**
+     * Singleton sentinel used for the default initializer, combiner and
+     * finisher of a {@code Gatherer}.
+     */
+    @SuppressWarnings("rawtypes")
+    private enum Value implements Supplier, BinaryOperator, BiConsumer {
+        DEFAULT;
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object apply(Object left, Object right) {
+            throw new UnsupportedOperationException("This combiner cannot be used!");
+        }
+
+        @Override
+        public void accept(Object state, Object downstream) {
+            // noop
+        }
+    }
+
+    /**
+     * Returns an initializer which is the default initializer of a Gatherer.
+     * The returned initializer identifies that the owner Gatherer is stateless.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * This method always returns the same instance.
+     *
+     * @see Gatherer#initializer()
+     * @return the instance of the default initializer
+     * @param <A> the type of the state of the returned initializer
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> Supplier<A> defaultInitializer() {
+        return (Supplier<A>) Value.DEFAULT;
+    }
+
+    /**
+     * Returns a combiner which is the default combiner of a Gatherer.
+     * The returned combiner identifies that the owning Gatherer must only
+     * be evaluated sequentially.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * This method always returns the same instance.
+     *
+     * @see Gatherer#finisher()
+     * @return the instance of the default combiner
+     * @param <A> the type of the state of the returned combiner
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> BinaryOperator<A> defaultCombiner() {
+        return (BinaryOperator<A>) Value.DEFAULT;
+    }
+
+    /**
+     * Returns a {@code finisher} which is the default finisher of
+     * a {@code Gatherer}.
+     * The returned finisher identifies that the owning Gatherer performs
+     * no additional actions at the end of input.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * This method always returns the same instance.
+     *
+     * @see Gatherer#finisher()
+     * @return the instance of the default finisher
+     * @param <A> the type of the state of the returned finisher
+     * @param <R> the type of the Downstream of the returned finisher
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, R> BiConsumer<A, Downstream<? super R>> defaultFinisher() {
+        return (BiConsumer<A, Downstream<? super R>>) Value.DEFAULT;
+    }
+
+    /**
+     * Factory method for turning Integrator-shaped lambdas into
+     * {@link Integrator.Greedy} Integrators.
+     *
+     * @param greedy a greedy lambda
+     * @return the given lambda as a Greedy Integrator
+     * @param <A> the type of state used by this integrator
+     * @param <T> the type of elements this integrator receives
+     * @param <R> the type of results this integrator can produce
+     */
+    public static <A, T, R> Integrator.Greedy<A, T, R> ofGreedy(Integrator.Greedy<A, T, R> greedy) {
+        return greedy;
+    }
+
+    /**
+     * Returns a new, sequential, and stateless {@code Gatherer} described by
+     * the given {@code integrator}.
+     *
+     * @param integrator the integrator function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if the argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, R> Gatherer<T, Void, R> ofSequential(
+            Integrator<Void, T, R> integrator) {
+        return of(
+                Gatherers.<Void>defaultInitializer(),
+                integrator,
+                Gatherers.<Void>defaultCombiner(),
+                Gatherers.<Void, R>defaultFinisher()
+        );
+    }
+
+    /**
+     * Returns a new, sequential, and stateless {@code Gatherer} described by
+     * the given {@code integrator} and {@code finisher}.
+     *
+     * @param integrator the integrator function for the new gatherer
+     * @param finisher the finisher function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, R> Gatherer<T, Void, R> ofSequential(
+            Integrator<Void, T, R> integrator,
+            BiConsumer<Void, Downstream<? super R>> finisher) {
+        return of(
+                Gatherers.<Void>defaultInitializer(),
+                integrator,
+                Gatherers.<Void>defaultCombiner(),
+                finisher
+        );
+    }
+
+    /**
+     * Returns a new, sequential, {@code Gatherer} described by the given
+     * {@code initializer} and {@code integrator}.
+     *
+     * @param initializer the supplier function for the new gatherer
+     * @param integrator the integrator function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <A> the type of initializer for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, A, R> Gatherer<T, A, R> ofSequential(
+            Supplier<A> initializer,
+            Integrator<A, T, R> integrator) {
+        return of(
+                initializer,
+                integrator,
+                Gatherers.<A>defaultCombiner(),
+                Gatherers.<A, R>defaultFinisher()
+        );
+    }
+
+    /**
+     * Returns a new, sequential, {@code Gatherer} described by the given
+     * {@code initializer}, {@code integrator}, and {@code finisher}.
+     *
+     * @param initializer the supplier function for the new gatherer
+     * @param integrator the integrator function for the new gatherer
+     * @param finisher the finisher function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <A> the type of initializer for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, A, R> Gatherer<T, A, R> ofSequential(
+            Supplier<A> initializer,
+            Integrator<A, T, R> integrator,
+            BiConsumer<A, Downstream<? super R>> finisher) {
+        return of(
+                initializer,
+                integrator,
+                Gatherers.<A>defaultCombiner(),
+                finisher
+        );
+    }
+
+    /**
+     * Returns a new, parallelizable, and stateless {@code Gatherer} described
+     * by the given {@code integrator}.
+     *
+     * @param integrator the integrator function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, R> Gatherer<T, Void, R> of(Integrator<Void, T, R> integrator) {
+        return of(
+                Gatherers.<Void>defaultInitializer(),
+                integrator,
+                Gatherers.<Void>statelessCombiner(),
+                Gatherers.<Void, R>defaultFinisher()
+        );
+    }
+
+    /**
+     * Returns a new, parallelizable, and stateless {@code Gatherer} described
+     * by the given {@code integrator} and {@code finisher}.
+     *
+     * @param integrator the integrator function for the new gatherer
+     * @param finisher the finisher function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, R> Gatherer<T, Void, R> of(
+            Integrator<Void, T, R> integrator,
+            BiConsumer<Void, Downstream<? super R>> finisher) {
+        return of(
+                Gatherers.<Void>defaultInitializer(),
+                integrator,
+                Gatherers.<Void>statelessCombiner(),
+                finisher
+        );
+    }
+
+    /**
+     * Returns a new, parallelizable, {@code Gatherer} described by the given
+     * {@code initializer}, {@code integrator}, {@code combiner} and
+     * {@code finisher}.
+     *
+     * @param initializer the supplier function for the new gatherer
+     * @param integrator the integrator function for the new gatherer
+     * @param combiner the combiner function for the new gatherer
+     * @param finisher the finisher function for the new gatherer
+     * @param <T> the type of input elements for the new gatherer
+     * @param <A> the type of initializer for the new gatherer
+     * @param <R> the type of results for the new gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     * @return the new Gatherer
+     */
+    public static <T, A, R> Gatherer<T, A, R> of(
+            Supplier<A> initializer,
+            Integrator<A, T, R> integrator,
+            BinaryOperator<A> combiner,
+            BiConsumer<A, Downstream<? super R>> finisher) {
+        return new GathererImpl<>(
+                Objects.requireNonNull(initializer),
+                Objects.requireNonNull(integrator),
+                Objects.requireNonNull(combiner),
+                Objects.requireNonNull(finisher)
+        );
+    }
+
+    /**
+     * Returns a composed Gatherer which connects the output of the
+     * {@code first} Gatherer to the input of the {@code second} Gatherer.
+     * The composed Gatherer is evaluated as a single stage of a stream
+     * pipeline, without an intermediate buffer between the two gatherers.
+     *
+     * @param first the first Gatherer
+     * @param second the Gatherer to be applied to the output of the first
+     * @param <T> the type of input elements of the composed Gatherer
+     * @param <M> the type of output elements of {@code first} and of input
+     *            elements of {@code second}
+     * @param <R> the type of output elements of the composed Gatherer
+     * @return returns a composed Gatherer which connects the output of the
+     *         first Gatherer as input of the second Gatherer
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public static <T, M, R> Gatherer<T, ?, R> andThen(
+            Gatherer<T, ?, ? extends M> first,
+            Gatherer<? super M, ?, ? extends R> second) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        return Composite.of(first, second);
+    }
+
+    /**
+     * Returns {@code true} if the given gatherer can be evaluated in parallel,
+     * that is, its combiner is not the default combiner.
+     */
+    static boolean isParallelizable(Gatherer<?, ?, ?> gatherer) {
+        return gatherer.combiner() != Value.DEFAULT;
+    }
+
+    private static final BinaryOperator<Object> STATELESS_COMBINER = (l, r) -> l;
+
+    @SuppressWarnings("unchecked")
+    private static <A> BinaryOperator<A> statelessCombiner() {
+        return (BinaryOperator<A>) STATELESS_COMBINER;
+    }
+
+    /**
+     * Simple implementation class for {@code Gatherer}.
+     *
+     * @param <T> the type of elements to be gathered
+     * @param <A> the type of the state
+     * @param <R> the type of the result
+     */
+    static final class GathererImpl<T, A, R> implements Gatherer<T, A, R> {
+        private final Supplier<A> initializer;
+        private final Integrator<A, T, R> integrator;
+        private final BinaryOperator<A> combiner;
+        private final BiConsumer<A, Downstream<? super R>> finisher;
+
+        GathererImpl(Supplier<A> initializer,
+                     Integrator<A, T, R> integrator,
+                     BinaryOperator<A> combiner,
+                     BiConsumer<A, Downstream<? super R>> finisher) {
+            this.initializer = initializer;
+            this.integrator = integrator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+        }
+
+        @Override
+        public Supplier<A> initializer() {
+            return initializer;
+        }
+
+        @Override
+        public Integrator<A, T, R> integrator() {
+            return integrator;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public BiConsumer<A, Downstream<? super R>> finisher() {
+            return finisher;
+        }
+    }
+
+    /**
+     * A {@code Gatherer} running two gatherers back to back within a single
+     * stage.  Elements emitted by the left gatherer are integrated by the
+     * right gatherer as they are produced.
+     */
+    static final class Composite<T, A, M, B, R>
+            implements Gatherer<T, Composite.State<A, B>, R> {
+        private final Gatherer<T, A, ? extends M> left;
+        private final Gatherer<? super M, B, ? extends R> right;
+
+        private Composite(Gatherer<T, A, ? extends M> left,
+                          Gatherer<? super M, B, ? extends R> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <T, M, R> Gatherer<T, ?, R> of(
+                Gatherer<T, ?, ? extends M> left,
+                Gatherer<? super M, ?, ? extends R> right) {
+            return new Composite(left, right);
+        }
+
+        static final class State<A, B> {
+            A leftState;
+            B rightState;
+            boolean leftProceed = true;
+            boolean rightProceed = true;
+
+            State(A leftState, B rightState) {
+                this.leftState = leftState;
+                this.rightState = rightState;
+            }
+        }
+
+        /**
+         * A {@code Downstream} that forwards elements emitted by the left
+         * gatherer to the integrator of the right gatherer.
+         */
+        private final class Joint implements Downstream<M> {
+            final State<A, B> state;
+            final Downstream<? super R> downstream;
+
+            Joint(State<A, B> state, Downstream<? super R> downstream) {
+                this.state = state;
+                this.downstream = downstream;
+            }
+
+            @Override
+            public boolean push(M element) {
+                State<A, B> s = state;
+                if (s.rightProceed) {
+                    s.rightProceed = right.integrator().integrate(s.rightState, element, downstream);
+                }
+                return s.rightProceed;
+            }
+
+            @Override
+            public boolean isRejecting() {
+                return !state.rightProceed || downstream.isRejecting();
+            }
+        }
+
+        @Override
+        public Supplier<State<A, B>> initializer() {
+            final Supplier<A> li = left.initializer();
+            final Supplier<B> ri = right.initializer();
+            return () -> new State<>(li.get(), ri.get());
+        }
+
+        @Override
+        public Integrator<State<A, B>, T, R> integrator() {
+            if (left.integrator() instanceof Integrator.Greedy
+                    && right.integrator() instanceof Integrator.Greedy) {
+                return Gatherers.<State<A, B>, T, R>ofGreedy(this::integrate);
+            }
+            return this::integrate;
+        }
+
+        private boolean integrate(State<A, B> state, T element, Downstream<? super R> downstream) {
+            if (state.leftProceed && state.rightProceed) {
+                state.leftProceed = left.integrator().integrate(state.leftState, element,
+                        new Joint(state, downstream));
+            }
+            return state.leftProceed && state.rightProceed;
+        }
+
+        @Override
+        public BinaryOperator<State<A, B>> combiner() {
+            if (!isParallelizable(left) || !isParallelizable(right)) {
+                return defaultCombiner();
+            }
+            final BinaryOperator<A> lc = left.combiner();
+            final BinaryOperator<B> rc = right.combiner();
+            return (l, r) -> {
+                State<A, B> s = new State<>(lc.apply(l.leftState, r.leftState),
+                        rc.apply(l.rightState, r.rightState));
+                s.leftProceed = l.leftProceed && r.leftProceed;
+                s.rightProceed = l.rightProceed && r.rightProceed;
+                return s;
+            };
+        }
+
+        @Override
+        public BiConsumer<State<A, B>, Downstream<? super R>> finisher() {
+            final BiConsumer<A, Downstream<? super M>> lf = leftFinisher();
+            final BiConsumer<B, Downstream<? super R>> rf = rightFinisher();
+            return (state, downstream) -> {
+                if (state.rightProceed) {
+                    lf.accept(state.leftState, new Joint(state, downstream));
+                }
+                rf.accept(state.rightState, downstream);
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private BiConsumer<A, Downstream<? super M>> leftFinisher() {
+            return (BiConsumer) left.finisher();
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private BiConsumer<B, Downstream<? super R>> rightFinisher() {
+            return (BiConsumer) right.finisher();
+        }
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import java8.util.IntSummaryStatistics;
+import java8.util.Maps;
+import java8.util.Objects;
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Function;
+import java8.util.function.IntFunction;
+import java8.util.function.IntPredicate;
+import java8.util.function.ObjIntConsumer;
+import java8.util.function.Supplier;
+
+/**
+ * Implementations of {@link IntCollector} that implement various useful
+ * reduction operations on {@code int} elements, such as summarizing them or
+ * grouping them by a classification function, without boxing the elements.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Group the codes by their first digit and sum each group
+ *     Map<Integer, Long> sums = codes.collect(
+ *         IntCollectors.groupingBy(c -> c / 100, IntCollectors.summingToLong()));
+ *
+ *     // Count the even and the odd numbers
+ *     Map<Boolean, Long> evenOdd = numbers.collect(
+ *         IntCollectors.partitioningBy(i -> i % 2 == 0, IntCollectors.counting()));
+ *
+ *     // Group the numbers by their remainder into lists of boxed numbers
+ *     Map<Integer, List<Integer>> byRemainder = numbers.collect(
+ *         IntCollectors.groupingBy(i -> i % 3,
+ *                                  IntCollectors.mapping(Integer::valueOf, Collectors.toList())));
+ * }</pre>
+ *
+ * <p>This class is not part of the Java SE API.
+ *
+ * @see Collectors
+ */
+public final class IntCollectors {
+
+    private IntCollectors() { }
+
+    /**
+     * Returns a new {@code IntCollector} described by the given
+     * {@code supplier}, {@code accumulator}, and {@code combiner} functions.
+     * The resulting {@code IntCollector} has the
+     * {@code Collector.Characteristics.IDENTITY_FINISH} characteristic.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <R> The type of intermediate accumulation result, and final result,
+     *           for the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code IntCollector}
+     */
+    public static <R> IntCollector<R, R> of(Supplier<R> supplier,
+                                            ObjIntConsumer<R> accumulator,
+                                            BinaryOperator<R> combiner,
+                                            Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = (characteristics.length == 0)
+                ? Collectors.CH_ID
+                : Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.IDENTITY_FINISH,
+                                                         characteristics));
+        return new IntCollectorImpl<>(supplier, accumulator, combiner, cs);
+    }
+
+    /**
+     * Returns a new {@code IntCollector} described by the given
+     * {@code supplier}, {@code accumulator}, {@code combiner}, and
+     * {@code finisher} functions.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param finisher The finisher function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <A> The intermediate accumulation type of the new collector
+     * @param <R> The final result type of the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code IntCollector}
+     */
+    public static <A, R> IntCollector<A, R> of(Supplier<A> supplier,
+                                               ObjIntConsumer<A> accumulator,
+                                               BinaryOperator<A> combiner,
+                                               Function<A, R> finisher,
+                                               Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(finisher);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = Collectors.CH_NOID;
+        if (characteristics.length > 0) {
+            cs = EnumSet.noneOf(Collector.Characteristics.class);
+            Collections.addAll(cs, characteristics);
+            cs = Collections.unmodifiableSet(cs);
+        }
+        return new IntCollectorImpl<>(supplier, accumulator, combiner, finisher, cs);
+    }
+
+    /**
+     * Simple implementation class for {@code IntCollector}.
+     *
+     * @param <A> the type of the intermediate accumulation result
+     * @param <R> the type of the result
+     */
+    static class IntCollectorImpl<A, R> implements IntCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjIntConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Function<A, R> finisher,
+                         Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        @SuppressWarnings("unchecked")
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, a -> (R) a, characteristics);
+        }
+
+        @Override
+        public ObjIntConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Adapts a {@code Collector} accepting elements of type {@code U} to an
+     * {@code IntCollector} by applying a mapping function to each input
+     * element before accumulation.
+     *
+     * <p><b>API Note:</b><br>
+     * This is the bridge from the primitive collectors to the reference
+     * collectors of {@link Collectors}, for example to collect the elements
+     * of each group of a {@link #groupingBy(IntFunction, IntCollector)}
+     * into a {@code List}.
+     *
+     * @param <U> type of elements accepted by downstream collector
+     * @param <A> intermediate accumulation type of the downstream collector
+     * @param <R> result type of collector
+     * @param mapper a function to be applied to the input elements
+     * @param downstream a collector which will accept mapped values
+     * @return an {@code IntCollector} which applies the mapping function to
+     * the input elements and provides the mapped results to the downstream
+     * collector
+     */
+    public static <U, A, R>
+    IntCollector<?, R> mapping(IntFunction<? extends U> mapper,
+                               Collector<? super U, A, R> downstream) {
+        Objects.requireNonNull(mapper);
+        BiConsumer<A, ? super U> downstreamAccumulator = downstream.accumulator();
+        return new IntCollectorImpl<>(downstream.supplier(),
+                                      (r, t) -> downstreamAccumulator.accept(r, mapper.apply(t)),
+                                      downstream.combiner(), downstream.finisher(),
+                                      downstream.characteristics());
+    }
+
+    /**
+     * Returns an {@code IntCollector} that counts the number of input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that counts the input elements
+     */
+    public static IntCollector<?, Long> counting() {
+        return new IntCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the sum of the input
+     * elements.  If no elements are present, the result is 0.  Like
+     * {@link IntStream#sum()}, the sum may overflow.
+     *
+     * @return an {@code IntCollector} that produces the sum of the input
+     * elements
+     */
+    public static IntCollector<?, Integer> summing() {
+        return new IntCollectorImpl<>(
+                () -> new int[1],
+                (a, t) -> { a[0] += t; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the sum of the input
+     * elements as a {@code long}, which does not overflow for less than
+     * 2<sup>32</sup> elements.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that produces the sum of the input
+     * elements
+     */
+    public static IntCollector<?, Long> summingToLong() {
+        return new IntCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0] += t; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the arithmetic mean of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that produces the arithmetic mean of
+     * the input elements
+     */
+    public static IntCollector<?, Double> averaging() {
+        return new IntCollectorImpl<>(
+                () -> new long[2],
+                (a, t) -> { a[0] += t; a[1]++; },
+                (a, b) -> { a[0] += b[0]; a[1] += b[1]; return a; },
+                a -> (a[1] == 0) ? 0.0d : (double) a[0] / a[1], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the summary statistics
+     * of the input elements.
+     *
+     * @return an {@code IntCollector} implementing the summary-statistics
+     * reduction
+     * @see IntStream#summaryStatistics()
+     */
+    public static IntCollector<?, IntSummaryStatistics> summarizing() {
+        return new IntCollectorImpl<IntSummaryStatistics, IntSummaryStatistics>(
+                Collectors.INT_SUM_STATS,
+                IntSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, Collectors.CH_ID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} implementing a "group by" operation on
+     * the input elements, grouping elements according to a classification
+     * function, and then performing a reduction operation on the values
+     * associated with a given key using the specified downstream
+     * {@code IntCollector}.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * The returned {@code IntCollector} is not concurrent.  For parallel
+     * stream pipelines, the {@code combiner} function operates by merging the
+     * keys from one map into another, which can be an expensive operation.
+     *
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the cascaded group-by
+     * operation
+     * @see Collectors#groupingBy(Function, Collector)
+     */
+    public static <K, A, D>
+    IntCollector<?, Map<K, D>> groupingBy(IntFunction<? extends K> classifier,
+                                          IntCollector<A, D> downstream) {
+        return groupingBy(classifier, HashMap::new, downstream);
+    }
+
+    /**
+     * Returns an {@code IntCollector} implementing a cascaded "group by"
+     * operation on the input elements, grouping elements according to a
+     * classification function, and then performing a reduction operation on
+     * the values associated with a given key using the specified downstream
+     * {@code IntCollector}.  The {@code Map} produced by the collector is
+     * created with the supplied factory function.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * The returned {@code IntCollector} is not concurrent.  For parallel
+     * stream pipelines, the {@code combiner} function operates by merging the
+     * keys from one map into another, which can be an expensive operation.
+     *
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param <M> the type of the resulting {@code Map}
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapFactory a supplier providing a new empty {@code Map}
+     *                   into which the results will be inserted
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the cascaded group-by
+     * operation
+     * @see Collectors#groupingBy(Function, Supplier, Collector)
+     */
+    public static <K, D, A, M extends Map<K, D>>
+    IntCollector<?, M> groupingBy(IntFunction<? extends K> classifier,
+                                  Supplier<M> mapFactory,
+                                  IntCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapFactory);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjIntConsumer<Map<K, A>> accumulator = (m, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            A container = Maps.computeIfAbsent(m, key, k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<Map<K, A>> merger = Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner());
+        @SuppressWarnings("unchecked")
+        Supplier<Map<K, A>> mangledFactory = (Supplier<Map<K, A>>) mapFactory;
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new IntCollectorImpl<>(mangledFactory, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<Map<K, A>, M> finisher = intermediate -> {
+                Maps.replaceAll(intermediate, (k, v) -> downstreamFinisher.apply(v));
+                @SuppressWarnings("unchecked")
+                M castResult = (M) intermediate;
+                return castResult;
+            };
+            return new IntCollectorImpl<>(mangledFactory, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+
+    /**
+     * Returns an {@code IntCollector} which partitions the input elements
+     * according to an {@code IntPredicate}, reduces the values in each
+     * partition according to another {@code IntCollector}, and organizes
+     * them into a {@code Map<Boolean, D>} whose values are the result of the
+     * downstream reduction.
+     *
+     * <p>The returned {@code Map} always contains mappings for both
+     * {@code false} and {@code true} keys.  There are no guarantees on the
+     * type, mutability, serializability, or thread-safety of the {@code Map}
+     * returned.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the cascaded partitioning
+     * operation
+     * @see Collectors#partitioningBy(java8.util.function.Predicate, Collector)
+     */
+    public static <A, D>
+    IntCollector<?, Map<Boolean, D>> partitioningBy(IntPredicate predicate,
+                                                    IntCollector<A, D> downstream) {
+        Objects.requireNonNull(predicate);
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjIntConsumer<Collectors.Partition<A>> accumulator = (result, t) ->
+                downstreamAccumulator.accept(predicate.test(t) ? result.forTrue : result.forFalse, t);
+        BinaryOperator<A> op = downstream.combiner();
+        BinaryOperator<Collectors.Partition<A>> merger = (left, right) ->
+                new Collectors.Partition<>(op.apply(left.forTrue, right.forTrue),
+                                           op.apply(left.forFalse, right.forFalse));
+        Supplier<Collectors.Partition<A>> supplier = () ->
+                new Collectors.Partition<>(downstream.supplier().get(),
+                                           downstream.supplier().get());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new IntCollectorImpl<>(supplier, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            Function<Collectors.Partition<A>, Map<Boolean, D>> finisher = par ->
+                    new Collectors.Partition<>(downstream.finisher().apply(par.forTrue),
+                                               downstream.finisher().apply(par.forFalse));
+            return new IntCollectorImpl<>(supplier, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+}
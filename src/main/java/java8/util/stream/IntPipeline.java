@@ -318,6 +318,29 @@ abstract class IntPipeline<E_IN>
         };
     }
 
+    @Override
+    public final IntStream mapMulti(IntStream.IntMapMultiConsumer mapper) {
+        Objects.requireNonNull(mapper);
+        return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
+                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                return new Sink.ChainedInt<Integer>(sink) {
+                    IntConsumer downstreamAsInt = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        mapper.accept(t, downstreamAsInt);
+                    }
+                };
+            }
+        };
+    }
+
     @Override
     public IntStream unordered() {
         if (!isOrdered())
@@ -400,6 +423,21 @@ abstract class IntPipeline<E_IN>
         return WhileOps.makeDropWhileInt(this, predicate);
     }
 
+    @Override
+    public final Stream<int[]> windowFixed(int windowSize) {
+        return WindowOps.makeInt(this, windowSize, false);
+    }
+
+    @Override
+    public final Stream<int[]> windowSliding(int windowSize) {
+        return WindowOps.makeInt(this, windowSize, true);
+    }
+
+    @Override
+    public final IntStream scan(int identity, IntBinaryOperator accumulator) {
+        return ScanOps.makeInt(this, identity, accumulator);
+    }
+
     @Override
     public final IntStream sorted() {
         return SortedOps.makeInt(this);
@@ -407,9 +445,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final IntStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires an int-specific map/set implementation.
-        return boxed().distinct().mapToInt(i -> i);
+        return DistinctOps.makeInt(this);
     }
 
     // Terminal ops from IntStream
@@ -488,6 +524,25 @@ abstract class IntPipeline<E_IN>
         return evaluate(ReduceOps.makeInt(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <A, R> R collect(IntCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjIntConsumer<A> accumulator = collector.accumulator();
+            forEach(e -> accumulator.accept(container, e));
+        }
+        else {
+            container = evaluate(ReduceOps.makeInt(collector));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(IntPredicate predicate) {
         return evaluate(MatchOps.makeInt(predicate, MatchOps.MatchKind.ANY));
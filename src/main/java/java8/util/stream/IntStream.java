@@ -161,6 +161,36 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      */
     IntStream flatMap(IntFunction<? extends IntStream> mapper);
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * this stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain IntConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain IntConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMap flatMap} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with an {@code IntConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates an {@code IntStream} from the
+     * internal buffer. Finally, it returns this stream to {@code flatMap}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see Stream#mapMulti Stream.mapMulti
+     * @since 16
+     */
+    IntStream mapMulti(IntMapMultiConsumer mapper);
+
     /**
      * Returns a stream consisting of the distinct elements of this stream.
      *
@@ -391,6 +421,132 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      */
     IntStream dropWhile(IntPredicate predicate);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a fixed size.
+     * If the stream is empty then no window will be produced.  The last window
+     * may contain fewer elements than the supplied window size.
+     *
+     * <p>Each window is a newly allocated {@code int} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2, 3], [4, 5, 6], [7, 8]]
+     *     List<int[]> windows =
+     *         IntStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowFixed(3).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<int[]> windowFixed(int windowSize);
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a given size,
+     * where each subsequent window includes all elements of the previous
+     * window except for the least recent, and adds the next element in the
+     * stream.  If the stream is empty then no window will be produced.  If the
+     * size of the stream is smaller than the window size then only one window
+     * will be produced, containing all elements in the stream.
+     *
+     * <p>Each window is a newly allocated {@code int} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2], [2, 3], [3, 4], [4, 5], [5, 6], [6, 7], [7, 8]]
+     *     List<int[]> windows =
+     *         IntStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(2).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<int[]> windowSliding(int windowSize);
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of this stream: the element at each position is the result of
+     * accumulating the identity and, in encounter order, all elements of this
+     * stream up to and including the one at that position.  This is
+     * equivalent to:
+     * <pre>{@code
+     *     int result = identity;
+     *     for (int element : this stream) {
+     *         result = accumulator.applyAsInt(result, element);
+     *         // the next element of the returned stream is result
+     *     }
+     * }</pre>
+     *
+     * <p>The returned stream has as many elements as this stream.  The
+     * accumulator function must be an associative function.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the running totals of a stream:
+     * <pre>{@code
+     *     // will contain: [1, 3, 6, 10, 15]
+     *     int[] totals = IntStreams.of(1, 2, 3, 4, 5).scan(0, Integer::sum).toArray();
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * A sequential pipeline carries the accumulation from one element to the
+     * next, without buffering.  In a parallel pipeline whose upstream size is
+     * known the upstream elements are collected into an array first, which is
+     * filled in parallel and without intermediate copies.  The array is then
+     * cumulated in place in two parallel passes, like
+     * {@link java8.util.J8Arrays#parallelPrefix(int[], IntBinaryOperator)
+     * J8Arrays.parallelPrefix} does.  If the size of
+     * the upstream isn't known, as for an infinite stream, the accumulation
+     * is carried through the upstream elements in encounter order as they
+     * are requested, so that a downstream short-circuiting operation such as
+     * {@code limit} terminates.  Only the operations following the scan are
+     * then evaluated in parallel.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    IntStream scan(int identity, IntBinaryOperator accumulator);
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -569,6 +725,42 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
                   ObjIntConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using an
+     * {@code IntCollector}, the primitive specialization of a
+     * {@link Collector}.  An {@code IntCollector} encapsulates the functions
+     * used as arguments to {@link #collect(Supplier, ObjIntConsumer, BiConsumer)},
+     * allowing for reuse of collection strategies and composition of collect
+     * operations such as multiple-level grouping or partitioning, without
+     * boxing the elements.
+     *
+     * <p>If the stream is parallel, and the {@code IntCollector}
+     * is {@link Collector.Characteristics#CONCURRENT concurrent}, and
+     * either the stream is unordered or the collector is
+     * {@link Collector.Characteristics#UNORDERED unordered},
+     * then a concurrent reduction will be performed (see {@link Collector} for
+     * details on concurrent reduction.)
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * The following will classify the elements:
+     * <pre>{@code
+     *     Map<Integer, Long> countsByLastDigit
+     *         = intStream.collect(IntCollectors.groupingBy(i -> i % 10, IntCollectors.counting()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the {@code IntCollector}
+     * @param <R> the type of the result
+     * @param collector the {@code IntCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjIntConsumer, BiConsumer)
+     * @see IntCollectors
+     */
+    <A, R> R collect(IntCollector<A, R> collector);
+
     /**
      * Returns the sum of elements in this stream.  This is a special case
      * of a <a href="package-summary.html#Reduction">reduction</a>
@@ -825,6 +1017,31 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
     Spliterator.OfInt spliterator();
 
 
+    /**
+     * Represents an operation that accepts an {@code int}-valued argument
+     * and an {@code IntConsumer}, and returns no result. This functional interface is
+     * used by {@link IntStream#mapMulti(IntMapMultiConsumer) IntStream.mapMulti}
+     * to replace an {@code int} value with zero or more {@code int} values.
+     *
+     * <p>This is a <a href="../function/package-summary.html">functional interface</a>
+     * whose functional method is {@link #accept(int, IntConsumer)}.
+     *
+     * @see IntStream#mapMulti(IntMapMultiConsumer)
+     *
+     * @since 16
+     */
+    public interface IntMapMultiConsumer {
+
+        /**
+         * Replaces the given {@code value} with zero or more values by feeding the mapped
+         * values to the {@code ic} consumer.
+         *
+         * @param value the {@code int} value coming from upstream
+         * @param ic an {@code IntConsumer} accepting the mapped values
+         */
+        void accept(int value, IntConsumer ic);
+    }
+
     /**
      * A mutable builder for an {@code IntStream}.
      *
@@ -300,6 +300,29 @@ abstract class LongPipeline<E_IN>
         };
     }
 
+    @Override
+    public final LongStream mapMulti(LongStream.LongMapMultiConsumer mapper) {
+        Objects.requireNonNull(mapper);
+        return new StatelessOp<Long>(this, StreamShape.LONG_VALUE,
+                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                return new Sink.ChainedLong<Long>(sink) {
+                    LongConsumer downstreamAsLong = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        mapper.accept(t, downstreamAsLong);
+                    }
+                };
+            }
+        };
+    }
+
     @Override
     public LongStream unordered() {
         if (!isOrdered()) {
@@ -383,6 +406,21 @@ abstract class LongPipeline<E_IN>
         return WhileOps.makeDropWhileLong(this, predicate);
     }
 
+    @Override
+    public final Stream<long[]> windowFixed(int windowSize) {
+        return WindowOps.makeLong(this, windowSize, false);
+    }
+
+    @Override
+    public final Stream<long[]> windowSliding(int windowSize) {
+        return WindowOps.makeLong(this, windowSize, true);
+    }
+
+    @Override
+    public final LongStream scan(long identity, LongBinaryOperator accumulator) {
+        return ScanOps.makeLong(this, identity, accumulator);
+    }
+
     @Override
     public final LongStream sorted() {
         return SortedOps.makeLong(this);
@@ -390,9 +428,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final LongStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a long-specific map/set implementation.
-        return boxed().distinct().mapToLong(i -> (long) i);
+        return DistinctOps.makeLong(this);
     }
 
     // Terminal ops from LongStream
@@ -472,6 +508,25 @@ abstract class LongPipeline<E_IN>
         return evaluate(ReduceOps.makeLong(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <A, R> R collect(LongCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjLongConsumer<A> accumulator = collector.accumulator();
+            forEach(e -> accumulator.accept(container, e));
+        }
+        else {
+            container = evaluate(ReduceOps.makeLong(collector));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(LongPredicate predicate) {
         return evaluate(MatchOps.makeLong(predicate, MatchOps.MatchKind.ANY));
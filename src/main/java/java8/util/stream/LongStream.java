@@ -161,6 +161,36 @@ public interface LongStream extends BaseStream<Long, LongStream> {
      */
     LongStream flatMap(LongFunction<? extends LongStream> mapper);
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * this stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain LongConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain LongConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMap flatMap} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with a {@code LongConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates a {@code LongStream} from the
+     * internal buffer. Finally, it returns this stream to {@code flatMap}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see Stream#mapMulti Stream.mapMulti
+     * @since 16
+     */
+    LongStream mapMulti(LongMapMultiConsumer mapper);
+
     /**
      * Returns a stream consisting of the distinct elements of this stream.
      *
@@ -393,6 +423,132 @@ public interface LongStream extends BaseStream<Long, LongStream> {
      */
     LongStream dropWhile(LongPredicate predicate);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a fixed size.
+     * If the stream is empty then no window will be produced.  The last window
+     * may contain fewer elements than the supplied window size.
+     *
+     * <p>Each window is a newly allocated {@code long} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2, 3], [4, 5, 6], [7, 8]]
+     *     List<long[]> windows =
+     *         LongStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowFixed(3).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<long[]> windowFixed(int windowSize);
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a given size,
+     * where each subsequent window includes all elements of the previous
+     * window except for the least recent, and adds the next element in the
+     * stream.  If the stream is empty then no window will be produced.  If the
+     * size of the stream is smaller than the window size then only one window
+     * will be produced, containing all elements in the stream.
+     *
+     * <p>Each window is a newly allocated {@code long} array owned by the
+     * caller, no element is boxed.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2], [2, 3], [3, 4], [4, 5], [5, 6], [6, 7], [7, 8]]
+     *     List<long[]> windows =
+     *         LongStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(2).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<long[]> windowSliding(int windowSize);
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of this stream: the element at each position is the result of
+     * accumulating the identity and, in encounter order, all elements of this
+     * stream up to and including the one at that position.  This is
+     * equivalent to:
+     * <pre>{@code
+     *     long result = identity;
+     *     for (long element : this stream) {
+     *         result = accumulator.applyAsLong(result, element);
+     *         // the next element of the returned stream is result
+     *     }
+     * }</pre>
+     *
+     * <p>The returned stream has as many elements as this stream.  The
+     * accumulator function must be an associative function.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the running totals of a stream:
+     * <pre>{@code
+     *     // will contain: [1, 3, 6, 10, 15]
+     *     long[] totals = LongStreams.of(1, 2, 3, 4, 5).scan(0, (a, b) -> a + b).toArray();
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * A sequential pipeline carries the accumulation from one element to the
+     * next, without buffering.  In a parallel pipeline whose upstream size is
+     * known the upstream elements are collected into an array first, which is
+     * filled in parallel and without intermediate copies.  The array is then
+     * cumulated in place in two parallel passes, like
+     * {@link java8.util.J8Arrays#parallelPrefix(long[], LongBinaryOperator)
+     * J8Arrays.parallelPrefix} does.  If the size of
+     * the upstream isn't known, as for an infinite stream, the accumulation
+     * is carried through the upstream elements in encounter order as they
+     * are requested, so that a downstream short-circuiting operation such as
+     * {@code limit} terminates.  Only the operations following the scan are
+     * then evaluated in parallel.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    LongStream scan(long identity, LongBinaryOperator accumulator);
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -571,6 +727,42 @@ public interface LongStream extends BaseStream<Long, LongStream> {
                   ObjLongConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using a
+     * {@code LongCollector}, the primitive specialization of a
+     * {@link Collector}.  A {@code LongCollector} encapsulates the functions
+     * used as arguments to {@link #collect(Supplier, ObjLongConsumer, BiConsumer)},
+     * allowing for reuse of collection strategies and composition of collect
+     * operations such as multiple-level grouping or partitioning, without
+     * boxing the elements.
+     *
+     * <p>If the stream is parallel, and the {@code LongCollector}
+     * is {@link Collector.Characteristics#CONCURRENT concurrent}, and
+     * either the stream is unordered or the collector is
+     * {@link Collector.Characteristics#UNORDERED unordered},
+     * then a concurrent reduction will be performed (see {@link Collector} for
+     * details on concurrent reduction.)
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * The following will classify the elements:
+     * <pre>{@code
+     *     Map<Long, Long> sumsByDay
+     *         = timestamps.collect(LongCollectors.groupingBy(t -> t / MILLIS_PER_DAY, LongCollectors.summing()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the {@code LongCollector}
+     * @param <R> the type of the result
+     * @param collector the {@code LongCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjLongConsumer, BiConsumer)
+     * @see LongCollectors
+     */
+    <A, R> R collect(LongCollector<A, R> collector);
+
     /**
      * Returns the sum of elements in this stream.  This is a special case
      * of a <a href="package-summary.html#Reduction">reduction</a>
@@ -815,6 +1007,31 @@ public interface LongStream extends BaseStream<Long, LongStream> {
     Spliterator.OfLong spliterator();
 
 
+    /**
+     * Represents an operation that accepts a {@code long}-valued argument
+     * and an {@code LongConsumer}, and returns no result. This functional interface is
+     * used by {@link LongStream#mapMulti(LongMapMultiConsumer) LongStream.mapMulti}
+     * to replace a {@code long} value with zero or more {@code long} values.
+     *
+     * <p>This is a <a href="../function/package-summary.html">functional interface</a>
+     * whose functional method is {@link #accept(long, LongConsumer)}.
+     *
+     * @see LongStream#mapMulti(LongMapMultiConsumer)
+     *
+     * @since 16
+     */
+    public interface LongMapMultiConsumer {
+
+        /**
+         * Replaces the given {@code value} with zero or more values by feeding the mapped
+         * values to the {@code ic} consumer.
+         *
+         * @param value the {@code long} value coming from upstream
+         * @param ic an {@code LongConsumer} accepting the mapped values
+         */
+        void accept(long value, LongConsumer ic);
+    }
+
     /**
      * A mutable builder for a {@code LongStream}.
      *
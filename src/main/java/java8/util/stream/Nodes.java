@@ -31,6 +31,7 @@ import java.util.Comparator;
 import java.util.Deque;
 
 import java8.util.concurrent.CountedCompleter;
+import java8.util.ChunkSpliterator;
 import java8.util.Objects;
 import java8.util.function.BinaryOperator;
 import java8.util.function.Consumer;
@@ -606,7 +607,9 @@ final class Nodes {
      * tasks at the correct offsets.  If the exact size is not known, output
      * elements are collected into a conc-node whose shape mirrors that
      * of the computation. This conc-node can then be flattened in
-     * parallel to produce a flat {@code Node} if desired.
+     * parallel to produce a flat {@code Node} if desired.  Output of a known
+     * size that exceeds the maximum array size is collected into a
+     * conc-node as well, which is then left unflattened.
      *
      * @param helper the pipeline helper describing the pipeline
      * @param flattenTree whether a conc node should be flattened into a node
@@ -619,9 +622,7 @@ final class Nodes {
                                                     boolean flattenTree,
                                                     IntFunction<P_OUT[]> generator) {
         long size = helper.exactOutputSizeIfKnown(spliterator);
-        if (size >= 0 && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        if (size >= 0 && size < MAX_ARRAY_SIZE && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
             P_OUT[] array = generator.apply((int) size);
             new SizedCollectorTask.OfRef<>(spliterator, helper, array).invoke();
             return node(array);
@@ -644,7 +645,9 @@ final class Nodes {
      * tasks at the correct offsets.  If the exact size is not known, output
      * elements are collected into a conc-node whose shape mirrors that
      * of the computation. This conc-node can then be flattened in
-     * parallel to produce a flat {@code Node.OfInt} if desired.
+     * parallel to produce a flat {@code Node.OfInt} if desired.  Output of a known
+     * size that exceeds the maximum array size is collected into a
+     * conc-node as well, which is then left unflattened.
      *
      * @param <P_IN> the type of elements from the source Spliterator
      * @param helper the pipeline helper describing the pipeline
@@ -656,9 +659,7 @@ final class Nodes {
                                                Spliterator<P_IN> spliterator,
                                                boolean flattenTree) {
         long size = helper.exactOutputSizeIfKnown(spliterator);
-        if (size >= 0 && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        if (size >= 0 && size < MAX_ARRAY_SIZE && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
             int[] array = new int[(int) size];
             new SizedCollectorTask.OfInt<>(spliterator, helper, array).invoke();
             return node(array);
@@ -682,7 +683,9 @@ final class Nodes {
      * tasks at the correct offsets.  If the exact size is not known, output
      * elements are collected into a conc-node whose shape mirrors that
      * of the computation. This conc-node can then be flattened in
-     * parallel to produce a flat {@code Node.OfLong} if desired.
+     * parallel to produce a flat {@code Node.OfLong} if desired.  Output of a known
+     * size that exceeds the maximum array size is collected into a
+     * conc-node as well, which is then left unflattened.
      *
      * @param <P_IN> the type of elements from the source Spliterator
      * @param helper the pipeline helper describing the pipeline
@@ -694,9 +697,7 @@ final class Nodes {
                                                  Spliterator<P_IN> spliterator,
                                                  boolean flattenTree) {
         long size = helper.exactOutputSizeIfKnown(spliterator);
-        if (size >= 0 && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        if (size >= 0 && size < MAX_ARRAY_SIZE && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
             long[] array = new long[(int) size];
             new SizedCollectorTask.OfLong<>(spliterator, helper, array).invoke();
             return node(array);
@@ -720,7 +721,9 @@ final class Nodes {
      * tasks at the correct offsets.  If the exact size is not known, output
      * elements are collected into a conc-node whose shape mirrors that
      * of the computation. This conc-node can then be flattened in
-     * parallel to produce a flat {@code Node.OfDouble} if desired.
+     * parallel to produce a flat {@code Node.OfDouble} if desired.  Output of a known
+     * size that exceeds the maximum array size is collected into a
+     * conc-node as well, which is then left unflattened.
      *
      * @param <P_IN> the type of elements from the source Spliterator
      * @param helper the pipeline helper describing the pipeline
@@ -732,9 +735,7 @@ final class Nodes {
                                                      Spliterator<P_IN> spliterator,
                                                      boolean flattenTree) {
         long size = helper.exactOutputSizeIfKnown(spliterator);
-        if (size >= 0 && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        if (size >= 0 && size < MAX_ARRAY_SIZE && spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
             double[] array = new double[(int) size];
             new SizedCollectorTask.OfDouble<>(spliterator, helper, array).invoke();
             return node(array);
@@ -750,6 +751,9 @@ final class Nodes {
     /**
      * Flatten, in parallel, a {@link Node}.  A flattened node is one that has
      * no children.  If the node is already flat, it is simply returned.
+     * If the node has more elements than fit into an array, it is returned
+     * unflattened; its tree of chunks remains traversable and splittable
+     * with {@code long} counts, but {@code asArray} will fail.
      *
      * <p><b>Implementation Requirements:</b><br>
      * If a new node is to be created, the generator is used to create an array
@@ -763,10 +767,8 @@ final class Nodes {
      * @return a flat {@code Node}
      */
     public static <T> Node<T> flatten(Node<T> node, IntFunction<T[]> generator) {
-        if (node.getChildCount() > 0) {
-            long size = node.count();
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        long size;
+        if (node.getChildCount() > 0 && (size = node.count()) < MAX_ARRAY_SIZE) {
             T[] array = generator.apply((int) size);
             new ToArrayTask.OfRef<>(node, array, 0).invoke();
             return node(array);
@@ -778,6 +780,9 @@ final class Nodes {
     /**
      * Flatten, in parallel, a {@link Node.OfInt}.  A flattened node is one that
      * has no children.  If the node is already flat, it is simply returned.
+     * If the node has more elements than fit into an array, it is returned
+     * unflattened; its tree of chunks remains traversable and splittable
+     * with {@code long} counts, but {@code asArray} will fail.
      *
      * <p><b>Implementation Requirements:</b><br>
      * If a new node is to be created, a new int[] array is created whose length
@@ -789,10 +794,8 @@ final class Nodes {
      * @return a flat {@code Node.OfInt}
      */
     public static Node.OfInt flattenInt(Node.OfInt node) {
-        if (node.getChildCount() > 0) {
-            long size = node.count();
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        long size;
+        if (node.getChildCount() > 0 && (size = node.count()) < MAX_ARRAY_SIZE) {
             int[] array = new int[(int) size];
             new ToArrayTask.OfInt(node, array, 0).invoke();
             return node(array);
@@ -804,6 +807,9 @@ final class Nodes {
     /**
      * Flatten, in parallel, a {@link Node.OfLong}.  A flattened node is one that
      * has no children.  If the node is already flat, it is simply returned.
+     * If the node has more elements than fit into an array, it is returned
+     * unflattened; its tree of chunks remains traversable and splittable
+     * with {@code long} counts, but {@code asArray} will fail.
      *
      * <p><b>Implementation Requirements:</b><br>
      * If a new node is to be created, a new long[] array is created whose length
@@ -815,10 +821,8 @@ final class Nodes {
      * @return a flat {@code Node.OfLong}
      */
     public static Node.OfLong flattenLong(Node.OfLong node) {
-        if (node.getChildCount() > 0) {
-            long size = node.count();
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        long size;
+        if (node.getChildCount() > 0 && (size = node.count()) < MAX_ARRAY_SIZE) {
             long[] array = new long[(int) size];
             new ToArrayTask.OfLong(node, array, 0).invoke();
             return node(array);
@@ -830,6 +834,9 @@ final class Nodes {
     /**
      * Flatten, in parallel, a {@link Node.OfDouble}.  A flattened node is one that
      * has no children.  If the node is already flat, it is simply returned.
+     * If the node has more elements than fit into an array, it is returned
+     * unflattened; its tree of chunks remains traversable and splittable
+     * with {@code long} counts, but {@code asArray} will fail.
      *
      * <p><b>Implementation Requirements:</b><br>
      * If a new node is to be created, a new double[] array is created whose length
@@ -841,10 +848,8 @@ final class Nodes {
      * @return a flat {@code Node.OfDouble}
      */
     public static Node.OfDouble flattenDouble(Node.OfDouble node) {
-        if (node.getChildCount() > 0) {
-            long size = node.count();
-            if (size >= MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(BAD_SIZE);
+        long size;
+        if (node.getChildCount() > 0 && (size = node.count()) < MAX_ARRAY_SIZE) {
             double[] array = new double[(int) size];
             new ToArrayTask.OfDouble(node, array, 0).invoke();
             return node(array);
@@ -1767,7 +1772,7 @@ final class Nodes {
      */
     private static final class FixedNodeBuilder<T>
             extends ArrayNode<T>
-            implements Node.Builder<T> {
+            implements Node.Builder<T>, ChunkSpliterator.ChunkConsumer<Object[]> {
 
         FixedNodeBuilder(long size, IntFunction<T[]> generator) {
             super(size, generator);
@@ -1799,6 +1804,18 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void accept(Object[] a, int from, int to) {
+            int n = to - from;
+            if (n <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, n);
+                curSize += n;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length)
@@ -2219,7 +2236,7 @@ final class Nodes {
 
     private static final class IntFixedNodeBuilder
             extends IntArrayNode
-            implements Node.Builder.OfInt {
+            implements Node.Builder.OfInt, ChunkSpliterator.ChunkConsumer<int[]> {
 
         IntFixedNodeBuilder(long size) {
             super(size);
@@ -2255,6 +2272,18 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void accept(int[] a, int from, int to) {
+            int n = to - from;
+            if (n <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, n);
+                curSize += n;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void accept(Integer t) {
             SinkDefaults.OfInt.accept(this, t);
@@ -2292,7 +2321,7 @@ final class Nodes {
 
     private static final class LongFixedNodeBuilder
             extends LongArrayNode
-            implements Node.Builder.OfLong {
+            implements Node.Builder.OfLong, ChunkSpliterator.ChunkConsumer<long[]> {
 
         LongFixedNodeBuilder(long size) {
             super(size);
@@ -2328,6 +2357,18 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void accept(long[] a, int from, int to) {
+            int n = to - from;
+            if (n <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, n);
+                curSize += n;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void accept(Long t) {
             SinkDefaults.OfLong.accept(this, t);
@@ -2365,7 +2406,7 @@ final class Nodes {
 
     private static final class DoubleFixedNodeBuilder
             extends DoubleArrayNode
-            implements Node.Builder.OfDouble {
+            implements Node.Builder.OfDouble, ChunkSpliterator.ChunkConsumer<double[]> {
 
         DoubleFixedNodeBuilder(long size) {
             super(size);
@@ -2401,6 +2442,18 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void accept(double[] a, int from, int to) {
+            int n = to - from;
+            if (n <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, n);
+                curSize += n;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void accept(Double i) {
             SinkDefaults.OfDouble.accept(this, i);
@@ -2756,7 +2809,7 @@ final class Nodes {
 
             this.spliterator = spliterator;
             this.helper = helper;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = AbstractTask.suggestTargetSize(helper, spliterator.estimateSize());
             this.offset = 0;
             this.length = arrayLength;
         }
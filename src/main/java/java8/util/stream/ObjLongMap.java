@@ -0,0 +1,381 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import java8.util.Objects;
+import java8.util.function.LongBinaryOperator;
+import java8.util.function.ObjLongConsumer;
+
+/**
+ * A hash map from object keys to primitive {@code long} values.  This is the
+ * result container of the grouping collectors of {@link Collectors} that
+ * aggregate the elements of each group into a single {@code long}, such as
+ * {@link Collectors#groupingByCounting(java8.util.function.Function)}.
+ * Those collectors update the values in place, so the values are never boxed
+ * and no finishing pass over the groups is needed.
+ *
+ * <p>Keys are compared with {@code equals}, {@code null} keys are not
+ * permitted and mappings cannot be removed.  The map uses open addressing
+ * with linear probing.  Each mapping occupies one slot of a key array and one
+ * slot of a {@code long} array, with no entry or {@code Long} object.  The
+ * iteration order is unspecified.  The map is not thread-safe.
+ *
+ * <p>{@link #equals(Object)} and {@link #hashCode()} are consistent with those
+ * of the {@code Map<K, Long>} returned by {@link #toMap()}.
+ *
+ * <p>This class is not part of the Java SE API.
+ *
+ * @param <K> the type of the keys
+ * @see ObjDoubleMap
+ */
+public final class ObjLongMap<K> {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Object[] keys;
+    private long[] values;
+    // The right shift applied to the scrambled hash to get an index
+    private int shift;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public ObjLongMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of mappings
+     * without being resized.
+     *
+     * @param expectedSize the expected number of mappings
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public ObjLongMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        // Keep the table at most half full
+        while (capacity >>> 1 < expectedSize && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        values = new long[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Returns the index of the slot of the given key, or of the free slot
+     * where it would be inserted.
+     */
+    private int indexOf(Object key) {
+        Object[] tab = keys;
+        int mask = tab.length - 1;
+        int i = (key.hashCode() * 0x9E3779B9) >>> shift;
+        for (Object k; (k = tab[i]) != null; i = (i + 1) & mask) {
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private void insert(int i, Object key, long value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length >>> 1 && keys.length < MAXIMUM_CAPACITY) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        Object[] tab = new Object[oldKeys.length << 1];
+        long[] vals = new long[tab.length];
+        int mask = tab.length - 1;
+        shift--;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int i = (k.hashCode() * 0x9E3779B9) >>> shift;
+                while (tab[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                tab[i] = k;
+                vals[i] = oldValues[j];
+            }
+        }
+        keys = tab;
+        values = vals;
+    }
+
+    /**
+     * Returns the number of mappings in this map.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no mappings.
+     *
+     * @return {@code true} if this map contains no mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the given key.
+     *
+     * @param key the key, may be {@code null}
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(Object key) {
+        return key != null && keys[indexOf(key)] != null;
+    }
+
+    /**
+     * Returns the value the given key is mapped to, or the given default
+     * value if this map contains no mapping for the key.
+     *
+     * @param key the key, may be {@code null}
+     * @param defaultValue the value to return if there is no mapping
+     * @return the value of the key, or {@code defaultValue}
+     */
+    public long getOrDefault(Object key, long defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        int i = indexOf(key);
+        return keys[i] != null ? values[i] : defaultValue;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing its previous value,
+     * if any.
+     *
+     * @param key the key
+     * @param value the value
+     * @throws NullPointerException if the key is null
+     */
+    public void put(K key, long value) {
+        int i = indexOf(Objects.requireNonNull(key));
+        if (keys[i] == null) {
+            insert(i, key, value);
+        } else {
+            values[i] = value;
+        }
+    }
+
+    /**
+     * Maps the given key to the given value if it has no mapping, otherwise
+     * replaces its value with the result of applying the remapping function
+     * to the old value and the given value.
+     *
+     * @param key the key
+     * @param value the value to map the key to or to merge with its value
+     * @param remappingFunction the function that merges the old value and
+     *        the given value
+     * @return the new value of the key
+     * @throws NullPointerException if the key or the remapping function is
+     *         null
+     */
+    public long merge(K key, long value, LongBinaryOperator remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int i = indexOf(Objects.requireNonNull(key));
+        if (keys[i] == null) {
+            insert(i, key, value);
+            return value;
+        }
+        return values[i] = remappingFunction.applyAsLong(values[i], value);
+    }
+
+    /**
+     * Adds the given value to the value of the key, a key without mapping
+     * counting as mapped to 0.
+     */
+    void add(K key, long value) {
+        int i = indexOf(key);
+        if (keys[i] == null) {
+            insert(i, key, value);
+        } else {
+            values[i] += value;
+        }
+    }
+
+    /**
+     * Adds the values of the other map to the values of this map.
+     */
+    void addAll(ObjLongMap<K> other) {
+        Object[] ks = other.keys;
+        long[] vs = other.values;
+        for (int j = 0; j < ks.length; j++) {
+            @SuppressWarnings("unchecked")
+            K k = (K) ks[j];
+            if (k != null) {
+                add(k, vs[j]);
+            }
+        }
+    }
+
+    /**
+     * Merges the mappings of this map and of the other map, applying the
+     * function to the value of this map and the value of the other map for
+     * keys that are mapped in both.  The mappings of the map with the
+     * smaller table are inserted into the other map: both tables index by
+     * the same hash, so the slots of a larger table inserted in order into a
+     * smaller one would pile up in a single growing cluster.
+     *
+     * @return the map holding the merged mappings, this map or the other map
+     */
+    ObjLongMap<K> mergeAll(ObjLongMap<K> other, LongBinaryOperator remappingFunction) {
+        if (keys.length < other.keys.length) {
+            // Merge this map into the other, keeping this map's values first
+            Object[] ks = keys;
+            long[] vs = values;
+            for (int j = 0; j < ks.length; j++) {
+                Object k = ks[j];
+                if (k != null) {
+                    int i = other.indexOf(k);
+                    if (other.keys[i] == null) {
+                        other.insert(i, k, vs[j]);
+                    } else {
+                        other.values[i] = remappingFunction.applyAsLong(vs[j], other.values[i]);
+                    }
+                }
+            }
+            return other;
+        }
+        Object[] ks = other.keys;
+        long[] vs = other.values;
+        for (int j = 0; j < ks.length; j++) {
+            @SuppressWarnings("unchecked")
+            K k = (K) ks[j];
+            if (k != null) {
+                merge(k, vs[j], remappingFunction);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Performs the given action for each mapping of this map.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    public void forEach(ObjLongConsumer<? super K> action) {
+        Objects.requireNonNull(action);
+        Object[] ks = keys;
+        long[] vs = values;
+        for (int j = 0; j < ks.length; j++) {
+            @SuppressWarnings("unchecked")
+            K k = (K) ks[j];
+            if (k != null) {
+                action.accept(k, vs[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns a new {@code HashMap} with the mappings of this map, the values
+     * boxed into {@code Long}s.
+     *
+     * @return a new {@code Map} with the mappings of this map
+     */
+    public Map<K, Long> toMap() {
+        Map<K, Long> map = new HashMap<>(Math.max((int) (size / .75f) + 1, 16));
+        forEach((k, v) -> map.put(k, v));
+        return map;
+    }
+
+    /**
+     * Compares the given object with this map for equality.  Returns
+     * {@code true} if the given object is also an {@code ObjLongMap} and the
+     * two maps contain the same mappings.
+     *
+     * @param o the object to be compared with this map
+     * @return {@code true} if the object is equal to this map
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ObjLongMap)) {
+            return false;
+        }
+        ObjLongMap<?> other = (ObjLongMap<?>) o;
+        if (other.size != size) {
+            return false;
+        }
+        Object[] ks = keys;
+        for (int j = 0; j < ks.length; j++) {
+            Object k = ks[j];
+            if (k != null) {
+                int i = other.indexOf(k);
+                if (other.keys[i] == null || other.values[i] != values[j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code of this map, which is the sum of the hash codes
+     * of its mappings, the hash code of a mapping being the hash code of its
+     * key exclusive-or the hash code of its value as a {@code Long}.
+     *
+     * @return the hash code of this map
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Object[] ks = keys;
+        long[] vs = values;
+        for (int j = 0; j < ks.length; j++) {
+            Object k = ks[j];
+            if (k != null) {
+                long v = vs[j];
+                h += k.hashCode() ^ (int) (v ^ (v >>> 32));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, the mappings in iteration
+     * order as in {@code {a=1, b=2}}.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Object[] ks = keys;
+        long[] vs = values;
+        for (int j = 0; j < ks.length; j++) {
+            Object k = ks[j];
+            if (k != null) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(k == this ? "(this Map)" : k).append('=').append(vs[j]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
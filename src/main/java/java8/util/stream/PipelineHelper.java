@@ -27,6 +27,7 @@ package java8.util.stream;
 import java8.util.function.Consumer;
 import java8.util.function.IntFunction;
 import java8.util.Spliterator;
+import java8.util.concurrent.ForkJoinPool;
 
 /**
  * Helper class for executing <a href="package-summary.html#StreamOps">
@@ -183,6 +184,41 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract<P_IN> Sink<P_IN> wrapSink(Consumer<P_OUT> sink);
 
+    /**
+     * Returns the probe measuring the current evaluation of the pipeline, if
+     * the pipeline is instrumented.
+     *
+     * @return the probe, or null if the pipeline is not instrumented
+     * @see PipelineInstrumentation
+     */
+    abstract PipelineProbe probe();
+
+    /**
+     * Returns the policy that decides how finely the source of a parallel
+     * evaluation of the pipeline is split.
+     *
+     * @return the split policy, or null for the default split sizing
+     * @see SplitPolicy
+     */
+    abstract SplitPolicy splitPolicy();
+
+    /**
+     * Returns the token that requests the cancellation of the evaluation of
+     * the pipeline.
+     *
+     * @return the cancellation token, or null if the evaluation can't be
+     *         cancelled
+     * @see CancellationToken
+     */
+    abstract CancellationToken cancellationToken();
+
+    /**
+     * Returns the pool the evaluation of the pipeline has been bound to.
+     *
+     * @return the bound pool, or null if the pipeline isn't bound to a pool
+     */
+    abstract ForkJoinPool boundPool();
+
     /**
      *
      * @param spliterator
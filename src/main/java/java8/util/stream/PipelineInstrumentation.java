@@ -0,0 +1,504 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import java8.util.Objects;
+
+/**
+ * Opt-in instrumentation of the evaluation of stream pipelines.
+ *
+ * <p>When enabled, every evaluation of a terminal operation of a stream
+ * pipeline is measured and a {@link Report} is passed to all registered
+ * {@link Listener}s once the terminal operation has completed.  The report
+ * describes, for each intermediate stage, the number of elements that entered
+ * and left the stage and the time spent in the stage, and, for parallel
+ * pipelines, the split trees of the fork/join tasks that evaluated the
+ * pipeline.
+ *
+ * <p>Instrumentation is disabled by default, in which case it has no cost.
+ * It is enabled by setting the system property
+ * {@code java8.util.stream.PipelineInstrumentation.enabled} to {@code true}
+ * before this class is initialized.  Even when enabled, no pipeline is
+ * instrumented unless a listener has been registered.
+ *
+ * <p><b>Implementation Note:</b><br>
+ * An instrumented pipeline takes the time of every element at every stage,
+ * which is costly for cheap per-element operations.  Only elements pushed
+ * through the stages are measured: the time a stateful operation spends on
+ * its buffered elements after the barrier of a parallel pipeline (for example
+ * the sort of {@code sorted()}) is not attributed to any stage.  Pipelines that are
+ * traversed through {@code iterator()} or {@code spliterator()} are not
+ * instrumented.
+ *
+ * <p>This class is not part of the Java SE API.
+ */
+public final class PipelineInstrumentation {
+
+    private static final String INSTRUMENTATION_ENABLED_P = PipelineInstrumentation.class.getName() + ".enabled";
+
+    // defaults to false
+    static final boolean ENABLED = getBooleanPropVal(INSTRUMENTATION_ENABLED_P, false);
+
+    private static final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    // No instances
+    private PipelineInstrumentation() {
+    }
+
+    /**
+     * Receives the report of each instrumented evaluation of a stream
+     * pipeline.
+     */
+    public interface Listener {
+        /**
+         * Called in the thread that invoked the terminal operation, after the
+         * terminal operation has completed and before its result is returned
+         * or its exception is propagated.  If the terminal operation failed,
+         * {@link Report#getFailure()} returns its exception.
+         *
+         * <p>Exceptions thrown by this method are propagated to the caller of
+         * a terminal operation that completed normally.  If the terminal
+         * operation failed, they are dropped, and the caller receives the
+         * exception of the terminal operation.
+         *
+         * @param report the report of the evaluation
+         */
+        void evaluated(Report report);
+    }
+
+    /**
+     * Returns whether instrumentation has been enabled through the system
+     * property {@code java8.util.stream.PipelineInstrumentation.enabled}.
+     *
+     * @return {@code true} if instrumentation is enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Registers a listener that will receive the reports of subsequent
+     * evaluations, if instrumentation is enabled.
+     *
+     * @param listener the listener
+     * @throws NullPointerException if {@code listener} is null
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    static void publish(Report report) {
+        for (Listener listener : listeners) {
+            listener.evaluated(report);
+        }
+    }
+
+    /**
+     * The measurements of one evaluation of a stream pipeline.
+     */
+    public static final class Report {
+        private final boolean parallel;
+        private final long nanos;
+        private final List<Stage> stages;
+        private final long terminalElements;
+        private final long terminalNanos;
+        private final List<Task> taskTrees;
+        private final Throwable failure;
+
+        Report(boolean parallel, long nanos, List<Stage> stages,
+               long terminalElements, long terminalNanos, List<Task> taskTrees,
+               Throwable failure) {
+            this.parallel = parallel;
+            this.nanos = nanos;
+            this.stages = Collections.unmodifiableList(stages);
+            this.terminalElements = terminalElements;
+            this.terminalNanos = terminalNanos;
+            this.taskTrees = Collections.unmodifiableList(taskTrees);
+            this.failure = failure;
+        }
+
+        /**
+         * Returns whether the pipeline was evaluated in parallel.
+         *
+         * @return {@code true} if the pipeline was evaluated in parallel
+         */
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        /**
+         * Returns the elapsed time of the evaluation of the terminal
+         * operation, in nanoseconds.
+         *
+         * @return the elapsed time of the evaluation
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the intermediate stages of the pipeline, in the order from
+         * the source to the terminal operation.
+         *
+         * @return the intermediate stages, possibly empty
+         */
+        public List<Stage> getStages() {
+            return stages;
+        }
+
+        /**
+         * Returns the number of elements that reached the terminal operation.
+         *
+         * @return the number of elements that reached the terminal operation
+         */
+        public long getTerminalElements() {
+            return terminalElements;
+        }
+
+        /**
+         * Returns the time spent in the terminal operation, in nanoseconds,
+         * summed over all threads.
+         *
+         * @return the time spent in the terminal operation
+         */
+        public long getTerminalNanos() {
+            return terminalNanos;
+        }
+
+        /**
+         * Returns the roots of the trees of fork/join tasks that evaluated a
+         * parallel pipeline.  There is one tree for the terminal operation
+         * and one for each barrier of a stateful operation, in the order in
+         * which the trees were created.
+         *
+         * @return the roots of the task trees, empty if the pipeline was
+         *         evaluated sequentially
+         */
+        public List<Task> getTaskTrees() {
+            return taskTrees;
+        }
+
+        /**
+         * Returns whether the evaluation of the terminal operation failed
+         * with an exception, in which case the measurements only cover the
+         * elements processed up to the failure.
+         *
+         * @return {@code true} if the evaluation failed
+         */
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        /**
+         * Returns the exception that terminated the evaluation of the
+         * terminal operation, such as an exception thrown by a behavioral
+         * parameter or a {@code CancellationException}.
+         *
+         * @return the exception, or null if the evaluation completed normally
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Returns the number of tasks that were executed by another thread
+         * than the one that executed their parent task.
+         *
+         * @return the number of stolen tasks over all task trees
+         */
+        public int getStealCount() {
+            int count = 0;
+            for (Task root : taskTrees) {
+                count += root.getStealCount();
+            }
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(parallel ? "parallel" : "sequential").append(" pipeline, ")
+              .append(nanos).append(" ns");
+            if (failure != null) {
+                sb.append(", failed: ").append(failure);
+            }
+            for (Stage stage : stages) {
+                sb.append("\n  ").append(stage);
+            }
+            sb.append("\n  terminal: in=").append(terminalElements)
+              .append(", ns=").append(terminalNanos);
+            if (!taskTrees.isEmpty()) {
+                sb.append("\n  task trees: ").append(taskTrees.size())
+                  .append(", steals=").append(getStealCount());
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The measurements of one intermediate stage of a stream pipeline.
+     */
+    public static final class Stage {
+        private final int index;
+        private final String operation;
+        private final long elementsIn;
+        private final long elementsOut;
+        private final long nanos;
+
+        Stage(int index, String operation, long elementsIn, long elementsOut, long nanos) {
+            this.index = index;
+            this.operation = operation;
+            this.elementsIn = elementsIn;
+            this.elementsOut = elementsOut;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the position of this stage in the pipeline, starting with
+         * 1 for the stage that follows the source.
+         *
+         * @return the position of this stage
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns a description of the operation of this stage, such as
+         * {@code ReferencePipeline.map}.
+         *
+         * @return a description of the operation
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * Returns the number of elements that entered this stage.
+         *
+         * @return the number of elements that entered this stage
+         */
+        public long getElementsIn() {
+            return elementsIn;
+        }
+
+        /**
+         * Returns the number of elements that this stage passed downstream.
+         *
+         * @return the number of elements that left this stage
+         */
+        public long getElementsOut() {
+            return elementsOut;
+        }
+
+        /**
+         * Returns the time spent in this stage, excluding the downstream
+         * stages, in nanoseconds, summed over all threads.
+         *
+         * @return the time spent in this stage
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return index + ": " + operation + ", in=" + elementsIn
+                    + ", out=" + elementsOut + ", ns=" + nanos;
+        }
+    }
+
+    /**
+     * A node of the split tree of the fork/join tasks that evaluated a
+     * parallel stream pipeline.
+     */
+    public static final class Task {
+        private final Task parent;
+        private final int depth;
+        private final long estimatedSize;
+        // Written by the thread executing the task, read after the
+        // completion of the root task
+        private long threadId;
+        private boolean stolen;
+        private long leafNanos = -1L;
+        private Task left, right;
+
+        Task(Task parent, long estimatedSize) {
+            this.parent = parent;
+            this.depth = (parent == null) ? 0 : parent.depth + 1;
+            this.estimatedSize = estimatedSize;
+        }
+
+        Task child(long estimatedSize) {
+            Task child = new Task(this, estimatedSize);
+            if (left == null) {
+                left = child;
+            } else {
+                right = child;
+            }
+            return child;
+        }
+
+        void enter() {
+            threadId = Thread.currentThread().getId();
+            stolen = parent != null && parent.threadId != threadId;
+        }
+
+        void leafDone(long nanos) {
+            leafNanos = nanos;
+        }
+
+        /**
+         * Returns the depth of this task in the split tree, 0 for the root.
+         *
+         * @return the depth of this task
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Returns the estimated size of the spliterator of this task when
+         * the task was created.
+         *
+         * @return the estimated number of source elements of this task
+         */
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        /**
+         * Returns whether this task processed its elements itself rather
+         * than splitting them among two child tasks.  A leaf of a
+         * short-circuiting operation may also have been skipped.
+         *
+         * @return {@code true} if this task is a leaf
+         */
+        public boolean isLeaf() {
+            return left == null;
+        }
+
+        /**
+         * Returns whether this task was executed by another thread than the
+         * one that executed its parent task.
+         *
+         * @return {@code true} if this task was stolen
+         */
+        public boolean isStolen() {
+            return stolen;
+        }
+
+        /**
+         * Returns the time this leaf task spent processing its elements, in
+         * nanoseconds.
+         *
+         * @return the processing time, or -1 if this task is not a leaf or
+         *         did not process its elements
+         */
+        public long getLeafNanos() {
+            return leafNanos;
+        }
+
+        /**
+         * Returns the child tasks of this task.
+         *
+         * @return the left and the right child, or an empty list if this
+         *         task is a leaf
+         */
+        public List<Task> getChildren() {
+            if (left == null) {
+                return Collections.emptyList();
+            }
+            List<Task> children = new ArrayList<Task>(2);
+            children.add(left);
+            children.add(right);
+            return children;
+        }
+
+        /**
+         * Returns the leaf tasks of the tree rooted at this task, in
+         * encounter order.
+         *
+         * @return the leaf tasks
+         */
+        public List<Task> getLeaves() {
+            List<Task> leaves = new ArrayList<Task>();
+            // Iterative, the trees of unbalanced spliterators may be deep
+            ArrayDeque<Task> stack = new ArrayDeque<Task>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                Task task = stack.pop();
+                if (task.left == null) {
+                    leaves.add(task);
+                } else {
+                    stack.push(task.right);
+                    stack.push(task.left);
+                }
+            }
+            return leaves;
+        }
+
+        int getStealCount() {
+            int count = 0;
+            ArrayDeque<Task> stack = new ArrayDeque<Task>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                Task task = stack.pop();
+                if (task.stolen) {
+                    count++;
+                }
+                if (task.left != null) {
+                    stack.push(task.right);
+                    stack.push(task.left);
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "Task[depth=" + depth + ", size=" + estimatedSize
+                    + (isLeaf() ? ", leaf" : "") + (stolen ? ", stolen" : "") + "]";
+        }
+    }
+
+    private static boolean getBooleanPropVal(final String prop, final boolean defVal) {
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                boolean val = defVal;
+                try {
+                    String s = System.getProperty(prop, Boolean.toString(defVal));
+                    val = Boolean.parseBoolean(s.trim());
+                } catch (IllegalArgumentException ignore) {
+                } catch (NullPointerException ignore) {
+                }
+                return val;
+            }
+        });
+    }
+}
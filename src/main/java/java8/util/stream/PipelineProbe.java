@@ -0,0 +1,280 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import java8.util.Spliterator;
+
+/**
+ * The measurements of one instrumented evaluation of a stream pipeline,
+ * collected while the pipeline is evaluated and published as a
+ * {@link PipelineInstrumentation.Report} when it has completed.
+ *
+ * <p>The stages of the pipeline are indexed from 0 for the source stage to
+ * m for the last intermediate stage, the terminal operation has index
+ * m + 1.  The elements that enter the stage with index i are counted, and
+ * its time is taken, by a {@link CountingSink} placed in front of the sink
+ * of the stage.  Each {@link CountingSink} accumulates locally and adds to
+ * the shared totals when its {@code end()} method is called, so that the
+ * leaf tasks of a parallel evaluation do not contend per element.
+ *
+ * @see PipelineInstrumentation
+ */
+final class PipelineProbe {
+
+    private final AbstractPipeline<?, ?, ?>[] stages;
+    private final boolean parallel;
+    private final long start;
+    // Indexed by stage, index 0 (the source) is unused
+    private final AtomicLongArray counts;
+    private final AtomicLongArray nanos;
+    private final List<PipelineInstrumentation.Task> taskTrees =
+            Collections.synchronizedList(new ArrayList<PipelineInstrumentation.Task>());
+
+    private PipelineProbe(AbstractPipeline<?, ?, ?>[] stages, boolean parallel) {
+        this.stages = stages;
+        this.parallel = parallel;
+        this.counts = new AtomicLongArray(stages.length + 1);
+        this.nanos = new AtomicLongArray(stages.length + 1);
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Starts the measurement of an evaluation.
+     *
+     * @param stages the stages of the pipeline, from the source stage to the
+     *        stage the terminal operation is applied to
+     * @param parallel whether the pipeline is evaluated in parallel
+     * @return a new probe, or null if no listener is registered
+     */
+    static PipelineProbe begin(AbstractPipeline<?, ?, ?>[] stages, boolean parallel) {
+        return PipelineInstrumentation.hasListeners() ? new PipelineProbe(stages, parallel) : null;
+    }
+
+    /**
+     * Returns the root of a new split tree if the pipeline of the given
+     * helper is instrumented.
+     *
+     * @param helper the pipeline helper of the root task
+     * @param spliterator the spliterator of the root task
+     * @return the root of the new split tree, or null
+     */
+    static PipelineInstrumentation.Task taskTree(PipelineHelper<?> helper, Spliterator<?> spliterator) {
+        PipelineProbe probe = helper.probe();
+        if (probe == null) {
+            return null;
+        }
+        PipelineInstrumentation.Task root = new PipelineInstrumentation.Task(null, spliterator.estimateSize());
+        probe.taskTrees.add(root);
+        return root;
+    }
+
+    int indexOf(AbstractPipeline<?, ?, ?> stage) {
+        for (int i = stages.length - 1; i >= 0; i--) {
+            if (stages[i] == stage) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Stage not in pipeline: " + stage);
+    }
+
+    /**
+     * Creates a sink that counts and times the elements passed to the given
+     * sink.
+     *
+     * @param index the index of the stage that the given sink belongs to
+     * @param inputShape the input shape of that stage
+     * @param sink the sink of that stage
+     * @param next the {@code CountingSink} of the next stage, whose time
+     *        is excluded from the time of the stage, or null
+     * @return the counting sink
+     */
+    CountingSink<?> count(int index, StreamShape inputShape, Sink<?> sink, CountingSink<?> next) {
+        switch (inputShape) {
+            case REFERENCE:
+                return new CountingSink.OfRef<Object>(this, index, sink, next);
+            case INT_VALUE:
+                return new CountingSink.OfInt(this, index, sink, next);
+            case LONG_VALUE:
+                return new CountingSink.OfLong(this, index, sink, next);
+            case DOUBLE_VALUE:
+                return new CountingSink.OfDouble(this, index, sink, next);
+            default:
+                throw new IllegalStateException("Unknown shape " + inputShape);
+        }
+    }
+
+    /**
+     * Completes the measurement and publishes the report.
+     *
+     * @param failure the exception that terminated the evaluation, or null
+     *        if it completed normally
+     */
+    void finish(Throwable failure) {
+        long elapsed = System.nanoTime() - start;
+        int last = stages.length - 1;
+        List<PipelineInstrumentation.Stage> stageList = new ArrayList<PipelineInstrumentation.Stage>(last);
+        for (int i = 1; i <= last; i++) {
+            stageList.add(new PipelineInstrumentation.Stage(i, describe(stages[i]), counts.get(i),
+                                                            counts.get(i + 1), nanos.get(i)));
+        }
+        List<PipelineInstrumentation.Task> trees;
+        synchronized (taskTrees) {
+            trees = new ArrayList<PipelineInstrumentation.Task>(taskTrees);
+        }
+        PipelineInstrumentation.publish(new PipelineInstrumentation.Report(
+                parallel, elapsed, stageList, counts.get(last + 1), nanos.get(last + 1), trees,
+                failure));
+    }
+
+    /**
+     * Describes the operation of a stage by the method that created its
+     * anonymous class, such as {@code ReferencePipeline.map}, or by the name
+     * of its class.
+     */
+    static String describe(AbstractPipeline<?, ?, ?> stage) {
+        Class<?> c = stage.getClass();
+        try {
+            Method m = c.getEnclosingMethod();
+            if (m != null) {
+                return m.getDeclaringClass().getSimpleName() + "." + m.getName();
+            }
+            Class<?> enclosing = c.getEnclosingClass();
+            if (enclosing != null && c.getSimpleName().length() > 0) {
+                return enclosing.getSimpleName() + "." + c.getSimpleName();
+            }
+        } catch (SecurityException ignore) {
+        }
+        return c.getName();
+    }
+
+    /**
+     * A {@code Sink} that counts the elements passed to the sink of a stage
+     * and takes the time spent in it.
+     */
+    abstract static class CountingSink<T> implements Sink<T> {
+        private final PipelineProbe probe;
+        private final int index;
+        @SuppressWarnings("rawtypes")
+        private final Sink downstream;
+        private final CountingSink<?> next;
+        private long count;
+        // The time spent in downstream, including the next stages
+        private long nanos;
+        // What has already been added to the totals of the probe
+        private long reportedCount;
+        private long reportedNanos;
+
+        CountingSink(PipelineProbe probe, int index, Sink<?> downstream, CountingSink<?> next) {
+            this.probe = probe;
+            this.index = index;
+            this.downstream = downstream;
+            this.next = next;
+        }
+
+        @Override
+        public void begin(long size) {
+            long t = System.nanoTime();
+            downstream.begin(size);
+            nanos += System.nanoTime() - t;
+        }
+
+        @Override
+        public void end() {
+            long t = System.nanoTime();
+            downstream.end();
+            nanos += System.nanoTime() - t;
+            // The next counting sink has already reported in its end()
+            long exclusive = nanos - (next != null ? next.nanos : 0L);
+            probe.counts.addAndGet(index, count - reportedCount);
+            probe.nanos.addAndGet(index, exclusive - reportedNanos);
+            reportedCount = count;
+            reportedNanos = exclusive;
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(T t) {
+            count++;
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+        }
+
+        @Override
+        public void accept(int value) {
+            count++;
+            long s = System.nanoTime();
+            downstream.accept(value);
+            nanos += System.nanoTime() - s;
+        }
+
+        @Override
+        public void accept(long value) {
+            count++;
+            long s = System.nanoTime();
+            downstream.accept(value);
+            nanos += System.nanoTime() - s;
+        }
+
+        @Override
+        public void accept(double value) {
+            count++;
+            long s = System.nanoTime();
+            downstream.accept(value);
+            nanos += System.nanoTime() - s;
+        }
+
+        static final class OfRef<T> extends CountingSink<T> {
+            OfRef(PipelineProbe probe, int index, Sink<?> downstream, CountingSink<?> next) {
+                super(probe, index, downstream, next);
+            }
+        }
+
+        static final class OfInt extends CountingSink<Integer> implements Sink.OfInt {
+            OfInt(PipelineProbe probe, int index, Sink<?> downstream, CountingSink<?> next) {
+                super(probe, index, downstream, next);
+            }
+
+            @Override
+            public void accept(Integer i) {
+                SinkDefaults.OfInt.accept(this, i);
+            }
+        }
+
+        static final class OfLong extends CountingSink<Long> implements Sink.OfLong {
+            OfLong(PipelineProbe probe, int index, Sink<?> downstream, CountingSink<?> next) {
+                super(probe, index, downstream, next);
+            }
+
+            @Override
+            public void accept(Long i) {
+                SinkDefaults.OfLong.accept(this, i);
+            }
+        }
+
+        static final class OfDouble extends CountingSink<Double> implements Sink.OfDouble {
+            OfDouble(PipelineProbe probe, int index, Sink<?> downstream, CountingSink<?> next) {
+                super(probe, index, downstream, next);
+            }
+
+            @Override
+            public void accept(Double i) {
+                SinkDefaults.OfDouble.accept(this, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+import java8.util.function.Function;
+
+/**
+ * A stream pipeline of intermediate operations and a collecting terminal
+ * operation that is built once and then evaluated for many sources.
+ *
+ * <p>The intermediate operations are appended, by the function passed to
+ * {@link #of(Function, Collector) of()}, to a placeholder stream that stands
+ * in for the sources.  The pipeline stages and their combined stream flags
+ * are computed once, when the template is created, and are shared by all
+ * evaluations.  If none of the intermediate operations is stateful, such as
+ * a pipeline of {@code filter()}, {@code map()} and {@code flatMap()}
+ * operations, the chain of sinks that the elements are pushed through is
+ * kept after an evaluation and reused by the next one, so that an
+ * evaluation allocates little more than the result container of the
+ * collector.  This makes a template worthwhile for pipelines that are
+ * evaluated very often on small sources, whose evaluation would otherwise
+ * be dominated by setting the pipeline up.
+ *
+ * <p>For example, the names of the adult persons in each of many small
+ * batches can be collected with:
+ * <pre>{@code
+ *     PipelineTemplate<Person, List<String>> adultNames = PipelineTemplate.of(
+ *         s -> s.filter(p -> p.getAge() >= 18).map(Person::getName),
+ *         Collectors.toList());
+ *
+ *     for (List<Person> batch : batches) {
+ *         List<String> names = adultNames.apply(batch);
+ *         ...
+ *     }
+ * }</pre>
+ *
+ * <p>The placeholder stream is sequential, ordered and of unknown size, and
+ * is never traversed itself.  The sources are evaluated sequentially, in
+ * their encounter order if they have one.  If the function makes the
+ * pipeline parallel, the template has no pipeline to share: every evaluation
+ * applies the function to a stream of the source and collects it like
+ * {@link Stream#collect(Collector)} does.  Close handlers registered by the
+ * function are never run.
+ *
+ * <p>A template may be used by several threads concurrently.  An evaluation
+ * that starts while the reusable sinks are used by another one builds a
+ * fresh chain of sinks.
+ *
+ * <p>This class is not part of the Java SE API.
+ *
+ * @param <T> the type of the source elements
+ * @param <R> the type of the result
+ */
+public final class PipelineTemplate<T, R> {
+
+    private final Compiled<T, ?, ?, R> compiled;
+
+    private PipelineTemplate(Compiled<T, ?, ?, R> compiled) {
+        this.compiled = compiled;
+    }
+
+    /**
+     * Returns a template of the pipeline made of the intermediate operations
+     * that the given function appends to a placeholder stream, and of a
+     * terminal {@code collect} operation with the given collector.
+     *
+     * <p>The function is called once, by this method.  It must return a stream
+     * that it obtained from the placeholder stream by applying intermediate
+     * operations only; it must neither consume the placeholder stream nor
+     * return another stream.
+     *
+     * @param <T> the type of the source elements
+     * @param <U> the type of the elements that are collected
+     * @param <R> the type of the result
+     * @param stages a function that appends the intermediate operations of
+     *        the pipeline to the stream it is given and returns the last one
+     * @param collector the {@code Collector} describing the reduction
+     * @return the pipeline template
+     * @throws IllegalArgumentException if the function returns a stream that
+     *         doesn't belong to the pipeline of the placeholder stream
+     * @throws NullPointerException if any argument is null, or if the
+     *         function returns null
+     */
+    public static <T, U, R> PipelineTemplate<T, R> of(Function<? super Stream<T>, ? extends Stream<U>> stages,
+                                                      Collector<? super U, ?, R> collector) {
+        Objects.requireNonNull(stages);
+        Objects.requireNonNull(collector);
+        return new PipelineTemplate<>(compile(stages, collector));
+    }
+
+    private static <T, U, A, R> Compiled<T, U, A, R> compile(Function<? super Stream<T>, ? extends Stream<U>> stages,
+                                                             Collector<? super U, A, R> collector) {
+        return new Compiled<>(stages, collector);
+    }
+
+    /**
+     * Evaluates the pipeline for the elements of the given spliterator, which
+     * is traversed by this method.
+     *
+     * @param source the source of the elements
+     * @return the result of the collector
+     * @throws NullPointerException if the source is null
+     */
+    public R apply(Spliterator<T> source) {
+        return compiled.evaluate(Objects.requireNonNull(source));
+    }
+
+    /**
+     * Evaluates the pipeline for the elements of the given collection.
+     *
+     * @param source the source of the elements
+     * @return the result of the collector
+     * @throws NullPointerException if the source is null
+     */
+    public R apply(Collection<? extends T> source) {
+        return compiled.evaluate(Spliterators.<T>spliterator(source));
+    }
+
+    /**
+     * The pipeline of a template, with the types of the elements that are
+     * collected and of the result container exposed.
+     */
+    private static final class Compiled<T, U, A, R> {
+        private final Function<? super Stream<T>, ? extends Stream<U>> stages;
+        private final Collector<? super U, A, R> collector;
+        private final TerminalOp<U, A> collect;
+        private final AbstractPipeline<?, U, ?> pipeline;
+        private final boolean reuseSinks;
+        // The sinks of the last evaluation, unless an evaluation uses them
+        private final AtomicReference<Sinks<T, U, A>> idle = new AtomicReference<>();
+
+        Compiled(Function<? super Stream<T>, ? extends Stream<U>> stages,
+                 Collector<? super U, A, R> collector) {
+            Stream<T> placeholder = StreamSupport.stream(() -> Spliterators.<T>emptySpliterator(),
+                                                         Spliterator.ORDERED, false);
+            Stream<U> last = Objects.requireNonNull(stages.apply(placeholder));
+            if (!(last instanceof AbstractPipeline)
+                    || !((AbstractPipeline<?, ?, ?>) last).hasSourceStage((AbstractPipeline<?, ?, ?>) placeholder))
+                throw new IllegalArgumentException("The stream doesn't belong to the placeholder pipeline");
+            this.stages = stages;
+            this.collector = collector;
+            this.collect = ReduceOps.makeRef(collector);
+            this.pipeline = (AbstractPipeline<?, U, ?>) last;
+            this.reuseSinks = !pipeline.hasStatefulStage();
+        }
+
+        R evaluate(Spliterator<T> source) {
+            if (pipeline.isParallel()) {
+                return stages.apply(StreamSupport.stream(source, false)).collect(collector);
+            }
+            Sinks<T, U, A> sinks = reuseSinks ? idle.getAndSet(null) : null;
+            if (sinks == null) {
+                sinks = new Sinks<>(pipeline, ReduceOps.makeSink(collect));
+            }
+            pipeline.copyInto(sinks.head, source);
+            A container = sinks.terminal.get();
+            if (reuseSinks) {
+                // not returned if the evaluation failed half-way
+                idle.set(sinks);
+            }
+            return finish(container);
+        }
+
+        @SuppressWarnings("unchecked")
+        private R finish(A container) {
+            return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+                   ? (R) container
+                   : collector.finisher().apply(container);
+        }
+    }
+
+    /**
+     * A chain of sinks of a pipeline, ending in the sink of the terminal
+     * operation.
+     */
+    private static final class Sinks<T, U, A> {
+        final Sink<T> head;
+        final TerminalSink<U, A> terminal;
+
+        Sinks(AbstractPipeline<?, U, ?> pipeline, TerminalSink<U, A> terminal) {
+            this.head = pipeline.wrapSink(terminal);
+            this.terminal = terminal;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java8.util.function.BinaryOperator;
 import java8.util.function.DoubleBinaryOperator;
 import java8.util.function.IntBinaryOperator;
 import java8.util.function.LongBinaryOperator;
+import java8.util.function.LongFunction;
 import java8.util.function.ObjDoubleConsumer;
 import java8.util.function.ObjIntConsumer;
 import java8.util.function.ObjLongConsumer;
@@ -193,7 +194,9 @@ final class ReduceOps {
 
     /**
      * Constructs a {@code TerminalOp} that implements a mutable reduce on
-     * reference values.
+     * reference values.  If the collector is a {@link SizedCollector}, the
+     * result containers are created with its sized supplier whenever the
+     * number of elements is known when the reduction starts.
      *
      * @param <T> the type of the input elements
      * @param <I> the type of the intermediate reduction result
@@ -205,11 +208,16 @@ final class ReduceOps {
         Supplier<I> supplier = Objects.requireNonNull(collector).supplier();
         BiConsumer<I, ? super T> accumulator = collector.accumulator();
         BinaryOperator<I> combiner = collector.combiner();
+        LongFunction<I> sizedSupplier = (collector instanceof SizedCollector)
+                ? ((SizedCollector<? super T, I, ?>) collector).sizedSupplier()
+                : null;
         class ReducingSink extends Box<I>
                 implements AccumulatingSink<T, I, ReducingSink> {
             @Override
             public void begin(long size) {
-                state = supplier.get();
+                state = (sizedSupplier != null && size >= 0)
+                        ? sizedSupplier.apply(size)
+                        : supplier.get();
             }
 
             @Override
@@ -261,6 +269,21 @@ final class ReduceOps {
         };
     }
 
+    /**
+     * Creates a new sink for a {@code TerminalOp} constructed by one of the
+     * {@code make} methods of this class, to evaluate a pipeline without the
+     * op.  The sink starts a new reduction in every {@code begin}, so it can
+     * be reused for sequential evaluations one after another.
+     *
+     * @param <T> the type of the input elements
+     * @param <R> the type of the result
+     * @param reduceOp a {@code TerminalOp} of this class
+     * @return a new sink, whose result is obtained with {@code get()}
+     */
+    static <T, R> TerminalSink<T, R> makeSink(TerminalOp<T, R> reduceOp) {
+        return ((ReduceOp<T, R, ?>) reduceOp).makeSink();
+    }
+
     /**
      * Constructs a {@code TerminalOp} that implements a mutable reduce on
      * reference values.
@@ -509,6 +532,23 @@ final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that implements a mutable reduce on
+     * {@code int} values.
+     *
+     * @param <I> the type of the intermediate reduction result
+     * @param collector an {@code IntCollector} defining the reduction
+     * @return a {@code ReduceOp} implementing the reduction
+     */
+    public static <I> TerminalOp<Integer, I>
+    makeInt(IntCollector<I, ?> collector) {
+        Objects.requireNonNull(collector);
+        return makeInt(collector.supplier(), collector.accumulator(), collector.combiner(),
+                       collector.characteristics().contains(Collector.Characteristics.UNORDERED)
+                         ? StreamOpFlag.NOT_ORDERED
+                         : 0);
+    }
+
     /**
      * Constructs a {@code TerminalOp} that implements a mutable reduce on
      * {@code int} values.
@@ -524,6 +564,14 @@ final class ReduceOps {
     makeInt(Supplier<R> supplier,
             ObjIntConsumer<R> accumulator,
             BinaryOperator<R> combiner) {
+        return makeInt(supplier, accumulator, combiner, 0);
+    }
+
+    private static <R> TerminalOp<Integer, R>
+    makeInt(Supplier<R> supplier,
+            ObjIntConsumer<R> accumulator,
+            BinaryOperator<R> combiner,
+            int opFlags) {
         Objects.requireNonNull(supplier);
         Objects.requireNonNull(accumulator);
         Objects.requireNonNull(combiner);
@@ -573,6 +621,11 @@ final class ReduceOps {
             public ReducingSink makeSink() {
                 return new ReducingSink();
             }
+
+            @Override
+            public int getOpFlags() {
+                return opFlags;
+            }
         };
     }
 
@@ -755,6 +808,23 @@ final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that implements a mutable reduce on
+     * {@code long} values.
+     *
+     * @param <I> the type of the intermediate reduction result
+     * @param collector a {@code LongCollector} defining the reduction
+     * @return a {@code ReduceOp} implementing the reduction
+     */
+    public static <I> TerminalOp<Long, I>
+    makeLong(LongCollector<I, ?> collector) {
+        Objects.requireNonNull(collector);
+        return makeLong(collector.supplier(), collector.accumulator(), collector.combiner(),
+                        collector.characteristics().contains(Collector.Characteristics.UNORDERED)
+                          ? StreamOpFlag.NOT_ORDERED
+                          : 0);
+    }
+
     /**
      * Constructs a {@code TerminalOp} that implements a mutable reduce on
      * {@code long} values.
@@ -770,6 +840,14 @@ final class ReduceOps {
     makeLong(Supplier<R> supplier,
              ObjLongConsumer<R> accumulator,
              BinaryOperator<R> combiner) {
+        return makeLong(supplier, accumulator, combiner, 0);
+    }
+
+    private static <R> TerminalOp<Long, R>
+    makeLong(Supplier<R> supplier,
+             ObjLongConsumer<R> accumulator,
+             BinaryOperator<R> combiner,
+             int opFlags) {
         Objects.requireNonNull(supplier);
         Objects.requireNonNull(accumulator);
         Objects.requireNonNull(combiner);
@@ -819,6 +897,11 @@ final class ReduceOps {
             public ReducingSink makeSink() {
                 return new ReducingSink();
             }
+
+            @Override
+            public int getOpFlags() {
+                return opFlags;
+            }
         };
     }
 
@@ -1001,6 +1084,23 @@ final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that implements a mutable reduce on
+     * {@code double} values.
+     *
+     * @param <I> the type of the intermediate reduction result
+     * @param collector a {@code DoubleCollector} defining the reduction
+     * @return a {@code ReduceOp} implementing the reduction
+     */
+    public static <I> TerminalOp<Double, I>
+    makeDouble(DoubleCollector<I, ?> collector) {
+        Objects.requireNonNull(collector);
+        return makeDouble(collector.supplier(), collector.accumulator(), collector.combiner(),
+                          collector.characteristics().contains(Collector.Characteristics.UNORDERED)
+                            ? StreamOpFlag.NOT_ORDERED
+                            : 0);
+    }
+
     /**
      * Constructs a {@code TerminalOp} that implements a mutable reduce on
      * {@code double} values.
@@ -1016,6 +1116,14 @@ final class ReduceOps {
     makeDouble(Supplier<R> supplier,
                ObjDoubleConsumer<R> accumulator,
                BinaryOperator<R> combiner) {
+        return makeDouble(supplier, accumulator, combiner, 0);
+    }
+
+    private static <R> TerminalOp<Double, R>
+    makeDouble(Supplier<R> supplier,
+               ObjDoubleConsumer<R> accumulator,
+               BinaryOperator<R> combiner,
+               int opFlags) {
         Objects.requireNonNull(supplier);
         Objects.requireNonNull(accumulator);
         Objects.requireNonNull(combiner);
@@ -1065,6 +1173,11 @@ final class ReduceOps {
             public ReducingSink makeSink() {
                 return new ReducingSink();
             }
+
+            @Override
+            public int getOpFlags() {
+                return opFlags;
+            }
         };
     }
 
@@ -24,10 +24,22 @@
  */
 package java8.util.stream;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import java8.util.Objects;
 import java8.util.Spliterator;
 import java8.util.Spliterators;
+import java8.util.function.BiConsumer;
+import java8.util.function.BiFunction;
+import java8.util.function.BinaryOperator;
 import java8.util.function.Consumer;
+import java8.util.function.DoubleConsumer;
+import java8.util.function.IntConsumer;
+import java8.util.function.LongConsumer;
+import java8.util.function.LongFunction;
 import java8.util.function.Predicate;
 import java8.util.function.Supplier;
 import java8.util.function.UnaryOperator;
@@ -36,7 +48,10 @@ import java8.util.stream.Stream.Builder;
 /**
  * A place for static default implementations of the new Java 8/9 static
  * interface methods and default interface methods ({@code takeWhile()},
- * {@code dropWhile()}) in the {@link Stream} interface.
+ * {@code dropWhile()}, {@code mapMulti()}, {@code gather()},
+ * {@code windowFixed()}, {@code windowSliding()}, {@code scan()}, {@code toList()},
+ * {@code distinct(long)}) in the
+ * {@link Stream} interface.
  */
 public final class RefStreams {
 
@@ -201,6 +216,342 @@ public final class RefStreams {
                 s.isParallel()).onClose(StreamSupport.closeHandler(s));
     }
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * the passed stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain Consumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the
+     * consumer zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link Stream#flatMap flatMap} on the
+     * passed stream, passing a function that behaves as follows. First, it calls
+     * the mapper function with a {@code Consumer} that accumulates replacement
+     * elements into a newly created internal buffer. When the mapper function
+     * returns, it creates a stream from the internal buffer. Finally, it returns
+     * this stream to {@code flatMap}.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> The element type of the new stream
+     * @param stream the stream to wrap for the {@code mapMulti()} operation
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @since 16
+     */
+    public static <T, R> Stream<R> mapMulti(Stream<? extends T> stream, BiConsumer<? super T, ? super Consumer<R>> mapper) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(mapper);
+        return stream.flatMap(e -> {
+            SpinedBuffer<R> buffer = new SpinedBuffer<>();
+            mapper.accept(e, buffer);
+            return StreamSupport.stream(buffer.spliterator(), false);
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given
+     * {@link Gatherer} to the elements of the passed stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link Stream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and applies the gatherer to it.  The returned stream
+     * preserves the execution characteristics of the passed stream (namely
+     * parallel or sequential execution as per {@link Stream#isParallel()}) and
+     * the close handlers of the passed stream are run when the returned
+     * stream is closed.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> The element type of the new stream
+     * @param stream the stream to gather
+     * @param gatherer a gatherer
+     * @return the new stream
+     * @since 24
+     */
+    public static <T, R> Stream<R> gather(Stream<? extends T> stream, Gatherer<? super T, ?, R> gatherer) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(gatherer);
+
+        @SuppressWarnings("unchecked")
+        Stream<T> s = (Stream<T>) stream;
+
+        return StreamSupport.stream(s.spliterator(), s.isParallel())
+                .gather(gatherer).onClose(StreamSupport.closeHandler(s));
+    }
+
+    /**
+     * Returns a stream consisting of the distinct elements (according to
+     * {@link Object#equals(Object)}) of the passed stream, given a hint of how
+     * many distinct elements the passed stream is expected to contain.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation checks the hint and returns
+     * {@code stream.distinct()}, ignoring the hint.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to remove the duplicates from
+     * @param expectedSize the expected number of distinct elements
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Stream<T> distinct(Stream<? extends T> stream, long expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(Long.toString(expectedSize));
+        }
+        return (Stream<T>) stream.distinct();
+    }
+
+    /**
+     * Returns a stream consisting of the elements of the passed stream grouped
+     * into windows of a fixed size.  The last window may contain fewer elements
+     * than the supplied window size.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link Stream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and groups its elements.  The returned stream preserves the
+     * execution characteristics of the passed stream (namely parallel or
+     * sequential execution as per {@link Stream#isParallel()}) and the close
+     * handlers of the passed stream are run when the returned stream is
+     * closed.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to group into windows
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    public static <T> Stream<List<T>> windowFixed(Stream<? extends T> stream, int windowSize) {
+        Objects.requireNonNull(stream);
+
+        @SuppressWarnings("unchecked")
+        Stream<T> s = (Stream<T>) stream;
+
+        return StreamSupport.stream(s.spliterator(), s.isParallel())
+                .windowFixed(windowSize).onClose(StreamSupport.closeHandler(s));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of the passed stream grouped
+     * into sliding windows of a given size.  If the size of the passed stream
+     * is smaller than the window size then only one window will be produced,
+     * containing all elements in the passed stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link Stream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and groups its elements.  The returned stream preserves the
+     * execution characteristics of the passed stream (namely parallel or
+     * sequential execution as per {@link Stream#isParallel()}) and the close
+     * handlers of the passed stream are run when the returned stream is
+     * closed.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to group into windows
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    public static <T> Stream<List<T>> windowSliding(Stream<? extends T> stream, int windowSize) {
+        Objects.requireNonNull(stream);
+
+        @SuppressWarnings("unchecked")
+        Stream<T> s = (Stream<T>) stream;
+
+        return StreamSupport.stream(s.spliterator(), s.isParallel())
+                .windowSliding(windowSize).onClose(StreamSupport.closeHandler(s));
+    }
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of the passed stream: the element at each position is the
+     * result of accumulating the identity and, in encounter order, all
+     * elements of the passed stream up to and including the one at that
+     * position.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation obtains the {@link Stream#spliterator()
+     * spliterator} of the passed stream, creates a new stream from that
+     * spliterator and accumulates its elements.  The returned stream
+     * preserves the execution characteristics of the passed stream (namely
+     * parallel or sequential execution as per {@link Stream#isParallel()})
+     * and the close handlers of the passed stream are run when the returned
+     * stream is closed.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to accumulate
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    public static <T> Stream<T> scan(Stream<T> stream, T identity, BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(stream);
+        return StreamSupport.stream(stream.spliterator(), stream.isParallel())
+                .scan(identity, accumulator).onClose(StreamSupport.closeHandler(stream));
+    }
+
+    /**
+     * Accumulates the elements of the passed stream into a {@code List}. The
+     * elements in the list will be in the passed stream's encounter order, if
+     * one exists. The returned List is unmodifiable; calls to any mutator method
+     * will always cause {@code UnsupportedOperationException} to be thrown. There
+     * are no guarantees on the implementation type or serializability of the
+     * returned List.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The implementation in this class returns a List produced as if by the
+     * following:
+     * <pre>{@code
+     * Collections.unmodifiableList(new ArrayList<>(Arrays.asList(stream.toArray())))
+     * }</pre>
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to accumulate
+     * @return a List containing the stream elements
+     * @since 16
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toList(Stream<? extends T> stream) {
+        return (List<T>) Collections.unmodifiableList(new ArrayList<>(Arrays.asList(stream.toArray())));
+    }
+
+    /**
+     * Returns an {@code IntStream} consisting of the results of replacing
+     * each element of the passed stream with multiple elements, specifically
+     * zero or more elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link Stream#flatMapToInt flatMapToInt}
+     * on the passed stream, passing a function that behaves as follows. First,
+     * it calls the mapper function with an {@code IntConsumer} that accumulates
+     * replacement elements into a newly created internal buffer. When the mapper
+     * function returns, it creates an {@code IntStream} from the internal
+     * buffer. Finally, it returns this stream to {@code flatMapToInt}.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to wrap for the {@code mapMultiToInt()} operation
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti(Stream, BiConsumer)
+     * @since 16
+     */
+    public static <T> IntStream mapMultiToInt(Stream<? extends T> stream, BiConsumer<? super T, ? super IntConsumer> mapper) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(mapper);
+        return stream.flatMapToInt(e -> {
+            SpinedBuffer.OfInt buffer = new SpinedBuffer.OfInt();
+            mapper.accept(e, buffer);
+            return StreamSupport.intStream(buffer.spliterator(), false);
+        });
+    }
+
+    /**
+     * Returns a {@code LongStream} consisting of the results of replacing
+     * each element of the passed stream with multiple elements, specifically
+     * zero or more elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link Stream#flatMapToLong flatMapToLong}
+     * on the passed stream, passing a function that behaves as follows. First,
+     * it calls the mapper function with a {@code LongConsumer} that accumulates
+     * replacement elements into a newly created internal buffer. When the mapper
+     * function returns, it creates a {@code LongStream} from the internal
+     * buffer. Finally, it returns this stream to {@code flatMapToLong}.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to wrap for the {@code mapMultiToLong()} operation
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti(Stream, BiConsumer)
+     * @since 16
+     */
+    public static <T> LongStream mapMultiToLong(Stream<? extends T> stream, BiConsumer<? super T, ? super LongConsumer> mapper) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(mapper);
+        return stream.flatMapToLong(e -> {
+            SpinedBuffer.OfLong buffer = new SpinedBuffer.OfLong();
+            mapper.accept(e, buffer);
+            return StreamSupport.longStream(buffer.spliterator(), false);
+        });
+    }
+
+    /**
+     * Returns a {@code DoubleStream} consisting of the results of replacing
+     * each element of the passed stream with multiple elements, specifically
+     * zero or more elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link Stream#flatMapToDouble flatMapToDouble}
+     * on the passed stream, passing a function that behaves as follows. First,
+     * it calls the mapper function with a {@code DoubleConsumer} that accumulates
+     * replacement elements into a newly created internal buffer. When the mapper
+     * function returns, it creates a {@code DoubleStream} from the internal
+     * buffer. Finally, it returns this stream to {@code flatMapToDouble}.
+     *
+     * @param <T> the type of the stream elements
+     * @param stream the stream to wrap for the {@code mapMultiToDouble()} operation
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti(Stream, BiConsumer)
+     * @since 16
+     */
+    public static <T> DoubleStream mapMultiToDouble(Stream<? extends T> stream, BiConsumer<? super T, ? super DoubleConsumer> mapper) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(mapper);
+        return stream.flatMapToDouble(e -> {
+            SpinedBuffer.OfDouble buffer = new SpinedBuffer.OfDouble();
+            mapper.accept(e, buffer);
+            return StreamSupport.doubleStream(buffer.spliterator(), false);
+        });
+    }
+
     /**
      * Returns a builder for a {@link Stream}.
      *
@@ -410,6 +761,70 @@ public final class RefStreams {
                 new StreamSpliterators.InfiniteSupplyingSpliterator.OfRef<>(Long.MAX_VALUE, s), false);
     }
 
+    /**
+     * Returns a sequential ordered {@code Stream} of {@code n} elements, where
+     * the element at index {@code i} is {@code f.apply(i)}.
+     *
+     * <p>Unlike a stream of {@code iterate()} or {@code generate()} limited to
+     * {@code n} elements, the stream is {@code SIZED} and splits by index
+     * range like {@link LongStreams#range(long, long)}, so a parallel
+     * evaluation computes the elements of each split independently.  The
+     * function may be called for the indices in any order and from any
+     * thread, and must be stateless.
+     *
+     * @param <T> the type of stream elements
+     * @param n the number of elements
+     * @param f a function that computes the element at an index
+     * @return a new sequential {@code Stream}
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static <T> Stream<T> tabulate(long n, LongFunction<? extends T> f) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        Objects.requireNonNull(f);
+        return LongStreams.range(0, n).mapToObj(f);
+    }
+
+    /**
+     * Returns a sequential ordered {@code Stream} of the first {@code n}
+     * elements produced by iterative application of the {@code next}
+     * function to the initial element {@code seed}, like
+     * {@code iterate(seed, next).limit(n)}, given a {@code jump} function
+     * that advances the sequence by any number of steps at once.
+     *
+     * <p>{@code jump.apply(k)} must return a function that maps an element to
+     * the element {@code k} positions after it, the same as {@code k}
+     * applications of {@code next} would.  With it the stream is
+     * {@code SIZED} and splits by index range: a split computes the first
+     * element of its suffix with a single jump from the first element of its
+     * prefix, and each part then steps through its elements with {@code next}
+     * on its own.  For a recurrence whose jump takes {@code O(log k)} time,
+     * such as a linear congruential generator or the powers of a matrix, a
+     * parallel evaluation can use all cores, where {@code iterate().limit(n)}
+     * only ever uses one.  The functions may be called from any thread, and
+     * must be stateless.
+     *
+     * @param <T> the type of stream elements
+     * @param seed the initial element
+     * @param n the number of elements
+     * @param next a function to be applied to the previous element to produce
+     *             a new element
+     * @param jump a function that returns, for a number of steps {@code k > 0},
+     *             a function that advances an element by {@code k} steps
+     * @return a new sequential {@code Stream}
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static <T> Stream<T> iterate(T seed, long n, UnaryOperator<T> next,
+                                        LongFunction<? extends UnaryOperator<T>> jump) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        Objects.requireNonNull(next);
+        Objects.requireNonNull(jump);
+        return StreamSupport.stream(new Streams.IterateSpliterator<>(seed, 0, n, next, jump), false);
+    }
+
     /**
      * Creates a lazily concatenated {@link Stream} whose elements are all the
      * elements of the first stream followed by all the elements of the
@@ -457,6 +872,62 @@ public final class RefStreams {
         return stream.onClose(Streams.composedClose(a, b));
     }
 
+    /**
+     * Creates a lazily zipped stream whose elements are the results of
+     * applying the given function to the elements of the first and of the
+     * second stream at the same position.  The zipped stream is as long as
+     * the shorter of the input streams; the remaining elements of the longer
+     * one are ignored.  The resulting stream is ordered if both of the input
+     * streams are ordered, and parallel if either of the input streams is
+     * parallel.  When the resulting stream is closed, the close handlers for
+     * both input streams are invoked.
+     *
+     * <p>This method operates on the two input streams and binds each stream
+     * to its source.  As a result subsequent modifications to an input stream
+     * source may not be reflected in the zipped stream result.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * If the sources of both input streams are {@code SIZED} and
+     * {@code SUBSIZED}, as those of arrays, lists and ranges are, the zipped
+     * stream splits them at the same index.  It can then be split for parallel
+     * evaluation as finely as the input streams, and its exact size is known.
+     * Otherwise splitting it copies batches of zipped elements into arrays.
+     * <p>Subsequent changes to the sequential/parallel execution mode of the
+     * returned stream are not guaranteed to be propagated to the input streams.
+     *
+     * <p><b>API Note:</b><br>
+     * Unlike zipping two lists through a stream of their indices, this
+     * needs no random access to the sources.  For example, to pair the
+     * names with the ages of two parallel lists:
+     * <pre>{@code
+     *     Stream<String> s = RefStreams.zip(StreamSupport.stream(names),
+     *         StreamSupport.stream(ages), (name, age) -> name + ": " + age);
+     * }</pre>
+     *
+     * @param <A> the type of the elements of the first stream
+     * @param <B> the type of the elements of the second stream
+     * @param <R> the type of the elements of the zipped stream
+     * @param a the first stream
+     * @param b the second stream
+     * @param zipper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that combines an element of the first stream
+     *               with the element of the second stream at the same position
+     * @return the zipped stream
+     */
+    public static <A, B, R> Stream<R> zip(Stream<? extends A> a, Stream<? extends B> b,
+                                          BiFunction<? super A, ? super B, ? extends R> zipper) {
+        Objects.requireNonNull(a);
+        Objects.requireNonNull(b);
+        Objects.requireNonNull(zipper);
+
+        @SuppressWarnings("unchecked")
+        Spliterator<R> split = new Streams.ZipSpliterator.OfRef<>(
+                (Spliterator<A>) a.spliterator(), (Spliterator<B>) b.spliterator(), zipper);
+        Stream<R> stream = StreamSupport.stream(split, a.isParallel() || b.isParallel());
+        return stream.onClose(Streams.composedClose(a, b));
+    }
+
     private RefStreams() {
     }
 }
@@ -24,8 +24,11 @@
  */
 package java8.util.stream;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 
 import java8.util.Objects;
 import java8.util.function.BiConsumer;
@@ -390,6 +393,98 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         };
     }
 
+    @Override
+    public final <R> Stream<R> mapMulti(BiConsumer<? super P_OUT, ? super Consumer<R>> mapper) {
+        Objects.requireNonNull(mapper);
+        return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
+                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
+                return new Sink.ChainedReference<P_OUT, R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void accept(P_OUT u) {
+                        mapper.accept(u, (Consumer<R>) downstream);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public final IntStream mapMultiToInt(BiConsumer<? super P_OUT, ? super IntConsumer> mapper) {
+        Objects.requireNonNull(mapper);
+        return new IntPipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
+                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<P_OUT> opWrapSink(int flags, Sink<Integer> sink) {
+                return new Sink.ChainedReference<P_OUT, Integer>(sink) {
+                    IntConsumer downstreamAsInt = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(P_OUT u) {
+                        mapper.accept(u, downstreamAsInt);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public final LongStream mapMultiToLong(BiConsumer<? super P_OUT, ? super LongConsumer> mapper) {
+        Objects.requireNonNull(mapper);
+        return new LongPipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
+                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<P_OUT> opWrapSink(int flags, Sink<Long> sink) {
+                return new Sink.ChainedReference<P_OUT, Long>(sink) {
+                    LongConsumer downstreamAsLong = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(P_OUT u) {
+                        mapper.accept(u, downstreamAsLong);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public final DoubleStream mapMultiToDouble(BiConsumer<? super P_OUT, ? super DoubleConsumer> mapper) {
+        Objects.requireNonNull(mapper);
+        return new DoublePipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
+                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT | StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<P_OUT> opWrapSink(int flags, Sink<Double> sink) {
+                return new Sink.ChainedReference<P_OUT, Double>(sink) {
+                    DoubleConsumer downstreamAsDouble = downstream::accept;
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(P_OUT u) {
+                        mapper.accept(u, downstreamAsDouble);
+                    }
+                };
+            }
+        };
+    }
+
     @Override
     public final Stream<P_OUT> peek(Consumer<? super P_OUT> action) {
         Objects.requireNonNull(action);
@@ -415,6 +510,13 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return DistinctOps.makeRef(this);
     }
 
+    @Override
+    public final Stream<P_OUT> distinct(long expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException(Long.toString(expectedSize));
+        return DistinctOps.makeRef(this, expectedSize);
+    }
+
     @Override
     public final Stream<P_OUT> sorted() {
         return SortedOps.makeRef(this);
@@ -452,6 +554,26 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return WhileOps.makeDropWhileRef(this, predicate);
     }
 
+    @Override
+    public final <R> Stream<R> gather(Gatherer<? super P_OUT, ?, R> gatherer) {
+        return GathererOps.makeRef(this, gatherer);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowFixed(int windowSize) {
+        return WindowOps.makeRef(this, windowSize, false);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowSliding(int windowSize) {
+        return WindowOps.makeRef(this, windowSize, true);
+    }
+
+    @Override
+    public final Stream<P_OUT> scan(P_OUT identity, BinaryOperator<P_OUT> accumulator) {
+        return ScanOps.makeRef(this, identity, accumulator);
+    }
+
     // Terminal operations from Stream
 
     @Override
@@ -544,6 +666,14 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                : collector.finisher().apply(container);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final List<P_OUT> toList() {
+        // The array isn't reachable from anywhere else, so wrapping it
+        // without a copy is safe
+        return Collections.unmodifiableList(Arrays.asList((P_OUT[]) toArray()));
+    }
+
     @Override
     public final <R> R collect(Supplier<R> supplier,
                                BiConsumer<R, ? super P_OUT> accumulator,
@@ -0,0 +1,450 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java8.util.J8Arrays;
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Consumer;
+import java8.util.function.DoubleBinaryOperator;
+import java8.util.function.DoubleConsumer;
+import java8.util.function.IntBinaryOperator;
+import java8.util.function.IntConsumer;
+import java8.util.function.IntFunction;
+import java8.util.function.LongBinaryOperator;
+import java8.util.function.LongConsumer;
+
+/**
+ * Factory for instances of the stateful intermediate operation that
+ * replaces each element of a stream by the accumulation of all elements up
+ * to and including it.
+ *
+ * <p>Sequentially the accumulated value is carried from one element to the
+ * next, so that the operation is as lazy as a stateless one.  In parallel
+ * the upstream elements are first collected into a flat array, exactly
+ * sized and filled in parallel if the upstream is {@code SIZED}, which is
+ * then cumulated in place by {@link J8Arrays#parallelPrefix(Object[],
+ * BinaryOperator) parallelPrefix}: a two-pass computation of the partial
+ * accumulations of adjacent segments followed by the cumulation of each
+ * segment with the accumulation of the segments to its left.  The identity
+ * is combined with the first element only, so the parallel result equals
+ * the sequential one for any associative function.
+ *
+ * <p>The array can only be built for an upstream that is known to be
+ * finite.  If a parallel scan is followed by further stages and the size
+ * of the upstream isn't known, the scan is instead evaluated lazily by a
+ * {@link ScanSpliterator} that carries the accumulated value through the
+ * upstream elements in encounter order, so that a downstream
+ * short-circuiting operation on an infinite stream terminates.
+ */
+final class ScanOps {
+
+    private static final int FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT;
+
+    private ScanOps() {
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param identity the identity value for the accumulating function
+     * @param op the associative accumulating function
+     * @return the new stream
+     */
+    static <T> Stream<T> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                 final T identity, final BinaryOperator<T> op) {
+        Objects.requireNonNull(op);
+        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE, FLAGS) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                return new Sink.ChainedReference<T, T>(sink) {
+                    T acc;
+
+                    @Override
+                    public void begin(long size) {
+                        acc = identity;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void end() {
+                        acc = null;
+                        downstream.end();
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        downstream.accept(acc = op.apply(acc, t));
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper, Spliterator<P_IN> spliterator) {
+                if (helper.exactOutputSizeIfKnown(spliterator) < 0) {
+                    // The upstream may be infinite, scan as the elements are requested
+                    return new ScanSpliterator.OfRef<>(helper.wrapSpliterator(spliterator), identity, op);
+                }
+                return opEvaluateParallel(helper, spliterator, Nodes.castingArray()).spliterator();
+            }
+
+            @Override
+            <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<T[]> generator) {
+                Node<T> n = helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, scan sequentially
+                    Node.Builder<T> b = Nodes.builder(-1, generator);
+                    Sink<T> s = opWrapSink(helper.getStreamAndOpFlags(), b);
+                    s.begin(n.count());
+                    n.forEach(s);
+                    s.end();
+                    return b.build();
+                }
+
+                T[] content = n.asArray(generator);
+                if (content.length > 0) {
+                    content[0] = op.apply(identity, content[0]);
+                    J8Arrays.parallelPrefix(content, op);
+                }
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream an IntStream
+     * @param identity the identity value for the accumulating function
+     * @param op the associative accumulating function
+     * @return the new stream
+     */
+    static IntStream makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                             final int identity, final IntBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE, FLAGS) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                return new Sink.ChainedInt<Integer>(sink) {
+                    int acc;
+
+                    @Override
+                    public void begin(long size) {
+                        acc = identity;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        downstream.accept(acc = op.applyAsInt(acc, t));
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                if (helper.exactOutputSizeIfKnown(spliterator) < 0) {
+                    // The upstream may be infinite, scan as the elements are requested
+                    return new ScanSpliterator.OfInt((Spliterator.OfInt) helper.wrapSpliterator(spliterator),
+                                                     identity, op);
+                }
+                return opEvaluateParallel(helper, spliterator, WhileOps.INT_ARR_GEN).spliterator();
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, scan sequentially
+                    Node.Builder.OfInt b = Nodes.intBuilder(-1);
+                    Sink.OfInt s = (Sink.OfInt) opWrapSink(helper.getStreamAndOpFlags(), b);
+                    s.begin(n.count());
+                    n.forEach((IntConsumer) s);
+                    s.end();
+                    return b.build();
+                }
+
+                int[] content = n.asPrimitiveArray();
+                if (content.length > 0) {
+                    content[0] = op.applyAsInt(identity, content[0]);
+                    J8Arrays.parallelPrefix(content, op);
+                }
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream a LongStream
+     * @param identity the identity value for the accumulating function
+     * @param op the associative accumulating function
+     * @return the new stream
+     */
+    static LongStream makeLong(AbstractPipeline<?, Long, ?> upstream,
+                               final long identity, final LongBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE, FLAGS) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                return new Sink.ChainedLong<Long>(sink) {
+                    long acc;
+
+                    @Override
+                    public void begin(long size) {
+                        acc = identity;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        downstream.accept(acc = op.applyAsLong(acc, t));
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                            Spliterator<P_IN> spliterator) {
+                if (helper.exactOutputSizeIfKnown(spliterator) < 0) {
+                    // The upstream may be infinite, scan as the elements are requested
+                    return new ScanSpliterator.OfLong((Spliterator.OfLong) helper.wrapSpliterator(spliterator),
+                                                      identity, op);
+                }
+                return opEvaluateParallel(helper, spliterator, WhileOps.LONG_ARR_GEN).spliterator();
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, scan sequentially
+                    Node.Builder.OfLong b = Nodes.longBuilder(-1);
+                    Sink.OfLong s = (Sink.OfLong) opWrapSink(helper.getStreamAndOpFlags(), b);
+                    s.begin(n.count());
+                    n.forEach((LongConsumer) s);
+                    s.end();
+                    return b.build();
+                }
+
+                long[] content = n.asPrimitiveArray();
+                if (content.length > 0) {
+                    content[0] = op.applyAsLong(identity, content[0]);
+                    J8Arrays.parallelPrefix(content, op);
+                }
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * Appends a "scan" operation to the provided stream.
+     *
+     * @param upstream a DoubleStream
+     * @param identity the identity value for the accumulating function
+     * @param op the associative accumulating function
+     * @return the new stream
+     */
+    static DoubleStream makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                   final double identity, final DoubleBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE, FLAGS) {
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                return new Sink.ChainedDouble<Double>(sink) {
+                    double acc;
+
+                    @Override
+                    public void begin(long size) {
+                        acc = identity;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        downstream.accept(acc = op.applyAsDouble(acc, t));
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Spliterator<Double> opEvaluateParallelLazy(PipelineHelper<Double> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (helper.exactOutputSizeIfKnown(spliterator) < 0) {
+                    // The upstream may be infinite, scan as the elements are requested
+                    return new ScanSpliterator.OfDouble((Spliterator.OfDouble) helper.wrapSpliterator(spliterator),
+                                                        identity, op);
+                }
+                return opEvaluateParallel(helper, spliterator, WhileOps.DOUBLE_ARR_GEN).spliterator();
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, scan sequentially
+                    Node.Builder.OfDouble b = Nodes.doubleBuilder(-1);
+                    Sink.OfDouble s = (Sink.OfDouble) opWrapSink(helper.getStreamAndOpFlags(), b);
+                    s.begin(n.count());
+                    n.forEach((DoubleConsumer) s);
+                    s.end();
+                    return b.build();
+                }
+
+                double[] content = n.asPrimitiveArray();
+                if (content.length > 0) {
+                    content[0] = op.applyAsDouble(identity, content[0]);
+                    J8Arrays.parallelPrefix(content, op);
+                }
+                return Nodes.node(content);
+            }
+        };
+    }
+
+    /**
+     * A spliterator that lazily replaces each element of the upstream
+     * spliterator by the accumulation of all elements up to and including
+     * it, in encounter order.  Splitting is done by buffering a batch of
+     * accumulated elements, as for {@link Spliterators.AbstractSpliterator},
+     * so that the operations downstream of the scan can still be evaluated
+     * in parallel.
+     */
+    abstract static class ScanSpliterator {
+
+        private ScanSpliterator() {
+        }
+
+        private static int characteristicsOf(Spliterator<?> upstream) {
+            return upstream.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED);
+        }
+
+        static final class OfRef<T> extends Spliterators.AbstractSpliterator<T> implements Consumer<T> {
+            private final Spliterator<T> upstream;
+            private final BinaryOperator<T> op;
+            private T acc;
+
+            OfRef(Spliterator<T> upstream, T identity, BinaryOperator<T> op) {
+                super(upstream.estimateSize(), characteristicsOf(upstream));
+                this.upstream = upstream;
+                this.op = op;
+                this.acc = identity;
+            }
+
+            @Override
+            public void accept(T t) {
+                acc = op.apply(acc, t);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                if (upstream.tryAdvance(this)) {
+                    action.accept(acc);
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        static final class OfInt extends Spliterators.AbstractIntSpliterator implements IntConsumer {
+            private final Spliterator.OfInt upstream;
+            private final IntBinaryOperator op;
+            private int acc;
+
+            OfInt(Spliterator.OfInt upstream, int identity, IntBinaryOperator op) {
+                super(upstream.estimateSize(), characteristicsOf(upstream));
+                this.upstream = upstream;
+                this.op = op;
+                this.acc = identity;
+            }
+
+            @Override
+            public void accept(int t) {
+                acc = op.applyAsInt(acc, t);
+            }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                Objects.requireNonNull(action);
+                if (upstream.tryAdvance((IntConsumer) this)) {
+                    action.accept(acc);
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        static final class OfLong extends Spliterators.AbstractLongSpliterator implements LongConsumer {
+            private final Spliterator.OfLong upstream;
+            private final LongBinaryOperator op;
+            private long acc;
+
+            OfLong(Spliterator.OfLong upstream, long identity, LongBinaryOperator op) {
+                super(upstream.estimateSize(), characteristicsOf(upstream));
+                this.upstream = upstream;
+                this.op = op;
+                this.acc = identity;
+            }
+
+            @Override
+            public void accept(long t) {
+                acc = op.applyAsLong(acc, t);
+            }
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                Objects.requireNonNull(action);
+                if (upstream.tryAdvance((LongConsumer) this)) {
+                    action.accept(acc);
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        static final class OfDouble extends Spliterators.AbstractDoubleSpliterator implements DoubleConsumer {
+            private final Spliterator.OfDouble upstream;
+            private final DoubleBinaryOperator op;
+            private double acc;
+
+            OfDouble(Spliterator.OfDouble upstream, double identity, DoubleBinaryOperator op) {
+                super(upstream.estimateSize(), characteristicsOf(upstream));
+                this.upstream = upstream;
+                this.op = op;
+                this.acc = identity;
+            }
+
+            @Override
+            public void accept(double t) {
+                acc = op.applyAsDouble(acc, t);
+            }
+
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                Objects.requireNonNull(action);
+                if (upstream.tryAdvance((DoubleConsumer) this)) {
+                    action.accept(acc);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java8.util.function.LongFunction;
+
+/**
+ * A {@link Collector} that can create a result container presized for a
+ * known number of elements.
+ *
+ * <p>When the number of elements that will be accumulated into a result
+ * container is known before the accumulation starts, which is the case for a
+ * pipeline whose source is {@link java8.util.Spliterator#SIZED SIZED} and
+ * whose intermediate operations preserve the size (such as {@code map()} or
+ * {@code sorted()}), {@link Stream#collect(Collector)} creates the container
+ * with the {@link #sizedSupplier() sized supplier} instead of the
+ * {@link #supplier() supplier}.  In a parallel evaluation each leaf task does
+ * so for the elements of its own split if the source is also
+ * {@link java8.util.Spliterator#SUBSIZED SUBSIZED}.  A container sized in
+ * advance doesn't have to grow by repeated copying or rehashing.
+ *
+ * <p>The collectors returned by {@link Collectors#toList()},
+ * {@link Collectors#toSet()}, {@link Collectors#toMap(java8.util.function.Function,
+ * java8.util.function.Function) toMap()} and {@link Collectors#joining()},
+ * among others, are {@code SizedCollector}s; any collector can be made one
+ * with {@link Collectors#sized(Collector, LongFunction)}.
+ *
+ * <p>This interface is not part of the Java SE API.
+ *
+ * @param <T> the type of input elements to the reduction operation
+ * @param <A> the mutable accumulation type of the reduction operation (often
+ *            hidden as an implementation detail)
+ * @param <R> the result type of the reduction operation
+ */
+public interface SizedCollector<T, A, R> extends Collector<T, A, R> {
+    /**
+     * A function that creates and returns a new mutable result container for
+     * the given number of elements.  The container must behave exactly like
+     * one returned by the {@link #supplier() supplier}; the size is only a
+     * hint, and the container must accept more or fewer elements.
+     *
+     * @return a function which returns a new, mutable result container given
+     * the number of elements, at least 0, that will be folded into it
+     */
+    LongFunction<A> sizedSupplier();
+}
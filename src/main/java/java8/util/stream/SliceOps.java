@@ -111,8 +111,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
-                                                      flags(limit)) {
+        Stream<T> stage = new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                                 flags(limit)) {
             Spliterator<T> unorderedSkipLimitSpliterator(Spliterator<T> s,
                                                          long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -211,6 +211,9 @@ final class SliceOps {
                 };
             }
         };
+        // A directly preceding sort need only retain skip + limit elements
+        SortedOps.limitUpstream(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -227,8 +230,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
-                                                   flags(limit)) {
+        IntStream stage = new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                              flags(limit)) {
             Spliterator.OfInt unorderedSkipLimitSpliterator(
                     Spliterator.OfInt s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -320,6 +323,9 @@ final class SliceOps {
                 };
             }
         };
+        // A directly preceding sort need only retain skip + limit elements
+        SortedOps.limitUpstream(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -336,8 +342,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
-                                                 flags(limit)) {
+        LongStream stage = new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                             flags(limit)) {
             Spliterator.OfLong unorderedSkipLimitSpliterator(
                     Spliterator.OfLong s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -429,6 +435,9 @@ final class SliceOps {
                 };
             }
         };
+        // A directly preceding sort need only retain skip + limit elements
+        SortedOps.limitUpstream(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -445,8 +454,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
-                                                     flags(limit)) {
+        DoubleStream stage = new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                                   flags(limit)) {
             Spliterator.OfDouble unorderedSkipLimitSpliterator(
                     Spliterator.OfDouble s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -538,6 +547,9 @@ final class SliceOps {
                 };
             }
         };
+        // A directly preceding sort need only retain skip + limit elements
+        SortedOps.limitUpstream(upstream, skip, limit);
+        return stage;
     }
 
     private static int flags(long limit) {
@@ -24,15 +24,17 @@
  */
 package java8.util.stream;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 
-import java8.lang.Iterables;
+import java8.util.ChunkSpliterator;
 import java8.util.Comparators;
-import java8.util.Lists;
 import java8.util.Objects;
+import java8.util.concurrent.CountedCompleter;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Function;
 import java8.util.function.IntFunction;
+import java8.util.function.Supplier;
 import java8.util.Spliterator;
 
 /**
@@ -96,6 +98,33 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * Informs a "sorted" operation that it is directly followed by a slice
+     * operation which retains at most the first {@code skip + limit}
+     * elements, so that the sort can keep only that many elements in a
+     * bounded heap instead of buffering and sorting all elements.  Does
+     * nothing if the upstream stage is not a "sorted" operation or if the
+     * slice has no limit.
+     *
+     * @param upstream the upstream stage of the slice operation
+     * @param skip the number of elements to skip, assumed to be >= 0
+     * @param limit the maximum size of the slice, or -1 if no limit is to
+     *        be imposed
+     */
+    static void limitUpstream(AbstractPipeline<?, ?, ?> upstream, long skip, long limit) {
+        if (limit < 0 || skip >= Nodes.MAX_ARRAY_SIZE - limit)
+            return;
+        int k = (int) (skip + limit);
+        if (upstream instanceof OfRef)
+            ((OfRef<?>) upstream).topK = k;
+        else if (upstream instanceof OfInt)
+            ((OfInt) upstream).topK = k;
+        else if (upstream instanceof OfLong)
+            ((OfLong) upstream).topK = k;
+        else if (upstream instanceof OfDouble)
+            ((OfDouble) upstream).topK = k;
+    }
+
     /**
      * Specialized subtype for sorting reference streams
      */
@@ -105,6 +134,11 @@ final class SortedOps {
          */
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
+        /**
+         * The number of least elements retained by a directly following
+         * limit, or -1 if all elements must be sorted
+         */
+        int topK = -1;
 
         /**
          * Sort using natural order of {@literal <T>} which must be
@@ -140,6 +174,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (topK >= 0)
+                return new RefTopKSortingSink<>(sink, comparator, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -155,9 +191,29 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                // Each leaf retains its k least elements, sibling results
+                // are merged retaining the k least elements of both
+                final int k = topK;
+                return new TopKTask<>(helper, spliterator,
+                                      () -> Nodes.builder(-1, generator),
+                                      b -> new RefTopKSortingSink<>(b, comparator, k),
+                                      (l, r) -> mergeRef(l, r, comparator, k, generator)).invoke();
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
-                T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
+                Node<T> n = helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, sort chunk by chunk
+                    SpinedBuffer<T> b = new SpinedBuffer<>();
+                    n.forEach(b);
+                    Node.Builder<T> builder = Nodes.builder(-1, generator);
+                    ChunkMerger m = new RefChunkMerger<>(b, comparator, builder);
+                    m.sort(true);
+                    m.merge(false);
+                    return builder.build();
+                }
+                T[] flattenedData = n.asArray(generator);
                 java8.util.J8Arrays.parallelSort(flattenedData, comparator);
                 return Nodes.node(flattenedData);
             }
@@ -168,6 +224,12 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        /**
+         * The number of least elements retained by a directly following
+         * limit, or -1 if all elements must be sorted
+         */
+        int topK = -1;
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -179,6 +241,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new IntTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -192,8 +256,25 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                final int k = topK;
+                return new TopKTask<>(helper, spliterator,
+                                      () -> Nodes.intBuilder(-1),
+                                      b -> new IntTopKSortingSink(b, k),
+                                      (l, r) -> mergeInt((Node.OfInt) l, (Node.OfInt) r, k)).invoke();
+            }
             else {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, sort chunk by chunk
+                    SpinedBuffer.OfInt b = new SpinedBuffer.OfInt();
+                    n.forEach(b);
+                    Node.Builder.OfInt builder = Nodes.intBuilder(-1);
+                    ChunkMerger m = new IntChunkMerger(b, builder);
+                    m.sort(true);
+                    m.merge(false);
+                    return builder.build();
+                }
 
                 int[] content = n.asPrimitiveArray();
                 java8.util.J8Arrays.parallelSort(content);
@@ -207,6 +288,12 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        /**
+         * The number of least elements retained by a directly following
+         * limit, or -1 if all elements must be sorted
+         */
+        int topK = -1;
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -218,6 +305,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new LongTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -231,8 +320,25 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                final int k = topK;
+                return new TopKTask<>(helper, spliterator,
+                                      () -> Nodes.longBuilder(-1),
+                                      b -> new LongTopKSortingSink(b, k),
+                                      (l, r) -> mergeLong((Node.OfLong) l, (Node.OfLong) r, k)).invoke();
+            }
             else {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, sort chunk by chunk
+                    SpinedBuffer.OfLong b = new SpinedBuffer.OfLong();
+                    n.forEach(b);
+                    Node.Builder.OfLong builder = Nodes.longBuilder(-1);
+                    ChunkMerger m = new LongChunkMerger(b, builder);
+                    m.sort(true);
+                    m.merge(false);
+                    return builder.build();
+                }
 
                 long[] content = n.asPrimitiveArray();
                 java8.util.J8Arrays.parallelSort(content);
@@ -246,6 +352,12 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        /**
+         * The number of least elements retained by a directly following
+         * limit, or -1 if all elements must be sorted
+         */
+        int topK = -1;
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -257,6 +369,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new DoubleTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -270,8 +384,25 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                final int k = topK;
+                return new TopKTask<>(helper, spliterator,
+                                      () -> Nodes.doubleBuilder(-1),
+                                      b -> new DoubleTopKSortingSink(b, k),
+                                      (l, r) -> mergeDouble((Node.OfDouble) l, (Node.OfDouble) r, k)).invoke();
+            }
             else {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
+                if (n.count() >= Nodes.MAX_ARRAY_SIZE) {
+                    // Too many elements for an array, sort chunk by chunk
+                    SpinedBuffer.OfDouble b = new SpinedBuffer.OfDouble();
+                    n.forEach(b);
+                    Node.Builder.OfDouble builder = Nodes.doubleBuilder(-1);
+                    ChunkMerger m = new DoubleChunkMerger(b, builder);
+                    m.sort(true);
+                    m.merge(false);
+                    return builder.build();
+                }
 
                 double[] content = n.asPrimitiveArray();
                 java8.util.J8Arrays.parallelSort(content);
@@ -281,6 +412,123 @@ final class SortedOps {
         }
     }
 
+    /**
+     * {@code ForkJoinTask} implementing the parallel evaluation of a sort
+     * that is directly followed by a limit.  Each leaf task retains the
+     * {@code k} least elements of its part of the input in a top-K sorting
+     * sink, the sorted results of sibling tasks are merged, retaining the
+     * {@code k} least elements of both and preferring the left result for
+     * equal elements.
+     *
+     * @param <P_IN> Input element type to the stream pipeline
+     * @param <T> Element type of the sorted stream
+     */
+    @SuppressWarnings("serial")
+    private static final class TopKTask<P_IN, T>
+            extends AbstractTask<P_IN, T, Node<T>, TopKTask<P_IN, T>> {
+        private final Supplier<? extends Node.Builder<T>> builderFactory;
+        private final Function<Sink<T>, Sink<T>> sinkFactory;
+        private final BinaryOperator<Node<T>> merger;
+
+        TopKTask(PipelineHelper<T> helper,
+                 Spliterator<P_IN> spliterator,
+                 Supplier<? extends Node.Builder<T>> builderFactory,
+                 Function<Sink<T>, Sink<T>> sinkFactory,
+                 BinaryOperator<Node<T>> merger) {
+            super(helper, spliterator);
+            this.builderFactory = builderFactory;
+            this.sinkFactory = sinkFactory;
+            this.merger = merger;
+        }
+
+        TopKTask(TopKTask<P_IN, T> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            builderFactory = parent.builderFactory;
+            sinkFactory = parent.sinkFactory;
+            merger = parent.merger;
+        }
+
+        @Override
+        protected TopKTask<P_IN, T> makeChild(Spliterator<P_IN> spliterator) {
+            return new TopKTask<>(this, spliterator);
+        }
+
+        @Override
+        protected Node<T> doLeaf() {
+            Node.Builder<T> builder = builderFactory.get();
+            helper.wrapAndCopyInto(sinkFactory.apply(builder), spliterator);
+            return builder.build();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf())
+                setLocalResult(merger.apply(leftChild.getLocalResult(), rightChild.getLocalResult()));
+            super.onCompletion(caller);
+        }
+    }
+
+    // Merging of sorted top-K results, elements of the left node come first
+    // if equal
+
+    private static <T> Node<T> mergeRef(Node<T> left, Node<T> right, Comparator<? super T> comparator,
+                                        int k, IntFunction<T[]> generator) {
+        T[] l = left.asArray(generator);
+        T[] r = right.asArray(generator);
+        int n = (int) Math.min(k, (long) l.length + r.length);
+        T[] merged = generator.apply(n);
+        for (int i = 0, j = 0, m = 0; m < n; m++)
+            merged[m] = (j >= r.length || (i < l.length && comparator.compare(l[i], r[j]) <= 0)) ? l[i++] : r[j++];
+        return Nodes.node(merged);
+    }
+
+    private static Node<Integer> mergeInt(Node.OfInt left, Node.OfInt right, int k) {
+        int[] l = left.asPrimitiveArray();
+        int[] r = right.asPrimitiveArray();
+        int n = (int) Math.min(k, (long) l.length + r.length);
+        int[] merged = new int[n];
+        for (int i = 0, j = 0, m = 0; m < n; m++)
+            merged[m] = (j >= r.length || (i < l.length && l[i] <= r[j])) ? l[i++] : r[j++];
+        return Nodes.node(merged);
+    }
+
+    private static Node<Long> mergeLong(Node.OfLong left, Node.OfLong right, int k) {
+        long[] l = left.asPrimitiveArray();
+        long[] r = right.asPrimitiveArray();
+        int n = (int) Math.min(k, (long) l.length + r.length);
+        long[] merged = new long[n];
+        for (int i = 0, j = 0, m = 0; m < n; m++)
+            merged[m] = (j >= r.length || (i < l.length && l[i] <= r[j])) ? l[i++] : r[j++];
+        return Nodes.node(merged);
+    }
+
+    private static Node<Double> mergeDouble(Node.OfDouble left, Node.OfDouble right, int k) {
+        double[] l = left.asPrimitiveArray();
+        double[] r = right.asPrimitiveArray();
+        int n = (int) Math.min(k, (long) l.length + r.length);
+        double[] merged = new double[n];
+        for (int i = 0, j = 0, m = 0; m < n; m++)
+            merged[m] = (j >= r.length || (i < l.length && Double.compare(l[i], r[j]) <= 0)) ? l[i++] : r[j++];
+        return Nodes.node(merged);
+    }
+
+    /**
+     * Returns the initial capacity of a top-K heap given the size of the
+     * input, if known.
+     */
+    private static int heapCapacity(int k, long size) {
+        return (int) Math.min(k, size >= 0 ? size : INITIAL_HEAP_CAPACITY);
+    }
+
+    /**
+     * Returns the grown capacity of a full top-K heap.
+     */
+    private static int grownHeapCapacity(int k, int capacity) {
+        return (int) Math.min(k, 2L * capacity + 1);
+    }
+
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
     /**
      * Abstract {@link Sink} for implementing sort on reference streams.
      *
@@ -330,9 +578,12 @@ final class SortedOps {
     /**
      * {@link Sink} for implementing sort on SIZED reference streams.
      */
-    private static final class SizedRefSortingSink<T> extends AbstractRefSortingSink<T> {
+    private static final class SizedRefSortingSink<T> extends AbstractRefSortingSink<T>
+            implements ChunkSpliterator.ChunkConsumer<Object[]> {
         private T[] array;
         private int offset;
+        // Replaces the array if the elements don't fit into one
+        private SpinedBuffer<T> buffer;
 
         SizedRefSortingSink(Sink<? super T> sink, Comparator<? super T> comparator) {
             super(sink, comparator);
@@ -342,12 +593,20 @@ final class SortedOps {
         @SuppressWarnings("unchecked")
         public void begin(long size) {
             if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            array = (T[]) new Object[(int) size];
+                buffer = new SpinedBuffer<>();
+            else
+                array = (T[]) new Object[(int) size];
         }
 
         @Override
         public void end() {
+            if (buffer != null) {
+                ChunkMerger m = new RefChunkMerger<>(buffer, comparator, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                buffer = null;
+                return;
+            }
             Arrays.sort(array, 0, offset, comparator);
             downstream.begin(offset);
             if (!cancellationWasRequested) {
@@ -364,7 +623,20 @@ final class SortedOps {
 
         @Override
         public void accept(T t) {
-            array[offset++] = t;
+            if (buffer == null)
+                array[offset++] = t;
+            else
+                buffer.accept(t);
+        }
+
+        @Override
+        public void accept(Object[] a, int from, int to) {
+            if (buffer == null) {
+                System.arraycopy(a, from, array, offset, to - from);
+                offset += to - from;
+            }
+            else
+                buffer.accept(a, from, to);
         }
     }
 
@@ -372,7 +644,7 @@ final class SortedOps {
      * {@link Sink} for implementing sort on reference streams.
      */
     private static final class RefSortingSink<T> extends AbstractRefSortingSink<T> {
-        private ArrayList<T> list;
+        private SpinedBuffer<T> b;
 
         RefSortingSink(Sink<? super T> sink, Comparator<? super T> comparator) {
             super(sink, comparator);
@@ -380,32 +652,40 @@ final class SortedOps {
 
         @Override
         public void begin(long size) {
-            if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            list = (size >= 0) ? new ArrayList<T>((int) size) : new ArrayList<T>();
+            b = (size > 0 && size < Nodes.MAX_ARRAY_SIZE)
+                ? new SpinedBuffer<T>((int) size) : new SpinedBuffer<T>();
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void end() {
-            Lists.sort(list, comparator);
-            downstream.begin(list.size());
+            if (b.count() >= Nodes.MAX_ARRAY_SIZE) {
+                ChunkMerger m = new RefChunkMerger<>(b, comparator, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                b = null;
+                return;
+            }
+            T[] array = b.asArray(n -> (T[]) new Object[n]);
+            b = null;
+            Arrays.sort(array, comparator);
+            downstream.begin(array.length);
             if (!cancellationWasRequested) {
-                Iterables.forEach(list, downstream::accept);
-            } else {
-                for (T t : list) {
-                    if (downstream.cancellationRequested()) {
-                        break;
-                    }
+                for (T t : array)
+                    downstream.accept(t);
+            }
+            else {
+                for (T t : array) {
+                    if (downstream.cancellationRequested()) break;
                     downstream.accept(t);
                 }
             }
             downstream.end();
-            list = null;
         }
 
         @Override
         public void accept(T t) {
-            list.add(t);
+            b.accept(t);
         }
     }
 
@@ -429,9 +709,12 @@ final class SortedOps {
     /**
      * {@link Sink} for implementing sort on SIZED int streams.
      */
-    private static final class SizedIntSortingSink extends AbstractIntSortingSink {
+    private static final class SizedIntSortingSink extends AbstractIntSortingSink
+            implements ChunkSpliterator.ChunkConsumer<int[]> {
         private int[] array;
         private int offset;
+        // Replaces the array if the elements don't fit into one
+        private SpinedBuffer.OfInt buffer;
 
         SizedIntSortingSink(Sink<? super Integer> downstream) {
             super(downstream);
@@ -440,12 +723,20 @@ final class SortedOps {
         @Override
         public void begin(long size) {
             if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            array = new int[(int) size];
+                buffer = new SpinedBuffer.OfInt();
+            else
+                array = new int[(int) size];
         }
 
         @Override
         public void end() {
+            if (buffer != null) {
+                ChunkMerger m = new IntChunkMerger(buffer, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                buffer = null;
+                return;
+            }
             Arrays.sort(array, 0, offset);
             downstream.begin(offset);
             if (!cancellationWasRequested) {
@@ -462,7 +753,20 @@ final class SortedOps {
 
         @Override
         public void accept(int t) {
-            array[offset++] = t;
+            if (buffer == null)
+                array[offset++] = t;
+            else
+                buffer.accept(t);
+        }
+
+        @Override
+        public void accept(int[] a, int from, int to) {
+            if (buffer == null) {
+                System.arraycopy(a, from, array, offset, to - from);
+                offset += to - from;
+            }
+            else
+                buffer.accept(a, from, to);
         }
     }
 
@@ -478,13 +782,18 @@ final class SortedOps {
 
         @Override
         public void begin(long size) {
-            if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            b = (size > 0) ? new SpinedBuffer.OfInt((int) size) : new SpinedBuffer.OfInt();
+            b = (size > 0 && size < Nodes.MAX_ARRAY_SIZE)
+                ? new SpinedBuffer.OfInt((int) size) : new SpinedBuffer.OfInt();
         }
 
         @Override
         public void end() {
+            if (b.count() >= Nodes.MAX_ARRAY_SIZE) {
+                ChunkMerger m = new IntChunkMerger(b, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                return;
+            }
             int[] ints = b.asPrimitiveArray();
             Arrays.sort(ints);
             downstream.begin(ints.length);
@@ -527,9 +836,12 @@ final class SortedOps {
     /**
      * {@link Sink} for implementing sort on SIZED long streams.
      */
-    private static final class SizedLongSortingSink extends AbstractLongSortingSink {
+    private static final class SizedLongSortingSink extends AbstractLongSortingSink
+            implements ChunkSpliterator.ChunkConsumer<long[]> {
         private long[] array;
         private int offset;
+        // Replaces the array if the elements don't fit into one
+        private SpinedBuffer.OfLong buffer;
 
         SizedLongSortingSink(Sink<? super Long> downstream) {
             super(downstream);
@@ -538,12 +850,20 @@ final class SortedOps {
         @Override
         public void begin(long size) {
             if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            array = new long[(int) size];
+                buffer = new SpinedBuffer.OfLong();
+            else
+                array = new long[(int) size];
         }
 
         @Override
         public void end() {
+            if (buffer != null) {
+                ChunkMerger m = new LongChunkMerger(buffer, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                buffer = null;
+                return;
+            }
             Arrays.sort(array, 0, offset);
             downstream.begin(offset);
             if (!cancellationWasRequested) {
@@ -560,7 +880,20 @@ final class SortedOps {
 
         @Override
         public void accept(long t) {
-            array[offset++] = t;
+            if (buffer == null)
+                array[offset++] = t;
+            else
+                buffer.accept(t);
+        }
+
+        @Override
+        public void accept(long[] a, int from, int to) {
+            if (buffer == null) {
+                System.arraycopy(a, from, array, offset, to - from);
+                offset += to - from;
+            }
+            else
+                buffer.accept(a, from, to);
         }
     }
 
@@ -576,13 +909,18 @@ final class SortedOps {
 
         @Override
         public void begin(long size) {
-            if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            b = (size > 0) ? new SpinedBuffer.OfLong((int) size) : new SpinedBuffer.OfLong();
+            b = (size > 0 && size < Nodes.MAX_ARRAY_SIZE)
+                ? new SpinedBuffer.OfLong((int) size) : new SpinedBuffer.OfLong();
         }
 
         @Override
         public void end() {
+            if (b.count() >= Nodes.MAX_ARRAY_SIZE) {
+                ChunkMerger m = new LongChunkMerger(b, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                return;
+            }
             long[] longs = b.asPrimitiveArray();
             Arrays.sort(longs);
             downstream.begin(longs.length);
@@ -625,9 +963,12 @@ final class SortedOps {
     /**
      * {@link Sink} for implementing sort on SIZED double streams.
      */
-    private static final class SizedDoubleSortingSink extends AbstractDoubleSortingSink {
+    private static final class SizedDoubleSortingSink extends AbstractDoubleSortingSink
+            implements ChunkSpliterator.ChunkConsumer<double[]> {
         private double[] array;
         private int offset;
+        // Replaces the array if the elements don't fit into one
+        private SpinedBuffer.OfDouble buffer;
 
         SizedDoubleSortingSink(Sink<? super Double> downstream) {
             super(downstream);
@@ -636,12 +977,20 @@ final class SortedOps {
         @Override
         public void begin(long size) {
             if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            array = new double[(int) size];
+                buffer = new SpinedBuffer.OfDouble();
+            else
+                array = new double[(int) size];
         }
 
         @Override
         public void end() {
+            if (buffer != null) {
+                ChunkMerger m = new DoubleChunkMerger(buffer, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                buffer = null;
+                return;
+            }
             Arrays.sort(array, 0, offset);
             downstream.begin(offset);
             if (!cancellationWasRequested) {
@@ -658,7 +1007,20 @@ final class SortedOps {
 
         @Override
         public void accept(double t) {
-            array[offset++] = t;
+            if (buffer == null)
+                array[offset++] = t;
+            else
+                buffer.accept(t);
+        }
+
+        @Override
+        public void accept(double[] a, int from, int to) {
+            if (buffer == null) {
+                System.arraycopy(a, from, array, offset, to - from);
+                offset += to - from;
+            }
+            else
+                buffer.accept(a, from, to);
         }
     }
 
@@ -674,13 +1036,18 @@ final class SortedOps {
 
         @Override
         public void begin(long size) {
-            if (size >= Nodes.MAX_ARRAY_SIZE)
-                throw new IllegalArgumentException(Nodes.BAD_SIZE);
-            b = (size > 0) ? new SpinedBuffer.OfDouble((int) size) : new SpinedBuffer.OfDouble();
+            b = (size > 0 && size < Nodes.MAX_ARRAY_SIZE)
+                ? new SpinedBuffer.OfDouble((int) size) : new SpinedBuffer.OfDouble();
         }
 
         @Override
         public void end() {
+            if (b.count() >= Nodes.MAX_ARRAY_SIZE) {
+                ChunkMerger m = new DoubleChunkMerger(b, downstream);
+                m.sort(false);
+                m.merge(cancellationWasRequested);
+                return;
+            }
             double[] doubles = b.asPrimitiveArray();
             Arrays.sort(doubles);
             downstream.begin(doubles.length);
@@ -702,4 +1069,608 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * Sorts the elements of a spined buffer that holds more elements than
+     * fit into an array, and pushes them downstream.
+     *
+     * <p>
+     * Each chunk of the buffer is sorted in place, then the sorted chunks are
+     * merged with a min-heap of chunk indices, ordered by the next element of
+     * each chunk.  Equal elements of different chunks are pushed in the order
+     * of their chunks, so the merge is stable if the sorts of the chunks are.
+     * The chunks of a buffer double in size up to 2^30 elements, so there are
+     * only a few dozen of them to merge.
+     */
+    abstract static class ChunkMerger {
+        private final long count;
+        // The next and the fence index of each chunk
+        private final int[] index;
+        private final int[] fence;
+        // Indices of the chunks with remaining elements, as a min-heap
+        private final int[] heap;
+
+        ChunkMerger(AbstractSpinedBuffer buffer) {
+            int chunks = buffer.chunkCount();
+            this.count = buffer.count();
+            this.index = new int[chunks];
+            this.fence = new int[chunks];
+            this.heap = new int[chunks];
+            for (int n = 0; n < chunks; n++)
+                fence[n] = buffer.chunkLength(n);
+        }
+
+        /** Sorts the first {@code length} elements of the nth chunk */
+        abstract void sortChunk(int n, int length, boolean parallel);
+
+        /** Compares element i of chunk a with element j of chunk b */
+        abstract int compare(int a, int i, int b, int j);
+
+        /** The sink the elements are pushed to */
+        abstract Sink<?> downstream();
+
+        /** Pushes element i of the nth chunk downstream */
+        abstract void push(int n, int i);
+
+        final void sort(boolean parallel) {
+            for (int n = 0; n < fence.length; n++)
+                sortChunk(n, fence[n], parallel);
+        }
+
+        /**
+         * Merges the sorted chunks into the downstream sink, checking for
+         * cancellation before each element if it was requested upstream.
+         */
+        final void merge(boolean cancellationWasRequested) {
+            Sink<?> downstream = downstream();
+            int size = 0;
+            for (int n = 0; n < fence.length; n++) {
+                if (fence[n] > 0)
+                    heap[size++] = n;
+            }
+            for (int k = (size >>> 1) - 1; k >= 0; k--)
+                siftDown(k, size);
+            downstream.begin(count);
+            while (size > 0) {
+                if (cancellationWasRequested && downstream.cancellationRequested())
+                    break;
+                int n = heap[0];
+                push(n, index[n]++);
+                if (index[n] == fence[n])
+                    heap[0] = heap[--size];
+                siftDown(0, size);
+            }
+            downstream.end();
+        }
+
+        private boolean less(int a, int b) {
+            int c = compare(a, index[a], b, index[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        private void siftDown(int k, int size) {
+            int n = heap[k];
+            for (int half = size >>> 1; k < half; ) {
+                int child = (k << 1) + 1, right = child + 1;
+                if (right < size && less(heap[right], heap[child]))
+                    child = right;
+                if (!less(heap[child], n))
+                    break;
+                heap[k] = heap[child];
+                k = child;
+            }
+            heap[k] = n;
+        }
+    }
+
+    /**
+     * {@link ChunkMerger} for reference elements.
+     */
+    static final class RefChunkMerger<T> extends ChunkMerger {
+        private final T[][] chunks;
+        private final Comparator<? super T> comparator;
+        private final Sink<? super T> downstream;
+
+        @SuppressWarnings("unchecked")
+        RefChunkMerger(SpinedBuffer<T> buffer, Comparator<? super T> comparator,
+                       Sink<? super T> downstream) {
+            super(buffer);
+            this.chunks = (T[][]) new Object[buffer.chunkCount()][];
+            for (int n = 0; n < chunks.length; n++)
+                chunks[n] = buffer.chunk(n);
+            this.comparator = comparator;
+            this.downstream = downstream;
+        }
+
+        @Override
+        void sortChunk(int n, int length, boolean parallel) {
+            if (parallel)
+                java8.util.J8Arrays.parallelSort(chunks[n], 0, length, comparator);
+            else
+                Arrays.sort(chunks[n], 0, length, comparator);
+        }
+
+        @Override
+        int compare(int a, int i, int b, int j) {
+            return comparator.compare(chunks[a][i], chunks[b][j]);
+        }
+
+        @Override
+        Sink<?> downstream() {
+            return downstream;
+        }
+
+        @Override
+        void push(int n, int i) {
+            downstream.accept(chunks[n][i]);
+        }
+    }
+
+    /**
+     * {@link ChunkMerger} for {@code int} elements.
+     */
+    static final class IntChunkMerger extends ChunkMerger {
+        private final int[][] chunks;
+        private final Sink<? super Integer> downstream;
+
+        IntChunkMerger(SpinedBuffer.OfInt buffer, Sink<? super Integer> downstream) {
+            super(buffer);
+            this.chunks = new int[buffer.chunkCount()][];
+            for (int n = 0; n < chunks.length; n++)
+                chunks[n] = buffer.chunk(n);
+            this.downstream = downstream;
+        }
+
+        @Override
+        void sortChunk(int n, int length, boolean parallel) {
+            if (parallel)
+                java8.util.J8Arrays.parallelSort(chunks[n], 0, length);
+            else
+                Arrays.sort(chunks[n], 0, length);
+        }
+
+        @Override
+        int compare(int a, int i, int b, int j) {
+            int x = chunks[a][i], y = chunks[b][j];
+            return (x < y) ? -1 : ((x == y) ? 0 : 1);
+        }
+
+        @Override
+        Sink<?> downstream() {
+            return downstream;
+        }
+
+        @Override
+        void push(int n, int i) {
+            downstream.accept(chunks[n][i]);
+        }
+    }
+
+    /**
+     * {@link ChunkMerger} for {@code long} elements.
+     */
+    static final class LongChunkMerger extends ChunkMerger {
+        private final long[][] chunks;
+        private final Sink<? super Long> downstream;
+
+        LongChunkMerger(SpinedBuffer.OfLong buffer, Sink<? super Long> downstream) {
+            super(buffer);
+            this.chunks = new long[buffer.chunkCount()][];
+            for (int n = 0; n < chunks.length; n++)
+                chunks[n] = buffer.chunk(n);
+            this.downstream = downstream;
+        }
+
+        @Override
+        void sortChunk(int n, int length, boolean parallel) {
+            if (parallel)
+                java8.util.J8Arrays.parallelSort(chunks[n], 0, length);
+            else
+                Arrays.sort(chunks[n], 0, length);
+        }
+
+        @Override
+        int compare(int a, int i, int b, int j) {
+            long x = chunks[a][i], y = chunks[b][j];
+            return (x < y) ? -1 : ((x == y) ? 0 : 1);
+        }
+
+        @Override
+        Sink<?> downstream() {
+            return downstream;
+        }
+
+        @Override
+        void push(int n, int i) {
+            downstream.accept(chunks[n][i]);
+        }
+    }
+
+    /**
+     * {@link ChunkMerger} for {@code double} elements.
+     */
+    static final class DoubleChunkMerger extends ChunkMerger {
+        private final double[][] chunks;
+        private final Sink<? super Double> downstream;
+
+        DoubleChunkMerger(SpinedBuffer.OfDouble buffer, Sink<? super Double> downstream) {
+            super(buffer);
+            this.chunks = new double[buffer.chunkCount()][];
+            for (int n = 0; n < chunks.length; n++)
+                chunks[n] = buffer.chunk(n);
+            this.downstream = downstream;
+        }
+
+        @Override
+        void sortChunk(int n, int length, boolean parallel) {
+            if (parallel)
+                java8.util.J8Arrays.parallelSort(chunks[n], 0, length);
+            else
+                Arrays.sort(chunks[n], 0, length);
+        }
+
+        @Override
+        int compare(int a, int i, int b, int j) {
+            double x = chunks[a][i], y = chunks[b][j];
+            return Double.compare(x, y);
+        }
+
+        @Override
+        Sink<?> downstream() {
+            return downstream;
+        }
+
+        @Override
+        void push(int n, int i) {
+            downstream.accept(chunks[n][i]);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a sort, which is directly followed by a
+     * limit, on reference streams.
+     *
+     * <p>
+     * Note: documentation below applies to reference and all primitive sinks.
+     * <p>
+     * Only the {@code k} least elements are retained in a bounded max-heap,
+     * which replaces its greatest element whenever a lesser element arrives.
+     * At the end of the sink protocol the heap is sorted and its elements are
+     * pushed downstream.  This takes {@code O(n log k)} time and {@code O(k)}
+     * space for an input of {@code n} elements, instead of {@code O(n log n)}
+     * time and {@code O(n)} space.  To keep the sort stable, the reference sink
+     * orders equal elements by their encounter order.
+     */
+    private static final class RefTopKSortingSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private T[] heap;
+        // The encounter order of the elements in the heap
+        private long[] seqs;
+        private int size;
+        private long seq;
+
+        RefTopKSortingSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void begin(long size) {
+            int capacity = heapCapacity(k, size);
+            heap = (T[]) new Object[capacity];
+            seqs = new long[capacity];
+            this.size = 0;
+            seq = 0;
+        }
+
+        @Override
+        public void end() {
+            // Heap sort, repeatedly moving the greatest element to the end
+            for (int n = size - 1; n > 0; n--) {
+                T t = heap[n];
+                long s = seqs[n];
+                heap[n] = heap[0];
+                seqs[n] = seqs[0];
+                siftDown(t, s, n);
+            }
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+            seqs = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            long s = seq++;
+            if (size < k) {
+                if (size == heap.length) {
+                    int capacity = grownHeapCapacity(k, size);
+                    heap = Arrays.copyOf(heap, capacity);
+                    seqs = Arrays.copyOf(seqs, capacity);
+                }
+                siftUp(t, s, size++);
+            }
+            else if (k > 0 && comparator.compare(t, heap[0]) < 0) {
+                siftDown(t, s, size);
+            }
+        }
+
+        // Returns true if t, encountered at s, sorts after u, encountered at v
+        private boolean after(T t, long s, T u, long v) {
+            int c = comparator.compare(t, u);
+            return c > 0 || (c == 0 && s > v);
+        }
+
+        private void siftUp(T t, long s, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!after(t, s, heap[parent], seqs[parent]))
+                    break;
+                heap[i] = heap[parent];
+                seqs[i] = seqs[parent];
+                i = parent;
+            }
+            heap[i] = t;
+            seqs[i] = s;
+        }
+
+        // Replaces the root of the heap of size n by t
+        private void siftDown(T t, long s, int n) {
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < n && after(heap[right], seqs[right], heap[child], seqs[child]))
+                    child = right;
+                if (!after(heap[child], seqs[child], t, s))
+                    break;
+                heap[i] = heap[child];
+                seqs[i] = seqs[child];
+                i = child;
+            }
+            heap[i] = t;
+            seqs[i] = s;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a sort, which is directly followed by a
+     * limit, on int streams.
+     */
+    private static final class IntTopKSortingSink extends AbstractIntSortingSink {
+        private final int k;
+        private int[] heap;
+        private int size;
+
+        IntTopKSortingSink(Sink<? super Integer> downstream, int k) {
+            super(downstream);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new int[heapCapacity(k, size)];
+            this.size = 0;
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, grownHeapCapacity(k, size));
+                siftUp(t, size++);
+            }
+            else if (k > 0 && heap[0] > t) {
+                siftDown(t, size);
+            }
+        }
+
+        private void siftUp(int t, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!(t > heap[parent]))
+                    break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = t;
+        }
+
+        // Replaces the root of the heap of size n by t
+        private void siftDown(int t, int n) {
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < n && heap[right] > heap[child])
+                    child = right;
+                if (!(heap[child] > t))
+                    break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = t;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a sort, which is directly followed by a
+     * limit, on long streams.
+     */
+    private static final class LongTopKSortingSink extends AbstractLongSortingSink {
+        private final int k;
+        private long[] heap;
+        private int size;
+
+        LongTopKSortingSink(Sink<? super Long> downstream, int k) {
+            super(downstream);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new long[heapCapacity(k, size)];
+            this.size = 0;
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, grownHeapCapacity(k, size));
+                siftUp(t, size++);
+            }
+            else if (k > 0 && heap[0] > t) {
+                siftDown(t, size);
+            }
+        }
+
+        private void siftUp(long t, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!(t > heap[parent]))
+                    break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = t;
+        }
+
+        // Replaces the root of the heap of size n by t
+        private void siftDown(long t, int n) {
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < n && heap[right] > heap[child])
+                    child = right;
+                if (!(heap[child] > t))
+                    break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = t;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a sort, which is directly followed by a
+     * limit, on double streams.
+     */
+    private static final class DoubleTopKSortingSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private double[] heap;
+        private int size;
+
+        DoubleTopKSortingSink(Sink<? super Double> downstream, int k) {
+            super(downstream);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new double[heapCapacity(k, size)];
+            this.size = 0;
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, grownHeapCapacity(k, size));
+                siftUp(t, size++);
+            }
+            else if (k > 0 && Double.compare(heap[0], t) > 0) {
+                siftDown(t, size);
+            }
+        }
+
+        private void siftUp(double t, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!(Double.compare(t, heap[parent]) > 0))
+                    break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = t;
+        }
+
+        // Replaces the root of the heap of size n by t
+        private void siftDown(double t, int n) {
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < n && Double.compare(heap[right], heap[child]) > 0)
+                    child = right;
+                if (!(Double.compare(heap[child], t) > 0))
+                    break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = t;
+        }
+    }
 }
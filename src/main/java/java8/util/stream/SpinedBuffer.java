@@ -30,6 +30,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
+import java8.util.ChunkSpliterator;
 import java8.util.Objects;
 import java8.util.PrimitiveIterator;
 import java8.util.function.Consumer;
@@ -57,7 +58,7 @@ import java8.util.Spliterators;
  */
 class SpinedBuffer<E>
         extends AbstractSpinedBuffer
-        implements Consumer<E> {
+        implements Consumer<E>, ChunkSpliterator.ChunkConsumer<Object[]> {
 
     /*
      * We optimistically hope that all the data will fit into the first chunk,
@@ -156,6 +157,14 @@ class SpinedBuffer<E>
         ensureCapacity(capacity() + 1);
     }
 
+    /**
+     * Returns the nth chunk, of which the first {@link #chunkLength(int)}
+     * elements are in use.
+     */
+    E[] chunk(int n) {
+        return (spine == null) ? curChunk : spine[n];
+    }
+
     /**
      * Retrieve the element at the specified index.
      */
@@ -266,6 +275,28 @@ class SpinedBuffer<E>
         curChunk[elementIndex++] = e;
     }
 
+    /**
+     * Appends the elements of the given array slice, copying them chunk by
+     * chunk.
+     */
+    @Override
+    public void accept(Object[] array, int from, int to) {
+        while (from < to) {
+            if (elementIndex == curChunk.length) {
+                inflateSpine();
+                if (spineIndex+1 >= spine.length || spine[spineIndex+1] == null)
+                    increaseCapacity();
+                elementIndex = 0;
+                ++spineIndex;
+                curChunk = spine[spineIndex];
+            }
+            int n = Math.min(to - from, curChunk.length - elementIndex);
+            System.arraycopy(array, from, curChunk, elementIndex, n);
+            elementIndex += n;
+            from += n;
+        }
+    }
+
     @Override
     public String toString() {
         List<E> list = new ArrayList<>();
@@ -280,7 +311,7 @@ class SpinedBuffer<E>
      * Return a {@link Spliterator} describing the contents of the buffer.
      */
     Spliterator<E> spliterator() {
-        class Splitr implements Spliterator<E> {
+        class Splitr implements Spliterator<E>, ChunkSpliterator<Object[]> {
             // The current spine index
             int splSpineIndex;
 
@@ -387,6 +418,32 @@ class SpinedBuffer<E>
                 }
             }
 
+            @Override
+            public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super Object[]> consumer) {
+                Objects.requireNonNull(consumer);
+
+                if (splSpineIndex < lastSpineIndex
+                    || (splSpineIndex == lastSpineIndex && splElementIndex < lastSpineElementFence)) {
+                    int i = splElementIndex;
+                    // completed chunks, if any
+                    for (int sp = splSpineIndex; sp < lastSpineIndex; sp++) {
+                        E[] chunk = spine[sp];
+                        if (i < chunk.length) {
+                            consumer.accept(chunk, i, chunk.length);
+                        }
+                        i = 0;
+                    }
+                    // last (or current uncompleted) chunk
+                    E[] chunk = (splSpineIndex == lastSpineIndex) ? splChunk : spine[lastSpineIndex];
+                    if (i < lastSpineElementFence) {
+                        consumer.accept(chunk, i, lastSpineElementFence);
+                    }
+                    // mark consumed
+                    splSpineIndex = lastSpineIndex;
+                    splElementIndex = lastSpineElementFence;
+                }
+            }
+
             @Override
             public Spliterator<E> trySplit() {
                 if (splSpineIndex < lastSpineIndex) {
@@ -434,7 +491,8 @@ class SpinedBuffer<E>
      * @param <T_CONS> the Consumer type for this primitive type
      */
     abstract static class OfPrimitive<E, T_ARR, T_CONS>
-            extends AbstractSpinedBuffer {
+            extends AbstractSpinedBuffer
+            implements ChunkSpliterator.ChunkConsumer<T_ARR> {
 
         /*
          * We optimistically hope that all the data will fit into the first chunk,
@@ -550,6 +608,14 @@ class SpinedBuffer<E>
             throw new IndexOutOfBoundsException(Long.toString(index));
         }
 
+        /**
+         * Returns the nth chunk, of which the first {@link #chunkLength(int)}
+         * elements are in use.
+         */
+        T_ARR chunk(int n) {
+            return (spine == null) ? curChunk : spine[n];
+        }
+
         public void copyInto(T_ARR array, int offset) {
             long finalOffset = offset + count();
             if (finalOffset > arrayLength(array) || finalOffset < offset) {
@@ -589,6 +655,21 @@ class SpinedBuffer<E>
             }
         }
 
+        /**
+         * Appends the elements of the given array slice, copying them chunk
+         * by chunk.
+         */
+        @Override
+        public void accept(T_ARR array, int from, int to) {
+            while (from < to) {
+                preAccept();
+                int n = Math.min(to - from, arrayLength(curChunk) - elementIndex);
+                System.arraycopy(array, from, curChunk, elementIndex, n);
+                elementIndex += n;
+                from += n;
+            }
+        }
+
         public void clear() {
             if (spine != null) {
                 curChunk = spine[0];
@@ -610,7 +691,7 @@ class SpinedBuffer<E>
         }
 
         abstract class BaseSpliterator<T_SPLITR extends Spliterator.OfPrimitive<E, T_CONS, T_SPLITR>>
-                implements Spliterator.OfPrimitive<E, T_CONS, T_SPLITR> {
+                implements Spliterator.OfPrimitive<E, T_CONS, T_SPLITR>, ChunkSpliterator<T_ARR> {
             // The current spine index
             int splSpineIndex;
 
@@ -704,6 +785,32 @@ class SpinedBuffer<E>
                 }
             }
 
+            @Override
+            public void forEachChunk(ChunkSpliterator.ChunkConsumer<? super T_ARR> consumer) {
+                Objects.requireNonNull(consumer);
+
+                if (splSpineIndex < lastSpineIndex
+                    || (splSpineIndex == lastSpineIndex && splElementIndex < lastSpineElementFence)) {
+                    int i = splElementIndex;
+                    // completed chunks, if any
+                    for (int sp = splSpineIndex; sp < lastSpineIndex; sp++) {
+                        T_ARR chunk = spine[sp];
+                        if (i < arrayLength(chunk)) {
+                            consumer.accept(chunk, i, arrayLength(chunk));
+                        }
+                        i = 0;
+                    }
+                    // last (or current uncompleted) chunk
+                    T_ARR chunk = (splSpineIndex == lastSpineIndex) ? splChunk : spine[lastSpineIndex];
+                    if (i < lastSpineElementFence) {
+                        consumer.accept(chunk, i, lastSpineElementFence);
+                    }
+                    // mark consumed
+                    splSpineIndex = lastSpineIndex;
+                    splElementIndex = lastSpineElementFence;
+                }
+            }
+
             @Override
             public T_SPLITR trySplit() {
                 if (splSpineIndex < lastSpineIndex) {
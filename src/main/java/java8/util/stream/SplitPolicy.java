@@ -0,0 +1,256 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+/**
+ * Decides how finely the source of a parallel stream pipeline is split into
+ * the leaf tasks that traverse its elements.
+ *
+ * <p>The fork/join tasks that evaluate a parallel pipeline split the source
+ * {@code Spliterator} until the estimated size of a split is at or below a
+ * <em>target size</em> and then process the elements of that split in one
+ * leaf task.  By default the target size is chosen so that there are about
+ * four leaf tasks per thread of the pool, whatever the work per element.
+ * When the work per element is cheap and the source small, the leaves are
+ * then so small that the cost of the tasks dominates; when the work per
+ * element is expensive or uneven, more and smaller leaves may balance the
+ * load better.  A {@code SplitPolicy} set on a pipeline through
+ * {@link StreamSupport#withSplitPolicy(BaseStream, SplitPolicy)} replaces
+ * the default choice.
+ *
+ * <p>The policies returned by the static factory methods are:
+ * <ul>
+ * <li>{@link #defaultPolicy()}: about four leaves per thread</li>
+ * <li>{@link #leavesPerThread(int)}: a given number of leaves per thread</li>
+ * <li>{@link #minLeafSize(long)}: like the default, but with leaves of at
+ * least a given size</li>
+ * <li>{@link #costPerElement(double)}: leaves that take about
+ * {@value #TARGET_LEAF_NANOS} nanoseconds, derived from an estimate of the
+ * time spent per element</li>
+ * <li>{@link #adaptive()}: leaves that take about {@value #TARGET_LEAF_NANOS}
+ * nanoseconds, derived from the time the first leaves actually took</li>
+ * </ul>
+ *
+ * <p>This class is not part of the Java SE API.
+ */
+public abstract class SplitPolicy {
+
+    /**
+     * The time, in nanoseconds, a leaf task of the {@link #costPerElement}
+     * and {@link #adaptive} policies should take, long enough for the cost of
+     * forking and completing the task to be negligible.
+     */
+    public static final long TARGET_LEAF_NANOS = 100000L;
+
+    private static final SplitPolicy DEFAULT = new LeavesPerThread(4);
+
+    /**
+     * Constructor for use by subclasses.
+     */
+    protected SplitPolicy() {
+    }
+
+    /**
+     * Returns the target size of the leaf tasks of a parallel evaluation.
+     * Called once per evaluation, before the source is split, in the thread
+     * that starts the evaluation.
+     *
+     * @param sizeEstimate the estimated size of the source spliterator
+     * @param parallelism the parallelism of the pool the evaluation runs in
+     * @return the size at or below which a split is not split any further,
+     *         a value of 0 or less is treated as 1
+     */
+    public abstract long targetSize(long sizeEstimate, int parallelism);
+
+    /**
+     * Returns whether this policy measures the leaf tasks and refines the
+     * target size while the source is being split.
+     */
+    boolean isAdaptive() {
+        return false;
+    }
+
+    /**
+     * Returns the target size for a task that is about to split its portion
+     * of the source; only called if this policy is adaptive.
+     *
+     * @param targetSize the target size the task inherited from its parent
+     * @return the target size for the task and its children
+     */
+    long refineTargetSize(long targetSize) {
+        return targetSize;
+    }
+
+    /**
+     * Records the time a leaf task took; only called if this policy is
+     * adaptive.
+     *
+     * @param sizeEstimate the estimated size of the split of the leaf
+     * @param nanos the time the leaf took to process the split
+     */
+    void leafCompleted(long sizeEstimate, long nanos) {
+    }
+
+    /**
+     * Returns the policy used for pipelines without a policy of their own,
+     * which aims at about four leaf tasks per thread.
+     *
+     * @return the default policy
+     */
+    public static SplitPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a policy that aims at the given number of leaf tasks per
+     * thread.  Fewer leaves have less overhead, more leaves balance uneven
+     * work better.
+     *
+     * @param leaves the number of leaf tasks per thread
+     * @return the policy
+     * @throws IllegalArgumentException if {@code leaves} is not positive
+     */
+    public static SplitPolicy leavesPerThread(int leaves) {
+        if (leaves <= 0) {
+            throw new IllegalArgumentException("leaves must be positive: " + leaves);
+        }
+        return new LeavesPerThread(leaves);
+    }
+
+    /**
+     * Returns a policy like the {@link #defaultPolicy() default policy} that
+     * does not split the source into leaves of less than the given size,
+     * unless the spliterator of the source splits unevenly.
+     *
+     * @param minSize the minimum size of a leaf task
+     * @return the policy
+     * @throws IllegalArgumentException if {@code minSize} is not positive
+     */
+    public static SplitPolicy minLeafSize(final long minSize) {
+        if (minSize <= 0L) {
+            throw new IllegalArgumentException("minSize must be positive: " + minSize);
+        }
+        return new SplitPolicy() {
+            @Override
+            public long targetSize(long sizeEstimate, int parallelism) {
+                return Math.max(DEFAULT.targetSize(sizeEstimate, parallelism), minSize);
+            }
+        };
+    }
+
+    /**
+     * Returns a policy that sizes the leaf tasks from an estimate of the time
+     * the pipeline spends per source element, so that a leaf takes about
+     * {@value #TARGET_LEAF_NANOS} nanoseconds, but that splits the source
+     * into at least as many leaves as there are threads.
+     *
+     * @param nanosPerElement the estimated time per source element, in
+     *        nanoseconds
+     * @return the policy
+     * @throws IllegalArgumentException if {@code nanosPerElement} is not
+     *         positive
+     */
+    public static SplitPolicy costPerElement(final double nanosPerElement) {
+        if (!(nanosPerElement > 0.0)) {
+            throw new IllegalArgumentException("nanosPerElement must be positive: " + nanosPerElement);
+        }
+        return new SplitPolicy() {
+            @Override
+            public long targetSize(long sizeEstimate, int parallelism) {
+                return Math.min(leafSizeForCost(nanosPerElement), perThread(sizeEstimate, parallelism));
+            }
+        };
+    }
+
+    /**
+     * Returns a new policy that learns the time the pipeline spends per source
+     * element from its leaf tasks.
+     *
+     * <p>Until the first leaf task has completed, the source is split like
+     * with the {@link #defaultPolicy() default policy}.  From then on, each
+     * task that has not yet split its portion of the source sizes its leaves
+     * so that a leaf takes about {@value #TARGET_LEAF_NANOS} nanoseconds: for
+     * cheap elements the remaining portions are split less, for expensive
+     * elements more.  The measurements are kept by the policy, so when the
+     * same policy is set on the subsequent evaluations of a similar pipeline,
+     * these are split according to the measurements of the previous ones
+     * right from the start.
+     *
+     * @return a new adaptive policy
+     */
+    public static SplitPolicy adaptive() {
+        return new Adaptive();
+    }
+
+    static long leafSizeForCost(double nanosPerElement) {
+        double size = TARGET_LEAF_NANOS / nanosPerElement;
+        return size < 1.0 ? 1L : size >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) size;
+    }
+
+    static long perThread(long sizeEstimate, int parallelism) {
+        long p = Math.max(parallelism, 1);
+        long est = sizeEstimate / p;
+        // round up, so that the source is split in no more than p leaves
+        return (est * p < sizeEstimate) ? est + 1L : Math.max(est, 1L);
+    }
+
+    private static final class LeavesPerThread extends SplitPolicy {
+        private final int leaves;
+
+        LeavesPerThread(int leaves) {
+            this.leaves = leaves;
+        }
+
+        @Override
+        public long targetSize(long sizeEstimate, int parallelism) {
+            long est = sizeEstimate / ((long) Math.max(parallelism, 1) * leaves);
+            return est > 0L ? est : 1L;
+        }
+    }
+
+    private static final class Adaptive extends SplitPolicy {
+        // Guarded by this
+        private long elements;
+        private long nanos;
+        // The measured time per element, NaN until the first leaf has completed
+        private volatile double nanosPerElement = Double.NaN;
+
+        @Override
+        public long targetSize(long sizeEstimate, int parallelism) {
+            double cost = nanosPerElement;
+            return Double.isNaN(cost)
+                   ? DEFAULT.targetSize(sizeEstimate, parallelism)
+                   : Math.min(leafSizeForCost(cost), perThread(sizeEstimate, parallelism));
+        }
+
+        @Override
+        boolean isAdaptive() {
+            return true;
+        }
+
+        @Override
+        long refineTargetSize(long targetSize) {
+            double cost = nanosPerElement;
+            return Double.isNaN(cost) ? targetSize : leafSizeForCost(cost);
+        }
+
+        @Override
+        synchronized void leafCompleted(long sizeEstimate, long nanos) {
+            if (sizeEstimate <= 0L || sizeEstimate == Long.MAX_VALUE || nanos < 0L) {
+                return;
+            }
+            elements += sizeEstimate;
+            this.nanos += nanos;
+            // A leaf that was too fast to be measured counts as 1 ns
+            nanosPerElement = Math.max(this.nanos, 1L) / (double) elements;
+        }
+
+        @Override
+        public String toString() {
+            return "SplitPolicy.adaptive[nanosPerElement=" + nanosPerElement + "]";
+        }
+    }
+}
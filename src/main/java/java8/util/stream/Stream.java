@@ -25,13 +25,17 @@
 package java8.util.stream;
 
 import java.util.Comparator;
+import java.util.List;
 
 import java8.util.function.BiConsumer;
 import java8.util.function.BiFunction;
 import java8.util.function.BinaryOperator;
 import java8.util.function.Consumer;
+import java8.util.function.DoubleConsumer;
 import java8.util.function.Function;
+import java8.util.function.IntConsumer;
 import java8.util.function.IntFunction;
+import java8.util.function.LongConsumer;
 import java8.util.function.Predicate;
 import java8.util.function.Supplier;
 import java8.util.function.ToDoubleFunction;
@@ -333,6 +337,165 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper);
 
+    /**
+     * Returns a stream consisting of the results of replacing each element of
+     * this stream with multiple elements, specifically zero or more elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain Consumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the
+     * consumer zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain Consumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMap flatMap} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with a {@code Consumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates a stream from the
+     * internal buffer. Finally, it returns this stream to {@code flatMap}.
+     * The stream pipeline implementations of this library do not go through
+     * {@code flatMap} but push the replacement elements directly into the
+     * downstream stage, so that no intermediate buffer or stream is created
+     * per element.
+     *
+     * <p><b>API Note:</b><br>
+     * This method is similar to {@link #flatMap flatMap} in that it applies a one-to-many
+     * transformation to the elements of the stream and flattens the result elements
+     * into a new stream. This method is preferable to {@code flatMap} in the following
+     * circumstances:
+     * <ul>
+     * <li>When replacing each stream element with a small (possibly zero) number of
+     * elements. Using this method avoids the overhead of creating a new Stream instance
+     * for every group of result elements, as required by {@code flatMap}.</li>
+     * <li>When it is easier to use an imperative approach for generating result
+     * elements than it is to return them in the form of a Stream.</li>
+     * </ul>
+     *
+     * <p>If a lambda expression is provided as the mapper function argument, additional type
+     * information may be necessary for proper inference of the element type {@code <R>} of
+     * the returned stream. This can be provided in the form of explicit type declarations for
+     * the lambda parameters or as an explicit type argument to the {@code mapMulti} call.
+     *
+     * <p><b>Examples</b>
+     *
+     * <p>Given a stream of {@code Number} objects, the following
+     * produces a list containing only the {@code Integer} objects:
+     * <pre>{@code
+     *     Stream<Number> numbers = ... ;
+     *     List<Integer> integers = numbers.<Integer>mapMulti((number, consumer) -> {
+     *             if (number instanceof Integer)
+     *                 consumer.accept((Integer) number);
+     *         })
+     *         .collect(Collectors.toList());
+     * }</pre>
+     *
+     * @param <R> The element type of the new stream
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #flatMap flatMap
+     * @since 16
+     */
+    <R> Stream<R> mapMulti(BiConsumer<? super T, ? super Consumer<R>> mapper);
+
+    /**
+     * Returns an {@code IntStream} consisting of the results of replacing each
+     * element of this stream with multiple elements, specifically zero or more
+     * elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain IntConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain IntConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMapToInt flatMapToInt} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with an {@code IntConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates an {@code IntStream} from
+     * the internal buffer. Finally, it returns this stream to {@code flatMapToInt}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti mapMulti
+     * @since 16
+     */
+    IntStream mapMultiToInt(BiConsumer<? super T, ? super IntConsumer> mapper);
+
+    /**
+     * Returns a {@code LongStream} consisting of the results of replacing each
+     * element of this stream with multiple elements, specifically zero or more
+     * elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain LongConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain LongConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMapToLong flatMapToLong} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with a {@code LongConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates a {@code LongStream} from
+     * the internal buffer. Finally, it returns this stream to {@code flatMapToLong}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti mapMulti
+     * @since 16
+     */
+    LongStream mapMultiToLong(BiConsumer<? super T, ? super LongConsumer> mapper);
+
+    /**
+     * Returns a {@code DoubleStream} consisting of the results of replacing each
+     * element of this stream with multiple elements, specifically zero or more
+     * elements.
+     * Replacement is performed by applying the provided mapping function to each
+     * element in conjunction with a {@linkplain DoubleConsumer consumer} argument
+     * that accepts replacement elements. The mapping function calls the consumer
+     * zero or more times to provide the replacement elements.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * <p>If the {@linkplain DoubleConsumer consumer} argument is used outside the scope of
+     * its application to the mapping function, the results are undefined.
+     *
+     * <p><b>Implementation Requirements:</b><br>
+     * The default implementation invokes {@link #flatMapToDouble flatMapToDouble} on this stream,
+     * passing a function that behaves as follows. First, it calls the mapper function
+     * with a {@code DoubleConsumer} that accumulates replacement elements into a newly created
+     * internal buffer. When the mapper function returns, it creates a {@code DoubleStream} from
+     * the internal buffer. Finally, it returns this stream to {@code flatMapToDouble}.
+     *
+     * @param mapper a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *               <a href="package-summary.html#Statelessness">stateless</a>
+     *               function that generates replacement elements
+     * @return the new stream
+     * @see #mapMulti mapMulti
+     * @since 16
+     */
+    DoubleStream mapMultiToDouble(BiConsumer<? super T, ? super DoubleConsumer> mapper);
+
     /**
      * Returns a stream consisting of the distinct elements (according to
      * {@link Object#equals(Object)}) of this stream.
@@ -362,6 +525,36 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> distinct();
 
+    /**
+     * Returns a stream consisting of the distinct elements (according to
+     * {@link Object#equals(Object)}) of this stream, like {@link #distinct()},
+     * given a hint of how many distinct elements this stream is expected to
+     * contain.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * The hint only affects performance, never the result.  It saves the
+     * repeated resizing of the sets of seen elements when a large number of
+     * distinct elements is expected.  A hint much larger than the actual
+     * number of distinct elements wastes memory.
+     *
+     * <p><b>Implementation Note:</b><br>
+     * The hint presizes the set of seen elements of a sequential pipeline.
+     * An unordered parallel pipeline collects the elements of each leaf task
+     * into thread-private, hash-partitioned shards, which are merged per
+     * shard after all leaves have completed; the hint presizes the merged
+     * shards.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param expectedSize the expected number of distinct elements
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    Stream<T> distinct(long expectedSize);
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to natural order.  If the elements of this stream are not
@@ -617,6 +810,164 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> dropWhile(Predicate<? super T> predicate);
 
+    /**
+     * Returns a stream consisting of the results of applying the given
+     * {@link Gatherer} to the elements of this stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>, which is also
+     * <a href="package-summary.html#StreamOps">short-circuiting</a> unless
+     * the gatherer's integrator is a {@link Gatherer.Integrator.Greedy greedy}
+     * one.
+     *
+     * <p>Gatherers are evaluated in encounter order.  A gatherer whose
+     * combiner is {@link Gatherers#defaultCombiner()} is evaluated
+     * sequentially even if this stream is parallel; otherwise each partition
+     * of a parallel stream is integrated into its own state, and the states
+     * are joined with the gatherer's combiner before its finisher is invoked.
+     *
+     * <p><b>API Note:</b><br>
+     * A gather stage is evaluated in the same pass as its neighbouring
+     * stages; several gatherers can be composed into a single stage with
+     * {@link Gatherers#andThen(Gatherer, Gatherer)}.
+     *
+     * @param <R> The element type of the new stream
+     * @param gatherer a gatherer
+     * @return the new stream
+     * @see Gatherers
+     * @since 24
+     */
+    <R> Stream<R> gather(Gatherer<? super T, ?, R> gatherer);
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a fixed size.
+     * If the stream is empty then no window will be produced.  The last window
+     * may contain fewer elements than the supplied window size.
+     *
+     * <p>Each window is an unmodifiable {@code List}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2, 3], [4, 5, 6], [7, 8]]
+     *     List<List<Integer>> windows =
+     *         RefStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowFixed(3).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<List<T>> windowFixed(int windowSize);
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into windows -- encounter-ordered groups of elements -- of a given size,
+     * where each subsequent window includes all elements of the previous
+     * window except for the least recent, and adds the next element in the
+     * stream.  If the stream is empty then no window will be produced.  If the
+     * size of the stream is smaller than the window size then only one window
+     * will be produced, containing all elements in the stream.
+     *
+     * <p>Each window is an unmodifiable {@code List}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example:
+     * <pre>{@code
+     *     // will contain: [[1, 2], [2, 3], [3, 4], [4, 5], [5, 6], [6, 7], [7, 8]]
+     *     List<List<Integer>> windows2 =
+     *         RefStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(2).collect(Collectors.toList());
+     *
+     *     // will contain: [[1, 2, 3, 4, 5, 6], [2, 3, 4, 5, 6, 7], [3, 4, 5, 6, 7, 8]]
+     *     List<List<Integer>> windows6 =
+     *         RefStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(6).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * In a parallel pipeline the upstream elements are collected into an
+     * array first, which is filled in parallel and without intermediate
+     * copies if the size of the upstream is known.  The windows are then
+     * split by their index, adjacent splits sharing the source elements of
+     * the windows overlapping their edge.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param windowSize the size of the windows
+     * @return the new stream of windows
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    Stream<List<T>> windowSliding(int windowSize);
+
+    /**
+     * Returns a stream consisting of the running accumulations of the
+     * elements of this stream: the element at each position is the result of
+     * accumulating the identity and, in encounter order, all elements of this
+     * stream up to and including the one at that position.  This is
+     * equivalent to:
+     * <pre>{@code
+     *     T result = identity;
+     *     for (T element : this stream) {
+     *         result = accumulator.apply(result, element);
+     *         // the next element of the returned stream is result
+     *     }
+     * }</pre>
+     *
+     * <p>The returned stream has as many elements as this stream.  The
+     * accumulator function must be an associative function.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * <p><b>API Note:</b><br>
+     * For example, the running totals of a stream:
+     * <pre>{@code
+     *     // will contain: [1, 3, 6, 10, 15]
+     *     List<Integer> totals =
+     *         RefStreams.of(1, 2, 3, 4, 5).scan(0, Integer::sum).collect(Collectors.toList());
+     * }</pre>
+     *
+     * <p><b>Implementation Note:</b><br>
+     * A sequential pipeline carries the accumulation from one element to the
+     * next, without buffering.  In a parallel pipeline whose upstream size is
+     * known the upstream elements are collected into an array first, which is
+     * filled in parallel and without intermediate copies.  The array is then
+     * cumulated in place in two parallel passes, like
+     * {@link java8.util.J8Arrays#parallelPrefix(Object[], BinaryOperator)
+     * J8Arrays.parallelPrefix} does.  If the size of
+     * the upstream isn't known, as for an infinite stream, the accumulation
+     * is carried through the upstream elements in encounter order as they
+     * are requested, so that a downstream short-circuiting operation such as
+     * {@code limit} terminates.  Only the operations following the scan are
+     * then evaluated in parallel.
+     *
+     * <p>This method is not part of the Java SE API.
+     *
+     * @param identity the value the accumulation starts with, typically the
+     *                 identity value for the accumulating function
+     * @param accumulator an <a href="package-summary.html#Associativity">associative</a>,
+     *                    <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                    <a href="package-summary.html#Statelessness">stateless</a>
+     *                    function for combining two values
+     * @return the new stream
+     */
+    Stream<T> scan(T identity, BinaryOperator<T> accumulator);
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -950,6 +1301,35 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     <R, A> R collect(Collector<? super T, A, R> collector);
 
+    /**
+     * Accumulates the elements of this stream into a {@code List}. The elements in
+     * the list will be in this stream's encounter order, if one exists. The returned List
+     * is unmodifiable; calls to any mutator method will always cause
+     * {@code UnsupportedOperationException} to be thrown. There are no
+     * guarantees on the implementation type or serializability of the returned List.
+     *
+     * <p>The returned instance may be <a href="../package-summary.html#Value-based-Classes">value-based</a>.
+     * Callers should make no assumptions about the identity of the returned instances.
+     * Identity-sensitive operations on these instances (reference equality ({@code ==}),
+     * identity hash code, and synchronization) are unreliable and should be avoided.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal operation</a>.
+     *
+     * <p><b>API Note:</b><br> If more control over the returned object is required, use
+     * {@link Collectors#toCollection(Supplier)}.
+     *
+     * <p><b>Implementation Note:</b><br> The returned list wraps the array
+     * produced by {@link #toArray()} without copying it.  If the size of this
+     * stream is known that array is allocated once with its final size, also
+     * in a parallel pipeline, whereas {@code collect(Collectors.toList())}
+     * grows an {@code ArrayList} and copies when combining partial results.
+     *
+     * @return a List containing the stream elements
+     *
+     * @since 16
+     */
+    List<T> toList();
+
     /**
      * Returns the minimum element of this stream according to the provided
      * {@code Comparator}.  This is a special case of a
@@ -1719,6 +1719,278 @@ class StreamSpliterators {
         public Comparator<? super T> getComparator() {
             return s.getComparator();
         }
+
+        /**
+         * A {@code DistinctSpliterator} over {@code int} values.
+         */
+        static final class OfInt implements Spliterator.OfInt, IntConsumer {
+
+            private final Spliterator.OfInt s;
+
+            private final DistinctOps.StripedIntHashSet seen;
+
+            // Temporary value, only used with tryAdvance
+            private int tmpValue;
+
+            OfInt(Spliterator.OfInt s, int parallelism) {
+                this(s, new DistinctOps.StripedIntHashSet(parallelism));
+            }
+
+            private OfInt(Spliterator.OfInt s, DistinctOps.StripedIntHashSet seen) {
+                this.s = s;
+                this.seen = seen;
+            }
+
+            @Override
+            public void accept(int value) {
+                this.tmpValue = value;
+            }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                while (s.tryAdvance(this)) {
+                    if (seen.add(tmpValue)) {
+                        action.accept(tmpValue);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(final IntConsumer action) {
+                s.forEachRemaining((IntConsumer) t -> {
+                    if (seen.add(t)) {
+                        action.accept(t);
+                    }
+                });
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Integer> action) {
+                return Spliterators.OfInt.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Integer> action) {
+                Spliterators.OfInt.forEachRemaining(this, action);
+            }
+
+            @Override
+            public Spliterator.OfInt trySplit() {
+                Spliterator.OfInt split = s.trySplit();
+                return (split != null) ? new DistinctSpliterator.OfInt(split, seen) : null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return s.estimateSize();
+            }
+
+            @Override
+            public int characteristics() {
+                return (s.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED |
+                                                Spliterator.SORTED | Spliterator.ORDERED))
+                       | Spliterator.DISTINCT;
+            }
+
+            @Override
+            public long getExactSizeIfKnown() {
+                return Spliterators.getExactSizeIfKnown(this);
+            }
+
+            @Override
+            public boolean hasCharacteristics(int characteristics) {
+                return Spliterators.hasCharacteristics(this, characteristics);
+            }
+
+            @Override
+            public Comparator<? super Integer> getComparator() {
+                return s.getComparator();
+            }
+        }
+
+        /**
+         * A {@code DistinctSpliterator} over {@code long} values.
+         */
+        static final class OfLong implements Spliterator.OfLong, LongConsumer {
+
+            private final Spliterator.OfLong s;
+
+            private final DistinctOps.StripedLongHashSet seen;
+
+            // Temporary value, only used with tryAdvance
+            private long tmpValue;
+
+            OfLong(Spliterator.OfLong s, int parallelism) {
+                this(s, new DistinctOps.StripedLongHashSet(parallelism));
+            }
+
+            private OfLong(Spliterator.OfLong s, DistinctOps.StripedLongHashSet seen) {
+                this.s = s;
+                this.seen = seen;
+            }
+
+            @Override
+            public void accept(long value) {
+                this.tmpValue = value;
+            }
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                while (s.tryAdvance(this)) {
+                    if (seen.add(tmpValue)) {
+                        action.accept(tmpValue);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(final LongConsumer action) {
+                s.forEachRemaining((LongConsumer) t -> {
+                    if (seen.add(t)) {
+                        action.accept(t);
+                    }
+                });
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                return Spliterators.OfLong.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Long> action) {
+                Spliterators.OfLong.forEachRemaining(this, action);
+            }
+
+            @Override
+            public Spliterator.OfLong trySplit() {
+                Spliterator.OfLong split = s.trySplit();
+                return (split != null) ? new DistinctSpliterator.OfLong(split, seen) : null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return s.estimateSize();
+            }
+
+            @Override
+            public int characteristics() {
+                return (s.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED |
+                                                Spliterator.SORTED | Spliterator.ORDERED))
+                       | Spliterator.DISTINCT;
+            }
+
+            @Override
+            public long getExactSizeIfKnown() {
+                return Spliterators.getExactSizeIfKnown(this);
+            }
+
+            @Override
+            public boolean hasCharacteristics(int characteristics) {
+                return Spliterators.hasCharacteristics(this, characteristics);
+            }
+
+            @Override
+            public Comparator<? super Long> getComparator() {
+                return s.getComparator();
+            }
+        }
+
+        /**
+         * A {@code DistinctSpliterator} over {@code double} values, two
+         * values being equal if their {@link Double#doubleToLongBits(double)}
+         * representations are equal.
+         */
+        static final class OfDouble implements Spliterator.OfDouble, DoubleConsumer {
+
+            private final Spliterator.OfDouble s;
+
+            private final DistinctOps.StripedLongHashSet seen;
+
+            // Temporary value, only used with tryAdvance
+            private double tmpValue;
+
+            OfDouble(Spliterator.OfDouble s, int parallelism) {
+                this(s, new DistinctOps.StripedLongHashSet(parallelism));
+            }
+
+            private OfDouble(Spliterator.OfDouble s, DistinctOps.StripedLongHashSet seen) {
+                this.s = s;
+                this.seen = seen;
+            }
+
+            @Override
+            public void accept(double value) {
+                this.tmpValue = value;
+            }
+
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                while (s.tryAdvance(this)) {
+                    if (seen.add(Double.doubleToLongBits(tmpValue))) {
+                        action.accept(tmpValue);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(final DoubleConsumer action) {
+                s.forEachRemaining((DoubleConsumer) t -> {
+                    if (seen.add(Double.doubleToLongBits(t))) {
+                        action.accept(t);
+                    }
+                });
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Double> action) {
+                return Spliterators.OfDouble.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Double> action) {
+                Spliterators.OfDouble.forEachRemaining(this, action);
+            }
+
+            @Override
+            public Spliterator.OfDouble trySplit() {
+                Spliterator.OfDouble split = s.trySplit();
+                return (split != null) ? new DistinctSpliterator.OfDouble(split, seen) : null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return s.estimateSize();
+            }
+
+            @Override
+            public int characteristics() {
+                return (s.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED |
+                                                Spliterator.SORTED | Spliterator.ORDERED))
+                       | Spliterator.DISTINCT;
+            }
+
+            @Override
+            public long getExactSizeIfKnown() {
+                return Spliterators.getExactSizeIfKnown(this);
+            }
+
+            @Override
+            public boolean hasCharacteristics(int characteristics) {
+                return Spliterators.hasCharacteristics(this, characteristics);
+            }
+
+            @Override
+            public Comparator<? super Double> getComparator() {
+                return s.getComparator();
+            }
+        }
     }
 
     /**
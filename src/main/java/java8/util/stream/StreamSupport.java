@@ -28,6 +28,7 @@ import java.util.Collection;
 
 import java8.util.Objects;
 import java8.util.Spliterators;
+import java8.util.concurrent.ForkJoinPool;
 import java8.util.function.Supplier;
 import java8.util.Spliterator;
 
@@ -195,6 +196,29 @@ public final class StreamSupport {
         return stream(Spliterators.spliterator(c), true);
     }
 
+    /**
+     * Creates a new parallel {@code Stream} using the given collection as its
+     * source, like {@link #parallelStream(Collection)}, whose evaluation is
+     * bound to the given {@code ForkJoinPool}.
+     *
+     * <p>The terminal operation of the returned stream, and all tasks it
+     * forks, are executed in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}, and the parallelism of
+     * the given pool determines how finely the source is split.  The stream
+     * is evaluated sequentially, in the calling thread, if it is made
+     * sequential by {@code sequential()}.
+     *
+     * @param <T> Type of elements
+     * @param c The collection
+     * @param pool the pool to evaluate the stream in
+     * @return a new parallel {@code Stream}
+     * @throws NullPointerException if {@code c} or {@code pool} is null
+     * @see #stream(Spliterator, ForkJoinPool)
+     */
+    public static <T> Stream<T> parallelStream(Collection<? extends T> c, ForkJoinPool pool) {
+        return stream(Spliterators.spliterator(c), pool);
+    }
+
     /**
      * Creates a new sequential {@code Stream} using the given collection's
      * {@link java.util.Collection#iterator()} as the source of elements for an
@@ -306,6 +330,34 @@ public final class StreamSupport {
                                             parallel);
     }
 
+    /**
+     * Creates a new parallel {@code Stream} from a {@code Spliterator} whose
+     * evaluation is bound to the given {@code ForkJoinPool}.
+     *
+     * <p>The terminal operation of the returned stream, and all tasks it
+     * forks, are executed in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}, and the parallelism of
+     * the given pool determines how finely the source is split.  The stream
+     * is evaluated sequentially, in the calling thread, if it is made
+     * sequential by {@code sequential()}.
+     *
+     * <p>The spliterator is only traversed, split, or queried for estimated
+     * size after the terminal operation of the stream pipeline commences.
+     *
+     * @param <T> the type of stream elements
+     * @param spliterator a {@code Spliterator} describing the stream elements
+     * @param pool the pool to evaluate the stream in
+     * @return a new parallel {@code Stream}
+     * @throws NullPointerException if {@code spliterator} or {@code pool} is
+     *         null
+     */
+    public static <T> Stream<T> stream(Spliterator<T> spliterator, ForkJoinPool pool) {
+        Objects.requireNonNull(spliterator);
+        return new ReferencePipeline.Head<T, T>(spliterator,
+                                                StreamOpFlag.fromCharacteristics(spliterator),
+                                                true).evaluateIn(pool);
+    }
+
     /**
      * Creates a new sequential or parallel {@code Stream} from a
      * {@code Supplier} of {@code Spliterator}.
@@ -375,6 +427,32 @@ public final class StreamSupport {
                                       parallel);
     }
 
+    /**
+     * Creates a new parallel {@code IntStream} from a
+     * {@code Spliterator.OfInt} whose evaluation is bound to the given
+     * {@code ForkJoinPool}.
+     *
+     * <p>The terminal operation of the returned stream, and all tasks it
+     * forks, are executed in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}, and the parallelism of
+     * the given pool determines how finely the source is split.  The stream
+     * is evaluated sequentially, in the calling thread, if it is made
+     * sequential by {@code sequential()}.
+     *
+     * @param spliterator a {@code Spliterator.OfInt} describing the stream elements
+     * @param pool the pool to evaluate the stream in
+     * @return a new parallel {@code IntStream}
+     * @throws NullPointerException if {@code spliterator} or {@code pool} is
+     *         null
+     * @see #stream(Spliterator, ForkJoinPool)
+     */
+    public static IntStream intStream(Spliterator.OfInt spliterator, ForkJoinPool pool) {
+        Objects.requireNonNull(spliterator);
+        return new IntPipeline.Head<>(spliterator,
+                                      StreamOpFlag.fromCharacteristics(spliterator),
+                                      true).evaluateIn(pool);
+    }
+
     /**
      * Creates a new sequential or parallel {@code IntStream} from a
      * {@code Supplier} of {@code Spliterator.OfInt}.
@@ -443,6 +521,32 @@ public final class StreamSupport {
                                        parallel);
     }
 
+    /**
+     * Creates a new parallel {@code LongStream} from a
+     * {@code Spliterator.OfLong} whose evaluation is bound to the given
+     * {@code ForkJoinPool}.
+     *
+     * <p>The terminal operation of the returned stream, and all tasks it
+     * forks, are executed in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}, and the parallelism of
+     * the given pool determines how finely the source is split.  The stream
+     * is evaluated sequentially, in the calling thread, if it is made
+     * sequential by {@code sequential()}.
+     *
+     * @param spliterator a {@code Spliterator.OfLong} describing the stream elements
+     * @param pool the pool to evaluate the stream in
+     * @return a new parallel {@code LongStream}
+     * @throws NullPointerException if {@code spliterator} or {@code pool} is
+     *         null
+     * @see #stream(Spliterator, ForkJoinPool)
+     */
+    public static LongStream longStream(Spliterator.OfLong spliterator, ForkJoinPool pool) {
+        Objects.requireNonNull(spliterator);
+        return new LongPipeline.Head<>(spliterator,
+                                       StreamOpFlag.fromCharacteristics(spliterator),
+                                       true).evaluateIn(pool);
+    }
+
     /**
      * Creates a new sequential or parallel {@code LongStream} from a
      * {@code Supplier} of {@code Spliterator.OfLong}.
@@ -511,6 +615,32 @@ public final class StreamSupport {
                                          parallel);
     }
 
+    /**
+     * Creates a new parallel {@code DoubleStream} from a
+     * {@code Spliterator.OfDouble} whose evaluation is bound to the given
+     * {@code ForkJoinPool}.
+     *
+     * <p>The terminal operation of the returned stream, and all tasks it
+     * forks, are executed in the given pool rather than in the
+     * {@link ForkJoinPool#commonPool() common pool}, and the parallelism of
+     * the given pool determines how finely the source is split.  The stream
+     * is evaluated sequentially, in the calling thread, if it is made
+     * sequential by {@code sequential()}.
+     *
+     * @param spliterator a {@code Spliterator.OfDouble} describing the stream elements
+     * @param pool the pool to evaluate the stream in
+     * @return a new parallel {@code DoubleStream}
+     * @throws NullPointerException if {@code spliterator} or {@code pool} is
+     *         null
+     * @see #stream(Spliterator, ForkJoinPool)
+     */
+    public static DoubleStream doubleStream(Spliterator.OfDouble spliterator, ForkJoinPool pool) {
+        Objects.requireNonNull(spliterator);
+        return new DoublePipeline.Head<>(spliterator,
+                                         StreamOpFlag.fromCharacteristics(spliterator),
+                                         true).evaluateIn(pool);
+    }
+
     /**
      * Creates a new sequential or parallel {@code DoubleStream} from a
      * {@code Supplier} of {@code Spliterator.OfDouble}.
@@ -551,6 +681,87 @@ public final class StreamSupport {
                                          parallel);
     }
 
+    /**
+     * Sets the policy that decides how finely the source of the given stream
+     * is split into leaf tasks when the pipeline is evaluated in parallel.
+     * The policy applies to the whole pipeline the stream belongs to, the
+     * stages before the stream as well as the stages that are added to it,
+     * and replaces any policy set before.  It has no effect if the pipeline is
+     * evaluated sequentially.
+     *
+     * <p>Streams not created by streamsupport ignore the policy.
+     *
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @param stream the stream
+     * @param policy the split policy
+     * @return the given stream
+     * @throws NullPointerException if {@code stream} or {@code policy} is
+     *         null
+     * @throws IllegalStateException if {@code stream} has already been
+     *         operated upon or closed
+     * @see SplitPolicy
+     */
+    public static <T, S extends BaseStream<T, S>> S withSplitPolicy(S stream, SplitPolicy policy) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(policy);
+        if (stream instanceof AbstractPipeline) {
+            ((AbstractPipeline<?, ?, ?>) stream).withSplitPolicy(policy);
+        }
+        return stream;
+    }
+
+    /**
+     * Binds the given token to the pipeline the given stream belongs to, so
+     * that the evaluation of its terminal operation can be cancelled, or
+     * abandoned when the deadline of the token passes.  A terminal operation
+     * that notices the cancellation request stops traversing the source and
+     * throws a {@link java.util.concurrent.CancellationException}.  The token
+     * applies to the whole pipeline, in sequential as well as in parallel
+     * evaluation, and replaces any token bound before.
+     *
+     * <p>Streams not created by streamsupport ignore the token.
+     *
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @param stream the stream
+     * @param token the cancellation token
+     * @return the given stream
+     * @throws NullPointerException if {@code stream} or {@code token} is
+     *         null
+     * @throws IllegalStateException if {@code stream} has already been
+     *         operated upon or closed
+     * @see CancellationToken
+     */
+    public static <T, S extends BaseStream<T, S>> S withCancellation(S stream, CancellationToken token) {
+        Objects.requireNonNull(stream);
+        Objects.requireNonNull(token);
+        if (stream instanceof AbstractPipeline) {
+            ((AbstractPipeline<?, ?, ?>) stream).withCancellation(token);
+        }
+        return stream;
+    }
+
+    /**
+     * Returns the pool the evaluation of the given stream has been bound to
+     * with {@link #stream(Spliterator, ForkJoinPool)} or one of the other
+     * methods that bind a stream to a pool.  The pool applies to the whole
+     * pipeline the stream belongs to.
+     *
+     * <p>Streams not created by streamsupport are never bound to a pool.
+     *
+     * @param stream the stream
+     * @return the pool the stream is bound to, or null if it isn't bound to
+     *         a pool
+     * @throws NullPointerException if {@code stream} is null
+     */
+    public static ForkJoinPool boundPool(BaseStream<?, ?> stream) {
+        Objects.requireNonNull(stream);
+        return (stream instanceof AbstractPipeline)
+               ? ((AbstractPipeline<?, ?, ?>) stream).boundPool()
+               : null;
+    }
+
     static Runnable closeHandler(BaseStream<?, ?> stream) {
         return stream::close;
     }
@@ -28,10 +28,19 @@ import java.util.Comparator;
 
 import java8.util.Objects;
 import java8.util.Spliterators;
+import java8.util.function.BiFunction;
 import java8.util.function.Consumer;
+import java8.util.function.DoubleBinaryOperator;
 import java8.util.function.DoubleConsumer;
+import java8.util.function.IntBinaryOperator;
 import java8.util.function.IntConsumer;
+import java8.util.function.DoubleUnaryOperator;
+import java8.util.function.IntUnaryOperator;
+import java8.util.function.LongBinaryOperator;
 import java8.util.function.LongConsumer;
+import java8.util.function.LongFunction;
+import java8.util.function.LongUnaryOperator;
+import java8.util.function.UnaryOperator;
 import java8.util.stream.IntStream.Builder;
 import java8.util.Spliterator;
 
@@ -332,6 +341,412 @@ final class Streams {
         }
     }
 
+    /**
+     * A spliterator over the first elements of the sequence {@code seed},
+     * {@code next(seed)}, {@code next(next(seed))}, etc.  It splits by index
+     * range, like a range spliterator.  The first element of the suffix is
+     * computed from the first element of the prefix with the jump function,
+     * which returns a function that advances an element by the given number
+     * of steps, so a split doesn't need to step through the prefix.
+     */
+    static final class IterateSpliterator<T> implements Spliterator<T> {
+        private final UnaryOperator<T> next;
+        private final LongFunction<? extends UnaryOperator<T>> jump;
+        // The element at index, if index < fence
+        private T current;
+        private long index;
+        private final long fence;
+
+        IterateSpliterator(T seed, long index, long fence, UnaryOperator<T> next,
+                           LongFunction<? extends UnaryOperator<T>> jump) {
+            this.current = seed;
+            this.index = index;
+            this.fence = fence;
+            this.next = next;
+            this.jump = jump;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            long i = index;
+            if (i >= fence) {
+                return false;
+            }
+            T t = current;
+            index = ++i;
+            current = (i < fence) ? next.apply(t) : null;
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            long i = index, hi = fence;
+            if (i >= hi) {
+                return;
+            }
+            T t = current;
+            index = hi;
+            current = null;
+            for (;;) {
+                action.accept(t);
+                if (++i >= hi) {
+                    break;
+                }
+                t = next.apply(t);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            long lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            Spliterator<T> prefix = new IterateSpliterator<>(current, lo, mid, next, jump);
+            current = jump.apply(mid - lo).apply(current);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                   Spliterator.IMMUTABLE;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return Spliterators.getComparator(this);
+        }
+    }
+
+    /**
+     * A {@code int} {@link IterateSpliterator}.
+     */
+    static final class IntIterateSpliterator implements Spliterator.OfInt {
+        private final IntUnaryOperator next;
+        private final LongFunction<? extends IntUnaryOperator> jump;
+        // The element at index, if index < fence
+        private int current;
+        private long index;
+        private final long fence;
+
+        IntIterateSpliterator(int seed, long index, long fence, IntUnaryOperator next,
+                              LongFunction<? extends IntUnaryOperator> jump) {
+            this.current = seed;
+            this.index = index;
+            this.fence = fence;
+            this.next = next;
+            this.jump = jump;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index;
+            if (i >= fence) {
+                return false;
+            }
+            int t = current;
+            index = ++i;
+            if (i < fence) {
+                current = next.applyAsInt(t);
+            }
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Integer> action) {
+            return Spliterators.OfInt.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index, hi = fence;
+            if (i >= hi) {
+                return;
+            }
+            int t = current;
+            index = hi;
+            for (;;) {
+                action.accept(t);
+                if (++i >= hi) {
+                    break;
+                }
+                t = next.applyAsInt(t);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Spliterators.OfInt.forEachRemaining(this, action);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            Spliterator.OfInt prefix = new IntIterateSpliterator(current, lo, mid, next, jump);
+            current = jump.apply(mid - lo).applyAsInt(current);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                   Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return Spliterators.getComparator(this);
+        }
+    }
+
+    /**
+     * A {@code long} {@link IterateSpliterator}.
+     */
+    static final class LongIterateSpliterator implements Spliterator.OfLong {
+        private final LongUnaryOperator next;
+        private final LongFunction<? extends LongUnaryOperator> jump;
+        // The element at index, if index < fence
+        private long current;
+        private long index;
+        private final long fence;
+
+        LongIterateSpliterator(long seed, long index, long fence, LongUnaryOperator next,
+                               LongFunction<? extends LongUnaryOperator> jump) {
+            this.current = seed;
+            this.index = index;
+            this.fence = fence;
+            this.next = next;
+            this.jump = jump;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index;
+            if (i >= fence) {
+                return false;
+            }
+            long t = current;
+            index = ++i;
+            if (i < fence) {
+                current = next.applyAsLong(t);
+            }
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Long> action) {
+            return Spliterators.OfLong.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index, hi = fence;
+            if (i >= hi) {
+                return;
+            }
+            long t = current;
+            index = hi;
+            for (;;) {
+                action.accept(t);
+                if (++i >= hi) {
+                    break;
+                }
+                t = next.applyAsLong(t);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Long> action) {
+            Spliterators.OfLong.forEachRemaining(this, action);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            Spliterator.OfLong prefix = new LongIterateSpliterator(current, lo, mid, next, jump);
+            current = jump.apply(mid - lo).applyAsLong(current);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                   Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return Spliterators.getComparator(this);
+        }
+    }
+
+    /**
+     * A {@code double} {@link IterateSpliterator}.
+     */
+    static final class DoubleIterateSpliterator implements Spliterator.OfDouble {
+        private final DoubleUnaryOperator next;
+        private final LongFunction<? extends DoubleUnaryOperator> jump;
+        // The element at index, if index < fence
+        private double current;
+        private long index;
+        private final long fence;
+
+        DoubleIterateSpliterator(double seed, long index, long fence, DoubleUnaryOperator next,
+                                 LongFunction<? extends DoubleUnaryOperator> jump) {
+            this.current = seed;
+            this.index = index;
+            this.fence = fence;
+            this.next = next;
+            this.jump = jump;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index;
+            if (i >= fence) {
+                return false;
+            }
+            double t = current;
+            index = ++i;
+            if (i < fence) {
+                current = next.applyAsDouble(t);
+            }
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Double> action) {
+            return Spliterators.OfDouble.tryAdvance(this, action);
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            long i = index, hi = fence;
+            if (i >= hi) {
+                return;
+            }
+            double t = current;
+            index = hi;
+            for (;;) {
+                action.accept(t);
+                if (++i >= hi) {
+                    break;
+                }
+                t = next.applyAsDouble(t);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Double> action) {
+            Spliterators.OfDouble.forEachRemaining(this, action);
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            long lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            Spliterator.OfDouble prefix = new DoubleIterateSpliterator(current, lo, mid, next, jump);
+            current = jump.apply(mid - lo).applyAsDouble(current);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                   Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super Double> getComparator() {
+            return Spliterators.getComparator(this);
+        }
+    }
+
     private abstract static class AbstractStreamBuilderImpl<T, S extends Spliterator<T>> implements Spliterator<T> {
         // >= 0 when building, < 0 when built
         // -1 == no elements
@@ -955,6 +1370,483 @@ final class Streams {
         }
     }
 
+    /**
+     * A spliterator whose elements are the results of a function applied to
+     * the elements of two spliterators at the same position.  It ends with the
+     * shorter of the two spliterators.
+     *
+     * <p>If both spliterators are {@code SUBSIZED} they are split at the same
+     * index, so that the prefixes are zipped by a spliterator of their own:
+     * the larger of the two prefixes is split further until their sizes
+     * agree, and the parts split off beyond the common index are put back in
+     * front of the remainders by concatenation.  Spliterators that split the
+     * same way, such as those of arrays, lists and ranges of the same size,
+     * agree at once.  Otherwise, or if no common index is found, splitting
+     * copies batches of zipped elements into an array, like
+     * {@link Spliterators.AbstractSpliterator} does.
+     */
+    abstract static class ZipSpliterator<T, S_A extends Spliterator<?>, S_B extends Spliterator<?>,
+            T_SPLITR extends Spliterator<T>> implements Spliterator<T> {
+        static final int BATCH_UNIT = 1 << 10;  // batch array size increment
+        static final int MAX_BATCH = 1 << 25;  // max batch array size;
+        protected S_A aSpliterator;
+        protected S_B bSpliterator;
+        private final int characteristics;
+        // True while both spliterators are split at the same index
+        private boolean aligned;
+        private int batch;            // batch size for splits
+
+        ZipSpliterator(S_A aSpliterator, S_B bSpliterator, int additionalCharacteristics) {
+            this.aSpliterator = aSpliterator;
+            this.bSpliterator = bSpliterator;
+            int both = aSpliterator.characteristics() & bSpliterator.characteristics();
+            aligned = (both & Spliterator.SUBSIZED) != 0;
+            // The remainders stay SIZED after copying a batch, and so do
+            // the concatenations when a common index is not found
+            characteristics = (both & Spliterator.ORDERED) | additionalCharacteristics
+                    | ((both & Spliterator.SIZED) != 0 ? Spliterator.SIZED | Spliterator.SUBSIZED : 0);
+        }
+
+        /**
+         * Returns a spliterator zipping the given prefixes.
+         */
+        abstract T_SPLITR zip(S_A a, S_B b);
+
+        abstract S_A concatA(S_A first, S_A second);
+
+        abstract S_B concatB(S_B first, S_B second);
+
+        /**
+         * Copies up to {@code n} zipped elements into an array and returns
+         * a spliterator over them, or {@code null} if there are none.
+         */
+        abstract T_SPLITR copy(int n);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T_SPLITR trySplit() {
+            if (aligned) {
+                S_A a = (S_A) aSpliterator.trySplit();
+                S_B b = (a != null) ? (S_B) bSpliterator.trySplit() : null;
+                long sa = (b != null) ? a.getExactSizeIfKnown() : -1;
+                long sb = (b != null) ? b.getExactSizeIfKnown() : -1;
+                while (sa != sb && sa >= 0 && sb >= 0) {
+                    if (sa > sb) {
+                        S_A prefix = (S_A) a.trySplit();
+                        if (prefix == null)
+                            break;
+                        aSpliterator = concatA(a, aSpliterator);
+                        a = prefix;
+                        sa = a.getExactSizeIfKnown();
+                    }
+                    else {
+                        S_B prefix = (S_B) b.trySplit();
+                        if (prefix == null)
+                            break;
+                        bSpliterator = concatB(b, bSpliterator);
+                        b = prefix;
+                        sb = b.getExactSizeIfKnown();
+                    }
+                }
+                if (sa == sb && sa >= 0)
+                    return zip(a, b);
+                // No common index, put the prefixes back and copy from now on
+                if (a != null)
+                    aSpliterator = concatA(a, aSpliterator);
+                if (b != null)
+                    bSpliterator = concatB(b, bSpliterator);
+                aligned = false;
+            }
+            long s = estimateSize();
+            if (s <= 1)
+                return null;
+            int n = batch + BATCH_UNIT;
+            if (n > s)
+                n = (int) s;
+            if (n > MAX_BATCH)
+                n = MAX_BATCH;
+            T_SPLITR prefix = copy(n);
+            if (prefix != null)
+                batch = (int) prefix.estimateSize();
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(aSpliterator.estimateSize(), bSpliterator.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return Spliterators.getComparator(this);
+        }
+
+        static final class OfRef<A, B, R> extends ZipSpliterator<R, Spliterator<A>, Spliterator<B>, Spliterator<R>> {
+            private final BiFunction<? super A, ? super B, ? extends R> zipper;
+            private A aElement;
+            private B bElement;
+            private final Consumer<A> setA = a -> aElement = a;
+            private final Consumer<B> setB = b -> bElement = b;
+
+            OfRef(Spliterator<A> aSpliterator, Spliterator<B> bSpliterator,
+                  BiFunction<? super A, ? super B, ? extends R> zipper) {
+                super(aSpliterator, bSpliterator, 0);
+                this.zipper = zipper;
+            }
+
+            @Override
+            Spliterator<R> zip(Spliterator<A> a, Spliterator<B> b) {
+                return new OfRef<>(a, b, zipper);
+            }
+
+            @Override
+            Spliterator<A> concatA(Spliterator<A> first, Spliterator<A> second) {
+                return new ConcatSpliterator.OfRef<>(first, second);
+            }
+
+            @Override
+            Spliterator<B> concatB(Spliterator<B> first, Spliterator<B> second) {
+                return new ConcatSpliterator.OfRef<>(first, second);
+            }
+
+            @Override
+            Spliterator<R> copy(int n) {
+                Object[] array = new Object[n];
+                int j = 0;
+                while (j < n && advance()) {
+                    array[j++] = next();
+                }
+                return (j > 0) ? Spliterators.<R>spliterator(array, 0, j, characteristics()) : null;
+            }
+
+            private boolean advance() {
+                return aSpliterator.tryAdvance(setA) && bSpliterator.tryAdvance(setB);
+            }
+
+            private R next() {
+                A a = aElement;
+                B b = bElement;
+                aElement = null;
+                bElement = null;
+                return zipper.apply(a, b);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                Objects.requireNonNull(action);
+                if (advance()) {
+                    action.accept(next());
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super R> action) {
+                Objects.requireNonNull(action);
+                long sa = aSpliterator.getExactSizeIfKnown(), sb = bSpliterator.getExactSizeIfKnown();
+                // The shorter spliterator drives, the other can't run out
+                if (sa >= 0 && sb >= 0 && sa <= sb) {
+                    aSpliterator.forEachRemaining(a -> {
+                        bSpliterator.tryAdvance(setB);
+                        B b = bElement;
+                        bElement = null;
+                        action.accept(zipper.apply(a, b));
+                    });
+                }
+                else if (sa >= 0 && sb >= 0) {
+                    bSpliterator.forEachRemaining(b -> {
+                        aSpliterator.tryAdvance(setA);
+                        A a = aElement;
+                        aElement = null;
+                        action.accept(zipper.apply(a, b));
+                    });
+                }
+                else {
+                    while (advance()) {
+                        action.accept(next());
+                    }
+                }
+            }
+        }
+
+        static final class OfInt extends ZipSpliterator<Integer, Spliterator.OfInt, Spliterator.OfInt, Spliterator.OfInt>
+                implements Spliterator.OfInt {
+            private final IntBinaryOperator zipper;
+            private int aElement;
+            private int bElement;
+            private final IntConsumer setA = a -> aElement = a;
+            private final IntConsumer setB = b -> bElement = b;
+
+            OfInt(Spliterator.OfInt aSpliterator, Spliterator.OfInt bSpliterator, IntBinaryOperator zipper) {
+                super(aSpliterator, bSpliterator, Spliterator.NONNULL);
+                this.zipper = zipper;
+            }
+
+            @Override
+            Spliterator.OfInt zip(Spliterator.OfInt a, Spliterator.OfInt b) {
+                return new ZipSpliterator.OfInt(a, b, zipper);
+            }
+
+            @Override
+            Spliterator.OfInt concatA(Spliterator.OfInt first, Spliterator.OfInt second) {
+                return new ConcatSpliterator.OfInt(first, second);
+            }
+
+            @Override
+            Spliterator.OfInt concatB(Spliterator.OfInt first, Spliterator.OfInt second) {
+                return new ConcatSpliterator.OfInt(first, second);
+            }
+
+            @Override
+            Spliterator.OfInt copy(int n) {
+                int[] array = new int[n];
+                int j = 0;
+                while (j < n && advance()) {
+                    array[j++] = zipper.applyAsInt(aElement, bElement);
+                }
+                return (j > 0) ? Spliterators.spliterator(array, 0, j, characteristics()) : null;
+            }
+
+            private boolean advance() {
+                return aSpliterator.tryAdvance(setA) && bSpliterator.tryAdvance(setB);
+            }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                Objects.requireNonNull(action);
+                if (advance()) {
+                    action.accept(zipper.applyAsInt(aElement, bElement));
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Integer> action) {
+                return Spliterators.OfInt.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(IntConsumer action) {
+                Objects.requireNonNull(action);
+                long sa = aSpliterator.getExactSizeIfKnown(), sb = bSpliterator.getExactSizeIfKnown();
+                // The shorter spliterator drives, the other can't run out
+                if (sa >= 0 && sb >= 0 && sa <= sb) {
+                    aSpliterator.forEachRemaining((int a) -> {
+                        bSpliterator.tryAdvance(setB);
+                        action.accept(zipper.applyAsInt(a, bElement));
+                    });
+                }
+                else if (sa >= 0 && sb >= 0) {
+                    bSpliterator.forEachRemaining((int b) -> {
+                        aSpliterator.tryAdvance(setA);
+                        action.accept(zipper.applyAsInt(aElement, b));
+                    });
+                }
+                else {
+                    while (advance()) {
+                        action.accept(zipper.applyAsInt(aElement, bElement));
+                    }
+                }
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Integer> action) {
+                Spliterators.OfInt.forEachRemaining(this, action);
+            }
+        }
+
+        static final class OfLong extends ZipSpliterator<Long, Spliterator.OfLong, Spliterator.OfLong, Spliterator.OfLong>
+                implements Spliterator.OfLong {
+            private final LongBinaryOperator zipper;
+            private long aElement;
+            private long bElement;
+            private final LongConsumer setA = a -> aElement = a;
+            private final LongConsumer setB = b -> bElement = b;
+
+            OfLong(Spliterator.OfLong aSpliterator, Spliterator.OfLong bSpliterator, LongBinaryOperator zipper) {
+                super(aSpliterator, bSpliterator, Spliterator.NONNULL);
+                this.zipper = zipper;
+            }
+
+            @Override
+            Spliterator.OfLong zip(Spliterator.OfLong a, Spliterator.OfLong b) {
+                return new ZipSpliterator.OfLong(a, b, zipper);
+            }
+
+            @Override
+            Spliterator.OfLong concatA(Spliterator.OfLong first, Spliterator.OfLong second) {
+                return new ConcatSpliterator.OfLong(first, second);
+            }
+
+            @Override
+            Spliterator.OfLong concatB(Spliterator.OfLong first, Spliterator.OfLong second) {
+                return new ConcatSpliterator.OfLong(first, second);
+            }
+
+            @Override
+            Spliterator.OfLong copy(int n) {
+                long[] array = new long[n];
+                int j = 0;
+                while (j < n && advance()) {
+                    array[j++] = zipper.applyAsLong(aElement, bElement);
+                }
+                return (j > 0) ? Spliterators.spliterator(array, 0, j, characteristics()) : null;
+            }
+
+            private boolean advance() {
+                return aSpliterator.tryAdvance(setA) && bSpliterator.tryAdvance(setB);
+            }
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                Objects.requireNonNull(action);
+                if (advance()) {
+                    action.accept(zipper.applyAsLong(aElement, bElement));
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                return Spliterators.OfLong.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(LongConsumer action) {
+                Objects.requireNonNull(action);
+                long sa = aSpliterator.getExactSizeIfKnown(), sb = bSpliterator.getExactSizeIfKnown();
+                // The shorter spliterator drives, the other can't run out
+                if (sa >= 0 && sb >= 0 && sa <= sb) {
+                    aSpliterator.forEachRemaining((long a) -> {
+                        bSpliterator.tryAdvance(setB);
+                        action.accept(zipper.applyAsLong(a, bElement));
+                    });
+                }
+                else if (sa >= 0 && sb >= 0) {
+                    bSpliterator.forEachRemaining((long b) -> {
+                        aSpliterator.tryAdvance(setA);
+                        action.accept(zipper.applyAsLong(aElement, b));
+                    });
+                }
+                else {
+                    while (advance()) {
+                        action.accept(zipper.applyAsLong(aElement, bElement));
+                    }
+                }
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Long> action) {
+                Spliterators.OfLong.forEachRemaining(this, action);
+            }
+        }
+
+        static final class OfDouble extends ZipSpliterator<Double, Spliterator.OfDouble, Spliterator.OfDouble, Spliterator.OfDouble>
+                implements Spliterator.OfDouble {
+            private final DoubleBinaryOperator zipper;
+            private double aElement;
+            private double bElement;
+            private final DoubleConsumer setA = a -> aElement = a;
+            private final DoubleConsumer setB = b -> bElement = b;
+
+            OfDouble(Spliterator.OfDouble aSpliterator, Spliterator.OfDouble bSpliterator, DoubleBinaryOperator zipper) {
+                super(aSpliterator, bSpliterator, Spliterator.NONNULL);
+                this.zipper = zipper;
+            }
+
+            @Override
+            Spliterator.OfDouble zip(Spliterator.OfDouble a, Spliterator.OfDouble b) {
+                return new ZipSpliterator.OfDouble(a, b, zipper);
+            }
+
+            @Override
+            Spliterator.OfDouble concatA(Spliterator.OfDouble first, Spliterator.OfDouble second) {
+                return new ConcatSpliterator.OfDouble(first, second);
+            }
+
+            @Override
+            Spliterator.OfDouble concatB(Spliterator.OfDouble first, Spliterator.OfDouble second) {
+                return new ConcatSpliterator.OfDouble(first, second);
+            }
+
+            @Override
+            Spliterator.OfDouble copy(int n) {
+                double[] array = new double[n];
+                int j = 0;
+                while (j < n && advance()) {
+                    array[j++] = zipper.applyAsDouble(aElement, bElement);
+                }
+                return (j > 0) ? Spliterators.spliterator(array, 0, j, characteristics()) : null;
+            }
+
+            private boolean advance() {
+                return aSpliterator.tryAdvance(setA) && bSpliterator.tryAdvance(setB);
+            }
+
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                Objects.requireNonNull(action);
+                if (advance()) {
+                    action.accept(zipper.applyAsDouble(aElement, bElement));
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Double> action) {
+                return Spliterators.OfDouble.tryAdvance(this, action);
+            }
+
+            @Override
+            public void forEachRemaining(DoubleConsumer action) {
+                Objects.requireNonNull(action);
+                long sa = aSpliterator.getExactSizeIfKnown(), sb = bSpliterator.getExactSizeIfKnown();
+                // The shorter spliterator drives, the other can't run out
+                if (sa >= 0 && sb >= 0 && sa <= sb) {
+                    aSpliterator.forEachRemaining((double a) -> {
+                        bSpliterator.tryAdvance(setB);
+                        action.accept(zipper.applyAsDouble(a, bElement));
+                    });
+                }
+                else if (sa >= 0 && sb >= 0) {
+                    bSpliterator.forEachRemaining((double b) -> {
+                        aSpliterator.tryAdvance(setA);
+                        action.accept(zipper.applyAsDouble(aElement, b));
+                    });
+                }
+                else {
+                    while (advance()) {
+                        action.accept(zipper.applyAsDouble(aElement, bElement));
+                    }
+                }
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Double> action) {
+                Spliterators.OfDouble.forEachRemaining(this, action);
+            }
+        }
+    }
+
     /**
      * Given two Runnables, return a Runnable that executes both in sequence,
      * even if the first throws an exception, and if both throw exceptions, add
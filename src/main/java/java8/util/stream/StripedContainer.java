@@ -0,0 +1,173 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java8.util.function.BiConsumer;
+import java8.util.function.BinaryOperator;
+import java8.util.function.Supplier;
+
+/**
+ * A set of result containers of a non-concurrent collector that can be
+ * accumulated into by many threads at once.  This is the value type of the
+ * intermediate map of the collectors returned by
+ * {@code Collectors.groupingByConcurrentStriped()}.
+ *
+ * <p>Like the cells of {@code Striped64}, the containers are kept in a table
+ * whose size is a power of two and which is indexed with a per-thread hash.
+ * Each container is guarded by a spin flag that is only ever tried, never
+ * waited for: a thread that finds its container busy moves on to another
+ * slot, and the table is doubled (up to the number of CPUs) when threads keep
+ * colliding.  The table starts out with a single container, so a key that is
+ * only ever updated by one thread at a time costs one uncontended CAS per
+ * element, and only hot keys grow more containers.  The containers are
+ * combined once accumulation is over.
+ *
+ * @param <A> the type of the result containers
+ */
+final class StripedContainer<A> {
+    /** Number of CPUS, to place bound on table size */
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The per-thread hash, in a one-element array so that a rehash after a
+     * collision is kept for the next element, like the Thread probe field
+     * of {@code Striped64}.  Shared by all instances.
+     */
+    private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[] {initialProbe()};
+        }
+    };
+
+    /**
+     * A result container with the flag that gives a thread exclusive access
+     * to it: 0 when free, 1 when taken.
+     */
+    @SuppressWarnings("serial")
+    static final class Cell<A> extends AtomicInteger {
+        final A container;
+
+        Cell(A container) {
+            this.container = container;
+        }
+    }
+
+    private final Supplier<A> supplier;
+    // Slots are populated and the table is resized while holding the lock
+    // on this object, which only happens on contention
+    private volatile Cell<A>[] cells;
+
+    @SuppressWarnings("unchecked")
+    StripedContainer(Supplier<A> supplier) {
+        this.supplier = supplier;
+        Cell<A>[] cs = (Cell<A>[]) new Cell<?>[1];
+        cs[0] = new Cell<>(supplier.get());
+        this.cells = cs;
+    }
+
+    /**
+     * Returns the initial hash of the current thread, spread with the
+     * golden ratio so that consecutive thread ids hit different slots.
+     */
+    private static int initialProbe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h != 0) ? h : 1;
+    }
+
+    /**
+     * Returns the current hash of the calling thread.
+     */
+    static int probe() {
+        return PROBE.get()[0];
+    }
+
+    /**
+     * Accumulates the element into one of the containers, which no other
+     * thread uses while the accumulator runs.
+     */
+    <T> void accumulate(BiConsumer<A, ? super T> accumulator, T t) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        boolean collide = false;
+        for (;;) {
+            Cell<A>[] cs = cells;
+            int n = cs.length;
+            Cell<A> c = cs[h & (n - 1)];
+            if (c == null) {
+                // a slot of a grown table that has not been used yet
+                synchronized (this) {
+                    Cell<A>[] rs = cells;
+                    int j = h & (rs.length - 1);
+                    if (rs[j] == null) {
+                        rs[j] = new Cell<>(supplier.get());
+                    }
+                }
+                continue;
+            }
+            if (c.compareAndSet(0, 1)) {
+                try {
+                    accumulator.accept(c.container, t);
+                } finally {
+                    c.set(0);
+                }
+                return;
+            }
+            if (n >= NCPU) {
+                collide = false; // at max size
+            } else if (!collide) {
+                collide = true;
+            } else {
+                grow(cs);
+                collide = false;
+                continue;
+            }
+            h ^= h << 13; // Rehash
+            h ^= h >>> 17;
+            h ^= h << 5;
+            probe[0] = h;
+        }
+    }
+
+    private synchronized void grow(Cell<A>[] cs) {
+        if (cells == cs) {
+            cells = Arrays.copyOf(cs, cs.length << 1);
+        }
+    }
+
+    /**
+     * Folds the containers of the other instance into this one.  Must not
+     * be called concurrently with {@link #accumulate}.
+     */
+    StripedContainer<A> merge(StripedContainer<A> other, BinaryOperator<A> combiner) {
+        Cell<A> first = cells[0];
+        A result = combiner.apply(first.container, other.combine(combiner));
+        if (result != first.container) {
+            cells[0] = new Cell<>(result);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the combination of all containers.  Must not be called
+     * concurrently with {@link #accumulate}.
+     */
+    A combine(BinaryOperator<A> combiner) {
+        Cell<A>[] cs = cells;
+        A result = cs[0].container;
+        for (int i = 1; i < cs.length; i++) {
+            Cell<A> c = cs[i];
+            if (c != null) {
+                result = combiner.apply(result, c.container);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,683 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import java8.util.Objects;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.function.Consumer;
+import java8.util.function.IntFunction;
+
+/**
+ * Factory for instances of stateful intermediate operations that group the
+ * elements of a stream into fixed or sliding windows.
+ *
+ * <p>Windows of a reference stream are unmodifiable {@code List}s, windows
+ * of a primitive stream are primitive arrays.  Sequentially the elements
+ * are accumulated into a buffer that grows up to the window size; a sliding
+ * window reuses that buffer as a ring and only copies it out when emitting.
+ *
+ * <p>In parallel the upstream elements are first collected into a flat
+ * array, exactly sized and filled in parallel if the upstream is
+ * {@code SIZED}.  The windows are then produced by a spliterator that splits
+ * on window indexes, so that the source ranges of adjacent chunks overlap
+ * for sliding windows and no window is lost at a chunk edge.
+ */
+final class WindowOps {
+
+    private static final int FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT
+                                     | StreamOpFlag.NOT_SIZED;
+
+    // Capacity of the first buffer if the upstream size is unknown
+    private static final int INITIAL_CAPACITY = 16;
+
+    private WindowOps() {
+    }
+
+    /**
+     * Collects the windows produced by the given spliterator in parallel.
+     * The nested evaluation is bound to the pool and the cancellation token
+     * of the pipeline, so that it doesn't escape to the common pool.
+     */
+    private static <W> Node<W> collectWindows(PipelineHelper<?> helper, Spliterator<W> windows,
+                                              IntFunction<W[]> generator) {
+        ForkJoinPool pool = helper.boundPool();
+        Stream<W> stream = (pool != null) ? StreamSupport.stream(windows, pool)
+                                          : StreamSupport.stream(windows, true);
+        CancellationToken token = helper.cancellationToken();
+        if (token != null) {
+            stream = StreamSupport.withCancellation(stream, token);
+        }
+        return Nodes.node(stream.toArray(generator));
+    }
+
+    /**
+     * Appends a "windowFixed" or "windowSliding" operation to the provided
+     * stream.
+     *
+     * @param <T> the type of input elements
+     * @param upstream a reference stream with element type T
+     * @param windowSize the size of the windows
+     * @param sliding {@code true} for sliding windows, {@code false} for
+     *        fixed windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    static <T> Stream<List<T>> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       final int windowSize, final boolean sliding) {
+        checkWindowSize(windowSize);
+        return new ReferencePipeline.StatefulOp<T, List<T>>(upstream, StreamShape.REFERENCE, FLAGS) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+                return new RefWindowSink<>(sink, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Spliterator<List<T>> opEvaluateParallelLazy(PipelineHelper<List<T>> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                @SuppressWarnings("unchecked")
+                PipelineHelper<T> upstreamHelper = (PipelineHelper<T>) (PipelineHelper<?>) helper;
+                Object[] array = upstreamHelper.evaluate(spliterator, true, Nodes.<T>castingArray())
+                        .asArray(Nodes.<T>castingArray());
+                return new WindowSpliterator.OfRef<>(array, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Node<List<T>> opEvaluateParallel(PipelineHelper<List<T>> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<List<T>[]> generator) {
+                return collectWindows(helper, opEvaluateParallelLazy(helper, spliterator), generator);
+            }
+        };
+    }
+
+    /**
+     * Appends a "windowFixed" or "windowSliding" operation to the provided
+     * stream.
+     *
+     * @param upstream an IntStream
+     * @param windowSize the size of the windows
+     * @param sliding {@code true} for sliding windows, {@code false} for
+     *        fixed windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    static Stream<int[]> makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                                 final int windowSize, final boolean sliding) {
+        checkWindowSize(windowSize);
+        return new ReferencePipeline.StatefulOp<Integer, int[]>(upstream, StreamShape.INT_VALUE, FLAGS) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<int[]> sink) {
+                return new IntWindowSink(sink, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Spliterator<int[]> opEvaluateParallelLazy(PipelineHelper<int[]> helper,
+                                                             Spliterator<P_IN> spliterator) {
+                @SuppressWarnings("unchecked")
+                PipelineHelper<Integer> upstreamHelper = (PipelineHelper<Integer>) (PipelineHelper<?>) helper;
+                int[] array = ((Node.OfInt) upstreamHelper.evaluate(spliterator, true, Integer[]::new))
+                        .asPrimitiveArray();
+                return new WindowSpliterator.OfInt(array, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Node<int[]> opEvaluateParallel(PipelineHelper<int[]> helper,
+                                                  Spliterator<P_IN> spliterator,
+                                                  IntFunction<int[][]> generator) {
+                return collectWindows(helper, opEvaluateParallelLazy(helper, spliterator), generator);
+            }
+        };
+    }
+
+    /**
+     * Appends a "windowFixed" or "windowSliding" operation to the provided
+     * stream.
+     *
+     * @param upstream a LongStream
+     * @param windowSize the size of the windows
+     * @param sliding {@code true} for sliding windows, {@code false} for
+     *        fixed windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    static Stream<long[]> makeLong(AbstractPipeline<?, Long, ?> upstream,
+                                   final int windowSize, final boolean sliding) {
+        checkWindowSize(windowSize);
+        return new ReferencePipeline.StatefulOp<Long, long[]>(upstream, StreamShape.LONG_VALUE, FLAGS) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<long[]> sink) {
+                return new LongWindowSink(sink, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Spliterator<long[]> opEvaluateParallelLazy(PipelineHelper<long[]> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                @SuppressWarnings("unchecked")
+                PipelineHelper<Long> upstreamHelper = (PipelineHelper<Long>) (PipelineHelper<?>) helper;
+                long[] array = ((Node.OfLong) upstreamHelper.evaluate(spliterator, true, Long[]::new))
+                        .asPrimitiveArray();
+                return new WindowSpliterator.OfLong(array, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Node<long[]> opEvaluateParallel(PipelineHelper<long[]> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<long[][]> generator) {
+                return collectWindows(helper, opEvaluateParallelLazy(helper, spliterator), generator);
+            }
+        };
+    }
+
+    /**
+     * Appends a "windowFixed" or "windowSliding" operation to the provided
+     * stream.
+     *
+     * @param upstream a DoubleStream
+     * @param windowSize the size of the windows
+     * @param sliding {@code true} for sliding windows, {@code false} for
+     *        fixed windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    static Stream<double[]> makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                       final int windowSize, final boolean sliding) {
+        checkWindowSize(windowSize);
+        return new ReferencePipeline.StatefulOp<Double, double[]>(upstream, StreamShape.DOUBLE_VALUE, FLAGS) {
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<double[]> sink) {
+                return new DoubleWindowSink(sink, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Spliterator<double[]> opEvaluateParallelLazy(PipelineHelper<double[]> helper,
+                                                                Spliterator<P_IN> spliterator) {
+                @SuppressWarnings("unchecked")
+                PipelineHelper<Double> upstreamHelper = (PipelineHelper<Double>) (PipelineHelper<?>) helper;
+                double[] array = ((Node.OfDouble) upstreamHelper.evaluate(spliterator, true, Double[]::new))
+                        .asPrimitiveArray();
+                return new WindowSpliterator.OfDouble(array, windowSize, sliding);
+            }
+
+            @Override
+            <P_IN> Node<double[]> opEvaluateParallel(PipelineHelper<double[]> helper,
+                                                     Spliterator<P_IN> spliterator,
+                                                     IntFunction<double[][]> generator) {
+                return collectWindows(helper, opEvaluateParallelLazy(helper, spliterator), generator);
+            }
+        };
+    }
+
+    private static void checkWindowSize(int windowSize) {
+        if (windowSize < 1)
+            throw new IllegalArgumentException("'windowSize' must be greater than zero");
+    }
+
+    /**
+     * Returns the number of windows for the given number of elements, or -1
+     * if the number of elements is unknown.
+     */
+    static long windowCount(long size, int windowSize, boolean sliding) {
+        if (size < 0)
+            return -1;
+        else if (sliding)
+            return (size == 0) ? 0 : Math.max(1, size - windowSize + 1);
+        else
+            return size / windowSize + (size % windowSize == 0 ? 0 : 1);
+    }
+
+    /**
+     * Returns the capacity of the first buffer, no larger than the window
+     * size nor than the number of elements, if known.
+     */
+    static int initialCapacity(long size, int windowSize) {
+        return (int) Math.min(windowSize, (size >= 0) ? size : INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the capacity of a grown buffer, no larger than the window size.
+     */
+    static int newCapacity(int capacity, int windowSize) {
+        return (int) Math.min(windowSize, Math.max(INITIAL_CAPACITY, (long) capacity << 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> list(Object[] window) {
+        return Collections.unmodifiableList(Arrays.asList((T[]) window));
+    }
+
+    // Sinks
+
+    /**
+     * {@code Sink} grouping reference elements into windows.  Until the
+     * first window is complete the buffer grows up to the window size.  Fixed
+     * windows hand the full buffer downstream and start a new one; sliding
+     * windows then use the buffer as a ring, {@code pos} being the index of
+     * the least recent element.
+     */
+    private static final class RefWindowSink<T> extends Sink.ChainedReference<T, List<T>> {
+        private final int windowSize;
+        private final boolean sliding;
+        private Object[] window;
+        private int pos;
+        // True once the buffer held a complete sliding window
+        private boolean full;
+
+        RefWindowSink(Sink<? super List<T>> downstream, int windowSize, boolean sliding) {
+            super(downstream);
+            this.windowSize = windowSize;
+            this.sliding = sliding;
+        }
+
+        @Override
+        public void begin(long size) {
+            window = new Object[initialCapacity(size, windowSize)];
+            pos = 0;
+            full = false;
+            downstream.begin(windowCount(size, windowSize, sliding));
+        }
+
+        @Override
+        public void accept(T t) {
+            if (pos == window.length)
+                window = Arrays.copyOf(window, newCapacity(pos, windowSize));
+            window[pos++] = t;
+            if (pos == windowSize) {
+                pos = 0;
+                if (!sliding) {
+                    downstream.accept(WindowOps.<T>list(window));
+                    window = new Object[windowSize];
+                    return;
+                }
+                full = true;
+            }
+            if (full) {
+                Object[] w = new Object[windowSize];
+                System.arraycopy(window, pos, w, 0, windowSize - pos);
+                System.arraycopy(window, 0, w, windowSize - pos, pos);
+                downstream.accept(WindowOps.<T>list(w));
+            }
+        }
+
+        @Override
+        public void end() {
+            // The remaining elements form the last fixed window, or the only
+            // sliding window if there are fewer elements than the window size
+            if (pos > 0 && !full && !downstream.cancellationRequested())
+                downstream.accept(WindowOps.<T>list(Arrays.copyOf(window, pos)));
+            window = null;
+            downstream.end();
+        }
+    }
+
+    /**
+     * {@code Sink} grouping int elements into windows.
+     *
+     * @see RefWindowSink
+     */
+    private static final class IntWindowSink extends Sink.ChainedInt<int[]> {
+        private final int windowSize;
+        private final boolean sliding;
+        private int[] window;
+        private int pos;
+        private boolean full;
+
+        IntWindowSink(Sink<? super int[]> downstream, int windowSize, boolean sliding) {
+            super(downstream);
+            this.windowSize = windowSize;
+            this.sliding = sliding;
+        }
+
+        @Override
+        public void begin(long size) {
+            window = new int[initialCapacity(size, windowSize)];
+            pos = 0;
+            full = false;
+            downstream.begin(windowCount(size, windowSize, sliding));
+        }
+
+        @Override
+        public void accept(int t) {
+            if (pos == window.length)
+                window = Arrays.copyOf(window, newCapacity(pos, windowSize));
+            window[pos++] = t;
+            if (pos == windowSize) {
+                pos = 0;
+                if (!sliding) {
+                    downstream.accept(window);
+                    window = new int[windowSize];
+                    return;
+                }
+                full = true;
+            }
+            if (full) {
+                int[] w = new int[windowSize];
+                System.arraycopy(window, pos, w, 0, windowSize - pos);
+                System.arraycopy(window, 0, w, windowSize - pos, pos);
+                downstream.accept(w);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (pos > 0 && !full && !downstream.cancellationRequested())
+                downstream.accept(Arrays.copyOf(window, pos));
+            window = null;
+            downstream.end();
+        }
+    }
+
+    /**
+     * {@code Sink} grouping long elements into windows.
+     *
+     * @see RefWindowSink
+     */
+    private static final class LongWindowSink extends Sink.ChainedLong<long[]> {
+        private final int windowSize;
+        private final boolean sliding;
+        private long[] window;
+        private int pos;
+        private boolean full;
+
+        LongWindowSink(Sink<? super long[]> downstream, int windowSize, boolean sliding) {
+            super(downstream);
+            this.windowSize = windowSize;
+            this.sliding = sliding;
+        }
+
+        @Override
+        public void begin(long size) {
+            window = new long[initialCapacity(size, windowSize)];
+            pos = 0;
+            full = false;
+            downstream.begin(windowCount(size, windowSize, sliding));
+        }
+
+        @Override
+        public void accept(long t) {
+            if (pos == window.length)
+                window = Arrays.copyOf(window, newCapacity(pos, windowSize));
+            window[pos++] = t;
+            if (pos == windowSize) {
+                pos = 0;
+                if (!sliding) {
+                    downstream.accept(window);
+                    window = new long[windowSize];
+                    return;
+                }
+                full = true;
+            }
+            if (full) {
+                long[] w = new long[windowSize];
+                System.arraycopy(window, pos, w, 0, windowSize - pos);
+                System.arraycopy(window, 0, w, windowSize - pos, pos);
+                downstream.accept(w);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (pos > 0 && !full && !downstream.cancellationRequested())
+                downstream.accept(Arrays.copyOf(window, pos));
+            window = null;
+            downstream.end();
+        }
+    }
+
+    /**
+     * {@code Sink} grouping double elements into windows.
+     *
+     * @see RefWindowSink
+     */
+    private static final class DoubleWindowSink extends Sink.ChainedDouble<double[]> {
+        private final int windowSize;
+        private final boolean sliding;
+        private double[] window;
+        private int pos;
+        private boolean full;
+
+        DoubleWindowSink(Sink<? super double[]> downstream, int windowSize, boolean sliding) {
+            super(downstream);
+            this.windowSize = windowSize;
+            this.sliding = sliding;
+        }
+
+        @Override
+        public void begin(long size) {
+            window = new double[initialCapacity(size, windowSize)];
+            pos = 0;
+            full = false;
+            downstream.begin(windowCount(size, windowSize, sliding));
+        }
+
+        @Override
+        public void accept(double t) {
+            if (pos == window.length)
+                window = Arrays.copyOf(window, newCapacity(pos, windowSize));
+            window[pos++] = t;
+            if (pos == windowSize) {
+                pos = 0;
+                if (!sliding) {
+                    downstream.accept(window);
+                    window = new double[windowSize];
+                    return;
+                }
+                full = true;
+            }
+            if (full) {
+                double[] w = new double[windowSize];
+                System.arraycopy(window, pos, w, 0, windowSize - pos);
+                System.arraycopy(window, 0, w, windowSize - pos, pos);
+                downstream.accept(w);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (pos > 0 && !full && !downstream.cancellationRequested())
+                downstream.accept(Arrays.copyOf(window, pos));
+            window = null;
+            downstream.end();
+        }
+    }
+
+    // Spliterators
+
+    /**
+     * A {@code Spliterator} over the windows of an array of elements.
+     * Splitting is done on window indexes, window {@code i} spans the source
+     * range {@code [i * windowSize, (i + 1) * windowSize)} for fixed windows
+     * and {@code [i, i + windowSize)} for sliding windows, bounded by the
+     * array length.
+     *
+     * @param <W> the type of windows
+     */
+    abstract static class WindowSpliterator<W> implements Spliterator<W> {
+        final int length;
+        final int windowSize;
+        final boolean sliding;
+        int index; // current window index, modified on advance/split
+        final int fence; // one past the last window index
+
+        WindowSpliterator(int length, int windowSize, boolean sliding, int index, int fence) {
+            this.length = length;
+            this.windowSize = windowSize;
+            this.sliding = sliding;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        /**
+         * Returns a new window holding the elements in the given range.
+         */
+        abstract W window(int from, int to);
+
+        /**
+         * Returns a spliterator over the same array for the given range of
+         * window indexes.
+         */
+        abstract WindowSpliterator<W> makeSpliterator(int index, int fence);
+
+        private W window(int i) {
+            long from = sliding ? i : (long) i * windowSize;
+            return window((int) from, (int) Math.min(from + windowSize, length));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super W> action) {
+            Objects.requireNonNull(action);
+            if (index < fence) {
+                action.accept(window(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super W> action) {
+            Objects.requireNonNull(action);
+            int i = index, hi = fence;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(window(i));
+            }
+        }
+
+        @Override
+        public Spliterator<W> trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid) ? null : makeSpliterator(lo, index = mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                   | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return Spliterators.getExactSizeIfKnown(this);
+        }
+
+        @Override
+        public boolean hasCharacteristics(int characteristics) {
+            return Spliterators.hasCharacteristics(this, characteristics);
+        }
+
+        @Override
+        public Comparator<? super W> getComparator() {
+            throw new IllegalStateException();
+        }
+
+        static final class OfRef<T> extends WindowSpliterator<List<T>> {
+            private final Object[] array;
+
+            OfRef(Object[] array, int windowSize, boolean sliding) {
+                this(array, windowSize, sliding, 0,
+                     (int) windowCount(array.length, windowSize, sliding));
+            }
+
+            private OfRef(Object[] array, int windowSize, boolean sliding, int index, int fence) {
+                super(array.length, windowSize, sliding, index, fence);
+                this.array = array;
+            }
+
+            @Override
+            List<T> window(int from, int to) {
+                return WindowOps.<T>list(Arrays.copyOfRange(array, from, to));
+            }
+
+            @Override
+            WindowSpliterator<List<T>> makeSpliterator(int index, int fence) {
+                return new OfRef<>(array, windowSize, sliding, index, fence);
+            }
+        }
+
+        static final class OfInt extends WindowSpliterator<int[]> {
+            private final int[] array;
+
+            OfInt(int[] array, int windowSize, boolean sliding) {
+                this(array, windowSize, sliding, 0,
+                     (int) windowCount(array.length, windowSize, sliding));
+            }
+
+            private OfInt(int[] array, int windowSize, boolean sliding, int index, int fence) {
+                super(array.length, windowSize, sliding, index, fence);
+                this.array = array;
+            }
+
+            @Override
+            int[] window(int from, int to) {
+                return Arrays.copyOfRange(array, from, to);
+            }
+
+            @Override
+            WindowSpliterator<int[]> makeSpliterator(int index, int fence) {
+                return new OfInt(array, windowSize, sliding, index, fence);
+            }
+        }
+
+        static final class OfLong extends WindowSpliterator<long[]> {
+            private final long[] array;
+
+            OfLong(long[] array, int windowSize, boolean sliding) {
+                this(array, windowSize, sliding, 0,
+                     (int) windowCount(array.length, windowSize, sliding));
+            }
+
+            private OfLong(long[] array, int windowSize, boolean sliding, int index, int fence) {
+                super(array.length, windowSize, sliding, index, fence);
+                this.array = array;
+            }
+
+            @Override
+            long[] window(int from, int to) {
+                return Arrays.copyOfRange(array, from, to);
+            }
+
+            @Override
+            WindowSpliterator<long[]> makeSpliterator(int index, int fence) {
+                return new OfLong(array, windowSize, sliding, index, fence);
+            }
+        }
+
+        static final class OfDouble extends WindowSpliterator<double[]> {
+            private final double[] array;
+
+            OfDouble(double[] array, int windowSize, boolean sliding) {
+                this(array, windowSize, sliding, 0,
+                     (int) windowCount(array.length, windowSize, sliding));
+            }
+
+            private OfDouble(double[] array, int windowSize, boolean sliding, int index, int fence) {
+                super(array.length, windowSize, sliding, index, fence);
+                this.array = array;
+            }
+
+            @Override
+            double[] window(int from, int to) {
+                return Arrays.copyOfRange(array, from, to);
+            }
+
+            @Override
+            WindowSpliterator<double[]> makeSpliterator(int index, int fence) {
+                return new OfDouble(array, windowSize, sliding, index, fence);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.nio;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import java8.util.Spliterator;
+import java8.util.stream.Collectors;
+import java8.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class LinesTest {
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final List<File> files = new ArrayList<>();
+
+    @AfterClass
+    public void deleteFiles() {
+        for (File f : files) {
+            f.delete();
+        }
+    }
+
+    private File write(String content, Charset cs) throws IOException {
+        File f = File.createTempFile("lines", ".txt");
+        files.add(f);
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(content.getBytes(cs.name()));
+        } finally {
+            out.close();
+        }
+        return f;
+    }
+
+    static List<String> readLines(String content) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader r = new BufferedReader(new StringReader(content));
+        for (String line; (line = r.readLine()) != null; ) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    static String bigContent() {
+        StringBuilder sb = new StringBuilder();
+        String[] terminators = {"\n", "\r", "\r\n", "\n\n", "\r\r\n"};
+        for (int i = 0; i < 20_000; i++) {
+            sb.append("line ").append(i);
+            if (i % 7 == 0) {
+                sb.append(" \u00e4\u20ac\ud83d\ude00");
+            }
+            sb.append(terminators[i % terminators.length]);
+        }
+        return sb.append("no terminator").toString();
+    }
+
+    @DataProvider(name = "contents")
+    public Object[][] contents() {
+        return new Object[][] {
+            {""}, {"\n"}, {"\r\n"}, {"a"}, {"a\n"}, {"a\nb"}, {"\r\r"}, {"a\r\nb\r\n\r\n"},
+            {"\u00fcber\nstra\u00dfe\r\u20ac"}, {bigContent()}
+        };
+    }
+
+    @Test(dataProvider = "contents")
+    public void testLines(String content) throws IOException {
+        List<String> expected = readLines(content);
+        File f = write(content, UTF_8);
+        for (boolean parallel : new boolean[] {false, true}) {
+            Stream<String> lines = Lines.of(f);
+            try {
+                assertEquals((parallel ? lines.parallel() : lines).collect(Collectors.toList()), expected);
+            } finally {
+                lines.close();
+            }
+        }
+    }
+
+    @Test(dataProvider = "contents")
+    public void testSplitsAndWindows(String content) throws IOException {
+        List<String> expected = readLines(content);
+        File f = write(content, UTF_8);
+        FileChannel fc = new RandomAccessFile(f, "r").getChannel();
+        try {
+            // every window is a separate mapping, so keep their number low
+            int[] windows = content.length() < 100 ? new int[] {1, 2, 3, 64}
+                                                   : new int[] {4096, LinesSpliterator.WINDOW};
+            for (int window : windows) {
+                List<String> actual = new ArrayList<>();
+                collectSplits(new LinesSpliterator(fc, UTF_8, 0, fc.size(), window), actual, 0);
+                assertEquals(actual, expected, "window " + window);
+            }
+        } finally {
+            fc.close();
+        }
+    }
+
+    // splits as deep as possible, then traverses in encounter order
+    private static void collectSplits(Spliterator<String> s, List<String> lines, int depth) {
+        Spliterator<String> prefix = depth < 8 ? s.trySplit() : null;
+        if (prefix != null) {
+            collectSplits(prefix, lines, depth + 1);
+            collectSplits(s, lines, depth + 1);
+        } else {
+            // traverse one line with tryAdvance, the rest in bulk
+            s.tryAdvance(lines::add);
+            assertNull(s.trySplit());
+            s.forEachRemaining(lines::add);
+        }
+    }
+
+    public void testChannelPosition() throws IOException {
+        File f = write("skip\nfirst\nsecond", UTF_8);
+        FileChannel fc = new RandomAccessFile(f, "r").getChannel();
+        try {
+            fc.position(5);
+            assertEquals(Lines.of(fc).collect(Collectors.toList()), readLines("first\nsecond"));
+            assertEquals(fc.position(), 5L);
+            assertTrue(fc.isOpen());
+        } finally {
+            fc.close();
+        }
+    }
+
+    public void testOtherCharsets() throws IOException {
+        String content = "eins\r\nzwei\n\u00e4\u00f6\u00fc";
+        for (String name : new String[] {"ISO-8859-1", "UTF-16", "UTF-16LE"}) {
+            Charset cs = Charset.forName(name);
+            File f = write(content, cs);
+            Stream<String> lines = Lines.of(f, cs);
+            try {
+                assertEquals(lines.parallel().collect(Collectors.toList()), readLines(content));
+            } finally {
+                lines.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import java8.util.stream.IntStreams;
+import java8.util.stream.LongStreams;
+import java8.util.stream.StreamSupport;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class BufferSpliteratorsTest {
+
+    static final int SIZE = 1000;
+
+    static IntBuffer ints(boolean direct) {
+        IntBuffer b = direct
+                ? ByteBuffer.allocateDirect(4 * SIZE).order(ByteOrder.nativeOrder()).asIntBuffer()
+                : IntBuffer.allocate(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            b.put(i, i);
+        }
+        return b;
+    }
+
+    public void testIntBuffer() {
+        for (boolean direct : new boolean[] {false, true}) {
+            IntBuffer b = ints(direct);
+            b.position(10).limit(SIZE - 10);
+            IntBuffer view = b.slice();
+            SpliteratorTestHelper.testIntSpliterator(() -> Spliterators.spliterator(view));
+            SpliteratorTestHelper.testIntSpliterator(() -> Spliterators.spliterator(view.asReadOnlyBuffer()));
+
+            Spliterator.OfInt s = Spliterators.spliterator(b);
+            assertEquals(s.getExactSizeIfKnown(), SIZE - 20);
+            assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+            assertEquals(StreamSupport.intStream(s, true).sum(), IntStreams.range(10, SIZE - 10).sum());
+            // the buffer isn't touched
+            assertEquals(b.position(), 10);
+            assertEquals(b.limit(), SIZE - 10);
+        }
+    }
+
+    public void testLongBuffer() {
+        LongBuffer heap = LongBuffer.allocate(SIZE);
+        LongBuffer direct = ByteBuffer.allocateDirect(8 * SIZE).asLongBuffer();
+        for (int i = 0; i < SIZE; i++) {
+            heap.put(i, i * 3L);
+            direct.put(i, i * 3L);
+        }
+        for (LongBuffer b : new LongBuffer[] {heap, direct, direct.asReadOnlyBuffer()}) {
+            SpliteratorTestHelper.testLongSpliterator(() -> Spliterators.spliterator(b));
+            assertEquals(StreamSupport.longStream(Spliterators.spliterator(b), true).sum(),
+                         LongStreams.range(0, SIZE).map(l -> l * 3).sum());
+        }
+    }
+
+    public void testDoubleBuffer() {
+        DoubleBuffer heap = DoubleBuffer.allocate(SIZE);
+        DoubleBuffer direct = ByteBuffer.allocateDirect(8 * SIZE).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        for (int i = 0; i < SIZE; i++) {
+            heap.put(i, i / 2.0);
+            direct.put(i, i / 2.0);
+        }
+        for (DoubleBuffer b : new DoubleBuffer[] {heap, direct}) {
+            SpliteratorTestHelper.testDoubleSpliterator(() -> Spliterators.spliterator(b));
+            assertEquals(StreamSupport.doubleStream(Spliterators.spliterator(b), true).max().getAsDouble(),
+                         (SIZE - 1) / 2.0);
+        }
+    }
+
+    public void testByteBuffer() {
+        for (ByteBuffer b : new ByteBuffer[] {ByteBuffer.allocate(SIZE), ByteBuffer.allocateDirect(SIZE)}) {
+            for (int i = 0; i < SIZE; i++) {
+                b.put(i, (byte) i);
+            }
+            SpliteratorTestHelper.testIntSpliterator(() -> Spliterators.spliterator(b));
+            int[] bytes = StreamSupport.intStream(Spliterators.spliterator(b), true).toArray();
+            assertEquals(bytes.length, SIZE);
+            // sign extended
+            assertEquals(bytes[255], -1);
+            assertEquals(bytes[SIZE - 1], (byte) (SIZE - 1));
+        }
+    }
+
+    public void testEmpty() {
+        IntBuffer b = ints(true);
+        b.position(SIZE);
+        assertEquals(Spliterators.spliterator(b).estimateSize(), 0L);
+        assertEquals(StreamSupport.intStream(Spliterators.spliterator(b), false).count(), 0L);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+import java8.util.concurrent.CompletableFuture;
+import java8.util.concurrent.CompletionException;
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.ForkJoinWorkerThread;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class AsyncStreamsTest {
+
+    static final int SIZE = 100_000;
+
+    static List<Integer> range(int size) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    public void testResults() {
+        List<Integer> list = range(SIZE);
+        assertEquals(AsyncStreams.collectAsync(StreamSupport.parallelStream(list), Collectors.toList()).join(),
+                     list);
+        assertEquals(AsyncStreams.collectAsync(StreamSupport.stream(list), ArrayList<Integer>::new,
+                                               ArrayList::add, ArrayList::addAll).join(), list);
+        assertEquals(AsyncStreams.reduceAsync(StreamSupport.parallelStream(list).map(i -> (long) i), 0L,
+                                              Long::sum).join().longValue(), (long) SIZE * (SIZE - 1) / 2);
+        assertEquals(AsyncStreams.reduceAsync(StreamSupport.parallelStream(list), Math::max).join().get()
+                                 .intValue(), SIZE - 1);
+        assertFalse(AsyncStreams.reduceAsync(RefStreams.<Integer>empty(), Math::max).join().isPresent());
+        assertEquals(AsyncStreams.reduceAsync(IntStreams.range(0, SIZE).parallel(), 0, Math::max).join()
+                                 .intValue(), SIZE - 1);
+        assertEquals(AsyncStreams.reduceAsync(LongStreams.range(0, SIZE), 0L, (a, b) -> a + b).join()
+                                 .longValue(), (long) SIZE * (SIZE - 1) / 2);
+        assertEquals(AsyncStreams.reduceAsync(DoubleStreams.tabulate(SIZE, i -> 1.0).parallel(), 0.0,
+                                              (a, b) -> a + b).join(), (double) SIZE);
+
+        AtomicLong seen = new AtomicLong();
+        AsyncStreams.forEachAsync(StreamSupport.parallelStream(list), i -> seen.incrementAndGet()).join();
+        AsyncStreams.forEachAsync(IntStreams.range(0, SIZE).parallel(), i -> seen.incrementAndGet()).join();
+        AsyncStreams.forEachAsync(LongStreams.range(0, SIZE), i -> seen.incrementAndGet()).join();
+        AsyncStreams.forEachAsync(DoubleStreams.tabulate(SIZE, i -> i).parallel(), d -> seen.incrementAndGet())
+                    .join();
+        assertEquals(seen.get(), 4L * SIZE);
+    }
+
+    public void testDoesNotBlockCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> future = AsyncStreams.forEachAsync(IntStreams.range(0, 100).parallel(), i -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertFalse(future.isDone());
+        release.countDown();
+        assertEquals(future.get(30, TimeUnit.SECONDS), null);
+    }
+
+    public void testEvaluatesInBoundPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            AtomicBoolean foreign = new AtomicBoolean();
+            List<Integer> list = range(SIZE);
+            CompletableFuture<List<Integer>> future = AsyncStreams.collectAsync(
+                    StreamSupport.parallelStream(list, pool).peek(i -> {
+                        Thread t = Thread.currentThread();
+                        if (!(t instanceof ForkJoinWorkerThread) || ((ForkJoinWorkerThread) t).getPool() != pool) {
+                            foreign.set(true);
+                        }
+                    }), Collectors.toList());
+            assertEquals(future.get(30, TimeUnit.SECONDS), list);
+            assertFalse(foreign.get());
+            assertTrue(StreamSupport.boundPool(StreamSupport.parallelStream(list, pool)) == pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testCancelThroughToken() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicLong seen = new AtomicLong();
+            CancellationToken token = CancellationToken.create();
+            LongStream stream = StreamSupport.longStream(LongStreams.range(0, 1L << 40).spliterator(), pool);
+            CompletableFuture<Void> future = AsyncStreams.forEachAsync(
+                    StreamSupport.withCancellation(stream, token), i -> {
+                        seen.incrementAndGet();
+                        started.countDown();
+                    });
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            assertTrue(future.cancel(false));
+            token.cancel();
+            // Without the cancellation the evaluation wouldn't end for hours
+            assertTrue(pool.awaitQuiescence(30, TimeUnit.SECONDS));
+            assertTrue(seen.get() < (1L << 40));
+            try {
+                future.join();
+                fail("CancellationException expected");
+            }
+            catch (CancellationException expected) {
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testLeavesStreamUntouched() {
+        Stream<Integer> stream = StreamSupport.parallelStream(range(10));
+        assertEquals(AsyncStreams.reduceAsync(stream, 0, Integer::sum).join().intValue(), 45);
+        assertEquals(((AbstractPipeline<?, ?, ?>) stream).cancellationToken(), null);
+        assertEquals(StreamSupport.boundPool(stream), null);
+    }
+
+    public void testExceptionalCompletion() throws Exception {
+        CompletableFuture<List<Integer>> future = AsyncStreams.collectAsync(
+                StreamSupport.parallelStream(range(SIZE)).map(i -> {
+                    if (i == SIZE / 2) {
+                        throw new IllegalArgumentException("" + i);
+                    }
+                    return i;
+                }), Collectors.toList());
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+
+        Stream<Integer> consumed = RefStreams.of(1, 2, 3);
+        consumed.count();
+        try {
+            AsyncStreams.reduceAsync(consumed, 0, Integer::sum).join();
+            fail("CompletionException expected");
+        }
+        catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public void testBoundToken() {
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+        CompletableFuture<Long> future = AsyncStreams.reduceAsync(
+                StreamSupport.withCancellation(LongStreams.range(0, SIZE).parallel(), token), 0L, Long::sum);
+        try {
+            future.join();
+            fail("CompletionException expected");
+        }
+        catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof CancellationException);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class CancellationTokenTest {
+
+    static final int SIZE = 1 << 20;
+
+    static <T, S extends BaseStream<T, S>> S cancellable(S stream, CancellationToken token, boolean parallel) {
+        return StreamSupport.withCancellation(parallel ? stream.parallel() : stream.sequential(), token);
+    }
+
+    static void assertCancelled(Runnable evaluation) {
+        try {
+            evaluation.run();
+            fail("CancellationException expected");
+        }
+        catch (CancellationException expected) {
+        }
+    }
+
+    public void testToken() {
+        CancellationToken token = CancellationToken.create();
+        assertFalse(token.isCancellationRequested());
+        token.throwIfCancellationRequested();
+        token.cancel();
+        assertTrue(token.isCancellationRequested());
+        assertFalse(token.isDeadlinePassed());
+        assertCancelled(token::throwIfCancellationRequested);
+
+        assertTrue(CancellationToken.withDeadline(0, TimeUnit.SECONDS).isDeadlinePassed());
+        assertFalse(CancellationToken.withDeadline(1, TimeUnit.HOURS).isCancellationRequested());
+        assertFalse(CancellationToken.withDeadline(Long.MAX_VALUE, TimeUnit.DAYS).isCancellationRequested());
+    }
+
+    public void testUncancelledTokenHasNoEffect() {
+        CancellationToken token = CancellationToken.create();
+        assertEquals(StreamSupport.withCancellation(LongStreams.range(0, SIZE), token).sum(),
+                     (long) SIZE * (SIZE - 1) / 2);
+        assertEquals(StreamSupport.withCancellation(LongStreams.range(0, SIZE).parallel(), token)
+                                  .filter(i -> i % 3 == 0).count(), (SIZE + 2) / 3);
+        assertEquals(StreamSupport.withCancellation(IntStreams.range(0, 1000).boxed().parallel(), token)
+                                  .collect(Collectors.toList()).size(), 1000);
+        assertEquals(StreamSupport.withCancellation(DoubleStreams.tabulate(100, i -> i), token)
+                                  .anyMatch(d -> d == 99.0), true);
+        assertEquals(StreamSupport.withCancellation(IntStreams.range(0, SIZE).parallel(), token)
+                                  .findFirst().getAsInt(), 0);
+        AtomicLong seen = new AtomicLong();
+        StreamSupport.withCancellation(IntStreams.range(0, SIZE).parallel(), token)
+                     .forEach(i -> seen.incrementAndGet());
+        assertEquals(seen.get(), SIZE);
+    }
+
+    public void testCancelledBeforeEvaluation() {
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+        for (boolean parallel : new boolean[] {false, true}) {
+            assertCancelled(() -> cancellable(LongStreams.range(0, SIZE), token, parallel).sum());
+            assertCancelled(() -> cancellable(IntStreams.range(0, SIZE).boxed(), token, parallel)
+                                       .collect(Collectors.toList()));
+            assertCancelled(() -> cancellable(IntStreams.range(0, SIZE), token, parallel).anyMatch(i -> i < 0));
+            assertCancelled(() -> cancellable(DoubleStreams.tabulate(SIZE, i -> i), token, parallel)
+                                       .forEach(d -> {}));
+            assertCancelled(() -> cancellable(IntStreams.range(0, SIZE), token, parallel).sorted().toArray());
+        }
+    }
+
+    public void testCancelDuringEvaluation() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            CancellationToken token = CancellationToken.create();
+            AtomicLong seen = new AtomicLong();
+            assertCancelled(() -> cancellable(LongStreams.range(0, 64L * SIZE), token, parallel)
+                    .peek(i -> {
+                        if (seen.incrementAndGet() == 10_000) {
+                            token.cancel();
+                        }
+                    })
+                    .sum());
+            // All leaves stopped soon after the request, long before the end of the source
+            assertTrue(seen.get() < 16L * SIZE, "seen " + seen.get());
+        }
+    }
+
+    public void testCancelDuringForEach() {
+        CancellationToken token = CancellationToken.create();
+        List<Integer> list = new ArrayList<>();
+        assertCancelled(() -> StreamSupport.withCancellation(IntStreams.range(0, SIZE).boxed(), token)
+                .forEach(i -> {
+                    list.add(i);
+                    if (i == 100) {
+                        token.cancel();
+                    }
+                }));
+        assertEquals(list.size(), 101);
+    }
+
+    public void testDeadline() {
+        assertCancelled(() -> StreamSupport.withCancellation(LongStreams.range(0, SIZE).parallel(),
+                                                             CancellationToken.withDeadline(-1, TimeUnit.SECONDS))
+                                           .reduce(0L, Long::sum));
+        CancellationToken token = CancellationToken.withDeadline(50, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        assertCancelled(() -> StreamSupport.withCancellation(LongStreams.iterate(0, i -> i + 1), token)
+                                           .parallel().filter(i -> i < 0).findAny());
+        assertTrue(token.isDeadlinePassed());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+    }
+
+    public void testTokenAppliesToWholePipeline() {
+        CancellationToken token = CancellationToken.create();
+        Stream<Integer> s = IntStreams.range(0, SIZE).boxed().map(i -> i + 1);
+        StreamSupport.withCancellation(s, token);
+        token.cancel();
+        assertCancelled(() -> s.filter(i -> i > 0).count());
+    }
+
+    public void testLinkedOrConsumedStream() {
+        CancellationToken token = CancellationToken.create();
+        Stream<Integer> linked = IntStreams.range(0, 10).boxed();
+        linked.map(i -> i + 1);
+        try {
+            StreamSupport.withCancellation(linked, token);
+            fail("IllegalStateException expected");
+        }
+        catch (IllegalStateException expected) {
+        }
+        LongStream consumed = LongStreams.range(0, 10);
+        consumed.sum();
+        try {
+            StreamSupport.withCancellation(consumed, token);
+            fail("IllegalStateException expected");
+        }
+        catch (IllegalStateException expected) {
+        }
+    }
+}
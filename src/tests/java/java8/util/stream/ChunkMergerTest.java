@@ -0,0 +1,159 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the chunk by chunk sort that {@code sorted()} falls back to for
+ * more elements than fit into an array, on buffers of a few chunks.
+ */
+@Test
+public class ChunkMergerTest {
+
+    @DataProvider(name = "sizes")
+    public Object[][] sizes() {
+        // empty, within the first chunk, and spanning up to nine chunks
+        return new Object[][] {{0}, {1}, {16}, {17}, {100}, {5000}};
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testRefIsStable(int size) {
+        Random r = new Random(size);
+        // elements are {key, encounter index}, only the key is compared
+        Comparator<int[]> byKey = (a, b) -> a[0] - b[0];
+        for (boolean parallel : new boolean[] {false, true}) {
+            SpinedBuffer<int[]> b = new SpinedBuffer<>();
+            for (int i = 0; i < size; i++) {
+                b.accept(new int[] {r.nextInt(50), i});
+            }
+            int[][] expected = b.asArray(int[][]::new);
+            Arrays.sort(expected, byKey);
+
+            Node.Builder<int[]> sorted = Nodes.builder(-1, int[][]::new);
+            SortedOps.ChunkMerger m = new SortedOps.RefChunkMerger<>(b, byKey, sorted);
+            m.sort(parallel);
+            m.merge(false);
+            int[][] actual = sorted.build().asArray(int[][]::new);
+            assertEquals(actual.length, size);
+            for (int i = 0; i < size; i++) {
+                assertTrue(actual[i] == expected[i], "at " + i);
+            }
+        }
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testInt(int size) {
+        Random r = new Random(size);
+        SpinedBuffer.OfInt b = new SpinedBuffer.OfInt();
+        for (int i = 0; i < size; i++) {
+            b.accept(r.nextInt());
+        }
+        int[] expected = b.asPrimitiveArray();
+        Arrays.sort(expected);
+
+        Node.Builder.OfInt sorted = Nodes.intBuilder(-1);
+        SortedOps.ChunkMerger m = new SortedOps.IntChunkMerger(b, sorted);
+        m.sort(false);
+        m.merge(false);
+        assertEquals(sorted.build().asPrimitiveArray(), expected);
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testLong(int size) {
+        Random r = new Random(size);
+        SpinedBuffer.OfLong b = new SpinedBuffer.OfLong();
+        for (int i = 0; i < size; i++) {
+            b.accept(r.nextLong());
+        }
+        long[] expected = b.asPrimitiveArray();
+        Arrays.sort(expected);
+
+        Node.Builder.OfLong sorted = Nodes.longBuilder(-1);
+        SortedOps.ChunkMerger m = new SortedOps.LongChunkMerger(b, sorted);
+        m.sort(true);
+        m.merge(false);
+        assertEquals(sorted.build().asPrimitiveArray(), expected);
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testDouble(int size) {
+        Random r = new Random(size);
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        SpinedBuffer.OfDouble b = new SpinedBuffer.OfDouble();
+        for (int i = 0; i < size; i++) {
+            b.accept(i % 10 == 0 ? specials[r.nextInt(specials.length)] : r.nextGaussian());
+        }
+        double[] expected = b.asPrimitiveArray();
+        Arrays.sort(expected);
+
+        Node.Builder.OfDouble sorted = Nodes.doubleBuilder(-1);
+        SortedOps.ChunkMerger m = new SortedOps.DoubleChunkMerger(b, sorted);
+        m.sort(false);
+        m.merge(false);
+        double[] actual = sorted.build().asPrimitiveArray();
+        assertEquals(actual.length, expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(Double.doubleToLongBits(actual[i]), Double.doubleToLongBits(expected[i]), "at " + i);
+        }
+    }
+
+    public void testCancellation() {
+        SpinedBuffer.OfInt b = new SpinedBuffer.OfInt();
+        for (int i = 1000; i > 0; i--) {
+            b.accept(i);
+        }
+        final int[] pushed = new int[1];
+        final int limit = 10;
+        Sink.OfInt firstTen = new Sink.OfInt() {
+            @Override
+            public void begin(long size) {
+                assertEquals(size, 1000L);
+            }
+
+            @Override
+            public void end() {
+            }
+
+            @Override
+            public boolean cancellationRequested() {
+                return pushed[0] >= limit;
+            }
+
+            @Override
+            public void accept(int value) {
+                assertEquals(value, ++pushed[0]);
+            }
+
+            @Override
+            public void accept(long value) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void accept(double value) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void accept(Integer i) {
+                accept(i.intValue());
+            }
+        };
+        SortedOps.ChunkMerger m = new SortedOps.IntChunkMerger(b, firstTen);
+        m.sort(false);
+        m.merge(true);
+        assertEquals(pushed[0], limit);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import java8.util.ChunkSpliterator;
+import java8.util.J8Arrays;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the bulk traversal of array based spliterators and the sinks that
+ * accept array slices.
+ */
+@Test
+public class ChunkTraversalTest {
+
+    static final class Slices implements ChunkSpliterator.ChunkConsumer<Object[]> {
+        final List<Object> elements = new ArrayList<>();
+        int slices;
+
+        @Override
+        public void accept(Object[] array, int from, int to) {
+            slices++;
+            elements.addAll(Arrays.asList(array).subList(from, to));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testArraySpliterator() {
+        Integer[] a = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        Spliterator<Integer> s = Spliterators.spliterator(a, 2, 9, 0);
+        Spliterator<Integer> prefix = s.trySplit();
+        assertTrue(s.tryAdvance(e -> assertEquals((int) e, 5)));
+        Slices slices = new Slices();
+        ((ChunkSpliterator<Object[]>) s).forEachChunk(slices);
+        assertEquals(slices.elements, Arrays.<Object>asList(6, 7, 8));
+        assertEquals(slices.slices, 1);
+        assertFalse(s.tryAdvance(e -> fail()));
+        // An exhausted spliterator passes no slice
+        ((ChunkSpliterator<Object[]>) s).forEachChunk(slices);
+        assertEquals(slices.slices, 1);
+        slices = new Slices();
+        ((ChunkSpliterator<Object[]>) prefix).forEachChunk(slices);
+        assertEquals(slices.elements, Arrays.<Object>asList(2, 3, 4));
+        try {
+            ((ChunkSpliterator<Object[]>) prefix).forEachChunk(null);
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testPrimitiveArraySpliterators() {
+        int[] ints = new int[3];
+        ((ChunkSpliterator<int[]>) J8Arrays.spliterator(new int[] {1, 2, 3, 4}, 1, 4))
+                .forEachChunk((a, from, to) -> System.arraycopy(a, from, ints, 0, to - from));
+        assertEquals(ints, new int[] {2, 3, 4});
+        long[] longs = new long[2];
+        ((ChunkSpliterator<long[]>) J8Arrays.spliterator(new long[] {1L, 2L}))
+                .forEachChunk((a, from, to) -> System.arraycopy(a, from, longs, 0, to - from));
+        assertEquals(longs, new long[] {1L, 2L});
+        double[] doubles = new double[1];
+        ((ChunkSpliterator<double[]>) J8Arrays.spliterator(new double[] {1.0, 2.0}, 1, 2))
+                .forEachChunk((a, from, to) -> System.arraycopy(a, from, doubles, 0, to - from));
+        assertEquals(doubles, new double[] {2.0});
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testArrayList() {
+        ArrayList<Integer> list = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4, 5));
+        Spliterator<Integer> s = Spliterators.spliterator(list);
+        if (!(s instanceof ChunkSpliterator)) {
+            // Delegates to the spliterator of the platform
+            return;
+        }
+        Spliterator<Integer> prefix = s.trySplit();
+        Slices slices = new Slices();
+        ((ChunkSpliterator<Object[]>) prefix).forEachChunk(slices);
+        ((ChunkSpliterator<Object[]>) s).forEachChunk(slices);
+        assertEquals(slices.elements, Arrays.<Object>asList(0, 1, 2, 3, 4, 5));
+        assertEquals(slices.slices, 2);
+
+        Spliterator<Integer> modified = Spliterators.spliterator(list);
+        try {
+            ((ChunkSpliterator<Object[]>) modified).forEachChunk((a, from, to) -> list.add(6));
+            fail("expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException expected) {
+        }
+    }
+
+    public void testSinks() {
+        Integer[] a = new Integer[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = a.length - i;
+        }
+        List<Integer> list = new ArrayList<>(Arrays.asList(a));
+        Integer[] sorted = a.clone();
+        Arrays.sort(sorted);
+
+        // FixedNodeBuilder
+        assertEquals(J8Arrays.stream(a).toArray(Integer[]::new), a);
+        assertEquals(StreamSupport.stream(list).toArray(), a);
+        // SizedRefSortingSink
+        assertEquals(J8Arrays.stream(a).sorted().toArray(), sorted);
+        assertEquals(StreamSupport.stream(list).sorted().collect(Collectors.toList()), Arrays.asList(sorted));
+        assertEquals(StreamSupport.stream(Spliterators.spliterator(a, 0), false)
+                             .sorted().toArray(), sorted);
+        // SpinedNodeBuilder, from the spliterator of a SpinedBuffer
+        SpinedBuffer<Integer> sb = new SpinedBuffer<>();
+        for (Integer i : a) {
+            sb.accept(i);
+        }
+        assertEquals(StreamSupport.stream(sb.spliterator(), false).toArray(), a);
+        // An element type the generated array cannot hold
+        try {
+            StreamSupport.stream(new ArrayList<Object>(Arrays.asList(1, "2"))).toArray(Integer[]::new);
+            fail("expected ArrayStoreException");
+        } catch (ArrayStoreException expected) {
+        }
+
+        int[] ints = IntStreams.rangeClosed(1, 1000).map(i -> 1001 - i).toArray();
+        int[] sortedInts = ints.clone();
+        Arrays.sort(sortedInts);
+        assertEquals(J8Arrays.stream(ints).toArray(), ints);
+        assertEquals(J8Arrays.stream(ints).sorted().toArray(), sortedInts);
+        long[] longs = LongStreams.rangeClosed(1, 1000).map(i -> 1001 - i).toArray();
+        long[] sortedLongs = longs.clone();
+        Arrays.sort(sortedLongs);
+        assertEquals(J8Arrays.stream(longs).sorted().toArray(), sortedLongs);
+        double[] doubles = J8Arrays.stream(longs).asDoubleStream().toArray();
+        double[] sortedDoubles = doubles.clone();
+        Arrays.sort(sortedDoubles);
+        assertEquals(J8Arrays.stream(doubles).toArray(), doubles);
+        assertEquals(J8Arrays.stream(doubles).sorted().toArray(), sortedDoubles);
+        assertEquals(J8Arrays.stream(doubles).parallel().sorted().toArray(), sortedDoubles);
+    }
+}
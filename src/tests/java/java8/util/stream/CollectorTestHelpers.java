@@ -0,0 +1,37 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.DataProvider;
+
+/**
+ * The input stream and the data provider shared by the tests of the
+ * collectors that are evaluated both sequentially and in parallel.
+ */
+public final class CollectorTestHelpers {
+
+    /** The number of elements of {@link #numbers(boolean)} */
+    public static final int SIZE = 100_000;
+
+    private CollectorTestHelpers() {
+    }
+
+    /**
+     * Returns a stream of the integers from 0 to {@code SIZE - 1}.
+     *
+     * @param parallel whether the stream is parallel
+     * @return a SIZED stream of {@code SIZE} integers
+     */
+    public static Stream<Integer> numbers(boolean parallel) {
+        Stream<Integer> s = IntStreams.range(0, SIZE).boxed();
+        return parallel ? s.parallel() : s;
+    }
+
+    @DataProvider(name = "parallel")
+    public static Object[][] parallel() {
+        return new Object[][] {{false}, {true}};
+    }
+}
@@ -34,18 +34,26 @@ package java8.util.stream;
 
 import org.testng.annotations.Test;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import java8.util.J8Arrays;
 import java8.util.Spliterator;
 import java8.util.concurrent.ForkJoinPool;
 import java8.util.concurrent.ForkJoinTask;
+import java8.util.concurrent.ForkJoinWorkerThread;
 import java8.util.function.Consumer;
 import java8.util.stream.IntStreams;
+import java8.util.stream.LongStreams;
 import java8.util.stream.StreamSupport;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 @Test
 public class CustomFJPoolTest {
@@ -121,13 +129,13 @@ public class CustomFJPoolTest {
     }
 
     public void testCustomPools() throws Exception {
-        int splitsForP1 = countSplits(new ForkJoinPool(1));
-        int splitsForP2 = countSplits(new ForkJoinPool(2));
+        int splitsForP1 = countSplitsAndShutdown(new ForkJoinPool(1));
+        int splitsForP2 = countSplitsAndShutdown(new ForkJoinPool(2));
         assertEquals(splitsForP2, splitsForP1 * 2);
 
         int commonParallelism = ForkJoinPool.getCommonPoolParallelism();
         if (commonParallelism > 1 && commonParallelism < 128) {
-            int splitsForPHalfC = countSplits(new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism() / 2));
+            int splitsForPHalfC = countSplitsAndShutdown(new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism() / 2));
             int splitsForPC = countSplits(ForkJoinPool.commonPool());
 
             assertTrue(splitsForPHalfC < splitsForPC);
@@ -146,6 +154,87 @@ public class CustomFJPoolTest {
         return fInteger.get();
     }
 
+    static int countSplitsAndShutdown(ForkJoinPool fjp) throws Exception {
+        try {
+            return countSplits(fjp);
+        }
+        finally {
+            fjp.shutdown();
+            assertTrue(fjp.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    static int countSplitsInBoundPool(ForkJoinPool fjp) {
+        Spliterator<Integer> s = IntStreams.range(0, 1024).boxed().parallel().spliterator();
+        SplitCountingSpliterator<Integer> cs = new SplitCountingSpliterator<>(s);
+        StreamSupport.stream(cs, fjp).forEach(e -> {});
+        return cs.splits();
+    }
+
+    public void testBoundPool() throws Exception {
+        ForkJoinPool p1 = new ForkJoinPool(1);
+        ForkJoinPool p2 = new ForkJoinPool(2);
+        try {
+            // Splits as if the terminal operation had been submitted to the pool
+            assertEquals(countSplitsInBoundPool(p1), countSplits(p1));
+            assertEquals(countSplitsInBoundPool(p2), countSplits(p2));
+            assertEquals(countSplitsInBoundPool(p2), countSplitsInBoundPool(p1) * 2);
+
+            // All elements are processed by workers of the bound pool
+            Set<ForkJoinPool> pools = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            int sum = StreamSupport.parallelStream(Collections.nCopies(10_000, 1), p2)
+                    .peek(e -> pools.add(workerPool()))
+                    .reduce(0, Integer::sum);
+            assertEquals(sum, 10_000);
+            assertEquals(pools, Collections.singleton(p2));
+
+            pools.clear();
+            int[] a = StreamSupport.intStream(IntStreams.range(0, 10_000).spliterator(), p1)
+                    .peek(e -> pools.add(workerPool()))
+                    .sorted()
+                    .toArray();
+            assertEquals(a.length, 10_000);
+            assertEquals(pools, Collections.singleton(p1));
+
+            pools.clear();
+            double dsum = StreamSupport.doubleStream(J8Arrays.spliterator(new double[] {1.0, 2.0}), p2)
+                    .peek(e -> pools.add(workerPool()))
+                    .sum();
+            assertEquals(dsum, 3.0);
+            assertEquals(pools, Collections.singleton(p2));
+
+            // A sequential stream is evaluated in the calling thread
+            Thread caller = Thread.currentThread();
+            assertTrue(StreamSupport.longStream(LongStreams.range(0, 100).spliterator(), p2)
+                               .sequential()
+                               .allMatch(e -> Thread.currentThread() == caller));
+
+            // Exceptions are propagated
+            try {
+                StreamSupport.stream(IntStreams.range(0, 100).boxed().spliterator(), p2)
+                        .forEach(e -> {
+                            if (e == 50)
+                                throw new IllegalStateException();
+                        });
+                fail("expected IllegalStateException");
+            }
+            catch (IllegalStateException expected) {
+            }
+        }
+        finally {
+            p1.shutdown();
+            p2.shutdown();
+            // Don't leave worker threads behind for the thread leak checks of later tests
+            assertTrue(p1.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(p2.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    static ForkJoinPool workerPool() {
+        Thread t = Thread.currentThread();
+        return (t instanceof ForkJoinWorkerThread) ? ((ForkJoinWorkerThread) t).getPool() : null;
+    }
+
     static int nearestPowerOfTwo(int i) {
         return (i & (i - 1)) == 0
                ? i
@@ -28,6 +28,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import java8.util.DoubleSummaryStatistics;
@@ -228,11 +229,36 @@ public final class DefaultMethodStreams {
             return s.flatMapToDouble(mapper);
         }
 
+        @Override
+        public <R> Stream<R> mapMulti(BiConsumer<? super T, ? super Consumer<R>> mapper) {
+            return RefStreams.mapMulti(s, mapper);
+        }
+
+        @Override
+        public IntStream mapMultiToInt(BiConsumer<? super T, ? super IntConsumer> mapper) {
+            return RefStreams.mapMultiToInt(s, mapper);
+        }
+
+        @Override
+        public LongStream mapMultiToLong(BiConsumer<? super T, ? super LongConsumer> mapper) {
+            return RefStreams.mapMultiToLong(s, mapper);
+        }
+
+        @Override
+        public DoubleStream mapMultiToDouble(BiConsumer<? super T, ? super DoubleConsumer> mapper) {
+            return RefStreams.mapMultiToDouble(s, mapper);
+        }
+
         @Override
         public Stream<T> distinct() {
             return s.distinct();
         }
 
+        @Override
+        public Stream<T> distinct(long expectedSize) {
+            return RefStreams.distinct(s, expectedSize);
+        }
+
         @Override
         public Stream<T> sorted() {
             return s.sorted();
@@ -268,6 +294,31 @@ public final class DefaultMethodStreams {
             return s.dropWhile(predicate);
         }
 
+        @Override
+        public <R> Stream<R> gather(Gatherer<? super T, ?, R> gatherer) {
+            return RefStreams.gather(s, gatherer);
+        }
+
+        @Override
+        public Stream<List<T>> windowFixed(int windowSize) {
+            return RefStreams.windowFixed(s, windowSize);
+        }
+
+        @Override
+        public Stream<List<T>> windowSliding(int windowSize) {
+            return RefStreams.windowSliding(s, windowSize);
+        }
+
+        @Override
+        public Stream<T> scan(T identity, BinaryOperator<T> accumulator) {
+            return RefStreams.scan(s, identity, accumulator);
+        }
+
+        @Override
+        public List<T> toList() {
+            return RefStreams.toList(s);
+        }
+
         @Override
         public void forEach(Consumer<? super T> action) {
             s.forEach(action);
@@ -434,6 +485,11 @@ public final class DefaultMethodStreams {
             return s.flatMap(mapper);
         }
 
+        @Override
+        public IntStream mapMulti(IntMapMultiConsumer mapper) {
+            return IntStreams.mapMulti(s, mapper);
+        }
+
         @Override
         public IntStream distinct() {
             return s.distinct();
@@ -469,6 +525,21 @@ public final class DefaultMethodStreams {
             return s.dropWhile(predicate);
         }
 
+        @Override
+        public Stream<int[]> windowFixed(int windowSize) {
+            return IntStreams.windowFixed(s, windowSize);
+        }
+
+        @Override
+        public Stream<int[]> windowSliding(int windowSize) {
+            return IntStreams.windowSliding(s, windowSize);
+        }
+
+        @Override
+        public IntStream scan(int identity, IntBinaryOperator accumulator) {
+            return IntStreams.scan(s, identity, accumulator);
+        }
+
         @Override
         public void forEach(IntConsumer action) {
             s.forEach(action);
@@ -499,6 +570,11 @@ public final class DefaultMethodStreams {
             return s.collect(supplier, accumulator, combiner);
         }
 
+        @Override
+        public <A, R> R collect(IntCollector<A, R> collector) {
+            return IntStreams.collect(s, collector);
+        }
+
         @Override
         public int sum() {
             return s.sum();
@@ -655,6 +731,11 @@ public final class DefaultMethodStreams {
             return s.flatMap(mapper);
         }
 
+        @Override
+        public LongStream mapMulti(LongMapMultiConsumer mapper) {
+            return LongStreams.mapMulti(s, mapper);
+        }
+
         @Override
         public LongStream distinct() {
             return s.distinct();
@@ -690,6 +771,21 @@ public final class DefaultMethodStreams {
             return s.dropWhile(predicate);
         }
 
+        @Override
+        public Stream<long[]> windowFixed(int windowSize) {
+            return LongStreams.windowFixed(s, windowSize);
+        }
+
+        @Override
+        public Stream<long[]> windowSliding(int windowSize) {
+            return LongStreams.windowSliding(s, windowSize);
+        }
+
+        @Override
+        public LongStream scan(long identity, LongBinaryOperator accumulator) {
+            return LongStreams.scan(s, identity, accumulator);
+        }
+
         @Override
         public void forEachOrdered(LongConsumer action) {
             s.forEachOrdered(action);
@@ -715,6 +811,11 @@ public final class DefaultMethodStreams {
             return s.collect(supplier, accumulator, combiner);
         }
 
+        @Override
+        public <A, R> R collect(LongCollector<A, R> collector) {
+            return LongStreams.collect(s, collector);
+        }
+
         @Override
         public long sum() {
             return s.sum();
@@ -858,6 +959,11 @@ public final class DefaultMethodStreams {
             return s.flatMap(mapper);
         }
 
+        @Override
+        public DoubleStream mapMulti(DoubleMapMultiConsumer mapper) {
+            return DoubleStreams.mapMulti(s, mapper);
+        }
+
         @Override
         public DoubleStream distinct() {
             return s.distinct();
@@ -893,6 +999,21 @@ public final class DefaultMethodStreams {
             return s.dropWhile(predicate);
         }
 
+        @Override
+        public Stream<double[]> windowFixed(int windowSize) {
+            return DoubleStreams.windowFixed(s, windowSize);
+        }
+
+        @Override
+        public Stream<double[]> windowSliding(int windowSize) {
+            return DoubleStreams.windowSliding(s, windowSize);
+        }
+
+        @Override
+        public DoubleStream scan(double identity, DoubleBinaryOperator accumulator) {
+            return DoubleStreams.scan(s, identity, accumulator);
+        }
+
         @Override
         public void forEach(DoubleConsumer action) {
             s.forEach(action);
@@ -923,6 +1044,11 @@ public final class DefaultMethodStreams {
             return s.collect(supplier, accumulator, combiner);
         }
 
+        @Override
+        public <A, R> R collect(DoubleCollector<A, R> collector) {
+            return DoubleStreams.collect(s, collector);
+        }
+
         @Override
         public double sum() {
             return s.sum();
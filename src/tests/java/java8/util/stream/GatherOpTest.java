@@ -0,0 +1,150 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java8.util.stream.LambdaTestHelpers.*;
+import static java8.util.stream.ThrowableHelper.checkNPE;
+
+@Test
+public class GatherOpTest extends OpTestCase {
+
+    static final Gatherer<Integer, Void, Integer> doubling =
+            Gatherers.of((Void unused, Integer e, Gatherer.Downstream<? super Integer> d) -> d.push(e * 2));
+
+    static final Gatherer<Integer, Void, Integer> greedyDoubling =
+            Gatherers.of(Gatherers.ofGreedy((Void unused, Integer e, Gatherer.Downstream<? super Integer> d) -> d.push(e * 2)));
+
+    static Gatherer<Integer, Void, Integer> takeWhileLessThan(int n) {
+        return Gatherers.of((Void unused, Integer e, Gatherer.Downstream<? super Integer> d) -> e < n && d.push(e));
+    }
+
+    // A sequential running sum
+    static final Gatherer<Integer, int[], Integer> runningSum =
+            Gatherers.ofSequential(() -> new int[1],
+                                   (int[] sum, Integer e, Gatherer.Downstream<? super Integer> d) -> {
+                                       sum[0] += e;
+                                       return d.push(sum[0]);
+                                   });
+
+    // A parallelizable count, the total is pushed by the finisher
+    static final Gatherer<Integer, long[], Long> counting =
+            Gatherers.of(() -> new long[1],
+                         Gatherers.ofGreedy((long[] count, Integer e, Gatherer.Downstream<? super Long> d) -> {
+                             count[0]++;
+                             return true;
+                         }),
+                         (l, r) -> {
+                             l[0] += r[0];
+                             return l;
+                         },
+                         (long[] count, Gatherer.Downstream<? super Long> d) -> d.push(count[0]));
+
+    public void testNullGatherer() {
+        checkNPE(() -> RefStreams.of(1).gather(null));
+        checkNPE(() -> Gatherers.of(null));
+        checkNPE(() -> Gatherers.ofSequential(null));
+        checkNPE(() -> Gatherers.andThen(doubling, null));
+    }
+
+    public void testDefaults() {
+        assertTrue(Gatherers.defaultInitializer() == Gatherers.defaultInitializer());
+        assertTrue(Gatherers.defaultCombiner() == Gatherers.defaultCombiner());
+        assertTrue(Gatherers.defaultFinisher() == Gatherers.defaultFinisher());
+        assertNull(Gatherers.defaultInitializer().get());
+        try {
+            Gatherers.defaultCombiner().apply(null, null);
+            fail("expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    public void testGather() {
+        assertEquals(StreamSupport.stream(countTo(5)).gather(doubling).collect(Collectors.toList()),
+                     Arrays.asList(2, 4, 6, 8, 10));
+        assertEquals(StreamSupport.stream(countTo(5)).gather(runningSum).collect(Collectors.toList()),
+                     Arrays.asList(1, 3, 6, 10, 15));
+        assertEquals(StreamSupport.parallelStream(countTo(1000)).gather(runningSum).reduce(0, Integer::max),
+                     Integer.valueOf(500500));
+        assertEquals(StreamSupport.stream(countTo(10)).gather(takeWhileLessThan(4)).collect(Collectors.toList()),
+                     Arrays.asList(1, 2, 3));
+        assertEquals(StreamSupport.parallelStream(countTo(10000)).gather(takeWhileLessThan(4)).collect(Collectors.toList()),
+                     Arrays.asList(1, 2, 3));
+        assertEquals(StreamSupport.parallelStream(countTo(10000)).gather(counting).collect(Collectors.toList()),
+                     Arrays.asList(10000L));
+    }
+
+    public void testDefaultGather() {
+        assertEquals(DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(5))).gather(doubling)
+                             .collect(Collectors.toList()), Arrays.asList(2, 4, 6, 8, 10));
+        assertEquals(DefaultMethodStreams.delegateTo(StreamSupport.parallelStream(countTo(100))).gather(counting)
+                             .collect(Collectors.toList()), Arrays.asList(100L));
+    }
+
+    public void testAndThen() {
+        Gatherer<Integer, ?, Long> g = Gatherers.andThen(Gatherers.andThen(doubling, takeWhileLessThan(9)), counting);
+        assertEquals(StreamSupport.stream(countTo(10)).gather(g).collect(Collectors.toList()), Arrays.asList(4L));
+        assertEquals(StreamSupport.parallelStream(countTo(10)).gather(g).collect(Collectors.toList()), Arrays.asList(4L));
+
+        g = Gatherers.andThen(runningSum, counting);
+        assertEquals(StreamSupport.parallelStream(countTo(100)).gather(g).collect(Collectors.toList()), Arrays.asList(100L));
+    }
+
+    public void testShortCircuit() {
+        // The integrator must stop an infinite stream
+        assertEquals(RefStreams.iterate(1, i -> i + 1).gather(takeWhileLessThan(100)).count(), 99L);
+        assertEquals(RefStreams.iterate(1, i -> i + 1).parallel().gather(takeWhileLessThan(100)).count(), 99L);
+        // So must the downstream
+        assertEquals(RefStreams.iterate(1, i -> i + 1).gather(greedyDoubling).limit(10).count(), 10L);
+        assertEquals(RefStreams.iterate(1, i -> i + 1).gather(runningSum).limit(10).reduce(0, Integer::max),
+                     Integer.valueOf(55));
+    }
+
+    public void testFinisherAfterShortCircuit() {
+        AtomicInteger finished = new AtomicInteger();
+        List<Integer> result = RefStreams.iterate(1, i -> i + 1)
+                .gather(Gatherers.ofSequential(
+                        (Void unused, Integer e, Gatherer.Downstream<? super Integer> d) -> e < 3 && d.push(e),
+                        (Void unused, Gatherer.Downstream<? super Integer> d) -> {
+                            finished.incrementAndGet();
+                            d.push(-1);
+                        }))
+                .collect(Collectors.toList());
+        assertEquals(result, Arrays.asList(1, 2, -1));
+        assertEquals(finished.get(), 1);
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOps(String name, TestData.OfRef<Integer> data) {
+        Collection<Integer> result = exerciseOps(data, s -> s.gather(doubling));
+        assertEquals(data.size(), result.size());
+
+        result = exerciseOps(data, s -> s.gather(greedyDoubling));
+        assertEquals(data.size(), result.size());
+
+        Collection<Long> count = exerciseOps(data, s -> s.gather(counting));
+        assertEquals(count, Arrays.asList((long) data.size()));
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testSequentialOps(String name, TestData.OfRef<Integer> data) {
+        List<Integer> expected = new ArrayList<>();
+        int sum = 0;
+        for (Integer i : data) {
+            expected.add(sum += i);
+        }
+        Collection<Integer> result = exerciseOps(data, s -> s.gather(runningSum));
+        assertEquals(result.size(), expected.size());
+    }
+}
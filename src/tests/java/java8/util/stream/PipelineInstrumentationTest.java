@@ -0,0 +1,218 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java8.util.stream.LambdaTestHelpers.*;
+
+/**
+ * Tests the pipeline instrumentation.  Most tests only check something if
+ * the JVM runs with {@code -Djava8.util.stream.PipelineInstrumentation.enabled=true}.
+ */
+@Test
+public class PipelineInstrumentationTest extends OpTestCase {
+
+    final List<PipelineInstrumentation.Report> reports = new ArrayList<>();
+    final PipelineInstrumentation.Listener listener = reports::add;
+
+    @BeforeMethod
+    public void addListener() {
+        reports.clear();
+        PipelineInstrumentation.addListener(listener);
+    }
+
+    @AfterMethod
+    public void removeListener() {
+        PipelineInstrumentation.removeListener(listener);
+    }
+
+    PipelineInstrumentation.Report report() {
+        assertEquals(reports.size(), 1);
+        return reports.get(0);
+    }
+
+    public void testDisabled() {
+        if (PipelineInstrumentation.ENABLED)
+            return;
+        assertEquals(StreamSupport.stream(countTo(100)).map(i -> i * 2).count(), 100L);
+        assertTrue(reports.isEmpty());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void testCountingSinks() {
+        // Drives the counting sinks of a probe directly, also when disabled
+        Stream<Integer> s = StreamSupport.stream(countTo(10));
+        Stream<Integer> filtered = s.filter(i -> i % 2 == 0);
+        AbstractPipeline[] stages = {(AbstractPipeline) s, (AbstractPipeline) filtered};
+        PipelineProbe probe = PipelineProbe.begin(stages, false);
+        List<Integer> result = new ArrayList<>();
+        Sink terminal = probe.count(2, StreamShape.REFERENCE, new Sink<Integer>() {
+            public void accept(Integer i) { result.add(i); }
+            public void accept(int value) { SinkDefaults.reject(); }
+            public void accept(long value) { SinkDefaults.reject(); }
+            public void accept(double value) { SinkDefaults.reject(); }
+            public void begin(long size) { }
+            public void end() { }
+            public boolean cancellationRequested() { return false; }
+        }, null);
+        Sink filter = ((AbstractPipeline) filtered).opWrapSink(0, terminal);
+        Sink head = probe.count(1, StreamShape.REFERENCE, filter, (PipelineProbe.CountingSink<?>) terminal);
+        head.begin(10);
+        for (int i = 1; i <= 10; i++)
+            head.accept(Integer.valueOf(i));
+        head.end();
+        probe.finish(null);
+
+        PipelineInstrumentation.Report r = report();
+        assertFalse(r.isFailed());
+        assertEquals(result.size(), 5);
+        assertEquals(r.getStages().size(), 1);
+        PipelineInstrumentation.Stage stage = r.getStages().get(0);
+        assertEquals(stage.getIndex(), 1);
+        assertEquals(stage.getOperation(), "ReferencePipeline.filter");
+        assertEquals(stage.getElementsIn(), 10L);
+        assertEquals(stage.getElementsOut(), 5L);
+        assertTrue(stage.getNanos() >= 0L);
+        assertEquals(r.getTerminalElements(), 5L);
+        assertTrue(r.getTaskTrees().isEmpty());
+    }
+
+    public void testSequential() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        long count = StreamSupport.stream(countTo(1000))
+                .map(i -> i * 2)
+                .filter(i -> i % 3 == 0)
+                .mapToInt(i -> i)
+                .count();
+        PipelineInstrumentation.Report r = report();
+        assertFalse(r.isParallel());
+        assertEquals(r.getStages().size(), 3);
+        assertEquals(r.getStages().get(0).getOperation(), "ReferencePipeline.map");
+        assertEquals(r.getStages().get(0).getElementsIn(), 1000L);
+        assertEquals(r.getStages().get(0).getElementsOut(), 1000L);
+        assertEquals(r.getStages().get(1).getElementsOut(), count);
+        assertEquals(r.getStages().get(2).getElementsIn(), count);
+        assertEquals(r.getTerminalElements(), count);
+        assertTrue(r.getTaskTrees().isEmpty());
+    }
+
+    public void testParallel() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        List<Integer> l = StreamSupport.parallelStream(countTo(10_000))
+                .filter(i -> i % 2 == 0)
+                .collect(Collectors.toList());
+        PipelineInstrumentation.Report r = report();
+        assertTrue(r.isParallel());
+        assertEquals(r.getStages().get(0).getElementsIn(), 10_000L);
+        assertEquals(r.getStages().get(0).getElementsOut(), (long) l.size());
+        assertEquals(r.getTaskTrees().size(), 1);
+        PipelineInstrumentation.Task root = r.getTaskTrees().get(0);
+        assertEquals(root.getDepth(), 0);
+        assertEquals(root.getEstimatedSize(), 10_000L);
+        long leafSizes = 0;
+        for (PipelineInstrumentation.Task leaf : root.getLeaves()) {
+            assertTrue(leaf.isLeaf());
+            assertTrue(leaf.getLeafNanos() >= 0L);
+            leafSizes += leaf.getEstimatedSize();
+        }
+        assertEquals(leafSizes, 10_000L);
+        assertTrue(r.getStealCount() >= 0);
+    }
+
+    public void testParallelBarrier() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        Object[] a = StreamSupport.parallelStream(countTo(1000))
+                .map(i -> -i)
+                .sorted()
+                .filter(i -> i % 2 == 0)
+                .toArray();
+        PipelineInstrumentation.Report r = report();
+        assertEquals(r.getStages().size(), 3);
+        assertEquals(r.getStages().get(0).getElementsOut(), 1000L);
+        assertEquals(r.getStages().get(1).getElementsIn(), 1000L);
+        assertEquals(r.getStages().get(2).getElementsIn(), 1000L);
+        assertEquals(r.getStages().get(2).getElementsOut(), (long) a.length);
+    }
+
+    public void testShortCircuit() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        assertEquals(IntStreams.range(0, 100_000).parallel().filter(i -> i > 10).findFirst().getAsInt(), 11);
+        PipelineInstrumentation.Report r = report();
+        assertEquals(r.getTaskTrees().size(), 1);
+        assertTrue(r.getStages().get(0).getElementsIn() <= 100_000L);
+    }
+
+    public void testFailure() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        for (boolean parallel : new boolean[] {false, true}) {
+            for (boolean toArray : new boolean[] {false, true}) {
+                reports.clear();
+                Stream<Integer> s = (parallel ? StreamSupport.parallelStream(countTo(1000))
+                                              : StreamSupport.stream(countTo(1000))).map(i -> {
+                    if (i == 500)
+                        throw new IllegalStateException("boom");
+                    return i;
+                });
+                try {
+                    if (toArray)
+                        s.toArray();
+                    else
+                        s.collect(Collectors.toList());
+                    fail("IllegalStateException expected");
+                } catch (IllegalStateException expected) {
+                }
+                PipelineInstrumentation.Report r = report();
+                assertTrue(r.isFailed());
+                assertTrue(r.getFailure() instanceof IllegalStateException);
+                assertEquals(r.isParallel(), parallel);
+            }
+        }
+        // The failed evaluation left no probe behind
+        reports.clear();
+        assertEquals(StreamSupport.stream(countTo(10)).map(i -> i).count(), 10L);
+        assertFalse(report().isFailed());
+    }
+
+    public void testThrowingListener() {
+        if (!PipelineInstrumentation.ENABLED)
+            return;
+        PipelineInstrumentation.Listener throwing = r -> {
+            throw new UnsupportedOperationException();
+        };
+        PipelineInstrumentation.addListener(throwing);
+        try {
+            // A failed evaluation keeps its own exception
+            try {
+                StreamSupport.stream(countTo(10)).map(i -> {
+                    if (i == 5)
+                        throw new IllegalStateException("boom");
+                    return i;
+                }).collect(Collectors.toList());
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException expected) {
+            }
+            // A normal evaluation propagates the exception of the listener
+            try {
+                StreamSupport.stream(countTo(10)).map(i -> i).collect(Collectors.toList());
+                fail("UnsupportedOperationException expected");
+            } catch (UnsupportedOperationException expected) {
+            }
+        } finally {
+            PipelineInstrumentation.removeListener(throwing);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class PipelineTemplateTest {
+
+    static List<Integer> range(int from, int to) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    public void testReusedSinks() {
+        PipelineTemplate<Integer, List<String>> t = PipelineTemplate.of(
+                s -> s.filter(i -> i % 3 != 0).map(i -> "#" + i),
+                Collectors.toList());
+        for (int n = 0; n < 50; n++) {
+            List<Integer> source = range(n, 2 * n);
+            List<String> expected = StreamSupport.stream(source)
+                    .filter(i -> i % 3 != 0).map(i -> "#" + i).collect(Collectors.toList());
+            assertEquals(t.apply(source), expected);
+            assertEquals(t.apply(Spliterators.spliteratorUnknownSize(source.iterator(), 0)), expected);
+        }
+    }
+
+    public void testResultsAreIndependent() {
+        PipelineTemplate<Integer, List<Integer>> t = PipelineTemplate.of(s -> s, Collectors.toList());
+        List<Integer> first = t.apply(range(0, 3));
+        List<Integer> second = t.apply(range(3, 5));
+        assertEquals(first, range(0, 3));
+        assertEquals(second, range(3, 5));
+    }
+
+    public void testSourceCharacteristicsDontLeak() {
+        // The placeholder is neither SIZED nor SORTED nor DISTINCT, so the
+        // operations must not rely on what the first source reported
+        PipelineTemplate<Integer, List<Integer>> sorted = PipelineTemplate.of(
+                s -> s.sorted().distinct(), Collectors.toList());
+        List<Integer> unsorted = Arrays.asList(5, 3, 5, 1, 4, 1);
+        assertEquals(sorted.apply(new java.util.TreeSet<>(unsorted)), Arrays.asList(1, 3, 4, 5));
+        assertEquals(sorted.apply(unsorted), Arrays.asList(1, 3, 4, 5));
+        assertEquals(sorted.apply(Spliterators.spliteratorUnknownSize(unsorted.iterator(), 0)),
+                     Arrays.asList(1, 3, 4, 5));
+        assertEquals(sorted.apply(new LinkedHashSet<>(unsorted)), Arrays.asList(1, 3, 4, 5));
+    }
+
+    public void testStatefulAndShortCircuiting() {
+        PipelineTemplate<Integer, Long> t = PipelineTemplate.of(
+                s -> s.flatMap(i -> RefStreams.of(i, i)).skip(1).limit(5), Collectors.counting());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(t.apply(range(0, 100)), Long.valueOf(5));
+            assertEquals(t.apply(range(0, 2)), Long.valueOf(3));
+        }
+        PipelineTemplate<Integer, String> taken = PipelineTemplate.of(
+                s -> s.takeWhile(i -> i < 4).map(String::valueOf), Collectors.joining(","));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(taken.apply(range(0, 10)), "0,1,2,3");
+        }
+    }
+
+    public void testParallel() {
+        PipelineTemplate<Integer, Integer> t = PipelineTemplate.of(
+                s -> s.parallel().map(i -> i * 2), Collectors.summingInt(i -> i));
+        for (int n = 0; n < 5; n++) {
+            assertEquals(t.apply(range(0, 1000)), Integer.valueOf(999 * 1000));
+        }
+    }
+
+    public void testFailedEvaluation() {
+        PipelineTemplate<Integer, List<Integer>> t = PipelineTemplate.of(
+                s -> s.map(i -> 10 / i), Collectors.toList());
+        try {
+            t.apply(Arrays.asList(1, 0, 2));
+            fail("ArithmeticException expected");
+        } catch (ArithmeticException expected) {
+        }
+        assertEquals(t.apply(Arrays.asList(1, 2, 5)), Arrays.asList(10, 5, 2));
+    }
+
+    public void testForeignStream() {
+        try {
+            PipelineTemplate.of(s -> RefStreams.of(1, 2), Collectors.toList());
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testConcurrentUse() throws Exception {
+        final PipelineTemplate<Integer, Integer> t = PipelineTemplate.of(
+                s -> s.filter(i -> i % 2 == 0).map(i -> i / 2), Collectors.summingInt(i -> i));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                final int n = 100 + task;
+                results.add(pool.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        int expected = 0;
+                        for (int i = 0; i < n; i += 2) {
+                            expected += i / 2;
+                        }
+                        for (int k = 0; k < 2000; k++) {
+                            if (t.apply(range(0, n)) != expected) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testEmptySource() {
+        PipelineTemplate<Integer, List<Integer>> t = PipelineTemplate.of(s -> s.sorted(), Collectors.toList());
+        assertEquals(t.apply(Collections.<Integer>emptyList()), Collections.emptyList());
+        Spliterator<Integer> empty = Spliterators.emptySpliterator();
+        assertEquals(t.apply(empty), Collections.emptyList());
+    }
+}
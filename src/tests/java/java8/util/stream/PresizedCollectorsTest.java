@@ -0,0 +1,137 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java8.util.stream.CollectorTestHelpers.SIZE;
+import static java8.util.stream.CollectorTestHelpers.numbers;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class PresizedCollectorsTest {
+
+    static SizedCollector<Integer, ArrayDeque<Integer>, ArrayDeque<Integer>> recording(
+            ConcurrentLinkedQueue<Long> sizes) {
+        return Collectors.sized(
+                Collectors.<Integer, ArrayDeque<Integer>>of(ArrayDeque::new, ArrayDeque::add,
+                                                            (l, r) -> { l.addAll(r); return l; }),
+                n -> { sizes.add(n); return new ArrayDeque<>((int) Math.min(n, 1 << 24)); });
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testSizedSupplierUsed(boolean parallel) {
+        ConcurrentLinkedQueue<Long> sizes = new ConcurrentLinkedQueue<>();
+        ArrayDeque<Integer> d = numbers(parallel).map(i -> i * 2).collect(recording(sizes));
+        assertEquals(d.size(), SIZE);
+        assertEquals((int) d.peekLast(), 2 * (SIZE - 1));
+        assertFalse(sizes.isEmpty());
+        long total = 0;
+        for (long n : sizes) {
+            total += n;
+        }
+        // each container is sized for exactly its part of the elements
+        assertEquals(total, SIZE);
+        if (!parallel) {
+            assertEquals(sizes.size(), 1);
+        }
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testSizedSupplierNotUsedWhenUnknown(boolean parallel) {
+        ConcurrentLinkedQueue<Long> sizes = new ConcurrentLinkedQueue<>();
+        ArrayDeque<Integer> d = numbers(parallel).filter(i -> i % 2 == 0).collect(recording(sizes));
+        assertEquals(d.size(), SIZE / 2);
+        assertTrue(sizes.isEmpty());
+        d = RefStreams.iterate(0, i -> i + 1).limit(100).collect(recording(sizes));
+        assertEquals(d.size(), 100);
+        assertTrue(sizes.isEmpty());
+    }
+
+    public void testStandardCollectorsAreSized() {
+        assertTrue(Collectors.toList() instanceof SizedCollector);
+        assertTrue(Collectors.toSet() instanceof SizedCollector);
+        assertTrue(Collectors.toMap(i -> i, i -> i) instanceof SizedCollector);
+        assertTrue(Collectors.toMap(i -> i, i -> i, (a, b) -> a) instanceof SizedCollector);
+        assertTrue(Collectors.joining() instanceof SizedCollector);
+        assertTrue(Collectors.joining(",", "[", "]") instanceof SizedCollector);
+        assertTrue(Collectors.toUnmodifiableList() instanceof SizedCollector);
+        assertTrue(Collectors.toUnmodifiableMap(i -> i, i -> i) instanceof SizedCollector);
+        assertTrue(Collectors.mapping(i -> i, Collectors.toList()) instanceof SizedCollector);
+        assertFalse(Collectors.mapping(i -> i, Collectors.counting()) instanceof SizedCollector);
+        assertFalse(Collectors.filtering(i -> true, Collectors.toList()) instanceof SizedCollector);
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testStandardCollectors(boolean parallel) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            expected.add(i);
+        }
+        assertEquals(numbers(parallel).collect(Collectors.toList()), expected);
+        assertEquals(numbers(parallel).collect(Collectors.toUnmodifiableList()), expected);
+        assertEquals(numbers(parallel).collect(Collectors.toSet()), new HashSet<>(expected));
+        assertEquals(numbers(parallel).map(i -> i % 10).collect(Collectors.toSet()).size(), 10);
+        Map<Integer, Integer> m = numbers(parallel).collect(Collectors.toMap(i -> i, i -> -i));
+        assertEquals(m.size(), SIZE);
+        assertEquals((int) m.get(SIZE - 1), -(SIZE - 1));
+        Map<Integer, Integer> merged = numbers(parallel).collect(Collectors.toMap(i -> i % 7, i -> 1, Integer::sum));
+        assertEquals(merged.size(), 7);
+        assertEquals((int) merged.get(0), (SIZE + 6) / 7);
+        try {
+            numbers(parallel).map(i -> i % 10).collect(Collectors.toMap(i -> i, i -> i));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expectedException) {
+        }
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testJoining(boolean parallel) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            sb.append(i > 0 ? ", " : "").append(i);
+        }
+        String joined = sb.toString();
+        assertEquals(numbers(parallel).map(String::valueOf).collect(Collectors.joining(", ")), joined);
+        assertEquals(numbers(parallel).map(String::valueOf).collect(Collectors.joining(", ", "<", ">")),
+                     "<" + joined + ">");
+        assertEquals(numbers(parallel).map(String::valueOf).collect(Collectors.joining()),
+                     joined.replace(", ", ""));
+        assertEquals(numbers(parallel).filter(i -> i < 3).map(String::valueOf)
+                             .collect(Collectors.joining("-", "[", "]")), "[0-1-2]");
+    }
+
+    public void testJoiningSmall() {
+        assertEquals(RefStreams.<String>empty().collect(Collectors.joining(",", "[", "]")), "[]");
+        assertEquals(RefStreams.<String>empty().collect(Collectors.joining()), "");
+        assertEquals(RefStreams.of("a").collect(Collectors.joining(",", "[", "]")), "[a]");
+        // null elements and mutable CharSequences
+        List<CharSequence> elements = Arrays.<CharSequence>asList(new StringBuilder("x"), null, "z");
+        assertEquals(StreamSupport.stream(elements).collect(Collectors.joining("/")), "x/null/z");
+        assertEquals(StreamSupport.stream(Collections.<CharSequence>emptyList())
+                             .collect(Collectors.joining("/", "(", ")")), "()");
+    }
+
+    public void testNullSizedSupplier() {
+        try {
+            Collectors.sized(Collectors.toList(), null);
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+    }
+}
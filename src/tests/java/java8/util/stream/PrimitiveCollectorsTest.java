@@ -0,0 +1,175 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import java8.util.DoubleSummaryStatistics;
+import java8.util.IntSummaryStatistics;
+import java8.util.LongSummaryStatistics;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class PrimitiveCollectorsTest {
+
+    static final int SIZE = 10_000;
+
+    static IntStream ints(boolean parallel) {
+        IntStream s = IntStreams.range(0, SIZE);
+        return parallel ? s.parallel() : s;
+    }
+
+    public void testIntGroupingBy() {
+        Map<Integer, Long> expected = IntStreams.range(0, SIZE).boxed()
+                .collect(Collectors.groupingBy(i -> i % 7, Collectors.summingLong(i -> i)));
+        Map<Integer, Long> counts = IntStreams.range(0, SIZE).boxed()
+                .collect(Collectors.groupingBy(i -> i % 7, Collectors.counting()));
+        for (boolean parallel : new boolean[] {false, true}) {
+            assertEquals(ints(parallel).collect(IntCollectors.groupingBy(i -> i % 7, IntCollectors.summingToLong())),
+                         expected);
+            assertEquals(ints(parallel).collect(IntCollectors.groupingBy(i -> i % 7, IntCollectors.counting())),
+                         counts);
+            Map<Integer, Long> sorted = ints(parallel).collect(
+                    IntCollectors.groupingBy(i -> i % 7, TreeMap::new, IntCollectors.summingToLong()));
+            assertTrue(sorted instanceof TreeMap);
+            assertEquals(sorted, expected);
+            // The default implementation
+            assertEquals(DefaultMethodStreams.delegateTo(ints(parallel))
+                                 .collect(IntCollectors.groupingBy(i -> i % 7, IntCollectors.summingToLong())),
+                         expected);
+        }
+    }
+
+    public void testIntMappingToList() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            Map<Integer, List<Integer>> m = ints(parallel).collect(
+                    IntCollectors.groupingBy(i -> i % 3, IntCollectors.mapping(Integer::valueOf, Collectors.toList())));
+            assertEquals(m.size(), 3);
+            for (Map.Entry<Integer, List<Integer>> e : m.entrySet()) {
+                List<Integer> l = e.getValue();
+                for (int i = 0; i < l.size(); i++) {
+                    // encounter order is preserved
+                    assertEquals((int) l.get(i), 3 * i + e.getKey());
+                }
+            }
+        }
+    }
+
+    public void testIntPartitioningBy() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            Map<Boolean, Double> avg = ints(parallel).collect(
+                    IntCollectors.partitioningBy(i -> i < 100, IntCollectors.averaging()));
+            assertEquals(avg.get(true), 49.5);
+            assertEquals(avg.get(false), (100 + SIZE - 1) / 2.0);
+            Map<Boolean, Integer> sums = ints(parallel).collect(
+                    IntCollectors.partitioningBy(i -> i % 2 == 0, IntCollectors.summing()));
+            assertEquals((int) sums.get(true), IntStreams.range(0, SIZE).filter(i -> i % 2 == 0).sum());
+            assertEquals((int) sums.get(false), IntStreams.range(0, SIZE).filter(i -> i % 2 != 0).sum());
+            // Both partitions are present
+            Map<Boolean, Long> none = IntStreams.empty().collect(
+                    IntCollectors.partitioningBy(i -> true, IntCollectors.counting()));
+            assertEquals(none.size(), 2);
+            assertEquals((long) none.get(false), 0L);
+        }
+    }
+
+    public void testIntSummarizing() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            IntSummaryStatistics stats = ints(parallel).collect(IntCollectors.summarizing());
+            assertEquals(stats.getCount(), SIZE);
+            assertEquals(stats.getMin(), 0);
+            assertEquals(stats.getMax(), SIZE - 1);
+            assertEquals(stats.getSum(), (long) SIZE * (SIZE - 1) / 2);
+            assertEquals(ints(parallel).collect(IntCollectors.averaging()), (SIZE - 1) / 2.0);
+            assertEquals((int) IntStreams.empty().collect(IntCollectors.summing()), 0);
+        }
+    }
+
+    public void testIntConcurrent() {
+        AtomicInteger containers = new AtomicInteger();
+        IntCollector<Map<Integer, AtomicLong>, Map<Integer, AtomicLong>> concurrent = IntCollectors.of(
+                () -> { containers.incrementAndGet(); return new ConcurrentHashMap<>(); },
+                (m, i) -> {
+                    AtomicLong count = m.get(i % 5);
+                    if (count == null) {
+                        AtomicLong prev = ((ConcurrentHashMap<Integer, AtomicLong>) m).putIfAbsent(i % 5, count = new AtomicLong());
+                        count = prev != null ? prev : count;
+                    }
+                    count.incrementAndGet();
+                },
+                (l, r) -> { throw new AssertionError("not combined"); },
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+        assertTrue(concurrent.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH));
+        Map<Integer, AtomicLong> m = ints(true).collect(concurrent);
+        assertEquals(containers.get(), 1);
+        assertEquals(m.size(), 5);
+        for (AtomicLong count : m.values()) {
+            assertEquals(count.get(), SIZE / 5);
+        }
+    }
+
+    public void testIntCustomFinisher() {
+        IntCollector<List<Integer>, Integer> size = IntCollectors.of(
+                ArrayList::new, List::add, (l, r) -> { l.addAll(r); return l; }, List::size);
+        assertTrue(size.characteristics().isEmpty());
+        for (boolean parallel : new boolean[] {false, true}) {
+            assertEquals((int) ints(parallel).collect(size), SIZE);
+            assertEquals((int) DefaultMethodStreams.delegateTo(ints(parallel)).collect(size), SIZE);
+        }
+    }
+
+    public void testLongCollectors() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            LongStream s = LongStreams.range(0, SIZE);
+            Map<Long, Long> sums = (parallel ? s.parallel() : s).collect(
+                    LongCollectors.groupingBy(l -> l % 4, LongCollectors.summing()));
+            assertEquals(sums, LongStreams.range(0, SIZE).boxed()
+                    .collect(Collectors.groupingBy(l -> l % 4, Collectors.summingLong(l -> l))));
+            Map<Boolean, Long> counts = LongStreams.range(0, SIZE).collect(
+                    LongCollectors.partitioningBy(l -> l < 10, LongCollectors.counting()));
+            assertEquals((long) counts.get(true), 10L);
+            assertEquals((long) counts.get(false), SIZE - 10L);
+            LongSummaryStatistics stats = LongStreams.range(0, SIZE).collect(LongCollectors.summarizing());
+            assertEquals(stats.getMax(), SIZE - 1L);
+            assertEquals(LongStreams.range(0, SIZE).collect(LongCollectors.averaging()), (SIZE - 1) / 2.0);
+            assertEquals(DefaultMethodStreams.delegateTo(LongStreams.range(0, SIZE))
+                                 .collect(LongCollectors.mapping(Long::valueOf, Collectors.toList())),
+                         LongStreams.range(0, SIZE).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    public void testDoubleCollectors() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            DoubleStream s = IntStreams.range(0, SIZE).asDoubleStream().map(d -> d / 10);
+            Map<Boolean, Double> sums = (parallel ? s.parallel() : s).collect(
+                    DoubleCollectors.partitioningBy(d -> d < 100.0, DoubleCollectors.summing()));
+            assertEquals(sums.get(true), IntStreams.range(0, 1000).asDoubleStream().map(d -> d / 10).sum(), 1e-9);
+            assertEquals(sums.get(false), IntStreams.range(1000, SIZE).asDoubleStream().map(d -> d / 10).sum(), 1e-9);
+            // Compensated summation
+            assertEquals(IntStreams.range(0, 10).mapToDouble(i -> 0.1).collect(DoubleCollectors.summing()), 1.0);
+            assertEquals(IntStreams.range(0, 10).mapToDouble(i -> 0.1).collect(DoubleCollectors.averaging()), 0.1);
+            assertEquals(DoubleStreams.of(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY)
+                                 .collect(DoubleCollectors.summing()), Double.POSITIVE_INFINITY);
+            Map<Double, Long> bySign = DoubleStreams.of(-2.0, 0.0, 1.0, 3.0).collect(
+                    DoubleCollectors.groupingBy(Math::signum, DoubleCollectors.counting()));
+            assertEquals((long) bySign.get(1.0), 2L);
+            assertEquals((long) bySign.get(-1.0), 1L);
+            DoubleSummaryStatistics stats = DefaultMethodStreams.delegateTo(DoubleStreams.of(1.0, 2.0, 3.0))
+                    .collect(DoubleCollectors.summarizing());
+            assertEquals(stats.getAverage(), 2.0);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java8.util.stream.CollectorTestHelpers.SIZE;
+import static java8.util.stream.CollectorTestHelpers.numbers;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class PrimitiveGroupingTest {
+
+    public void testObjLongMap() {
+        ObjLongMap<String> m = new ObjLongMap<>();
+        assertTrue(m.isEmpty());
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "k" + (i % 300);
+            assertEquals(m.merge(key, i, Long::sum), Maps8.merge(expected, key, (long) i));
+        }
+        assertEquals(m.size(), 300);
+        assertEquals(m.toMap(), expected);
+        assertEquals(m.hashCode(), expected.hashCode());
+        assertEquals(m.getOrDefault("k1", -1L), (long) expected.get("k1"));
+        assertEquals(m.getOrDefault("none", -1L), -1L);
+        assertEquals(m.getOrDefault(null, -1L), -1L);
+        assertFalse(m.containsKey(null));
+        assertTrue(m.containsKey("k299"));
+        m.put("k1", 42L);
+        assertEquals(m.getOrDefault("k1", -1L), 42L);
+        assertEquals(m.size(), 300);
+
+        ObjLongMap<String> copy = new ObjLongMap<>(300);
+        m.forEach(copy::put);
+        assertEquals(copy, m);
+        copy.put("k1", 43L);
+        assertFalse(copy.equals(m));
+
+        ObjLongMap<String> small = new ObjLongMap<>();
+        small.put("a", 1L);
+        assertEquals(small.toString(), "{a=1}");
+        try {
+            small.put(null, 1L);
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected1) {
+        }
+        try {
+            new ObjLongMap<String>(-1);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected2) {
+        }
+    }
+
+    public void testObjDoubleMap() {
+        ObjDoubleMap<Integer> m = new ObjDoubleMap<>();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            m.merge(i % 77, i / 2.0, Math::max);
+            Double old = expected.get(i % 77);
+            expected.put(i % 77, old == null ? i / 2.0 : Math.max(old, i / 2.0));
+        }
+        assertEquals(m.toMap(), expected);
+        assertEquals(m.hashCode(), expected.hashCode());
+        m.put(1, Double.NaN);
+        ObjDoubleMap<Integer> other = new ObjDoubleMap<>();
+        m.forEach(other::put);
+        // NaN values are equal, like with Double.equals
+        assertEquals(other, m);
+        assertTrue(Double.isNaN(m.getOrDefault(1, 0.0)));
+    }
+
+    // A merge of a large map into a tiny one, which clustered all inserted
+    // keys in one run of the tiny map's growing table, took minutes
+    @Test(timeOut = 10_000)
+    public void testMergeLargeIntoTiny() {
+        int n = 400_000;
+        ObjLongMap<Integer> largeLong = new ObjLongMap<>();
+        ObjDoubleMap<Integer> largeDouble = new ObjDoubleMap<>();
+        for (int i = 0; i < n; i++) {
+            largeLong.put(i, i);
+            largeDouble.put(i, i);
+        }
+        for (boolean tinyLeft : new boolean[] {true, false}) {
+            ObjLongMap<Integer> tinyLong = new ObjLongMap<>();
+            tinyLong.put(1, -1L);
+            ObjLongMap<Integer> large = new ObjLongMap<>(n);
+            largeLong.forEach(large::put);
+            // The operator still gets the value of the left map first
+            ObjLongMap<Integer> merged = tinyLeft ? tinyLong.mergeAll(large, (a, b) -> 10 * a + b)
+                                                  : large.mergeAll(tinyLong, (a, b) -> 10 * a + b);
+            assertEquals(merged.size(), n);
+            assertEquals(merged.getOrDefault(1, 0L), tinyLeft ? -9L : 9L);
+            assertEquals(merged.getOrDefault(n - 1, 0L), n - 1L);
+
+            ObjDoubleMap<Integer> tinyDouble = new ObjDoubleMap<>();
+            tinyDouble.put(1, -1.0);
+            ObjDoubleMap<Integer> largeD = new ObjDoubleMap<>(n);
+            largeDouble.forEach(largeD::put);
+            ObjDoubleMap<Integer> mergedD = tinyLeft ? tinyDouble.mergeAll(largeD, (a, b) -> 10 * a + b)
+                                                     : largeD.mergeAll(tinyDouble, (a, b) -> 10 * a + b);
+            assertEquals(mergedD.size(), n);
+            assertEquals(mergedD.getOrDefault(1, 0.0), tinyLeft ? -9.0 : 9.0);
+        }
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testCounting(boolean parallel) {
+        Map<Integer, Long> expected = numbers(false).collect(Collectors.groupingBy(i -> i % 1000, Collectors.counting()));
+        ObjLongMap<Integer> counts = numbers(parallel).collect(Collectors.groupingByCounting(i -> i % 1000));
+        assertEquals(counts.size(), 1000);
+        assertEquals(counts.toMap(), expected);
+        assertEquals(counts.getOrDefault(7, 0L), SIZE / 1000L);
+    }
+
+    public void testCountingEmpty() {
+        assertTrue(StreamSupport.stream(new java.util.ArrayList<Integer>())
+                           .collect(Collectors.groupingByCounting(i -> i)).isEmpty());
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testSummingLong(boolean parallel) {
+        Map<Integer, Long> expected = numbers(false).collect(
+                Collectors.groupingBy(i -> i % 13, Collectors.summingLong(i -> i * 3L)));
+        ObjLongMap<Integer> sums = numbers(parallel).collect(
+                Collectors.groupingBySummingLong(i -> i % 13, i -> i * 3L));
+        assertEquals(sums.toMap(), expected);
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testReducingLong(boolean parallel) {
+        ObjLongMap<Integer> min = numbers(parallel).collect(
+                Collectors.groupingByReducingLong(i -> i % 10, i -> -i, Math::min));
+        ObjLongMap<Integer> max = numbers(parallel).collect(
+                Collectors.groupingByReducingLong(i -> i % 10, i -> -i, Math::max));
+        for (int k = 0; k < 10; k++) {
+            assertEquals(min.getOrDefault(k, 0L), -(SIZE - 10L + k));
+            assertEquals(max.getOrDefault(k, 0L), -k);
+        }
+        // The operator is applied in encounter order
+        ObjLongMap<Integer> first = numbers(parallel).collect(
+                Collectors.groupingByReducingLong(i -> i % 10, i -> i, (a, b) -> a));
+        ObjLongMap<Integer> last = numbers(parallel).collect(
+                Collectors.groupingByReducingLong(i -> i % 10, i -> i, (a, b) -> b));
+        for (int k = 0; k < 10; k++) {
+            assertEquals(first.getOrDefault(k, -1L), k);
+            assertEquals(last.getOrDefault(k, -1L), SIZE - 10L + k);
+        }
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testDouble(boolean parallel) {
+        ObjDoubleMap<Boolean> sums = numbers(parallel).collect(
+                Collectors.groupingBySummingDouble(i -> i % 2 == 0, i -> i / 4.0));
+        assertEquals(sums.size(), 2);
+        assertEquals(sums.getOrDefault(true, 0.0),
+                     IntStreams.range(0, SIZE).filter(i -> i % 2 == 0).asDoubleStream().map(d -> d / 4.0).sum());
+        ObjDoubleMap<Integer> max = numbers(parallel).collect(
+                Collectors.groupingByReducingDouble(i -> i % 3, i -> i * 0.5, Math::max));
+        assertEquals(max.getOrDefault(0, 0.0), (SIZE - 1) * 0.5);
+    }
+
+    public void testNullKey() {
+        try {
+            numbers(false).collect(Collectors.groupingByCounting(i -> i == 5 ? null : i));
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    static final class Maps8 {
+        static long merge(Map<String, Long> m, String key, long value) {
+            Long old = m.get(key);
+            long v = old == null ? value : old + value;
+            m.put(key, v);
+            return v;
+        }
+    }
+}
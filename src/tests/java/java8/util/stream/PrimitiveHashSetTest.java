@@ -0,0 +1,140 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import java8.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class PrimitiveHashSetTest {
+
+    static final int MAX_CAPACITY = 64;
+    static final int MAX_SIZE = MAX_CAPACITY / 2;
+
+    public void testIntSetFull() {
+        for (boolean keepOrder : new boolean[] {false, true}) {
+            DistinctOps.IntHashSet set = new DistinctOps.IntHashSet(keepOrder, MAX_CAPACITY);
+            // Zero is tracked outside the table but counts towards the size
+            for (int i = 0; i < MAX_SIZE; i++) {
+                assertTrue(set.add(i * 31));
+            }
+            // Values already present are still found in the full set
+            for (int i = 0; i < MAX_SIZE; i++) {
+                assertFalse(set.add(i * 31));
+            }
+            try {
+                set.add(-1);
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException expected) {
+            }
+            int[] values = set.toArray();
+            assertEquals(values.length, MAX_SIZE);
+            if (keepOrder) {
+                for (int i = 0; i < MAX_SIZE; i++) {
+                    assertEquals(values[i], i * 31);
+                }
+            }
+        }
+    }
+
+    public void testIntSetFullWithZero() {
+        DistinctOps.IntHashSet set = new DistinctOps.IntHashSet(false, MAX_CAPACITY);
+        for (int i = 1; i <= MAX_SIZE; i++) {
+            assertTrue(set.add(i));
+        }
+        try {
+            set.add(0);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testLongSetFull() {
+        for (boolean keepOrder : new boolean[] {false, true}) {
+            DistinctOps.LongHashSet set = new DistinctOps.LongHashSet(keepOrder, MAX_CAPACITY);
+            for (int i = 0; i < MAX_SIZE; i++) {
+                assertTrue(set.add(i * 0x100000001L));
+            }
+            for (int i = 0; i < MAX_SIZE; i++) {
+                assertFalse(set.add(i * 0x100000001L));
+            }
+            try {
+                set.add(-1L);
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException expected) {
+            }
+            long[] values = set.toArray();
+            assertEquals(values.length, MAX_SIZE);
+            if (keepOrder) {
+                for (int i = 0; i < MAX_SIZE; i++) {
+                    assertEquals(values[i], i * 0x100000001L);
+                }
+            }
+        }
+    }
+
+    public void testAddAllFull() {
+        DistinctOps.IntHashSet left = new DistinctOps.IntHashSet(true, MAX_CAPACITY);
+        DistinctOps.IntHashSet right = new DistinctOps.IntHashSet(true, MAX_CAPACITY);
+        for (int i = 0; i < MAX_SIZE; i++) {
+            left.add(i);
+            right.add(i + MAX_SIZE / 2);
+        }
+        try {
+            left.addAll(right);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testStripeCount() {
+        assertEquals(DistinctOps.stripeCount(0), 4);
+        assertEquals(DistinctOps.stripeCount(1), 4);
+        assertEquals(DistinctOps.stripeCount(3), 16);
+        assertEquals(DistinctOps.stripeCount(8), 32);
+        assertEquals(DistinctOps.stripeCount(Integer.MAX_VALUE), 1024);
+    }
+
+    public void testStripedSetsConcurrently() throws Exception {
+        int parallelism = 4;
+        int n = 100_000;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            DistinctOps.StripedIntHashSet ints = new DistinctOps.StripedIntHashSet(parallelism);
+            DistinctOps.StripedLongHashSet longs = new DistinctOps.StripedLongHashSet(parallelism);
+            AtomicInteger addedInts = new AtomicInteger();
+            AtomicInteger addedLongs = new AtomicInteger();
+            // Every task adds all values, each value is added exactly once
+            for (int task = 0; task < 2 * parallelism; task++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < n; i++) {
+                        if (ints.add(i - n / 2)) {
+                            addedInts.incrementAndGet();
+                        }
+                        if (longs.add((long) i << 32)) {
+                            addedLongs.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            assertTrue(pool.awaitQuiescence(1, TimeUnit.MINUTES));
+            assertEquals(addedInts.get(), n);
+            assertEquals(addedLongs.get(), n);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
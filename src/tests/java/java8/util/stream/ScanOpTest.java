@@ -0,0 +1,121 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.testng.annotations.Test;
+
+import java8.util.J8Arrays;
+
+@Test
+public class ScanOpTest extends OpTestCase {
+
+    static final int[] SIZES = {0, 1, 2, 3, 17, 1000, 100_000};
+
+    public void testExamples() {
+        assertEquals(RefStreams.of(1, 2, 3, 4, 5).scan(0, Integer::sum).collect(Collectors.toList()),
+                     Arrays.asList(1, 3, 6, 10, 15));
+        assertEquals(IntStreams.of(1, 2, 3, 4, 5).scan(0, Integer::sum).toArray(), new int[] {1, 3, 6, 10, 15});
+        assertEquals(LongStreams.of(1, 2, 3, 4, 5).scan(0, (a, b) -> a + b).toArray(),
+                     new long[] {1, 3, 6, 10, 15});
+        assertEquals(DoubleStreams.of(0.5, 1.0, 1.5, 2.0).scan(0.0, (a, b) -> a + b).toArray(),
+                     new double[] {0.5, 1.5, 3.0, 5.0});
+        assertEquals(RefStreams.of("a", "b", "c").parallel().scan("", String::concat).collect(Collectors.toList()),
+                     Arrays.asList("a", "ab", "abc"));
+    }
+
+    public void testSequentialAndParallelAgree() {
+        for (int size : SIZES) {
+            long[] expected = new long[size];
+            long acc = 7;
+            for (int i = 0; i < size; i++) {
+                expected[i] = acc += i;
+            }
+            // The identity is combined with the first element only
+            assertEquals(LongStreams.range(0, size).scan(7, (a, b) -> a + b).toArray(), expected);
+            assertEquals(LongStreams.range(0, size).parallel().scan(7, (a, b) -> a + b).toArray(), expected);
+            // Not SIZED
+            assertEquals(LongStreams.range(0, size).parallel().filter(i -> true).scan(7, (a, b) -> a + b)
+                                    .toArray(), expected);
+            // Not SIZED and followed by another stage, scanned lazily
+            assertEquals(LongStreams.range(0, size).parallel().filter(i -> true).scan(7, (a, b) -> a + b)
+                                    .map(l -> l).toArray(), expected);
+            assertEquals(LongStreams.range(0, size).boxed().parallel().filter(i -> true).scan(7L, Long::sum)
+                                    .mapToLong(l -> l).toArray(), expected);
+            // The int sums overflow the same way
+            int[] expectedInts = J8Arrays.stream(expected).mapToInt(l -> (int) l).toArray();
+            assertEquals(IntStreams.range(0, size).parallel().scan(7, (a, b) -> a + b).toArray(), expectedInts);
+            assertEquals(IntStreams.range(0, size).boxed().parallel().scan(7, Integer::sum)
+                                   .mapToInt(i -> i).toArray(), expectedInts);
+        }
+    }
+
+    public void testLaziness() {
+        int[] seen = new int[1];
+        assertEquals(IntStreams.iterate(1, i -> i + 1).peek(i -> seen[0]++).scan(0, Integer::sum).limit(4)
+                               .toArray(), new int[] {1, 3, 6, 10});
+        assertEquals(seen[0], 4);
+    }
+
+    public void testParallelShortCircuit() {
+        // The upstream is infinite, so the scan mustn't collect it first
+        assertEquals(IntStreams.iterate(0, i -> i + 1).parallel().scan(0, Integer::sum).limit(5).toArray(),
+                     new int[] {0, 1, 3, 6, 10});
+        assertEquals(RefStreams.iterate(1, i -> i + 1).parallel().scan(0, Integer::sum).limit(4)
+                               .collect(Collectors.toList()), Arrays.asList(1, 3, 6, 10));
+        assertEquals(LongStreams.iterate(1, i -> i + 1).parallel().scan(0, (a, b) -> a + b)
+                                .filter(l -> l > 1000).findFirst().getAsLong(), 1035L);
+        assertTrue(DoubleStreams.iterate(1.0, d -> d * 2).parallel().scan(0.0, (a, b) -> a + b)
+                                .anyMatch(d -> d == 1023.0));
+        assertEquals(IntStreams.iterate(1, i -> i + 1).parallel().scan(0, Integer::sum).limit(100_000)
+                               .map(i -> i & 0xFF).sum(),
+                     IntStreams.iterate(1, i -> i + 1).scan(0, Integer::sum).limit(100_000)
+                               .map(i -> i & 0xFF).sum());
+    }
+
+    public void testSizeIsPreserved() {
+        long[] counts = new long[1];
+        J8Arrays.stream(new int[1000]).scan(0, Integer::sum).forEach(i -> counts[0]++);
+        assertEquals(counts[0], 1000L);
+        assertTrue(StreamOpFlag.SIZED.isKnown(((AbstractPipeline<?, ?, ?>) J8Arrays.stream(new int[10])
+                .scan(0, Integer::sum)).getStreamFlags()));
+    }
+
+    public void testDefaultScan() {
+        assertEquals(DefaultMethodStreams.delegateTo(RefStreams.of(1, 2, 3)).scan(0, Integer::sum)
+                             .collect(Collectors.toList()), Arrays.asList(1, 3, 6));
+        assertEquals(DefaultMethodStreams.delegateTo(IntStreams.range(1, 4)).parallel().scan(0, Integer::sum)
+                             .toArray(), new int[] {1, 3, 6});
+        assertEquals(DefaultMethodStreams.delegateTo(LongStreams.range(1, 4)).scan(1, (a, b) -> a * b)
+                             .toArray(), new long[] {1, 2, 6});
+        assertEquals(DefaultMethodStreams.delegateTo(DoubleStreams.of(3, 1, 2)).scan(0, Math::max)
+                             .toArray(), new double[] {3, 3, 3});
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOps(String name, TestData.OfRef<Integer> data) {
+        Collection<Integer> result = exerciseOps(data, s -> s.scan(0, Integer::sum));
+        assertEquals(result.size(), data.size());
+        exerciseOps(data, s -> s.scan(Integer.MIN_VALUE, Math::max));
+    }
+
+    @Test(dataProvider = "IntStreamTestData", dataProviderClass = IntStreamTestDataProvider.class)
+    public void testIntOps(String name, TestData.OfInt data) {
+        exerciseOps(data, s -> s.scan(0, Integer::sum));
+    }
+
+    @Test(dataProvider = "LongStreamTestData", dataProviderClass = LongStreamTestDataProvider.class)
+    public void testLongOps(String name, TestData.OfLong data) {
+        exerciseOps(data, s -> s.scan(0, (a, b) -> a + b));
+    }
+
+    @Test(dataProvider = "DoubleStreamTestData", dataProviderClass = DoubleStreamTestDataProvider.class)
+    public void testDoubleOps(String name, TestData.OfDouble data) {
+        exerciseOps(data, s -> s.scan(Double.NEGATIVE_INFINITY, Math::max));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.ForkJoinTask;
+
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class ShardedDistinctTest {
+
+    static final int LARGE_PARALLELISM = 1024;
+
+    public void testShardBits() {
+        // The shard count is a multiple of the parallelism for large inputs ...
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 1L << 20, -1), 10);
+        assertEquals(DistinctOps.shardBits(8, 1L << 20, -1), 5);
+        assertEquals(DistinctOps.shardBits(8, Long.MAX_VALUE, -1), 5);
+        // ... but limited by the leaf size and the expected size
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 1, -1), 0);
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, DistinctOps.MIN_SHARD_SIZE - 1, -1), 0);
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 5 * DistinctOps.MIN_SHARD_SIZE, -1), 3);
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 1L << 20, 100), 0);
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 1L << 20, 0), 0);
+        assertEquals(DistinctOps.shardBits(LARGE_PARALLELISM, 1L << 20, 16 * DistinctOps.MIN_SHARD_SIZE), 4);
+    }
+
+    public void testSmallInputOnLargePool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(LARGE_PARALLELISM);
+        try {
+            // A small input gets a single shard per leaf in a large pool
+            assertEquals(pool.invoke(ForkJoinTask.adapt(
+                    () -> DistinctOps.shardBits(AbstractTask.getPoolParallelism(),
+                                                AbstractTask.suggestTargetSize(1000), -1))).intValue(), 0);
+
+            for (int size : new int[] {0, 1, 10, 1000, 10_000}) {
+                List<Integer> input = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    input.add((i % 5 == 0) ? null : i % 97);
+                }
+                HashSet<Integer> expected = new HashSet<>(input);
+                for (long hint : new long[] {-1, 0, 10, 1000}) {
+                    Stream<Integer> s = StreamSupport.parallelStream(input, pool).unordered();
+                    List<Integer> result = (hint < 0 ? s.distinct() : s.distinct(hint))
+                            .collect(Collectors.toList());
+                    assertEquals(result.size(), expected.size());
+                    assertEquals(new HashSet<>(result), expected);
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
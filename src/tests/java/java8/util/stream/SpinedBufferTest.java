@@ -371,4 +371,37 @@ public class SpinedBufferTest {
             list2.add(i);
         assertEquals(list1, list2);
     }
+
+    // Bulk traversal
+
+    @Test(dataProvider = "SpinedBuffer")
+    @SuppressWarnings("unchecked")
+    public void testChunks(int[] array, SpinedBuffer<Integer> sb) {
+        // Traverse both halves in slices and append the slices to a new buffer
+        Spliterator<Integer> spliterator = sb.spliterator();
+        Spliterator<Integer> split = spliterator.trySplit();
+        SpinedBuffer<Integer> copy = new SpinedBuffer<>();
+        if (split != null) {
+            ((ChunkSpliterator<Object[]>) split).forEachChunk(copy);
+        }
+        ((ChunkSpliterator<Object[]>) spliterator).forEachChunk(copy);
+        assertFalse(spliterator.tryAdvance(i -> { }));
+        assertEquals(copy.count(), array.length);
+        for (int i = 0; i < array.length; i++)
+            assertEquals(copy.get(i), (Integer) array[i]);
+    }
+
+    @Test(dataProvider = "IntSpinedBuffer")
+    @SuppressWarnings("unchecked")
+    public void testIntChunks(int[] array, SpinedBuffer.OfInt sb) {
+        Spliterator.OfInt spliterator = sb.spliterator();
+        Spliterator.OfInt split = spliterator.trySplit();
+        SpinedBuffer.OfInt copy = new SpinedBuffer.OfInt();
+        if (split != null) {
+            ((ChunkSpliterator<int[]>) split).forEachChunk(copy);
+        }
+        ((ChunkSpliterator<int[]>) spliterator).forEachChunk(copy);
+        assertFalse(spliterator.tryAdvance((int i) -> { }));
+        assertEquals(copy.asPrimitiveArray(), array);
+    }
 }
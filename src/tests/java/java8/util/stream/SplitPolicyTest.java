@@ -0,0 +1,188 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import java8.util.Spliterator;
+import java8.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class SplitPolicyTest {
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    // The number of leaves a parallel forEach over 1024 elements splits into
+    int forEachLeaves(SplitPolicy policy) {
+        Spliterator<Integer> s = IntStreams.range(0, 1024).boxed().parallel().spliterator();
+        CustomFJPoolTest.SplitCountingSpliterator<Integer> cs = new CustomFJPoolTest.SplitCountingSpliterator<>(s);
+        Stream<Integer> stream = StreamSupport.stream(cs, pool);
+        if (policy != null) {
+            stream = StreamSupport.withSplitPolicy(stream, policy);
+        }
+        stream.forEach(e -> {});
+        return cs.splits();
+    }
+
+    // The number of leaves a parallel reduce over 1024 elements splits into
+    int reduceLeaves(SplitPolicy policy) {
+        Spliterator<Integer> s = IntStreams.range(0, 1024).boxed().parallel().spliterator();
+        CustomFJPoolTest.SplitCountingSpliterator<Integer> cs = new CustomFJPoolTest.SplitCountingSpliterator<>(s);
+        // The policy may also be set on a later stage of the pipeline
+        Stream<Integer> stream = StreamSupport.stream(cs, pool).map(e -> e * 2);
+        if (policy != null) {
+            stream = StreamSupport.withSplitPolicy(stream, policy);
+        }
+        assertEquals((int) stream.reduce(0, Integer::sum), 1023 * 1024);
+        return cs.splits();
+    }
+
+    public void testTargetSizes() {
+        assertEquals(SplitPolicy.defaultPolicy().targetSize(1024, 4), 64L);
+        assertEquals(SplitPolicy.defaultPolicy().targetSize(10, 4), 1L);
+        assertEquals(SplitPolicy.leavesPerThread(1).targetSize(1024, 4), 256L);
+        assertEquals(SplitPolicy.minLeafSize(100).targetSize(1024, 4), 100L);
+        assertEquals(SplitPolicy.minLeafSize(10).targetSize(1024, 4), 64L);
+        // 1 ns per element, 100000 elements per leaf but no fewer leaves than threads
+        assertEquals(SplitPolicy.costPerElement(1.0).targetSize(1_000_000, 4), 100_000L);
+        assertEquals(SplitPolicy.costPerElement(1.0).targetSize(1024, 4), 256L);
+        assertEquals(SplitPolicy.costPerElement(1.0).targetSize(1025, 4), 257L);
+        assertEquals(SplitPolicy.costPerElement(1e9).targetSize(1024, 4), 1L);
+        assertEquals(SplitPolicy.costPerElement(Double.MIN_VALUE).targetSize(Long.MAX_VALUE, 1), Long.MAX_VALUE);
+    }
+
+    public void testIllegalArguments() {
+        try {
+            SplitPolicy.leavesPerThread(0);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            SplitPolicy.minLeafSize(0L);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            SplitPolicy.costPerElement(Double.NaN);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            StreamSupport.withSplitPolicy(IntStreams.range(0, 10), null);
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+        IntStream linked = IntStreams.range(0, 10);
+        linked.map(i -> i);
+        try {
+            StreamSupport.withSplitPolicy(linked, SplitPolicy.leavesPerThread(1));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        IntStream consumed = IntStreams.range(0, 10);
+        consumed.sum();
+        try {
+            StreamSupport.withSplitPolicy(consumed, SplitPolicy.leavesPerThread(1));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testForEach() {
+        assertEquals(forEachLeaves(SplitPolicy.defaultPolicy()), forEachLeaves(null));
+        assertEquals(forEachLeaves(null), 16);
+        assertEquals(forEachLeaves(SplitPolicy.leavesPerThread(1)), 4);
+        assertEquals(forEachLeaves(SplitPolicy.minLeafSize(1024)), 1);
+        assertEquals(forEachLeaves(SplitPolicy.costPerElement(1.0)), 4);
+        assertEquals(forEachLeaves(SplitPolicy.costPerElement(1e9)), 1024);
+    }
+
+    public void testReduce() {
+        assertEquals(reduceLeaves(SplitPolicy.defaultPolicy()), reduceLeaves(null));
+        assertEquals(reduceLeaves(null), 16);
+        assertEquals(reduceLeaves(SplitPolicy.leavesPerThread(1)), 4);
+        assertEquals(reduceLeaves(SplitPolicy.minLeafSize(1024)), 1);
+        assertEquals(reduceLeaves(SplitPolicy.costPerElement(1e9)), 1024);
+    }
+
+    public void testCustomPolicy() {
+        SplitPolicy halves = new SplitPolicy() {
+            @Override
+            public long targetSize(long sizeEstimate, int parallelism) {
+                assertEquals(parallelism, 4);
+                // Values below 1 are treated as 1
+                return sizeEstimate > 1000 ? sizeEstimate / 2 : 0L;
+            }
+        };
+        assertEquals(forEachLeaves(halves), 2);
+        List<Integer> l = StreamSupport.withSplitPolicy(StreamSupport.stream(
+                IntStreams.range(0, 100).boxed().parallel().spliterator(), pool), halves)
+                .collect(Collectors.toList());
+        assertEquals(l, IntStreams.range(0, 100).boxed().collect(Collectors.toList()));
+    }
+
+    public void testAdaptive() {
+        SplitPolicy adaptive = SplitPolicy.adaptive();
+        assertTrue(adaptive.isAdaptive());
+        // Splits like the default until a leaf has been measured
+        assertEquals(adaptive.targetSize(1024, 4), 64L);
+        assertEquals(adaptive.refineTargetSize(64L), 64L);
+        // 1 ns per element
+        adaptive.leafCompleted(1000L, 1000L);
+        assertEquals(adaptive.targetSize(1_000_000, 4), 100_000L);
+        assertEquals(adaptive.targetSize(1024, 4), 256L);
+        assertEquals(adaptive.refineTargetSize(64L), 100_000L);
+        // About 1000 ns per element on average
+        adaptive.leafCompleted(1000L, 2_000_000L);
+        assertEquals(adaptive.refineTargetSize(64L), 99L);
+        // Unknown sizes are ignored
+        adaptive.leafCompleted(Long.MAX_VALUE, 1L);
+        assertEquals(adaptive.refineTargetSize(64L), 99L);
+    }
+
+    public void testAdaptiveEvaluation() {
+        SplitPolicy adaptive = SplitPolicy.adaptive();
+        for (int i = 0; i < 3; i++) {
+            long sum = StreamSupport.withSplitPolicy(
+                    StreamSupport.longStream(LongStreams.range(0, 100_000).spliterator(), pool), adaptive)
+                    .map(e -> e + 1).sum();
+            assertEquals(sum, 100_000L * 100_001L / 2);
+            assertEquals(StreamSupport.withSplitPolicy(IntStreams.range(0, 100_000).parallel(), adaptive)
+                                 .filter(e -> e > 50_000).findFirst().getAsInt(), 50_001);
+            int[] count = new int[1];
+            StreamSupport.withSplitPolicy(StreamSupport.stream(
+                    IntStreams.range(0, 1000).boxed().spliterator(), pool), adaptive)
+                    .forEachOrdered(e -> assertEquals((int) e, count[0]++));
+            assertEquals(count[0], 1000);
+        }
+        // The leaves of the evaluations have been measured
+        assertTrue(adaptive.toString().indexOf("NaN") < 0, adaptive.toString());
+    }
+
+    public void testSequential() {
+        SplitPolicy failing = new SplitPolicy() {
+            @Override
+            public long targetSize(long sizeEstimate, int parallelism) {
+                throw new AssertionError("not consulted by a sequential pipeline");
+            }
+        };
+        assertEquals(StreamSupport.withSplitPolicy(IntStreams.range(0, 100), failing).sum(), 4950);
+    }
+}
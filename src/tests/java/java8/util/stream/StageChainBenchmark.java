@@ -0,0 +1,148 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.Arrays;
+
+import java8.util.J8Arrays;
+import java8.util.Spliterator;
+import java8.util.function.Function;
+import java8.util.function.Predicate;
+
+/**
+ * Measures the per-element cost of chains of 1 to 10 stateless stages, each
+ * stage wrapping the sink of the next one.  This is not a test, run it with
+ * {@code java java8.util.stream.StageChainBenchmark [size] [rounds]}.
+ *
+ * <p>This benchmark was used to evaluate fusing runs of stateless stages
+ * into a single sink.  A fused sink that dispatched on the kind of each
+ * stage was within run-to-run noise of the chained sinks, as its call sites
+ * are shared by all pipelines and become megamorphic, so stages are not
+ * fused.  Any future attempt at fusion should be compared against the
+ * numbers it prints.
+ */
+public class StageChainBenchmark {
+
+    // Distinct lambda classes for every stage, as in a real pipeline
+    @SuppressWarnings("unchecked")
+    static final Function<Integer, Integer>[] MAPPERS = new Function[] {
+        (Function<Integer, Integer>) i -> i + 1,
+        (Function<Integer, Integer>) i -> i ^ 0x55,
+        (Function<Integer, Integer>) i -> i * 3,
+        (Function<Integer, Integer>) i -> i - 7,
+        (Function<Integer, Integer>) i -> i >>> 1
+    };
+
+    @SuppressWarnings("unchecked")
+    static final Predicate<Integer>[] FILTERS = new Predicate[] {
+        (Predicate<Integer>) i -> (i & 0xff) != 0,
+        (Predicate<Integer>) i -> i != 42,
+        (Predicate<Integer>) i -> (i & 0x3ff) != 1,
+        (Predicate<Integer>) i -> i != -1,
+        (Predicate<Integer>) i -> (i & 0x7ff) != 2
+    };
+
+    static Stream<Integer> chain(Stream<Integer> s, int depth) {
+        for (int k = 0; k < depth; k++) {
+            s = (k % 2 == 0) ? s.map(MAPPERS[k / 2]) : s.filter(FILTERS[k / 2]);
+        }
+        return s;
+    }
+
+    static final class SumSink implements Sink<Integer> {
+        long sum;
+
+        @Override
+        public void begin(long size) {
+            sum = 0;
+        }
+
+        @Override
+        public void accept(Integer i) {
+            sum += i;
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return false;
+        }
+
+        @Override
+        public void accept(int value) {
+            SinkDefaults.reject();
+        }
+
+        @Override
+        public void accept(long value) {
+            SinkDefaults.reject();
+        }
+
+        @Override
+        public void accept(double value) {
+            SinkDefaults.reject();
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static double run(Integer[] data, int depth, int rounds) {
+        long best = Long.MAX_VALUE;
+        long check = 0;
+        for (int r = 0; r < rounds; r++) {
+            AbstractPipeline p = (AbstractPipeline) chain(StreamSupport.stream(J8Arrays.spliterator(data), false), depth);
+            SumSink sum = new SumSink();
+            Sink<Integer> sink = p.wrapSink(sum);
+            Spliterator<Integer> spliterator = J8Arrays.spliterator(data);
+            long start = System.nanoTime();
+            sink.begin(data.length);
+            spliterator.forEachRemaining(sink);
+            sink.end();
+            best = Math.min(best, System.nanoTime() - start);
+            check += sum.sum;
+        }
+        if (check == 42) {
+            System.out.println();
+        }
+        return (double) best / data.length;
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        Integer[] data = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i;
+        }
+        // Warm up all chain shapes with different terminal operations
+        // first so that the call sites see many sink types and become
+        // megamorphic, as they do in an application using many pipelines
+        Integer[] small = Arrays.copyOf(data, Math.min(size, 10_000));
+        long check = 0;
+        for (int r = 0; r < 20; r++) {
+            for (int depth = 1; depth <= 10; depth++) {
+                check += chain(J8Arrays.stream(small), depth).count();
+                check += chain(J8Arrays.stream(small), depth).mapToInt(i -> i).sum();
+                check += chain(J8Arrays.stream(small), depth).mapToLong(i -> i).max().orElse(0);
+                check += chain(J8Arrays.stream(small), depth).peek(i -> { }).toArray().length;
+                check += chain(J8Arrays.stream(small), depth).collect(Collectors.toList()).size();
+                check += chain(J8Arrays.stream(small), depth).reduce(0, Integer::sum);
+            }
+        }
+        for (int depth = 1; depth <= 10; depth++) {
+            run(data, depth, 3);
+        }
+        if (check == 42) {
+            System.out.println();
+        }
+        System.out.println("depth  ns/elem");
+        for (int depth = 1; depth <= 10; depth++) {
+            System.out.printf("%5d  %7.2f%n", depth, run(data, depth, rounds));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java8.util.stream.CollectorTestHelpers.SIZE;
+import static java8.util.stream.CollectorTestHelpers.numbers;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class StripedGroupingTest {
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testGrouping(boolean parallel) {
+        Map<Integer, List<Integer>> expected = numbers(false).collect(Collectors.groupingBy(i -> i % 3));
+        ConcurrentMap<Integer, List<Integer>> m = numbers(parallel).collect(
+                Collectors.groupingByConcurrentStriped(i -> i % 3, Collectors.toList()));
+        assertEquals(m.keySet(), expected.keySet());
+        for (Map.Entry<Integer, List<Integer>> e : m.entrySet()) {
+            List<Integer> l = new ArrayList<>(e.getValue());
+            Collections.sort(l);
+            assertEquals(l, expected.get(e.getKey()));
+        }
+        // a downstream collector with a finisher
+        ConcurrentMap<Boolean, Long> counts = numbers(parallel).collect(
+                Collectors.groupingByConcurrentStriped(i -> i < 10, Collectors.counting()));
+        assertEquals((long) counts.get(true), 10L);
+        assertEquals((long) counts.get(false), SIZE - 10L);
+    }
+
+    @Test(dataProvider = "parallel", dataProviderClass = CollectorTestHelpers.class)
+    public void testMapFactory(boolean parallel) {
+        ConcurrentSkipListMap<Integer, Set<Integer>> m = numbers(parallel).collect(
+                Collectors.groupingByConcurrentStriped(i -> i % 100, ConcurrentSkipListMap::new,
+                                                       Collectors.mapping(i -> i / 100 % 10, Collectors.toSet())));
+        assertEquals(m.size(), 100);
+        assertEquals((int) m.firstKey(), 0);
+        for (Set<Integer> s : m.values()) {
+            assertEquals(s.size(), 10);
+        }
+    }
+
+    public void testNullKey() {
+        try {
+            numbers(true).collect(Collectors.groupingByConcurrentStriped(i -> i == 5 ? null : i, Collectors.toList()));
+            fail("expected NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testContainersNotShared() throws InterruptedException {
+        int threads = 4;
+        int perThread = 50_000;
+        AtomicInteger created = new AtomicInteger();
+        StripedContainer<int[]> sc = new StripedContainer<>(() -> {
+            created.incrementAndGet();
+            // [0] counts elements, [1] is set while an accumulator runs
+            return new int[2];
+        });
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < perThread; j++) {
+                    sc.accumulate((int[] a, Integer x) -> {
+                        if (a[1]++ != 0) {
+                            overlaps.incrementAndGet();
+                        }
+                        a[0] += x;
+                        a[1]--;
+                    }, 1);
+                }
+            });
+            t.start();
+            workers.add(t);
+        }
+        start.countDown();
+        for (Thread t : workers) {
+            t.join();
+        }
+        assertEquals(overlaps.get(), 0);
+        int[] total = sc.combine((l, r) -> { l[0] += r[0]; return l; });
+        assertEquals(total[0], threads * perThread);
+        assertTrue(created.get() >= 1);
+    }
+
+    public void testRehashIsKept() throws Exception {
+        StripedContainer<int[]> sc = new StripedContainer<>(() -> new int[1]);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch contending = new CountDownLatch(1);
+        // Holds the only container until the other thread has been
+        // colliding with it for a while
+        Thread holder = new Thread(() -> sc.accumulate((int[] a, Integer x) -> {
+            held.countDown();
+            try {
+                contending.await();
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1));
+        holder.start();
+        held.await();
+        int[] probes = new int[3];
+        Thread contender = new Thread(() -> {
+            probes[0] = StripedContainer.probe();
+            contending.countDown();
+            sc.accumulate((int[] a, Integer x) -> a[0] += x, 1);
+            probes[1] = StripedContainer.probe();
+            sc.accumulate((int[] a, Integer x) -> a[0] += x, 1);
+            probes[2] = StripedContainer.probe();
+        });
+        contender.start();
+        contender.join();
+        holder.join();
+        // The collision advanced the hash of the contender, and the next,
+        // uncontended, element starts from the advanced hash
+        assertTrue(probes[1] != probes[0]);
+        assertEquals(probes[2], probes[1]);
+    }
+}
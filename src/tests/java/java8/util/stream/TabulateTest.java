@@ -0,0 +1,119 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import java8.util.Spliterator;
+import java8.util.function.LongFunction;
+import java8.util.function.LongUnaryOperator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test
+public class TabulateTest {
+
+    static final long A = 6364136223846793005L;
+    static final long C = 1442695040888963407L;
+
+    // the k-step jump of the linear congruential generator x -> A * x + C
+    static final LongFunction<LongUnaryOperator> LCG_JUMP = k -> {
+        long a = 1, c = 0, m = A, d = C;
+        for (; k > 0; k >>>= 1) {
+            if ((k & 1) != 0) {
+                a *= m;
+                c = c * m + d;
+            }
+            d *= m + 1;
+            m *= m;
+        }
+        long ak = a, ck = c;
+        return x -> ak * x + ck;
+    };
+
+    public void testTabulate() {
+        for (int n : new int[] {0, 1, 2, 10, 1000}) {
+            List<Long> expected = LongStreams.range(0, n).map(i -> i * i).boxed().collect(Collectors.toList());
+            assertEquals(RefStreams.tabulate(n, i -> i * i).collect(Collectors.toList()), expected);
+            assertEquals(RefStreams.tabulate(n, i -> i * i).parallel().collect(Collectors.toList()), expected);
+            assertEquals(LongStreams.tabulate(n, i -> i * i).parallel().boxed().collect(Collectors.toList()), expected);
+            assertEquals(IntStreams.tabulate(n, i -> (int) (i * i)).parallel().asLongStream().boxed()
+                                   .collect(Collectors.toList()), expected);
+            assertEquals(DoubleStreams.tabulate(n, i -> i * i).parallel().mapToLong(d -> (long) d).boxed()
+                                      .collect(Collectors.toList()), expected);
+        }
+    }
+
+    public void testTabulateIsSized() {
+        Spliterator<String> s = RefStreams.tabulate(1L << 40, String::valueOf).parallel().spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(s.getExactSizeIfKnown(), 1L << 40);
+        assertEquals(s.trySplit().getExactSizeIfKnown() + s.getExactSizeIfKnown(), 1L << 40);
+        assertEquals(IntStreams.tabulate(100, i -> 1).parallel().skip(10).count(), 90L);
+    }
+
+    public void testNegativeSize() {
+        try {
+            RefStreams.tabulate(-1, i -> i);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            LongStreams.iterate(0L, -1, x -> x, k -> x -> x);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testJumpableIterate() {
+        for (int n : new int[] {0, 1, 2, 3, 17, 10_000}) {
+            long[] expected = LongStreams.iterate(42L, x -> A * x + C).limit(n).toArray();
+            assertEquals(LongStreams.iterate(42L, n, x -> A * x + C, LCG_JUMP).toArray(), expected);
+            assertEquals(LongStreams.iterate(42L, n, x -> A * x + C, LCG_JUMP).parallel().toArray(), expected);
+        }
+    }
+
+    public void testJumpableIterateOtherShapes() {
+        BigInteger two = BigInteger.valueOf(2);
+        List<BigInteger> powers = RefStreams.iterate(BigInteger.ONE, 200, x -> x.shiftLeft(1),
+                                                     k -> x -> x.shiftLeft((int) k))
+                                            .parallel().collect(Collectors.toList());
+        assertEquals(powers.size(), 200);
+        for (int i = 0; i < powers.size(); i++) {
+            assertEquals(powers.get(i), two.pow(i));
+        }
+        assertEquals(IntStreams.iterate(5, 1000, x -> x + 3, k -> x -> (int) (x + 3 * k)).parallel().toArray(),
+                     IntStreams.iterate(5, x -> x + 3).limit(1000).toArray());
+        assertEquals(DoubleStreams.iterate(0.5, 64, x -> x * 2, k -> x -> x * Math.pow(2, k)).parallel().sum(),
+                     DoubleStreams.iterate(0.5, x -> x * 2).limit(64).sum());
+    }
+
+    public void testIterateSpliterators() {
+        SpliteratorTestHelper.testLongSpliterator(
+                () -> new Streams.LongIterateSpliterator(42L, 0, 1000, x -> A * x + C, LCG_JUMP));
+        SpliteratorTestHelper.testIntSpliterator(
+                () -> new Streams.IntIterateSpliterator(0, 0, 100, x -> x + 1, k -> x -> (int) (x + k)));
+        SpliteratorTestHelper.testDoubleSpliterator(
+                () -> new Streams.DoubleIterateSpliterator(0, 0, 100, x -> x + 1, k -> x -> x + k));
+        SpliteratorTestHelper.testSpliterator(
+                () -> new Streams.IterateSpliterator<Integer>(0, 0, 100, x -> x + 1, k -> x -> (int) (x + k)));
+    }
+
+    public void testNextIsNotCalledPastTheEnd() {
+        long[] calls = new long[1];
+        LongStreams.iterate(0L, 10, x -> { calls[0]++; return x + 1; }, k -> x -> x + k).forEach(x -> { });
+        assertEquals(calls[0], 9L);
+        calls[0] = 0;
+        assertEquals(LongStreams.iterate(0L, 10, x -> { calls[0]++; return x + 1; }, k -> x -> x + k)
+                                .limit(3).sum(), 3L);
+        assertTrue(calls[0] <= 3, "calls: " + calls[0]);
+    }
+}
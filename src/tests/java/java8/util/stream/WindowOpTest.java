@@ -0,0 +1,247 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import java8.util.J8Arrays;
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.ForkJoinWorkerThread;
+
+@Test
+public class WindowOpTest extends OpTestCase {
+
+    static final int[] SIZES = {0, 1, 2, 3, 7, 100, 1000};
+    static final int[] WINDOW_SIZES = {1, 2, 3, 10, 2000};
+
+    static List<List<Integer>> expected(int size, int windowSize, boolean sliding) {
+        List<List<Integer>> windows = new ArrayList<>();
+        if (size == 0)
+            return windows;
+        int count = sliding ? Math.max(1, size - windowSize + 1) : (size + windowSize - 1) / windowSize;
+        for (int i = 0; i < count; i++) {
+            int from = sliding ? i : i * windowSize;
+            List<Integer> w = new ArrayList<>();
+            for (int j = from; j < Math.min(from + windowSize, size); j++)
+                w.add(j);
+            windows.add(w);
+        }
+        return windows;
+    }
+
+    static List<List<Integer>> boxed(List<int[]> windows) {
+        List<List<Integer>> l = new ArrayList<>();
+        for (int[] w : windows) {
+            List<Integer> b = new ArrayList<>();
+            for (int i : w)
+                b.add(i);
+            l.add(b);
+        }
+        return l;
+    }
+
+    public void testIllegalWindowSize() {
+        for (int ws : new int[] {0, -1}) {
+            try {
+                RefStreams.of(1).windowFixed(ws);
+                fail("expected IllegalArgumentException");
+            }
+            catch (IllegalArgumentException expected) {
+            }
+            try {
+                IntStreams.of(1).windowSliding(ws);
+                fail("expected IllegalArgumentException");
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    public void testExamples() {
+        assertEquals(RefStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowFixed(3).collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7, 8)));
+        assertEquals(RefStreams.of(1, 2, 3, 4, 5, 6, 7, 8).windowSliding(6).collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, 2, 3, 4, 5, 6), Arrays.asList(2, 3, 4, 5, 6, 7),
+                                   Arrays.asList(3, 4, 5, 6, 7, 8)));
+        assertEquals(RefStreams.of(1, 2).windowSliding(3).collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, 2)));
+        assertEquals(RefStreams.of(1, null, 3).windowFixed(2).collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, null), Arrays.asList(3)));
+    }
+
+    public void testUnmodifiable() {
+        List<Integer> w = RefStreams.of(1, 2, 3).windowFixed(2).findFirst().get();
+        try {
+            w.set(0, 0);
+            fail("expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    public void testRef() {
+        for (int size : SIZES) {
+            for (int ws : WINDOW_SIZES) {
+                for (boolean sliding : new boolean[] {false, true}) {
+                    List<List<Integer>> exp = expected(size, ws, sliding);
+                    for (boolean parallel : new boolean[] {false, true}) {
+                        Stream<Integer> s = IntStreams.range(0, size).boxed();
+                        if (parallel)
+                            s = s.parallel();
+                        assertEquals(sliding ? s.windowSliding(ws).collect(Collectors.toList())
+                                             : s.windowFixed(ws).collect(Collectors.toList()), exp);
+                        // Not SIZED
+                        s = IntStreams.range(0, size).boxed().filter(i -> true);
+                        if (parallel)
+                            s = s.parallel();
+                        assertEquals(sliding ? s.windowSliding(ws).collect(Collectors.toList())
+                                             : s.windowFixed(ws).collect(Collectors.toList()), exp);
+                    }
+                }
+            }
+        }
+    }
+
+    static Stream<int[]> windows(IntStream s, int windowSize, boolean sliding) {
+        return sliding ? s.windowSliding(windowSize) : s.windowFixed(windowSize);
+    }
+
+    static Stream<long[]> windows(LongStream s, int windowSize, boolean sliding) {
+        return sliding ? s.windowSliding(windowSize) : s.windowFixed(windowSize);
+    }
+
+    static Stream<double[]> windows(DoubleStream s, int windowSize, boolean sliding) {
+        return sliding ? s.windowSliding(windowSize) : s.windowFixed(windowSize);
+    }
+
+    public void testPrimitive() {
+        for (int size : SIZES) {
+            int[] ints = IntStreams.range(0, size).toArray();
+            long[] longs = LongStreams.range(0, size).toArray();
+            double[] doubles = J8Arrays.stream(ints).asDoubleStream().toArray();
+            for (int ws : WINDOW_SIZES) {
+                for (boolean sliding : new boolean[] {false, true}) {
+                    List<List<Integer>> exp = expected(size, ws, sliding);
+                    for (boolean parallel : new boolean[] {false, true}) {
+                        IntStream is = J8Arrays.stream(ints);
+                        LongStream ls = J8Arrays.stream(longs);
+                        // Not SIZED
+                        DoubleStream ds = J8Arrays.stream(doubles).filter(d -> true);
+                        if (parallel) {
+                            is = is.parallel();
+                            ls = ls.parallel();
+                            ds = ds.parallel();
+                        }
+                        List<int[]> iw = windows(is, ws, sliding).collect(Collectors.toList());
+                        List<int[]> lw = windows(ls, ws, sliding)
+                                .map(w -> J8Arrays.stream(w).mapToInt(l -> (int) l).toArray())
+                                .collect(Collectors.toList());
+                        List<int[]> dw = windows(ds, ws, sliding)
+                                .map(w -> J8Arrays.stream(w).mapToInt(d -> (int) d).toArray())
+                                .collect(Collectors.toList());
+                        assertEquals(boxed(iw), exp);
+                        assertEquals(boxed(lw), exp);
+                        assertEquals(boxed(dw), exp);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testMovingAverage() {
+        double[] data = new double[10_000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = i;
+        double[] avg = J8Arrays.stream(data).parallel().windowSliding(5)
+                .mapToDouble(w -> J8Arrays.stream(w).average().getAsDouble()).toArray();
+        assertEquals(avg.length, data.length - 4);
+        for (int i = 0; i < avg.length; i++)
+            assertEquals(avg[i], i + 2.0);
+    }
+
+    public void testShortCircuit() {
+        assertEquals(RefStreams.iterate(1, i -> i + 1).windowSliding(3).limit(2).collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(2, 3, 4)));
+        assertEquals(IntStreams.iterate(0, i -> i + 1).windowFixed(2).limit(3).count(), 3L);
+    }
+
+    public void testBoundPool() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Set<ForkJoinPool> pools = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            List<Integer> windowSums = StreamSupport.stream(IntStreams.range(0, 10_000).boxed().spliterator(), pool)
+                    .peek(i -> pools.add(currentPool()))
+                    .windowSliding(2)
+                    .map(w -> w.get(0) + w.get(1))
+                    .collect(Collectors.toList());
+            assertEquals(windowSums.size(), 9_999);
+            assertEquals(windowSums.get(9_998).intValue(), 9_998 + 9_999);
+            assertEquals(pools, Collections.singleton(pool));
+
+            pools.clear();
+            int[][] windows = StreamSupport.intStream(IntStreams.range(0, 10_000).spliterator(), pool)
+                    .peek(i -> pools.add(currentPool()))
+                    .windowFixed(3)
+                    .toArray(int[][]::new);
+            assertEquals(windows.length, 3_334);
+            assertEquals(windows[3_333], new int[] {9_999});
+            assertEquals(pools, Collections.singleton(pool));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    static ForkJoinPool currentPool() {
+        Thread t = Thread.currentThread();
+        return (t instanceof ForkJoinWorkerThread) ? ((ForkJoinWorkerThread) t).getPool() : null;
+    }
+
+    public void testDefaultWindows() {
+        assertEquals(DefaultMethodStreams.delegateTo(RefStreams.of(1, 2, 3)).windowSliding(2)
+                             .collect(Collectors.toList()),
+                     Arrays.asList(Arrays.asList(1, 2), Arrays.asList(2, 3)));
+        assertEquals(boxed(DefaultMethodStreams.delegateTo(IntStreams.range(0, 5)).windowFixed(2)
+                                   .collect(Collectors.toList())),
+                     expected(5, 2, false));
+        assertEquals(DefaultMethodStreams.delegateTo(LongStreams.range(0, 5)).windowSliding(2).count(), 4L);
+        assertEquals(DefaultMethodStreams.delegateTo(LongStreams.range(0, 5).asDoubleStream()).windowSliding(2).count(), 4L);
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOps(String name, TestData.OfRef<Integer> data) {
+        Collection<List<Integer>> result = exerciseOps(data, s -> s.windowFixed(3));
+        assertEquals(result.size(), (data.size() + 2) / 3);
+        result = exerciseOps(data, s -> s.windowSliding(3));
+        assertEquals(result.size(), data.size() == 0 ? 0 : Math.max(1, data.size() - 2));
+    }
+
+    @Test(dataProvider = "IntStreamTestData", dataProviderClass = IntStreamTestDataProvider.class)
+    public void testIntOps(String name, TestData.OfInt data) {
+        exerciseOps(data, s -> s.windowFixed(3).map(Arrays::toString));
+        exerciseOps(data, s -> s.windowSliding(3).map(Arrays::toString));
+    }
+
+    @Test(dataProvider = "LongStreamTestData", dataProviderClass = LongStreamTestDataProvider.class)
+    public void testLongOps(String name, TestData.OfLong data) {
+        exerciseOps(data, s -> s.windowFixed(3).map(Arrays::toString));
+        exerciseOps(data, s -> s.windowSliding(3).map(Arrays::toString));
+    }
+
+    @Test(dataProvider = "DoubleStreamTestData", dataProviderClass = DoubleStreamTestDataProvider.class)
+    public void testDoubleOps(String name, TestData.OfDouble data) {
+        exerciseOps(data, s -> s.windowFixed(3).map(Arrays::toString));
+        exerciseOps(data, s -> s.windowSliding(3).map(Arrays::toString));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Written by Stefan Zobel and released to the
+ * public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+package java8.util.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import java8.util.J8Arrays;
+import java8.util.Spliterator;
+import java8.util.Spliterators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class ZipTest {
+
+    static List<Integer> range(int from, int to) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    public void testRefZip() {
+        for (int[] sizes : new int[][] {{0, 0}, {0, 5}, {1, 1}, {7, 3}, {1000, 1000}, {1000, 2500}, {3000, 10}}) {
+            List<Integer> a = range(0, sizes[0]);
+            List<Integer> b = range(0, sizes[1]);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+                expected.add(a.get(i) + ":" + (-b.get(i)));
+            }
+            assertEquals(RefStreams.zip(StreamSupport.stream(a), StreamSupport.stream(b).map(i -> -i),
+                                        (x, y) -> x + ":" + y).collect(Collectors.toList()), expected);
+            assertEquals(RefStreams.zip(StreamSupport.parallelStream(a), StreamSupport.stream(b).map(i -> -i),
+                                        (x, y) -> x + ":" + y).collect(Collectors.toList()), expected);
+            assertEquals(RefStreams.zip(StreamSupport.stream(a), StreamSupport.parallelStream(b).map(i -> -i),
+                                        (x, y) -> x + ":" + y).count(), expected.size());
+        }
+    }
+
+    public void testPrimitiveZips() {
+        for (int n : new int[] {0, 1, 2, 17, 10_000}) {
+            int[] x = IntStreams.range(0, n).map(i -> i * 3).toArray();
+            int[] expected = IntStreams.range(0, n).map(i -> i * 3 + i).toArray();
+            assertEquals(IntStreams.zip(J8Arrays.stream(x), IntStreams.range(0, n), (u, v) -> u + v)
+                                   .parallel().toArray(), expected);
+            assertEquals(IntStreams.zip(J8Arrays.stream(x), IntStreams.range(0, n + 5), (u, v) -> u + v)
+                                   .toArray(), expected);
+            assertEquals(LongStreams.zip(LongStreams.range(0, n).parallel(), LongStreams.range(0, n),
+                                         (u, v) -> u * v).sum(),
+                         LongStreams.range(0, n).map(i -> i * i).sum());
+            double[] c = DoubleStreams.tabulate(n, i -> i / 2.0).toArray();
+            assertEquals(DoubleStreams.zip(J8Arrays.stream(c), J8Arrays.stream(c), (u, v) -> u * v)
+                                      .parallel().sum(),
+                         DoubleStreams.tabulate(n, i -> i / 2.0 * (i / 2.0)).sum());
+        }
+    }
+
+    public void testSplitsAtTheSameIndex() {
+        int[] x = new int[1000];
+        Spliterator.OfInt s = IntStreams.zip(J8Arrays.stream(x), IntStreams.range(0, 1000), (u, v) -> v)
+                                        .parallel().spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator.OfInt prefix = s.trySplit();
+        assertTrue(prefix instanceof Streams.ZipSpliterator);
+        assertEquals(prefix.getExactSizeIfKnown(), 500L);
+        assertEquals(s.getExactSizeIfKnown(), 500L);
+
+        // The concatenation splits after 10 elements, the array in halves
+        Spliterator.OfInt uneven = IntStreams.zip(J8Arrays.stream(x),
+                IntStreams.concat(IntStreams.range(0, 10), IntStreams.range(10, 1000)), (u, v) -> v).spliterator();
+        prefix = uneven.trySplit();
+        assertTrue(prefix instanceof Streams.ZipSpliterator);
+        assertEquals(prefix.getExactSizeIfKnown() + uneven.getExactSizeIfKnown(), 1000L);
+        assertEquals(IntStreams.zip(J8Arrays.stream(x),
+                IntStreams.concat(IntStreams.range(0, 10), IntStreams.range(10, 1000)), (u, v) -> v)
+                .parallel().toArray(), IntStreams.range(0, 1000).toArray());
+    }
+
+    public void testUnsizedSource() {
+        List<Integer> list = range(0, 5000);
+        Spliterator<Integer> unsized = Spliterators.spliteratorUnknownSize(list.iterator(), Spliterator.ORDERED);
+        Spliterator<Long> s = RefStreams.zip(StreamSupport.stream(unsized, false), LongStreams.range(0, 5000).boxed(),
+                                             (u, v) -> u + v).spliterator();
+        assertFalse(s.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(s.trySplit() instanceof Streams.ZipSpliterator);
+
+        unsized = Spliterators.spliteratorUnknownSize(list.iterator(), Spliterator.ORDERED);
+        assertEquals(RefStreams.zip(StreamSupport.stream(unsized, true), LongStreams.range(0, 5000).boxed(),
+                                    (u, v) -> u + v).collect(Collectors.toList()),
+                     LongStreams.range(0, 5000).map(i -> 2 * i).boxed().collect(Collectors.toList()));
+    }
+
+    public void testZipSpliterators() {
+        int[] x = IntStreams.range(0, 100).toArray();
+        SpliteratorTestHelper.testIntSpliterator(
+                () -> new Streams.ZipSpliterator.OfInt(J8Arrays.spliterator(x),
+                                                       IntStreams.range(0, 100).spliterator(), (u, v) -> u - v));
+        SpliteratorTestHelper.testIntSpliterator(
+                () -> new Streams.ZipSpliterator.OfInt(J8Arrays.spliterator(x),
+                                                       IntStreams.concat(IntStreams.range(0, 3),
+                                                                         IntStreams.range(3, 80)).spliterator(),
+                                                       (u, v) -> u - v));
+        SpliteratorTestHelper.testLongSpliterator(
+                () -> new Streams.ZipSpliterator.OfLong(LongStreams.range(0, 100).spliterator(),
+                                                        LongStreams.range(0, 70).spliterator(), (u, v) -> u + v));
+        SpliteratorTestHelper.testDoubleSpliterator(
+                () -> new Streams.ZipSpliterator.OfDouble(DoubleStreams.tabulate(50, i -> i).spliterator(),
+                                                          DoubleStreams.tabulate(50, i -> i).spliterator(),
+                                                          (u, v) -> u / 2 + v));
+        List<Integer> list = range(0, 100);
+        SpliteratorTestHelper.testSpliterator(
+                () -> new Streams.ZipSpliterator.OfRef<Integer, Integer, Integer>(
+                        Spliterators.spliterator(list), Spliterators.spliteratorUnknownSize(list.iterator(), 0),
+                        (u, v) -> u * v));
+    }
+
+    public void testClose() {
+        int[] closed = new int[2];
+        Stream<Integer> a = RefStreams.of(1, 2, 3).onClose(() -> closed[0]++);
+        Stream<Integer> b = RefStreams.of(4, 5).onClose(() -> closed[1]++);
+        Stream<Integer> zipped = RefStreams.zip(a, b, (u, v) -> u * v);
+        assertEquals(zipped.collect(Collectors.toList()), Arrays.asList(4, 10));
+        zipped.close();
+        assertEquals(closed[0], 1);
+        assertEquals(closed[1], 1);
+    }
+}
@@ -27,6 +27,7 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 
 import java8.lang.Iterables;
@@ -172,6 +173,52 @@ public class DistinctOpTest extends OpTestCase {
         assertSorted(result);
     }
 
+    public void testExpectedSize() {
+        try {
+            StreamSupport.stream(countTo(10)).distinct(-1);
+            fail("expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException expected) {
+        }
+        try {
+            DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(10))).distinct(-1);
+            fail("expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException expected) {
+        }
+        assertCountSum(StreamSupport.stream(repeat(1, 10)).distinct(0), 1, 1);
+        assertCountSum(StreamSupport.stream(countTo(10)).distinct(5), 10, 55);
+        assertCountSum(StreamSupport.parallelStream(countTo(10)).unordered().distinct(1000), 10, 55);
+        assertCountSum(DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(10))).distinct(10), 10, 55);
+    }
+
+    public void testShardedUnordered() {
+        // Many duplicates, many distinct keys, and null, which goes into the first shard
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            input.add((i % 3 == 0) ? null : i % 20_000);
+        }
+        HashSet<Integer> expected = new HashSet<>(input);
+        for (long hint : new long[] {-1, 0, 100, 20_001}) {
+            Stream<Integer> s = StreamSupport.parallelStream(input).unordered();
+            List<Integer> result = (hint < 0 ? s.distinct() : s.distinct(hint)).collect(Collectors.toList());
+            assertEquals(result.size(), expected.size());
+            assertEquals(new HashSet<>(result), expected);
+        }
+        assertEquals(StreamSupport.parallelStream(input).unordered().filter(i -> i == null).distinct().count(), 1L);
+    }
+
+    @Test(dataProvider = "withNull:StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOpWithExpectedSize(String name, TestData.OfRef<Integer> data) {
+        Collection<Integer> node = exerciseOps(data, s -> s.distinct(data.size()));
+        assertUnique(node);
+
+        node = withData(data).
+                stream(s -> s.unordered().distinct(1)).
+                exercise();
+        assertUnique(node);
+    }
+
     @Test(groups = { "serialization-hostile" })
     public void testStable() {
         // Create N instances of Integer all with the same value
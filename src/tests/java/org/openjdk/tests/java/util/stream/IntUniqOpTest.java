@@ -22,7 +22,13 @@
  */
 package org.openjdk.tests.java.util.stream;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import java8.util.J8Arrays;
 
 import java8.util.stream.*;
 
@@ -70,4 +76,79 @@ public class IntUniqOpTest extends OpTestCase {
             assertTrue(result.size() == 0);
         assertTrue(result.size() <= data.size());
     }
+
+    public void testEncounterOrder() {
+        int[] data = new int[100_000];
+        Random r = new Random(42);
+        for (int i = 0; i < data.length; i++)
+            data[i] = r.nextInt(5_000) - 2_500;
+        LinkedHashSet<Integer> expected = new LinkedHashSet<>();
+        for (int i : data)
+            expected.add(i);
+        List<Integer> exp = new ArrayList<>(expected);
+
+        assertEquals(J8Arrays.stream(data).distinct().boxed().collect(Collectors.toList()), exp);
+        assertEquals(J8Arrays.stream(data).parallel().distinct().boxed().collect(Collectors.toList()), exp);
+        assertEquals(J8Arrays.stream(data).asLongStream().parallel().distinct().boxed()
+                             .collect(Collectors.toList()).size(), exp.size());
+        assertEquals(J8Arrays.stream(data).asDoubleStream().parallel().distinct().count(), (long) exp.size());
+        assertEquals(J8Arrays.stream(data).parallel().unordered().distinct().count(), (long) exp.size());
+        assertEquals(J8Arrays.stream(data).filter(i -> true).unordered().distinct().count(), (long) exp.size());
+    }
+
+    public void testUnorderedParallelIsLazy() {
+        // An infinite source only terminates if distinct() is evaluated lazily
+        int[] ints = IntStreams.iterate(0, i -> i + 1).parallel().unordered().distinct().limit(5).toArray();
+        assertEquals(ints.length, 5);
+        assertEquals(IntStreams.of(ints).distinct().count(), 5L);
+        long[] longs = LongStreams.iterate(0, i -> i + 1).parallel().unordered().distinct().limit(5).toArray();
+        assertEquals(LongStreams.of(longs).distinct().count(), 5L);
+        assertTrue(DoubleStreams.iterate(0.0, d -> d + 1.0).parallel().unordered().distinct()
+                                .anyMatch(d -> d >= 1000.0));
+        // Duplicates are still removed
+        assertEquals(IntStreams.iterate(0, i -> (i + 1) % 3).parallel().unordered().distinct().limit(3)
+                               .sorted().toArray(), new int[] {0, 1, 2});
+    }
+
+    public void testExtremeValues() {
+        assertEquals(IntStreams.of(0, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1).distinct().toArray(),
+                     new int[] {0, Integer.MIN_VALUE, Integer.MAX_VALUE, -1});
+        assertEquals(LongStreams.of(0L, Long.MIN_VALUE, 0L, Long.MAX_VALUE, Long.MIN_VALUE).parallel().distinct().toArray(),
+                     new long[] {0L, Long.MIN_VALUE, Long.MAX_VALUE});
+    }
+
+    public void testDoubleEquality() {
+        // Like Double.equals(): NaN equals NaN, 0.0 does not equal -0.0
+        double[] expected = {0.0, Double.NaN, -0.0, 1.0};
+        double[] data = {0.0, Double.NaN, -0.0, 0.0, Double.NaN, 1.0, -0.0};
+        for (boolean parallel : new boolean[] {false, true}) {
+            DoubleStream s = J8Arrays.stream(data);
+            double[] result = (parallel ? s.parallel() : s).distinct().toArray();
+            assertEquals(result.length, expected.length);
+            for (int i = 0; i < result.length; i++)
+                assertEquals(Double.doubleToLongBits(result[i]), Double.doubleToLongBits(expected[i]));
+        }
+        // Sorted input takes the adjacent values path
+        assertEquals(DoubleStreams.of(-0.0, 0.0, 0.0, 1.0, Double.NaN, Double.NaN).sorted().distinct().count(), 4L);
+    }
+
+    @Test(dataProvider = "LongStreamTestData", dataProviderClass = LongStreamTestDataProvider.class)
+    public void testLongOp(String name, TestData.OfLong data) {
+        Collection<Long> result = exerciseOps(data, (LongStream s) -> s.distinct().boxed());
+
+        assertUnique(result);
+        assertTrue(result.size() <= data.size());
+        result = exerciseOps(data, (LongStream s) -> s.sorted().distinct().boxed());
+        assertUnique(result);
+    }
+
+    @Test(dataProvider = "DoubleStreamTestData", dataProviderClass = DoubleStreamTestDataProvider.class)
+    public void testDoubleOp(String name, TestData.OfDouble data) {
+        Collection<Double> result = exerciseOps(data, (DoubleStream s) -> s.distinct().boxed());
+
+        assertUnique(result);
+        assertTrue(result.size() <= data.size());
+        result = exerciseOps(data, (DoubleStream s) -> s.sorted().distinct().boxed());
+        assertUnique(result);
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Test mapMulti(BiConsumer) and primitive stream operations
+ * @bug 8238286 8238287
+ */
+package org.openjdk.tests.java.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import java8.util.function.BiConsumer;
+import java8.util.function.Consumer;
+import java8.util.function.DoubleConsumer;
+import java8.util.function.IntConsumer;
+import java8.util.function.LongConsumer;
+import java8.util.stream.DefaultMethodStreams;
+import java8.util.stream.DoubleStreamTestDataProvider;
+import java8.util.stream.DoubleStreams;
+import java8.util.stream.IntStreamTestDataProvider;
+import java8.util.stream.IntStreams;
+import java8.util.stream.LongStreamTestDataProvider;
+import java8.util.stream.LongStreams;
+import java8.util.stream.OpTestCase;
+import java8.util.stream.RefStreams;
+import java8.util.stream.Stream;
+import java8.util.stream.StreamSupport;
+import java8.util.stream.StreamTestDataProvider;
+import java8.util.stream.TestData;
+import static java8.util.stream.LambdaTestHelpers.*;
+import static java8.util.stream.ThrowableHelper.checkNPE;
+
+@Test
+public class MapMultiOpTest extends OpTestCase {
+
+    static final BiConsumer<Integer, Consumer<Integer>> nullConsumer = (e, sink) -> {};
+
+    static final BiConsumer<Integer, Consumer<Integer>> idConsumer = (e, sink) -> sink.accept(e);
+
+    static final BiConsumer<Integer, Consumer<Integer>> ltConsumer = (e, sink) -> {
+        for (int i = 0; i < e; i++) {
+            sink.accept(i);
+        }
+    };
+
+    static final BiConsumer<String, Consumer<Character>> charConsumer = (s, sink) -> {
+        for (int i = 0; i < s.length(); i++) {
+            sink.accept(s.charAt(i));
+        }
+    };
+
+    public void testNullMapper() {
+        checkNPE(() -> RefStreams.of(1).mapMulti(null));
+        checkNPE(() -> RefStreams.of(1).mapMultiToInt(null));
+        checkNPE(() -> RefStreams.of(1).mapMultiToLong(null));
+        checkNPE(() -> RefStreams.of(1).mapMultiToDouble(null));
+        checkNPE(() -> IntStreams.of(1).mapMulti(null));
+        checkNPE(() -> LongStreams.of(1).mapMulti(null));
+        checkNPE(() -> DoubleStreams.of(1).mapMulti(null));
+    }
+
+    public void testMapMulti() {
+        String[] stringsArray = {"hello", "there", "", "yada"};
+        Stream<String> strings = StreamSupport.stream(Arrays.asList(stringsArray));
+        assertConcat(strings.mapMulti(charConsumer).iterator(), "hellothereyada");
+
+        assertCountSum(StreamSupport.stream(countTo(10)).mapMulti(idConsumer), 10, 55);
+        assertCountSum(StreamSupport.stream(countTo(10)).mapMulti(nullConsumer), 0, 0);
+        assertCountSum(StreamSupport.stream(countTo(3)).mapMulti(ltConsumer), 6, 4);
+
+        exerciseOps(TestData.Factory.ofArray("stringsArray", stringsArray), s -> s.mapMulti(charConsumer));
+        exerciseOps(TestData.Factory.ofArray("LONG_STRING", new String[] {LONG_STRING}), s -> s.mapMulti(charConsumer));
+    }
+
+    public void testDefaultMapMulti() {
+        assertCountSum(DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(10))).mapMulti(idConsumer), 10, 55);
+        assertCountSum(DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(3))).mapMulti(ltConsumer), 6, 4);
+        assertEquals(DefaultMethodStreams.delegateTo(StreamSupport.stream(countTo(3)))
+                             .mapMultiToInt((Integer e, IntConsumer sink) -> sink.accept(e)).sum(), 6);
+        assertEquals(DefaultMethodStreams.delegateTo(IntStreams.range(0, 4))
+                             .mapMulti((e, sink) -> { sink.accept(e); sink.accept(e); }).sum(), 12);
+    }
+
+    public void testShortCircuit() {
+        // an infinite number of replacement elements must be cut short by limit()
+        assertEquals(RefStreams.of(1).mapMulti((Integer e, Consumer<Integer> sink) -> {
+            for (int i = 0; i < 10; i++)
+                sink.accept(i);
+        }).limit(3).count(), 3L);
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOps(String name, TestData.OfRef<Integer> data) {
+        Collection<Integer> result = exerciseOps(data, s -> s.mapMulti(idConsumer));
+        assertEquals(data.size(), result.size());
+
+        result = exerciseOps(data, s -> s.mapMulti(nullConsumer));
+        assertEquals(0, result.size());
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>.small", dataProviderClass = StreamTestDataProvider.class)
+    public void testOpsX(String name, TestData.OfRef<Integer> data) {
+        exerciseOps(data, s -> s.mapMulti(ltConsumer));
+        exerciseOps(data, s -> s.mapMultiToInt((Integer e, IntConsumer sink) -> {
+            for (int i = 0; i < e; i++)
+                sink.accept(i);
+        }));
+        exerciseOps(data, s -> s.mapMultiToLong((Integer e, LongConsumer sink) -> {
+            for (long i = 0; i < e; i++)
+                sink.accept(i);
+        }));
+        exerciseOps(data, s -> s.mapMultiToDouble((Integer e, DoubleConsumer sink) -> {
+            for (double i = 0; i < e; i++)
+                sink.accept(i);
+        }));
+    }
+
+    //
+
+    @Test(dataProvider = "IntStreamTestData", dataProviderClass = IntStreamTestDataProvider.class)
+    public void testIntOps(String name, TestData.OfInt data) {
+        Collection<Integer> result = exerciseOps(data, s -> s.mapMulti((e, sink) -> sink.accept(e)));
+        assertEquals(data.size(), result.size());
+        assertContents(data, result);
+
+        result = exerciseOps(data, s -> s.mapMulti((e, sink) -> {}));
+        assertEquals(0, result.size());
+    }
+
+    @Test(dataProvider = "IntStreamTestData.small", dataProviderClass = IntStreamTestDataProvider.class)
+    public void testIntOpsX(String name, TestData.OfInt data) {
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> IntStreams.range(0, e).forEach(sink)));
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> IntStreams.range(0, e).limit(10).forEach(sink)));
+    }
+
+    //
+
+    @Test(dataProvider = "LongStreamTestData", dataProviderClass = LongStreamTestDataProvider.class)
+    public void testLongOps(String name, TestData.OfLong data) {
+        Collection<Long> result = exerciseOps(data, s -> s.mapMulti((e, sink) -> sink.accept(e)));
+        assertEquals(data.size(), result.size());
+        assertContents(data, result);
+
+        result = exerciseOps(data, s -> s.mapMulti((e, sink) -> {}));
+        assertEquals(0, result.size());
+    }
+
+    @Test(dataProvider = "LongStreamTestData.small", dataProviderClass = LongStreamTestDataProvider.class)
+    public void testLongOpsX(String name, TestData.OfLong data) {
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> LongStreams.range(0, e).forEach(sink)));
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> LongStreams.range(0, e).limit(10).forEach(sink)));
+    }
+
+    //
+
+    @Test(dataProvider = "DoubleStreamTestData", dataProviderClass = DoubleStreamTestDataProvider.class)
+    public void testDoubleOps(String name, TestData.OfDouble data) {
+        Collection<Double> result = exerciseOps(data, s -> s.mapMulti((e, sink) -> sink.accept(e)));
+        assertEquals(data.size(), result.size());
+        assertContents(data, result);
+
+        result = exerciseOps(data, s -> s.mapMulti((e, sink) -> {}));
+        assertEquals(0, result.size());
+    }
+
+    @Test(dataProvider = "DoubleStreamTestData.small", dataProviderClass = DoubleStreamTestDataProvider.class)
+    public void testDoubleOpsX(String name, TestData.OfDouble data) {
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> IntStreams.range(0, (int) e).asDoubleStream().forEach(sink)));
+        exerciseOps(data, s -> s.mapMulti((e, sink) -> IntStreams.range(0, (int) e).limit(10).asDoubleStream().forEach(sink)));
+    }
+}
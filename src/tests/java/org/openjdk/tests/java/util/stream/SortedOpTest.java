@@ -22,12 +22,15 @@
  */
 package org.openjdk.tests.java.util.stream;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java8.util.J8Arrays;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.testng.annotations.Test;
 
@@ -38,8 +41,6 @@ import java8.util.OptionalInt;
 import java8.util.OptionalLong;
 import java8.util.Spliterator;
 import java8.util.Spliterators;
-import java8.util.function.Function;
-import java8.util.function.Supplier;
 import java8.util.stream.*;
 
 import static java8.util.stream.LambdaTestHelpers.*;
@@ -52,68 +53,6 @@ import static java8.util.stream.LambdaTestHelpers.*;
 @Test
 public class SortedOpTest extends OpTestCase {
 
-    public void testRefStreamTooLarge() {
-        Function<LongStream, Stream<Long>> f = s ->
-                // Clear the SORTED flag
-                s.mapToObj(i -> i)
-                .sorted();
-
-        testStreamTooLarge(f, Stream::findFirst);
-    }
-
-    public void testIntStreamTooLarge() {
-        Function<LongStream, IntStream> f = s ->
-                // Clear the SORTED flag
-                s.mapToInt(i -> (int) i)
-                .sorted();
-
-        testStreamTooLarge(f, IntStream::findFirst);
-    }
-
-    public void testLongStreamTooLarge() {
-        Function<LongStream, LongStream> f = s ->
-                // Clear the SORTED flag
-                s.map(i -> i)
-                .sorted();
-
-        testStreamTooLarge(f, LongStream::findFirst);
-    }
-
-    public void testDoubleStreamTooLarge() {
-        Function<LongStream, DoubleStream> f = s ->
-                // Clear the SORTED flag
-                s.mapToDouble(i -> (double) i)
-                .sorted();
-
-        testStreamTooLarge(f, DoubleStream::findFirst);
-    }
-
-    <T, S extends BaseStream<T, S>> void testStreamTooLarge(Function<LongStream, S> s,
-                                                            Function<S, ?> terminal) {
-        // Set up conditions for a large input > maximum array size
-        Supplier<LongStream> input = () -> LongStreams.range(0, 1L + Integer.MAX_VALUE);
-
-        // Transformation functions
-        List<Function<LongStream, LongStream>> transforms = Arrays.asList(
-                ls -> ls,
-                ls -> ls.parallel(),
-                // Clear the SIZED flag
-                ls -> ls.limit(Long.MAX_VALUE),
-                ls -> ls.limit(Long.MAX_VALUE).parallel());
-
-        for (Function<LongStream, LongStream> transform : transforms) {
-            RuntimeException caught = null;
-            try {
-                terminal.apply(s.apply(transform.apply(input.get())));
-            } catch (RuntimeException e) {
-                caught = e;
-            }
-            assertNotNull(caught, "Expected an instance of exception IllegalArgumentException but no exception thrown");
-            assertTrue(caught instanceof IllegalArgumentException,
-                       String.format("Expected an instance of exception IllegalArgumentException but got %s", caught));
-        }
-    }
-
     public void testSorted() {
         assertCountSum(StreamSupport.stream(countTo(0)).sorted(), 0, 0);
         assertCountSum(StreamSupport.stream(countTo(10)).sorted(), 10, 55);
@@ -333,4 +272,96 @@ public class SortedOpTest extends OpTestCase {
         assertSorted(result);
         assertContentsUnordered(data, result);
     }
+
+    // Top-K, sorted() directly followed by limit()
+
+    static final int[] TOP_K_SIZES = {0, 1, 10, 1000};
+    static final int[] TOP_K_LIMITS = {0, 1, 5, 100, 2000};
+
+    public void testTopK() {
+        Random random = new Random(42);
+        for (int size : TOP_K_SIZES) {
+            // Many equal keys, the index part checks the sort is stable
+            List<String> data = new ArrayList<>();
+            for (int i = 0; i < size; i++)
+                data.add(random.nextInt(10) + ":" + i);
+            Comparator<String> byKey = Comparators.comparingInt(e -> e.charAt(0));
+            List<String> sorted = new ArrayList<>(data);
+            Collections.sort(sorted, byKey);
+            for (int k : TOP_K_LIMITS) {
+                List<String> expected = sorted.subList(0, Math.min(k, size));
+                for (boolean parallel : new boolean[] {false, true}) {
+                    Stream<String> s = parallel ? StreamSupport.parallelStream(data) : StreamSupport.stream(data);
+                    assertEquals(s.sorted(byKey).limit(k).collect(Collectors.toList()), expected);
+                    s = parallel ? StreamSupport.parallelStream(data) : StreamSupport.stream(data);
+                    // Not SIZED
+                    assertEquals(s.filter(e -> true).sorted(byKey).limit(k).toArray(String[]::new),
+                                 expected.toArray(new String[0]));
+                    s = parallel ? StreamSupport.parallelStream(data) : StreamSupport.stream(data);
+                    assertEquals(s.sorted(byKey).skip(1).limit(k).collect(Collectors.toList()),
+                                 sorted.subList(Math.min(1, size), Math.min(k + 1, size)));
+                }
+            }
+        }
+    }
+
+    public void testPrimitiveTopK() {
+        Random random = new Random(42);
+        for (int size : TOP_K_SIZES) {
+            int[] ints = new int[size];
+            long[] longs = new long[size];
+            double[] doubles = new double[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = random.nextInt(100) - 50;
+                longs[i] = random.nextLong();
+                doubles[i] = i % 10 == 0 ? Double.NaN : i % 10 == 1 ? -0.0 : random.nextInt(100) - 50;
+            }
+            int[] sortedInts = ints.clone();
+            long[] sortedLongs = longs.clone();
+            double[] sortedDoubles = doubles.clone();
+            Arrays.sort(sortedInts);
+            Arrays.sort(sortedLongs);
+            Arrays.sort(sortedDoubles);
+            for (int k : TOP_K_LIMITS) {
+                int n = Math.min(k, size);
+                for (boolean parallel : new boolean[] {false, true}) {
+                    IntStream is = J8Arrays.stream(ints);
+                    LongStream ls = J8Arrays.stream(longs).filter(l -> true);
+                    DoubleStream ds = J8Arrays.stream(doubles);
+                    if (parallel) {
+                        is = is.parallel();
+                        ls = ls.parallel();
+                        ds = ds.parallel();
+                    }
+                    assertEquals(is.sorted().limit(k).toArray(), Arrays.copyOf(sortedInts, n));
+                    assertEquals(ls.sorted().limit(k).toArray(), Arrays.copyOf(sortedLongs, n));
+                    assertTrue(Arrays.equals(ds.sorted().limit(k).toArray(), Arrays.copyOf(sortedDoubles, n)));
+                }
+            }
+        }
+    }
+
+    public void testTopKShortCircuitTerminal() {
+        assertEquals(StreamSupport.stream(Arrays.asList(5, 4, 3, 2, 1)).sorted().limit(3).findFirst(), Optional.of(1));
+        assertEquals(J8Arrays.stream(new int[] {5, 4, 3, 2, 1}).sorted().limit(3).max(), OptionalInt.of(3));
+        assertEquals(LongStreams.of(5, 4, 3, 2, 1).sorted().limit(2).anyMatch(l -> l == 2), true);
+        assertEquals(DoubleStreams.of(5, 4, 3, 2, 1).parallel().sorted().limit(2).sum(), 3.0);
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testTopKOps(String name, TestData.OfRef<Integer> data) {
+        for (int k : new int[] {0, 1, 10}) {
+            Collection<Integer> result = exerciseOpsInt(data,
+                                                        s -> s.sorted().limit(k),
+                                                        s -> s.sorted().limit(k),
+                                                        s -> s.sorted().limit(k),
+                                                        s -> s.sorted().limit(k));
+            assertSorted(result.iterator());
+            assertEquals(result.size(), Math.min(k, data.size()));
+
+            result = exerciseOps(data, s -> s.sorted(Comparators.reversed(cInteger)).limit(k));
+            assertSorted(result.iterator(), Comparators.reversed(cInteger));
+            assertEquals(result.size(), Math.min(k, data.size()));
+        }
+    }
 }
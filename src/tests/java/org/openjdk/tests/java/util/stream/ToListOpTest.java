@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Test Stream.toList()
+ * @bug 8256441
+ */
+package org.openjdk.tests.java.util.stream;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import java8.util.Lists;
+import java8.util.stream.Collectors;
+import java8.util.stream.DefaultMethodStreams;
+import java8.util.stream.IntStreams;
+import java8.util.stream.OpTestCase;
+import java8.util.stream.RefStreams;
+import java8.util.stream.Stream;
+import java8.util.stream.StreamTestDataProvider;
+import java8.util.stream.TestData;
+
+@Test
+public class ToListOpTest extends OpTestCase {
+
+    static void assertUnmodifiable(List<Integer> list) {
+        try {
+            list.add(0);
+            fail("expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException expected) {
+        }
+        if (!list.isEmpty()) {
+            try {
+                list.set(0, 0);
+                fail("expected UnsupportedOperationException");
+            }
+            catch (UnsupportedOperationException expected) {
+            }
+        }
+    }
+
+    public void testToList() {
+        for (int size : new int[] {0, 1, 10, 1000}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++)
+                expected.add(i);
+            for (boolean parallel : new boolean[] {false, true}) {
+                // SIZED
+                Stream<Integer> s = IntStreams.range(0, size).boxed();
+                List<Integer> list = (parallel ? s.parallel() : s).toList();
+                assertEquals(list, expected);
+                assertUnmodifiable(list);
+                // Not SIZED
+                s = IntStreams.range(0, size).boxed().filter(i -> true);
+                list = (parallel ? s.parallel() : s).toList();
+                assertEquals(list, expected);
+                assertUnmodifiable(list);
+            }
+        }
+    }
+
+    public void testNullsAllowed() {
+        List<Integer> list = RefStreams.of(1, null, 3).toList();
+        assertEquals(list, Arrays.asList(1, null, 3));
+        assertTrue(list.contains(null));
+        assertEquals(list.indexOf(null), 1);
+        assertEquals(list.hashCode(), Arrays.asList(1, null, 3).hashCode());
+
+        // copyOf must not return the list as is since it contains nulls
+        try {
+            Lists.copyOf(list);
+            fail("expected NullPointerException");
+        }
+        catch (NullPointerException expected) {
+        }
+        List<Integer> copy = Lists.copyOf(RefStreams.of(1, 2, 3).toList());
+        assertEquals(copy, Arrays.asList(1, 2, 3));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        List<Integer> list = RefStreams.of(1, null, 3).toList();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(list);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            List<Integer> copy = (List<Integer>) ois.readObject();
+            assertEquals(copy, list);
+            assertUnmodifiable(copy);
+        }
+    }
+
+    public void testDefaultToList() {
+        List<Integer> list = DefaultMethodStreams.delegateTo(RefStreams.of(1, null, 3)).toList();
+        assertEquals(list, Arrays.asList(1, null, 3));
+        assertUnmodifiable(list);
+    }
+
+    @Test(dataProvider = "StreamTestData<Integer>", dataProviderClass = StreamTestDataProvider.class)
+    public void testOps(String name, TestData.OfRef<Integer> data) {
+        List<Integer> result = exerciseTerminalOps(data, s -> s.toList());
+        assertEquals(result.size(), data.size());
+        assertEquals(result, data.stream().collect(Collectors.toList()));
+        result = exerciseTerminalOps(data, s -> s.filter(i -> true), s -> s.toList());
+        assertEquals(result.size(), data.size());
+    }
+}